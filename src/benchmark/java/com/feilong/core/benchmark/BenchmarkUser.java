@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 基准测试使用的 bean.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class BenchmarkUser{
+
+    /** The id. */
+    private Long               id;
+
+    /** The name. */
+    private String             name;
+
+    /** The age. */
+    private Integer            age;
+
+    /** The amount. */
+    private BigDecimal         amount;
+
+    /** The create time. */
+    private Date               createTime;
+
+    /** The benchmark user info. */
+    private BenchmarkUserInfo  userInfo   = new BenchmarkUserInfo();
+
+    //---------------------------------------------------------------
+
+    /**
+     * 构造 <code>size</code> 个 user, name 有 <code>distinctNameCount</code> 种, age 有 100 种.
+     *
+     * @param size
+     *            the size
+     * @param distinctNameCount
+     *            the distinct name count
+     * @return the list
+     */
+    public static List<BenchmarkUser> buildList(int size,int distinctNameCount){
+        List<BenchmarkUser> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            BenchmarkUser user = new BenchmarkUser();
+            user.setId((long) i);
+            user.setName("name" + (i % distinctNameCount));
+            user.setAge((i * 31) % 100);
+            user.setAmount(new BigDecimal(i % 1000).movePointLeft(2));
+            user.setCreateTime(new Date(1500000000000L + i * 60000L));
+            user.getUserInfo().setAge(i % 50);
+            list.add(user);
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Gets the id.
+     *
+     * @return the id
+     */
+    public Long getId(){
+        return id;
+    }
+
+    /**
+     * Sets the id.
+     *
+     * @param id
+     *            the id to set
+     */
+    public void setId(Long id){
+        this.id = id;
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Sets the name.
+     *
+     * @param name
+     *            the name to set
+     */
+    public void setName(String name){
+        this.name = name;
+    }
+
+    /**
+     * Gets the age.
+     *
+     * @return the age
+     */
+    public Integer getAge(){
+        return age;
+    }
+
+    /**
+     * Sets the age.
+     *
+     * @param age
+     *            the age to set
+     */
+    public void setAge(Integer age){
+        this.age = age;
+    }
+
+    /**
+     * Gets the amount.
+     *
+     * @return the amount
+     */
+    public BigDecimal getAmount(){
+        return amount;
+    }
+
+    /**
+     * Sets the amount.
+     *
+     * @param amount
+     *            the amount to set
+     */
+    public void setAmount(BigDecimal amount){
+        this.amount = amount;
+    }
+
+    /**
+     * Gets the creates the time.
+     *
+     * @return the createTime
+     */
+    public Date getCreateTime(){
+        return createTime;
+    }
+
+    /**
+     * Sets the creates the time.
+     *
+     * @param createTime
+     *            the createTime to set
+     */
+    public void setCreateTime(Date createTime){
+        this.createTime = createTime;
+    }
+
+    /**
+     * Gets the user info.
+     *
+     * @return the userInfo
+     */
+    public BenchmarkUserInfo getUserInfo(){
+        return userInfo;
+    }
+
+    /**
+     * Sets the user info.
+     *
+     * @param userInfo
+     *            the userInfo to set
+     */
+    public void setUserInfo(BenchmarkUserInfo userInfo){
+        this.userInfo = userInfo;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.beanutils.converters.BigDecimalConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+
+import com.feilong.core.bean.ConvertUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ConvertUtil} 的基准测试.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3,time = 1)
+@Measurement(iterations = 5,time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertUtilBenchmark{
+
+    /** "1,2,3,...,100000". */
+    private String ids;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Setup.
+     */
+    @Setup
+    public void setup(){
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= 100000; ++i){
+            sb.append(i > 1 ? "," : "").append(i);
+        }
+        ids = sb.toString();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Ids to int array.
+     *
+     * @return the int[]
+     */
+    @Benchmark
+    public int[] toIntArrayFromDelimitedString(){
+        return ConvertUtil.toIntArray(ids, ',');
+    }
+
+    /**
+     * Ids to integers.
+     *
+     * @return the integer[]
+     */
+    @Benchmark
+    public Integer[] toIntegersFromDelimitedString(){
+        return ConvertUtil.toIntegers(ids);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * String to integer.
+     *
+     * @return the integer
+     */
+    @Benchmark
+    public Integer toIntegerFromString(){
+        return ConvertUtil.toInteger("12345");
+    }
+
+    /**
+     * Integer to integer.
+     *
+     * @return the integer
+     */
+    @Benchmark
+    public Integer toIntegerFromInteger(){
+        return ConvertUtil.toInteger(12345);
+    }
+
+    /**
+     * String to integer, 每次创建 converter(原来的实现).
+     *
+     * @return the integer
+     */
+    @Benchmark
+    public Integer toIntegerFromStringNewConverter(){
+        return new IntegerConverter(null).convert(Integer.class, "12345");
+    }
+
+    /**
+     * Long to integer.
+     *
+     * @return the integer
+     */
+    @Benchmark
+    public Integer toIntegerFromLong(){
+        return ConvertUtil.toInteger(12345L);
+    }
+
+    /**
+     * String to long.
+     *
+     * @return the long
+     */
+    @Benchmark
+    public Long toLongFromString(){
+        return ConvertUtil.toLong("1234567890");
+    }
+
+    /**
+     * Integer to long.
+     *
+     * @return the long
+     */
+    @Benchmark
+    public Long toLongFromInteger(){
+        return ConvertUtil.toLong(12345);
+    }
+
+    /**
+     * String to big decimal.
+     *
+     * @return the big decimal
+     */
+    @Benchmark
+    public BigDecimal toBigDecimalFromString(){
+        return ConvertUtil.toBigDecimal("123.45");
+    }
+
+    /**
+     * String to big decimal, 每次创建 converter(原来的实现).
+     *
+     * @return the big decimal
+     */
+    @Benchmark
+    public BigDecimal toBigDecimalFromStringNewConverter(){
+        return new BigDecimalConverter(null).convert(BigDecimal.class, "123.45");
+    }
+
+    /**
+     * Double to big decimal.
+     *
+     * @return the big decimal
+     */
+    @Benchmark
+    public BigDecimal toBigDecimalFromDouble(){
+        return ConvertUtil.toBigDecimal(123.45d);
+    }
+
+    /**
+     * String to boolean.
+     *
+     * @return the boolean
+     */
+    @Benchmark
+    public Boolean toBooleanFromString(){
+        return ConvertUtil.toBoolean("true");
+    }
+
+    /**
+     * Convert integer to integer.
+     *
+     * @return the integer
+     */
+    @Benchmark
+    public Integer convertIntegerToInteger(){
+        return ConvertUtil.convert(12345, Integer.class);
+    }
+
+    /**
+     * Convert string to big decimal.
+     *
+     * @return the big decimal
+     */
+    @Benchmark
+    public BigDecimal convertToBigDecimal(){
+        return ConvertUtil.convert("123.45", BigDecimal.class);
+    }
+
+    /**
+     * Convert string to long.
+     *
+     * @return the long
+     */
+    @Benchmark
+    public Long convertToLong(){
+        return ConvertUtil.convert("1234567890", Long.class);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.TIMESTAMP_WITH_MILLISECOND;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.time.DateFormatUtils;
+
+import com.feilong.core.date.DateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DateUtil} 的基准测试.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3,time = 1)
+@Measurement(iterations = 5,time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateUtilBenchmark{
+
+    /** The date. */
+    private final Date date = new Date(1500000000000L);
+
+    //---------------------------------------------------------------
+
+    /**
+     * To date.
+     *
+     * @return the date
+     */
+    @Benchmark
+    public Date toDate(){
+        return DateUtil.toDate("2017-07-14 10:40:00", COMMON_DATE_AND_TIME);
+    }
+
+    /**
+     * To date with multiple patterns, 第一个 pattern 不匹配.
+     *
+     * @return the date
+     */
+    @Benchmark
+    public Date toDateMultiplePatterns(){
+        return DateUtil.toDate("2017-07-14", COMMON_DATE_AND_TIME, COMMON_DATE);
+    }
+
+    /**
+     * To string.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String toStringDate(){
+        return DateUtil.toString(date, COMMON_DATE_AND_TIME);
+    }
+
+    /**
+     * 原来的方式,作为 {@link #toStringDate()} 的对照.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String toStringDateFormatUtils(){
+        return DateFormatUtils.format(date, COMMON_DATE_AND_TIME);
+    }
+
+    /**
+     * 带毫秒的时间戳,同一秒内的调用复用秒级缓存.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String nowStringTimestampWithMillisecond(){
+        return DateUtil.nowString(TIMESTAMP_WITH_MILLISECOND);
+    }
+
+    /**
+     * 原来的方式,作为 {@link #nowStringTimestampWithMillisecond()} 的对照.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String nowStringTimestampWithMillisecondFormatUtils(){
+        return DateFormatUtils.format(new Date(), TIMESTAMP_WITH_MILLISECOND);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import static com.feilong.core.CharsetType.UTF8;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.feilong.core.net.ParamUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ParamUtil} 的基准测试.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3,time = 1)
+@Measurement(iterations = 5,time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParamUtilBenchmark{
+
+    /** The uri string. */
+    private static final String   URI_STRING = "http://www.feilong.com:8888/esprit-frontend/search.htm?keyword=%E6%81%A4&page=1";
+
+    /** The single value map. */
+    private Map<String, String>   singleValueMap;
+
+    /** The array value map. */
+    private Map<String, String[]> arrayValueMap;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Setup.
+     */
+    @Setup
+    public void setup(){
+        singleValueMap = new LinkedHashMap<>();
+        singleValueMap.put("name", "feilong");
+        singleValueMap.put("age", "18");
+        singleValueMap.put("page", "2");
+
+        arrayValueMap = new LinkedHashMap<>();
+        arrayValueMap.put("name", new String[] { "feilong", "金鑫" });
+        arrayValueMap.put("page", new String[] { "2" });
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Adds the parameter.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String addParameter(){
+        return ParamUtil.addParameter(URI_STRING, "pageSize", "20", UTF8);
+    }
+
+    /**
+     * Adds the parameter single value map.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String addParameterSingleValueMap(){
+        return ParamUtil.addParameterSingleValueMap(URI_STRING, singleValueMap, UTF8);
+    }
+
+    /**
+     * Adds the parameter array value map.
+     *
+     * @return the string
+     */
+    @Benchmark
+    public String addParameterArrayValueMap(){
+        return ParamUtil.addParameterArrayValueMap(URI_STRING, arrayValueMap, UTF8);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.feilong.core.bean.PropertyUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PropertyUtil} 的基准测试.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3,time = 1)
+@Measurement(iterations = 5,time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyUtilBenchmark{
+
+    /** The user. */
+    private BenchmarkUser user;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Setup.
+     */
+    @Setup
+    public void setup(){
+        user = BenchmarkUser.buildList(1, 1).get(0);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Gets the property.
+     *
+     * @return the property
+     */
+    @Benchmark
+    public Object getProperty(){
+        return PropertyUtil.getProperty(user, "name");
+    }
+
+    /**
+     * Gets the nested property.
+     *
+     * @return the nested property
+     */
+    @Benchmark
+    public Object getNestedProperty(){
+        return PropertyUtil.getProperty(user, "userInfo.age");
+    }
+
+    /**
+     * Sets the property.
+     *
+     * @return the benchmark user
+     */
+    @Benchmark
+    public BenchmarkUser setProperty(){
+        PropertyUtil.setProperty(user, "age", 18);
+        return user;
+    }
+
+    /**
+     * Copy properties.
+     *
+     * @return the benchmark user
+     */
+    @Benchmark
+    public BenchmarkUser copyProperties(){
+        BenchmarkUser toUser = new BenchmarkUser();
+        PropertyUtil.copyProperties(toUser, user, "id", "name", "age", "amount", "createTime");
+        return toUser;
+    }
+}
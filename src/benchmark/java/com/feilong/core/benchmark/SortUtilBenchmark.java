@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.feilong.core.util.SortUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SortUtil} 的基准测试.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3,time = 1)
+@Measurement(iterations = 5,time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortUtilBenchmark{
+
+    /** The list. */
+    private List<BenchmarkUser> list;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Setup.
+     */
+    @Setup
+    public void setup(){
+        list = BenchmarkUser.buildList(10000, 500);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Sort by one property.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public List<BenchmarkUser> sortListByPropertyNamesValue(){
+        return SortUtil.sortListByPropertyNamesValue(new ArrayList<>(list), "age");
+    }
+
+    /**
+     * Sort by multiple properties.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public List<BenchmarkUser> sortListByMultiplePropertyNamesValue(){
+        return SortUtil.sortListByPropertyNamesValue(new ArrayList<>(list), "name", "age desc");
+    }
+}
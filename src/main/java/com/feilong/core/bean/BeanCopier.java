@@ -0,0 +1,694 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.beanutils.converters.AbstractConverter;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 按照 (fromClass, toClass, includePropertyNames) 预先解析好的属性复制器.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>构造的时候一次性解析好每个属性的 getter/setter,复制的时候直接 invoke,不再每个对象每个属性都 introspect</li>
+ * <li>{@link #create(Class, Class, String...)} 和 {@link PropertyUtil#copyProperties(Object, Object, String...)} 规则一致,不会进行类型转换</li>
+ * <li>{@link #createWithConvert(Class, Class, String...)} 和 {@link BeanUtil#copyProperties(Object, Object, String...)} 规则一致,会进行类型转换;
+ * 只有值的类型和 setter 参数类型完全一致并且不需要转换的时候才直接设值,其余情况(null,数组,需要转换的类型等)仍然交给 commons-beanutils 处理</li>
+ * <li>indexed/mapped 属性,以及 {@link Map}/{@link DynaBean},同样交给 commons-beanutils 处理</li>
+ * <li>实例线程安全,工厂方法带缓存;在循环里面复制大量对象的时候,可以先拿到复制器,避免每次都查缓存</li>
+ * <li>直接设值的判断在构造的时候完成,并记录当时使用的 {@link Converter};{@link #createWithConvert(Class, Class, String...)} 从缓存取复制器的时候,
+ * 如果这些类型通过 {@link ConvertUtils#register(Converter, Class)} 注册了新的 {@link Converter},重新构造复制器;
+ * 已经拿到手的复制器实例不会再检查,注册之后需要重新获取</li>
+ * <li>缓存挂在 fromClass 以及 toClass 中 classloader 是子(或者相同)的那一个 Class 上,不会导致另外一个 classloader 不能回收;
+ * 两者的 classloader 没有父子关系的时候不缓存</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * BeanCopier beanCopier = BeanCopier.create(UserForm.class, User.class, "name", "age", "userInfo.address");
+ * for (UserForm userForm : userFormList){
+ *     User user = new User();
+ *     beanCopier.copy(user, userForm);
+ *     userList.add(user);
+ * }
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PropertyUtil#copyProperties(Object, Object, String...)
+ * @see BeanUtil#copyProperties(Object, Object, String...)
+ * @since 2.1.0
+ */
+public final class BeanCopier{
+
+    /** 复制全部属性的时候使用的 key. */
+    private static final List<String>    EMPTY_KEY                   = Collections.emptyList();
+
+    /** 使用 String 来回转换之后值不会改变的类型. */
+    private static final List<Class<?>>  STRING_ROUND_TRIP_TYPE_LIST = Arrays.<Class<?>> asList(
+                    String.class,
+                    Boolean.class,
+                    Character.class,
+                    Byte.class,
+                    Short.class,
+                    Integer.class,
+                    Long.class,
+                    Float.class,
+                    Double.class,
+                    BigInteger.class,
+                    BigDecimal.class);
+
+    /** 不转换的复制器缓存. */
+    private static final BeanCopierCache CACHE                       = new BeanCopierCache();
+
+    /** 转换的复制器缓存. */
+    private static final BeanCopierCache CONVERT_CACHE               = new BeanCopierCache();
+
+    //---------------------------------------------------------------
+
+    /** The from class. */
+    private final Class<?>               fromClass;
+
+    /** The to class. */
+    private final Class<?>               toClass;
+
+    /** 是否进行类型转换. */
+    private final boolean                isConvert;
+
+    /** 是否复制全部属性(没有指定 includePropertyNames). */
+    private final boolean                isCopyAll;
+
+    /** fromClass 或者 toClass 是 {@link Map}/{@link DynaBean},整体交给 commons-beanutils 处理. */
+    private final boolean                isDelegateAll;
+
+    /** 需要复制的属性名字. */
+    private final String[]               propertyNames;
+
+    /** 每个属性在 fromClass 中的访问器,可能是 null. */
+    private final PropertyAccessor[]     fromAccessors;
+
+    /** 每个属性在 toClass 中的访问器,可能是 null. */
+    private final PropertyAccessor[]     toAccessors;
+
+    /** 每个属性的值的类型是这个类型的时候可以直接设值,null 表示不可以直接设值. */
+    private final Class<?>[]             directTypes;
+
+    /** 计算 {@link #directTypes} 的时候查找过 {@link Converter} 的类型. */
+    private final Class<?>[]             converterTypes;
+
+    /** 计算 {@link #directTypes} 的时候 {@link #converterTypes} 对应的 {@link Converter},可能是 null. */
+    private final Converter[]            converters;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new bean copier.
+     *
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @param isConvert
+     *            the is convert
+     * @param includePropertyNames
+     *            the include property names
+     */
+    private BeanCopier(Class<?> fromClass, Class<?> toClass, boolean isConvert, String[] includePropertyNames){
+        this.fromClass = fromClass;
+        this.toClass = toClass;
+        this.isConvert = isConvert;
+        this.isCopyAll = isNullOrEmpty(includePropertyNames);
+        this.isDelegateAll = isMapOrDynaBean(fromClass) || isMapOrDynaBean(toClass);
+        this.propertyNames = resolvePropertyNames(fromClass, toClass, isCopyAll, isDelegateAll, includePropertyNames);
+
+        //---------------------------------------------------------------
+        int length = propertyNames.length;
+        this.fromAccessors = new PropertyAccessor[length];
+        this.toAccessors = new PropertyAccessor[length];
+        this.directTypes = new Class<?>[length];
+
+        Map<Class<?>, Converter> typeAndConverterMap = new LinkedHashMap<>();
+        for (int i = 0; i < length; ++i){
+            fromAccessors[i] = PropertyAccessor.of(fromClass, propertyNames[i]);
+            toAccessors[i] = PropertyAccessor.of(toClass, propertyNames[i]);
+            directTypes[i] = isConvert ? resolveDirectType(toAccessors[i], isCopyAll, typeAndConverterMap) : null;
+        }
+        this.converterTypes = typeAndConverterMap.keySet().toArray(new Class<?>[typeAndConverterMap.size()]);
+        this.converters = typeAndConverterMap.values().toArray(new Converter[typeAndConverterMap.size()]);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得不进行类型转换的复制器, 规则和 {@link PropertyUtil#copyProperties(Object, Object, String...)} 一致.
+     *
+     * @param fromClass
+     *            原始对象的类型
+     * @param toClass
+     *            目标对象的类型
+     * @param includePropertyNames
+     *            包含的属性名字数组,(can be nested/indexed/mapped/combo),如果是null或者empty,复制全部属性
+     * @return the bean copier
+     * @throws NullPointerException
+     *             如果 <code>fromClass</code> 是null,或者 <code>toClass</code> 是null
+     */
+    public static BeanCopier create(Class<?> fromClass,Class<?> toClass,String...includePropertyNames){
+        return get(CACHE, fromClass, toClass, false, includePropertyNames);
+    }
+
+    /**
+     * 获得进行类型转换的复制器, 规则和 {@link BeanUtil#copyProperties(Object, Object, String...)} 一致.
+     *
+     * @param fromClass
+     *            原始对象的类型
+     * @param toClass
+     *            目标对象的类型
+     * @param includePropertyNames
+     *            包含的属性名字数组,(can be nested/indexed/mapped/combo),如果是null或者empty,复制全部属性
+     * @return the bean copier
+     * @throws NullPointerException
+     *             如果 <code>fromClass</code> 是null,或者 <code>toClass</code> 是null
+     */
+    public static BeanCopier createWithConvert(Class<?> fromClass,Class<?> toClass,String...includePropertyNames){
+        return get(CONVERT_CACHE, fromClass, toClass, true, includePropertyNames);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>fromObj</code> 的属性复制到 <code>toObj</code>.
+     *
+     * @param toObj
+     *            目标对象
+     * @param fromObj
+     *            原始对象
+     * @throws NullPointerException
+     *             如果 <code>toObj</code> 是null,或者 <code>fromObj</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>toObj</code> 不是 toClass 的实例,或者 <code>fromObj</code> 不是 fromClass 的实例
+     * @throws BeanOperationException
+     *             如果在copy的过程中,有任何的checkedException,将会被转成该异常返回
+     */
+    public void copy(Object toObj,Object fromObj){
+        Validate.notNull(toObj, "toObj [destination bean] not specified!");
+        Validate.notNull(fromObj, "fromObj [origin bean] not specified!");
+        Validate.isInstanceOf(toClass, toObj);
+        Validate.isInstanceOf(fromClass, fromObj);
+
+        //---------------------------------------------------------------
+        if (isDelegateAll){
+            delegateCopyAll(toObj, fromObj);
+            return;
+        }
+
+        for (int i = 0; i < propertyNames.length; ++i){
+            if (isConvert && !isCopyAll){
+                copyConvertProperty(toObj, fromObj, i);
+            }else{
+                copyProperty(toObj, fromObj, i);
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 复制第 <code>index</code> 个属性.
+     *
+     * <p>
+     * 不转换的时候和 {@link PropertyUtil#getProperty(Object, String)} 再 {@link PropertyUtil#setProperty(Object, String, Object)} 一致;<br>
+     * 转换并且复制全部属性的时候,和 {@link BeanUtilsBean#copyProperty(Object, String, Object)} 一致.
+     * </p>
+     *
+     * @param toObj
+     *            the to obj
+     * @param fromObj
+     *            the from obj
+     * @param index
+     *            the index
+     */
+    private void copyProperty(Object toObj,Object fromObj,int index){
+        String propertyName = propertyNames[index];
+
+        Object value = getValue(fromObj, index);
+        if (null != directTypes[index] && null != value && directTypes[index] == value.getClass()){
+            setValue(toObj, index, value);
+            return;
+        }
+
+        //---------------------------------------------------------------
+        if (isConvert){
+            try{
+                BeanUtilsBean.getInstance().copyProperty(toObj, propertyName, value);
+            }catch (Exception e){
+                String pattern = "copyProperties exception,toObj:[{}],fromObj:[{}],propertyName:[{}]";
+                throw new BeanOperationException(Slf4jUtil.format(pattern, toObj, fromObj, propertyName), e);
+            }
+            return;
+        }
+        PropertyAccessor toAccessor = toAccessors[index];
+        if (null == toAccessor || !setValue(toObj, index, value)){
+            PropertyUtil.setProperty(toObj, propertyName, value);
+        }
+    }
+
+    /**
+     * 复制第 <code>index</code> 个属性,和 {@link BeanUtil#getProperty(Object, String)} 转成 String 再 {@link BeanUtil#setProperty(Object, String, Object)}
+     * 一致.
+     *
+     * @param toObj
+     *            the to obj
+     * @param fromObj
+     *            the from obj
+     * @param index
+     *            the index
+     */
+    private void copyConvertProperty(Object toObj,Object fromObj,int index){
+        if (null != directTypes[index] && null != fromAccessors[index]){
+            Object value = getValue(fromObj, index);
+            if (null != value && directTypes[index] == value.getClass() && setValue(toObj, index, value)){
+                return;
+            }
+        }
+
+        String propertyName = propertyNames[index];
+        BeanUtil.setProperty(toObj, propertyName, BeanUtil.getProperty(fromObj, propertyName));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 取第 <code>index</code> 个属性的值.
+     *
+     * @param fromObj
+     *            the from obj
+     * @param index
+     *            the index
+     * @return the value
+     */
+    private Object getValue(Object fromObj,int index){
+        PropertyAccessor fromAccessor = fromAccessors[index];
+        if (null != fromAccessor){
+            try{
+                Object value = fromAccessor.getValue(fromObj);
+                if (PropertyAccessor.UNRESOLVED != value){
+                    return value;
+                }
+            }catch (Exception e){
+                String pattern = "getProperty exception,bean:[{}],propertyName:[{}]";
+                throw new BeanOperationException(Slf4jUtil.format(pattern, fromObj, propertyNames[index]), e);
+            }
+        }
+        return PropertyUtil.getProperty(fromObj, propertyNames[index]);
+    }
+
+    /**
+     * 使用缓存的 setter 设置第 <code>index</code> 个属性的值.
+     *
+     * @param toObj
+     *            the to obj
+     * @param index
+     *            the index
+     * @param value
+     *            the value
+     * @return 如果不能直接设值,返回 false
+     */
+    private boolean setValue(Object toObj,int index,Object value){
+        try{
+            return toAccessors[index].setValue(toObj, value);
+        }catch (Exception e){
+            String pattern = "setProperty exception,bean:[{}],propertyName:[{}],value:[{}]";
+            throw new BeanOperationException(Slf4jUtil.format(pattern, toObj, propertyNames[index], value), e);
+        }
+    }
+
+    /**
+     * 整体交给 commons-beanutils 处理.
+     *
+     * @param toObj
+     *            the to obj
+     * @param fromObj
+     *            the from obj
+     */
+    private void delegateCopyAll(Object toObj,Object fromObj){
+        if (!isCopyAll){
+            for (String propertyName : propertyNames){
+                if (isConvert){
+                    BeanUtil.setProperty(toObj, propertyName, BeanUtil.getProperty(fromObj, propertyName));
+                }else{
+                    PropertyUtil.setProperty(toObj, propertyName, PropertyUtil.getProperty(fromObj, propertyName));
+                }
+            }
+            return;
+        }
+
+        //---------------------------------------------------------------
+        try{
+            if (isConvert){
+                BeanUtils.copyProperties(toObj, fromObj);
+            }else{
+                PropertyUtils.copyProperties(toObj, fromObj);
+            }
+        }catch (Exception e){
+            String pattern = "copyProperties exception,toObj:[{}],fromObj:[{}],includePropertyNames:[{}]";
+            throw new BeanOperationException(Slf4jUtil.format(pattern, toObj, fromObj, propertyNames), e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得需要复制的属性名字.
+     *
+     * <p>
+     * 复制全部属性的时候,和 {@link PropertyUtils#copyProperties(Object, Object)} 一样,取 <code>fromClass</code> 可读并且 <code>toClass</code> 可写的属性.
+     * </p>
+     *
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @param isCopyAll
+     *            the is copy all
+     * @param isDelegateAll
+     *            the is delegate all
+     * @param includePropertyNames
+     *            the include property names
+     * @return the string[]
+     */
+    private static String[] resolvePropertyNames(
+                    Class<?> fromClass,
+                    Class<?> toClass,
+                    boolean isCopyAll,
+                    boolean isDelegateAll,
+                    String[] includePropertyNames){
+        if (!isCopyAll){
+            return includePropertyNames.clone();
+        }
+        if (isDelegateAll){
+            return new String[0];
+        }
+
+        List<String> propertyNameList = new ArrayList<>();
+        for (PropertyDescriptor propertyDescriptor : PropertyUtils.getPropertyDescriptors(fromClass)){
+            String name = propertyDescriptor.getName();
+            PropertyAccessor fromAccessor = PropertyAccessor.of(fromClass, name);
+            PropertyAccessor toAccessor = PropertyAccessor.of(toClass, name);
+            if (!"class".equals(name) && null != fromAccessor && fromAccessor.isReadable() && null != toAccessor && toAccessor.isWritable()){
+                propertyNameList.add(name);
+            }
+        }
+        return propertyNameList.toArray(new String[propertyNameList.size()]);
+    }
+
+    /**
+     * 值是什么类型的时候,转换前后不会变化,可以直接设值.
+     *
+     * @param toAccessor
+     *            the to accessor
+     * @param isCopyAll
+     *            复制全部属性的时候只经过目标类型的 {@link Converter};指定属性的时候需要经过 String 来回转换
+     * @param typeAndConverterMap
+     *            记录查找过的类型以及 {@link Converter}
+     * @return 不可以直接设值,返回 null
+     */
+    private static Class<?> resolveDirectType(PropertyAccessor toAccessor,boolean isCopyAll,Map<Class<?>, Converter> typeAndConverterMap){
+        if (null == toAccessor || !toAccessor.isWritable()){
+            return null;
+        }
+        Class<?> directType = ClassUtils.primitiveToWrapper(toAccessor.getWriteType());
+        if (directType.isArray()){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        if (isCopyAll){
+            Converter converter = lookup(directType, typeAndConverterMap);
+            return null == converter || isDefaultConverter(converter) ? directType : null;
+        }
+        return STRING_ROUND_TRIP_TYPE_LIST.contains(directType) && isDefaultConverter(lookup(directType, typeAndConverterMap))
+                        && isDefaultConverter(lookup(String.class, typeAndConverterMap)) ? directType : null;
+    }
+
+    /**
+     * 查找 <code>type</code> 的 {@link Converter},并记录到 <code>typeAndConverterMap</code>.
+     *
+     * @param type
+     *            the type
+     * @param typeAndConverterMap
+     *            the type and converter map
+     * @return the converter
+     */
+    private static Converter lookup(Class<?> type,Map<Class<?>, Converter> typeAndConverterMap){
+        if (!typeAndConverterMap.containsKey(type)){
+            typeAndConverterMap.put(type, ConvertUtils.lookup(type));
+        }
+        return typeAndConverterMap.get(type);
+    }
+
+    /**
+     * 构造之后,计算直接设值时使用的 {@link Converter} 是否重新注册过.
+     *
+     * @return true, if is converter changed
+     */
+    private boolean isConverterChanged(){
+        for (int i = 0; i < converterTypes.length; ++i){
+            if (ConvertUtils.lookup(converterTypes[i]) != converters[i]){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否是 commons-beanutils 自带的 {@link Converter}(值的类型和目标类型一致的时候原样返回).
+     *
+     * @param converter
+     *            the converter
+     * @return true, if is default converter
+     */
+    private static boolean isDefaultConverter(Converter converter){
+        return null != converter && converter instanceof AbstractConverter
+                        && converter.getClass().getPackage() == AbstractConverter.class.getPackage();
+    }
+
+    /**
+     * Checks if is map or dyna bean.
+     *
+     * @param klass
+     *            the klass
+     * @return true, if is map or dyna bean
+     */
+    private static boolean isMapOrDynaBean(Class<?> klass){
+        return Map.class.isAssignableFrom(klass) || DynaBean.class.isAssignableFrom(klass);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从缓存中获得复制器,没有就构造.
+     *
+     * @param cache
+     *            the cache
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @param isConvert
+     *            the is convert
+     * @param includePropertyNames
+     *            the include property names
+     * @return the bean copier
+     */
+    private static BeanCopier get(
+                    BeanCopierCache cache,
+                    Class<?> fromClass,
+                    Class<?> toClass,
+                    boolean isConvert,
+                    String...includePropertyNames){
+        Validate.notNull(fromClass, "fromClass can't be null!");
+        Validate.notNull(toClass, "toClass can't be null!");
+
+        //---------------------------------------------------------------
+        ConcurrentMap<List<String>, BeanCopier> keyAndCopierMap = cache.get(fromClass, toClass);
+        if (null == keyAndCopierMap){
+            return new BeanCopier(fromClass, toClass, isConvert, includePropertyNames);
+        }
+
+        //---------------------------------------------------------------
+        List<String> key = isNullOrEmpty(includePropertyNames) ? EMPTY_KEY : Arrays.asList(includePropertyNames);
+        BeanCopier beanCopier = keyAndCopierMap.get(key);
+        if (null != beanCopier && !beanCopier.isConverterChanged()){
+            return beanCopier;
+        }
+
+        //---------------------------------------------------------------
+        BeanCopier newBeanCopier = new BeanCopier(fromClass, toClass, isConvert, includePropertyNames);
+        List<String> newKey = EMPTY_KEY == key ? key : Arrays.asList(newBeanCopier.propertyNames);
+        if (null == beanCopier){
+            BeanCopier existed = keyAndCopierMap.putIfAbsent(newKey, newBeanCopier);
+            return null == existed ? newBeanCopier : existed;
+        }
+        //重新注册过 Converter
+        keyAndCopierMap.replace(newKey, beanCopier, newBeanCopier);
+        return newBeanCopier;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)//
+                        .append("fromClass", fromClass.getName())
+                        .append("toClass", toClass.getName())
+                        .append("isConvert", isConvert)
+                        .append("propertyNames", propertyNames)
+                        .toString();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * fromClass -- toClass -- includePropertyNames -- 复制器.
+     * 
+     * <p>
+     * 挂在 classloader 是子(或者相同)的那一个 Class 的 {@link ClassValue} 上,随着这个 Class 一起被回收;
+     * 另外一个 Class 的 classloader 是它的祖先,本来就被它引用,所以不会因为缓存导致 classloader 泄漏.
+     * </p>
+     */
+    private static final class BeanCopierCache{
+
+        /** 挂在 fromClass 上, key 是 toClass. */
+        private final ClassCache byFromClass = new ClassCache();
+
+        /** 挂在 toClass 上, key 是 fromClass. */
+        private final ClassCache byToClass   = new ClassCache();
+
+        /**
+         * 获得 fromClass 到 toClass 的 includePropertyNames -- 复制器 缓存.
+         *
+         * @param fromClass
+         *            the from class
+         * @param toClass
+         *            the to class
+         * @return 如果两者的 classloader 没有父子关系,返回null,不缓存
+         */
+        private ConcurrentMap<List<String>, BeanCopier> get(Class<?> fromClass,Class<?> toClass){
+            if (isAncestorOrSelf(toClass.getClassLoader(), fromClass.getClassLoader())){
+                return get(byFromClass.get(fromClass), toClass);
+            }
+            if (isAncestorOrSelf(fromClass.getClassLoader(), toClass.getClassLoader())){
+                return get(byToClass.get(toClass), fromClass);
+            }
+            return null;
+        }
+
+        /**
+         * 获得 <code>klass</code> 对应的缓存,没有就构造.
+         *
+         * @param classAndCopierMap
+         *            the class and copier map
+         * @param klass
+         *            the klass
+         * @return the concurrent map
+         */
+        private static ConcurrentMap<List<String>, BeanCopier> get(
+                        ConcurrentMap<Class<?>, ConcurrentMap<List<String>, BeanCopier>> classAndCopierMap,
+                        Class<?> klass){
+            ConcurrentMap<List<String>, BeanCopier> keyAndCopierMap = classAndCopierMap.get(klass);
+            if (null == keyAndCopierMap){
+                ConcurrentMap<List<String>, BeanCopier> newMap = new ConcurrentHashMap<>();
+                keyAndCopierMap = classAndCopierMap.putIfAbsent(klass, newMap);
+                keyAndCopierMap = null == keyAndCopierMap ? newMap : keyAndCopierMap;
+            }
+            return keyAndCopierMap;
+        }
+
+        /**
+         * <code>ancestor</code> 是否是 <code>classLoader</code> 本身或者它的祖先.
+         *
+         * @param ancestor
+         *            the ancestor,null 表示 bootstrap classloader
+         * @param classLoader
+         *            the class loader,null 表示 bootstrap classloader
+         * @return true, if is ancestor or self
+         */
+        private static boolean isAncestorOrSelf(ClassLoader ancestor,ClassLoader classLoader){
+            if (null == ancestor){
+                return true;
+            }
+            for (ClassLoader current = classLoader; null != current; current = current.getParent()){
+                if (current == ancestor){
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Class -- 另外一个 Class -- includePropertyNames -- 复制器.
+     */
+    private static final class ClassCache extends ClassValue<ConcurrentMap<Class<?>, ConcurrentMap<List<String>, BeanCopier>>>{
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.ClassValue#computeValue(java.lang.Class)
+         */
+        @Override
+        protected ConcurrentMap<Class<?>, ConcurrentMap<List<String>, BeanCopier>> computeValue(Class<?> type){
+            return new ConcurrentHashMap<>();
+        }
+    }
+}
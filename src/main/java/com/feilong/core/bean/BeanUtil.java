@@ -282,6 +282,7 @@ public final class BeanUtil{
      * @throws BeanOperationException
      *             其他调用api有任何异常,转成{@link BeanOperationException}返回
      * @see org.apache.commons.beanutils.BeanUtilsBean#copyProperties(Object, Object)
+     * @see BeanCopier#createWithConvert(Class, Class, String...)
      * @see <a href="http://www.cnblogs.com/kaka/archive/2013/03/06/2945514.html">Bean复制的几种框架性能比较(Apache BeanUtils、PropertyUtils,Spring
      *      BeanUtils,Cglib BeanCopier)</a>
      */
@@ -291,22 +292,8 @@ public final class BeanUtil{
         Validate.notNull(fromObj, "fromObj [origin bean] not specified!");
 
         //---------------------------------------------------------------
-
-        if (isNullOrEmpty(includePropertyNames)){
-            try{
-                BeanUtils.copyProperties(toObj, fromObj);
-                return;
-            }catch (Exception e){
-                String pattern = "copyProperties exception,toObj:[{}],fromObj:[{}],includePropertyNames:[{}]";
-                throw new BeanOperationException(Slf4jUtil.format(pattern, toObj, fromObj, includePropertyNames), e);
-            }
-        }
-
-        //---------------------------------------------------------------
-        for (String propertyName : includePropertyNames){
-            String value = getProperty(fromObj, propertyName);
-            setProperty(toObj, propertyName, value);
-        }
+        //since 2.1.0 使用按照 (fromClass, toClass, includePropertyNames) 缓存的复制器
+        BeanCopier.createWithConvert(fromObj.getClass(), toObj.getClass(), includePropertyNames).copy(toObj, fromObj);
     }
 
     // [end]
@@ -335,7 +322,7 @@ public final class BeanUtil{
      * @see org.apache.commons.beanutils.PropertyUtils#setProperty(Object, String, Object)
      * @see com.feilong.core.bean.PropertyUtil#setProperty(Object, String, Object)
      */
-    private static void setProperty(Object bean,String propertyName,Object value){
+    static void setProperty(Object bean,String propertyName,Object value){
         try{
             BeanUtils.setProperty(bean, propertyName, value);
         }catch (Exception e){
@@ -371,9 +358,9 @@ public final class BeanUtil{
      * @see org.apache.commons.beanutils.BeanUtils#getProperty(Object, String)
      * @see org.apache.commons.beanutils.PropertyUtils#getProperty(Object, String)
      * @see com.feilong.core.bean.PropertyUtil#getProperty(Object, String)
-     * @since 1.9.0 change access to private
+     * @since 1.9.0 change access to private, 2.1.0 change access to package-private
      */
-    private static String getProperty(Object bean,String propertyName){
+    static String getProperty(Object bean,String propertyName){
         Validate.notNull(bean, "bean can't be null!");
         Validate.notBlank(propertyName, "propertyName can't be blank!");
 
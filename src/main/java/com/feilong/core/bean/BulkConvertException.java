@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.tools.slf4j.Slf4jUtil.format;
+
+import com.feilong.core.DefaultRuntimeException;
+
+/**
+ * 批量转换(比如 {@link ConvertUtil#toIntArray(String[])})的时候,某个元素不能转换出现的异常.
+ *
+ * <p>
+ * 可以通过 {@link #getIndex()} 以及 {@link #getValue()} 知道是第几个元素出错.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public final class BulkConvertException extends DefaultRuntimeException{
+
+    /** The Constant serialVersionUID. */
+    private static final long serialVersionUID = 2617346128075392064L;
+
+    /** 出错的元素的下标,从 0 开始. */
+    private final int         index;
+
+    /** 出错的元素(去掉前后空白之前),元素是null 的时候是null. */
+    private final String      value;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new bulk convert exception.
+     *
+     * @param index
+     *            出错的元素的下标
+     * @param value
+     *            出错的元素
+     * @param targetType
+     *            要转成的类型
+     * @param cause
+     *            the cause
+     */
+    BulkConvertException(int index, String value, Class<?> targetType, Throwable cause){
+        super(format("index:[{}],value:[{}] can't convert to [{}]", index, value, targetType.getSimpleName()), cause);
+        this.index = index;
+        this.value = value;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 出错的元素的下标,从 0 开始.
+     *
+     * @return the index
+     */
+    public int getIndex(){
+        return index;
+    }
+
+    /**
+     * 获得 出错的元素(去掉前后空白之前),元素是null 的时候是null.
+     *
+     * @return the value
+     */
+    public String getValue(){
+        return value;
+    }
+}
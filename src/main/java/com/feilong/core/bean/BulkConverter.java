@@ -0,0 +1,581 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * 把一列字符串直接解析成 <code>int[]</code>,<code>long[]</code>,<code>double[]</code> 或者 <code>BigDecimal[]</code>,
+ * {@link ConvertUtil#toIntArray(String[])} 等方法使用.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>不经过 beanutils 的 converter,不装箱;带分隔符的字符串先数出元素个数,直接创建结果数组,不拆分成子字符串</li>
+ * <li>每个元素去掉前后空白(小于等于空格的字符,和 {@link String#trim()} 一致)之后解析</li>
+ * <li>一次转换使用一个 {@link ParseState},复用字符缓冲区</li>
+ * <li>元素不能转换的时候,抛出带下标的 {@link BulkConvertException}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class BulkConverter{
+
+    /** 转成 int[]. */
+    static final ElementParser<int[]>        INT         = new IntParser();
+
+    /** 转成 long[]. */
+    static final ElementParser<long[]>       LONG        = new LongParser();
+
+    /** 转成 double[]. */
+    static final ElementParser<double[]>     DOUBLE      = new DoubleParser();
+
+    /** 转成 BigDecimal[]. */
+    static final ElementParser<BigDecimal[]> BIG_DECIMAL = new BigDecimalParser();
+
+    //---------------------------------------------------------------
+
+    /** 不超过这个位数的整数部分加小数部分,一定可以精确的用 double 表示(小于 2^53). */
+    private static final int                 MAX_EXACT_DOUBLE_DIGITS = 15;
+
+    /** 可以精确的用 double 表示的 10 的幂. */
+    private static final double[]            EXACT_POWERS_OF_TEN     = {
+                                                                         1e0,
+                                                                         1e1,
+                                                                         1e2,
+                                                                         1e3,
+                                                                         1e4,
+                                                                         1e5,
+                                                                         1e6,
+                                                                         1e7,
+                                                                         1e8,
+                                                                         1e9,
+                                                                         1e10,
+                                                                         1e11,
+                                                                         1e12,
+                                                                         1e13,
+                                                                         1e14,
+                                                                         1e15,
+                                                                         1e16,
+                                                                         1e17,
+                                                                         1e18,
+                                                                         1e19,
+                                                                         1e20,
+                                                                         1e21,
+                                                                         1e22 };
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private BulkConverter(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转换字符串数组.
+     *
+     * @param <A>
+     *            结果数组的类型
+     * @param values
+     *            the values
+     * @param elementParser
+     *            the element parser
+     * @return 如果 <code>values</code> 是null,返回null
+     * @throws BulkConvertException
+     *             如果有元素是null 或者不能转换
+     */
+    static <A> A convert(String[] values,ElementParser<A> elementParser){
+        if (null == values){
+            return null;
+        }
+        A array = elementParser.newArray(values.length);
+        ParseState parseState = new ParseState();
+        for (int i = 0; i < values.length; ++i){
+            parseElement(array, i, values[i], elementParser, parseState);
+        }
+        return array;
+    }
+
+    /**
+     * 转换字符串集合.
+     *
+     * @param <A>
+     *            结果数组的类型
+     * @param values
+     *            the values
+     * @param elementParser
+     *            the element parser
+     * @return 如果 <code>values</code> 是null,返回null
+     * @throws BulkConvertException
+     *             如果有元素是null 或者不能转换
+     */
+    static <A> A convert(Collection<String> values,ElementParser<A> elementParser){
+        if (null == values){
+            return null;
+        }
+        A array = elementParser.newArray(values.size());
+        ParseState parseState = new ParseState();
+        int index = 0;
+        for (String value : values){
+            parseElement(array, index++, value, elementParser, parseState);
+        }
+        return array;
+    }
+
+    /**
+     * 转换使用 <code>delimiter</code> 分隔的字符串.
+     *
+     * @param <A>
+     *            结果数组的类型
+     * @param chars
+     *            the chars
+     * @param delimiter
+     *            the delimiter
+     * @param elementParser
+     *            the element parser
+     * @return 如果 <code>chars</code> 是null,返回null<br>
+     *         如果 <code>chars</code> 是blank,返回长度是 0 的数组
+     * @throws BulkConvertException
+     *             如果有元素是空白或者不能转换
+     */
+    static <A> A convert(CharSequence chars,char delimiter,ElementParser<A> elementParser){
+        if (null == chars){
+            return null;
+        }
+        int length = chars.length();
+        if (trimStart(chars, 0, length) == length){
+            return elementParser.newArray(0);
+        }
+
+        //---------------------------------------------------------------
+        int count = 1;
+        for (int i = 0; i < length; ++i){
+            if (delimiter == chars.charAt(i)){
+                ++count;
+            }
+        }
+
+        A array = elementParser.newArray(count);
+        ParseState parseState = new ParseState();
+        int segmentStart = 0;
+        for (int index = 0; index < count; ++index){
+            int segmentEnd = segmentStart;
+            while (segmentEnd < length && delimiter != chars.charAt(segmentEnd)){
+                ++segmentEnd;
+            }
+            parseSegment(array, index, chars, segmentStart, segmentEnd, elementParser, parseState);
+            segmentStart = segmentEnd + 1;
+        }
+        return array;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析一个元素.
+     *
+     * @param <A>
+     *            结果数组的类型
+     * @param array
+     *            the array
+     * @param index
+     *            the index
+     * @param value
+     *            the value
+     * @param elementParser
+     *            the element parser
+     * @param parseState
+     *            the parse state
+     */
+    private static <A> void parseElement(A array,int index,String value,ElementParser<A> elementParser,ParseState parseState){
+        if (null == value){
+            throw new BulkConvertException(index, null, elementParser.elementType, null);
+        }
+        parseSegment(array, index, value, 0, value.length(), elementParser, parseState);
+    }
+
+    /**
+     * 去掉前后空白,解析 <code>chars</code> 的 [segmentStart,segmentEnd) 部分.
+     *
+     * @param <A>
+     *            结果数组的类型
+     * @param array
+     *            the array
+     * @param index
+     *            the index
+     * @param chars
+     *            the chars
+     * @param segmentStart
+     *            the segment start
+     * @param segmentEnd
+     *            the segment end
+     * @param elementParser
+     *            the element parser
+     * @param parseState
+     *            the parse state
+     */
+    private static <A> void parseSegment(
+                    A array,
+                    int index,
+                    CharSequence chars,
+                    int segmentStart,
+                    int segmentEnd,
+                    ElementParser<A> elementParser,
+                    ParseState parseState){
+        int start = trimStart(chars, segmentStart, segmentEnd);
+        int end = trimEnd(chars, start, segmentEnd);
+        try{
+            if (start == end){
+                throw new NumberFormatException("empty element");
+            }
+            elementParser.parse(array, index, chars, start, end, parseState);
+        }catch (NumberFormatException e){
+            throw new BulkConvertException(index, chars.subSequence(segmentStart, segmentEnd).toString(), elementParser.elementType, e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析可选的正负号加上 ASCII 数字,和 {@link Long#parseLong(String)} 一样使用负数累加,检查溢出.
+     *
+     * @param chars
+     *            the chars
+     * @param start
+     *            the start
+     * @param end
+     *            the end
+     * @param min
+     *            最小值
+     * @param max
+     *            最大值
+     * @return the long
+     * @throws NumberFormatException
+     *             如果格式不对或者超出 [min,max]
+     */
+    private static long parseLong(CharSequence chars,int start,int end,long min,long max){
+        int i = start;
+        char first = chars.charAt(i);
+        boolean negative = '-' == first;
+        if (negative || '+' == first){
+            ++i;
+        }
+        if (i == end){
+            throw new NumberFormatException("no digits");
+        }
+
+        //---------------------------------------------------------------
+        long limit = negative ? min : -max;
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for (; i < end; ++i){
+            int digit = chars.charAt(i) - '0';
+            if (digit < 0 || digit > 9){
+                throw new NumberFormatException("not a digit at:" + i);
+            }
+            if (result < multiplyMin){
+                throw new NumberFormatException("out of range");
+            }
+            result *= 10;
+            if (result < limit + digit){
+                throw new NumberFormatException("out of range");
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * 解析 double,结果和 {@link Double#parseDouble(String)} 一致.
+     *
+     * <p>
+     * 不超过 15 位数字,没有指数的普通小数,整数部分以及小数部分都可以精确表示,除一次 10 的幂(也是精确的)就是正确舍入的结果;其他情况使用 {@link Double#parseDouble(String)}.
+     * </p>
+     *
+     * @param chars
+     *            the chars
+     * @param start
+     *            the start
+     * @param end
+     *            the end
+     * @param parseState
+     *            the parse state
+     * @return the double
+     * @throws NumberFormatException
+     *             如果格式不对
+     */
+    private static double parseDouble(CharSequence chars,int start,int end,ParseState parseState){
+        int i = start;
+        char first = chars.charAt(i);
+        boolean negative = '-' == first;
+        if (negative || '+' == first){
+            ++i;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; ++i){
+            char c = chars.charAt(i);
+            if (c >= '0' && c <= '9'){
+                mantissa = mantissa * 10 + (c - '0');
+                ++digits;
+                if (fractionDigits >= 0){
+                    ++fractionDigits;
+                }
+            }else if ('.' == c && fractionDigits < 0){
+                fractionDigits = 0;
+            }else{
+                break;
+            }
+        }
+
+        //---------------------------------------------------------------
+        if (i == end && digits > 0 && digits <= MAX_EXACT_DOUBLE_DIGITS){
+            double value = fractionDigits > 0 ? mantissa / EXACT_POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(parseState.toChars(chars, start, end), 0, end - start));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 跳过开头的空白.
+     *
+     * @param chars
+     *            the chars
+     * @param start
+     *            the start
+     * @param end
+     *            the end
+     * @return 第一个不是空白的下标,全部是空白返回 <code>end</code>
+     */
+    private static int trimStart(CharSequence chars,int start,int end){
+        int i = start;
+        while (i < end && chars.charAt(i) <= ' '){
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * 跳过结尾的空白.
+     *
+     * @param chars
+     *            the chars
+     * @param start
+     *            the start
+     * @param end
+     *            the end
+     * @return 最后一个不是空白的下标加 1
+     */
+    private static int trimEnd(CharSequence chars,int start,int end){
+        int i = end;
+        while (i > start && chars.charAt(i - 1) <= ' '){
+            --i;
+        }
+        return i;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 元素解析器,无状态,可以共享.
+     *
+     * @param <A>
+     *            结果数组的类型
+     */
+    abstract static class ElementParser<A>{
+
+        /** 元素类型,用于异常信息. */
+        private final Class<?> elementType;
+
+        /**
+         * Instantiates a new element parser.
+         *
+         * @param elementType
+         *            the element type
+         */
+        ElementParser(Class<?> elementType){
+            this.elementType = elementType;
+        }
+
+        /**
+         * 创建结果数组.
+         *
+         * @param length
+         *            the length
+         * @return the a
+         */
+        abstract A newArray(int length);
+
+        /**
+         * 解析 <code>chars</code> 的 [start,end) 部分(已经去掉前后空白,并且不是空的),放到 <code>array[index]</code>.
+         *
+         * @param array
+         *            the array
+         * @param index
+         *            the index
+         * @param chars
+         *            the chars
+         * @param start
+         *            the start
+         * @param end
+         *            the end
+         * @param parseState
+         *            the parse state
+         * @throws NumberFormatException
+         *             如果不能转换
+         */
+        abstract void parse(A array,int index,CharSequence chars,int start,int end,ParseState parseState);
+    }
+
+    /**
+     * 一次转换的解析状态,复用字符缓冲区,不能多线程共享.
+     */
+    static final class ParseState{
+
+        /** 字符缓冲区,不够的时候扩容. */
+        private char[] buffer = new char[32];
+
+        /**
+         * 把 <code>chars</code> 的 [start,end) 部分复制到缓冲区.
+         *
+         * @param chars
+         *            the chars
+         * @param start
+         *            the start
+         * @param end
+         *            the end
+         * @return 缓冲区,从下标 0 开始
+         */
+        char[] toChars(CharSequence chars,int start,int end){
+            int length = end - start;
+            if (buffer.length < length){
+                buffer = new char[Math.max(length, buffer.length * 2)];
+            }
+            if (chars instanceof String){
+                ((String) chars).getChars(start, end, buffer, 0);
+            }else{
+                for (int i = 0; i < length; ++i){
+                    buffer[i] = chars.charAt(start + i);
+                }
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * int 解析器.
+     */
+    private static final class IntParser extends ElementParser<int[]>{
+
+        /**
+         * Instantiates a new int parser.
+         */
+        private IntParser(){
+            super(int.class);
+        }
+
+        @Override
+        int[] newArray(int length){
+            return new int[length];
+        }
+
+        @Override
+        void parse(int[] array,int index,CharSequence chars,int start,int end,ParseState parseState){
+            array[index] = (int) parseLong(chars, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * long 解析器.
+     */
+    private static final class LongParser extends ElementParser<long[]>{
+
+        /**
+         * Instantiates a new long parser.
+         */
+        private LongParser(){
+            super(long.class);
+        }
+
+        @Override
+        long[] newArray(int length){
+            return new long[length];
+        }
+
+        @Override
+        void parse(long[] array,int index,CharSequence chars,int start,int end,ParseState parseState){
+            array[index] = parseLong(chars, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * double 解析器.
+     */
+    private static final class DoubleParser extends ElementParser<double[]>{
+
+        /**
+         * Instantiates a new double parser.
+         */
+        private DoubleParser(){
+            super(double.class);
+        }
+
+        @Override
+        double[] newArray(int length){
+            return new double[length];
+        }
+
+        @Override
+        void parse(double[] array,int index,CharSequence chars,int start,int end,ParseState parseState){
+            array[index] = parseDouble(chars, start, end, parseState);
+        }
+    }
+
+    /**
+     * {@link BigDecimal} 解析器,和 {@link BigDecimal#BigDecimal(String)} 规则一致.
+     */
+    private static final class BigDecimalParser extends ElementParser<BigDecimal[]>{
+
+        /**
+         * Instantiates a new big decimal parser.
+         */
+        private BigDecimalParser(){
+            super(BigDecimal.class);
+        }
+
+        @Override
+        BigDecimal[] newArray(int length){
+            return new BigDecimal[length];
+        }
+
+        @Override
+        void parse(BigDecimal[] array,int index,CharSequence chars,int start,int end,ParseState parseState){
+            array[index] = new BigDecimal(parseState.toChars(chars, start, end), 0, end - start);
+        }
+    }
+}
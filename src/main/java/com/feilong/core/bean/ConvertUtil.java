@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -235,6 +236,50 @@ import com.feilong.core.util.transformer.SimpleClassTransformer;
  */
 public final class ConvertUtil{
 
+    /**
+     * 不可变的值类型,已经是这个类型的值 {@link #convert(Object, Class)} 直接返回.
+     * 
+     * @since 2.1.0
+     */
+    private static final Set<Class<?>> IMMUTABLE_VALUE_TYPES = Collections.unmodifiableSet(
+                    new HashSet<Class<?>>(
+                                    Arrays.<Class<?>> asList(
+                                                    Boolean.class,
+                                                    Character.class,
+                                                    Byte.class,
+                                                    Short.class,
+                                                    Integer.class,
+                                                    Long.class,
+                                                    Float.class,
+                                                    Double.class,
+                                                    BigInteger.class,
+                                                    BigDecimal.class)));
+
+    /**
+     * beanutils 标准的 converter 类型,已经是目标类型的值原样返回.
+     * 
+     * <p>
+     * 只有 {@link #IMMUTABLE_VALUE_TYPES} 注册的是这些 converter 的时候, {@link #convert(Object, Class)} 才直接返回,用户自定义的 converter 依然会被调用.
+     * </p>
+     * 
+     * @since 2.1.0
+     */
+    private static final Set<Class<?>> STANDARD_CONVERTER_TYPES = Collections.unmodifiableSet(
+                    new HashSet<Class<?>>(
+                                    Arrays.<Class<?>> asList(
+                                                    BooleanConverter.class,
+                                                    CharacterConverter.class,
+                                                    ByteConverter.class,
+                                                    ShortConverter.class,
+                                                    IntegerConverter.class,
+                                                    LongConverter.class,
+                                                    FloatConverter.class,
+                                                    DoubleConverter.class,
+                                                    BigIntegerConverter.class,
+                                                    BigDecimalConverter.class)));
+
+    //---------------------------------------------------------------
+
     /** Don't let anyone instantiate this class. */
     private ConvertUtil(){
         //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
@@ -345,7 +390,7 @@ public final class ConvertUtil{
      * @see java.lang.Boolean#parseBoolean(String)
      */
     public static Boolean toBoolean(Object toBeConvertedValue){
-        return new BooleanConverter(null).convert(Boolean.class, toBeConvertedValue);
+        return TypedConverter.toBoolean(toBeConvertedValue);
     }
 
     //----------------------toInteger-----------------------------------------
@@ -536,7 +581,7 @@ public final class ConvertUtil{
      * @since 1.6.1
      */
     public static Integer toInteger(Object toBeConvertedValue,Integer defaultValue){
-        return new IntegerConverter(defaultValue).convert(Integer.class, toBeConvertedValue);
+        return defaultIfNull(TypedConverter.toInteger(toBeConvertedValue), defaultValue);
     }
 
     //------------------------toLong---------------------------------------
@@ -585,7 +630,7 @@ public final class ConvertUtil{
      * @see org.apache.commons.lang3.math.NumberUtils#toLong(String)
      */
     public static Long toLong(Object toBeConvertedValue){
-        return new LongConverter(null).convert(Long.class, toBeConvertedValue);
+        return TypedConverter.toLong(toBeConvertedValue);
     }
 
     //------------------------toBigDecimal---------------------------------------
@@ -653,7 +698,7 @@ public final class ConvertUtil{
      * @see org.apache.commons.beanutils.converters.BigDecimalConverter
      */
     public static BigDecimal toBigDecimal(Object toBeConvertedValue){
-        return new BigDecimalConverter(null).convert(BigDecimal.class, toBeConvertedValue);
+        return TypedConverter.toBigDecimal(toBeConvertedValue);
     }
 
     //---------------------------------------------------------------
@@ -934,6 +979,342 @@ public final class ConvertUtil{
 
     //---------------------------------------------------------------
 
+    /**
+     * 将字符串数组 <code>toBeConvertedValues</code> 直接解析成 <code>int[]</code>,不装箱,不经过 {@link ConvertUtils}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toIntArray((String[]) null)                   = null
+     * ConvertUtil.toIntArray(new String[] {})                   = []
+     * ConvertUtil.toIntArray(new String[] { "1", " 2 ", "-3" }) = [1, 2, -3]
+     * ConvertUtil.toIntArray(new String[] { "1", "a" })         = 抛出 BulkConvertException, getIndex() 是 1
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>说明:</h3>
+     * 
+     * <blockquote>
+     * <ol>
+     * <li>每个元素去掉前后空白之后解析,格式是可选的正负号加上 ASCII 数字,超出 int 范围不能转换</li>
+     * <li>和 {@link #toIntegers(Object)} 等方法不同,元素是null,空白或者不能转换的时候,不会忽略或者使用默认值,而是抛出 {@link BulkConvertException},可以通过
+     * {@link BulkConvertException#getIndex()} 知道是第几个元素</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param toBeConvertedValues
+     *            字符串数组
+     * @return 如果 <code>toBeConvertedValues</code> 是null,返回null<br>
+     *         如果有元素是null,空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toIntArray(Collection)
+     * @see #toIntArray(CharSequence, char)
+     * @since 2.1.0
+     */
+    public static int[] toIntArray(String[] toBeConvertedValues){
+        return BulkConverter.convert(toBeConvertedValues, BulkConverter.INT);
+    }
+
+    /**
+     * 将字符串集合 <code>toBeConvertedValues</code> 直接解析成 <code>int[]</code>,规则参见 {@link #toIntArray(String[])}.
+     *
+     * @param toBeConvertedValues
+     *            字符串集合
+     * @return 如果 <code>toBeConvertedValues</code> 是null,返回null<br>
+     *         如果有元素是null,空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toIntArray(String[])
+     * @since 2.1.0
+     */
+    public static int[] toIntArray(Collection<String> toBeConvertedValues){
+        return BulkConverter.convert(toBeConvertedValues, BulkConverter.INT);
+    }
+
+    /**
+     * 将使用 <code>delimiter</code> 分隔的字符串(比如请求参数 <code>"1,2,3"</code>)直接解析成 <code>int[]</code>,不拆分成子字符串,规则参见 {@link #toIntArray(String[])}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toIntArray(null, ',')     = null
+     * ConvertUtil.toIntArray(" ", ',')      = []
+     * ConvertUtil.toIntArray("1, 2,3", ',') = [1, 2, 3]
+     * ConvertUtil.toIntArray("1,,3", ',')   = 抛出 BulkConvertException, getIndex() 是 1
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            使用 <code>delimiter</code> 分隔的字符串
+     * @param delimiter
+     *            分隔符
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回null<br>
+     *         如果 <code>toBeConvertedValue</code> 是blank,返回长度是 0 的数组<br>
+     *         如果有元素是空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toIntArray(String[])
+     * @since 2.1.0
+     */
+    public static int[] toIntArray(CharSequence toBeConvertedValue,char delimiter){
+        return BulkConverter.convert(toBeConvertedValue, delimiter, BulkConverter.INT);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将字符串数组 <code>toBeConvertedValues</code> 直接解析成 <code>long[]</code>,不装箱,不经过 {@link ConvertUtils}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toLongArray((String[]) null)                   = null
+     * ConvertUtil.toLongArray(new String[] {})                   = []
+     * ConvertUtil.toLongArray(new String[] { "1", " 2 ", "-3" }) = [1, 2, -3]
+     * ConvertUtil.toLongArray(new String[] { "1", "a" })         = 抛出 BulkConvertException, getIndex() 是 1
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>说明:</h3>
+     * 
+     * <blockquote>
+     * <ol>
+     * <li>每个元素去掉前后空白之后解析,格式是可选的正负号加上 ASCII 数字,超出 long 范围不能转换</li>
+     * <li>和 {@link #toIntegers(Object)} 等方法不同,元素是null,空白或者不能转换的时候,不会忽略或者使用默认值,而是抛出 {@link BulkConvertException},可以通过
+     * {@link BulkConvertException#getIndex()} 知道是第几个元素</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param toBeConvertedValues
+     *            字符串数组
+     * @return 如果 <code>toBeConvertedValues</code> 是null,返回null<br>
+     *         如果有元素是null,空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toLongArray(Collection)
+     * @see #toLongArray(CharSequence, char)
+     * @since 2.1.0
+     */
+    public static long[] toLongArray(String[] toBeConvertedValues){
+        return BulkConverter.convert(toBeConvertedValues, BulkConverter.LONG);
+    }
+
+    /**
+     * 将字符串集合 <code>toBeConvertedValues</code> 直接解析成 <code>long[]</code>,规则参见 {@link #toLongArray(String[])}.
+     *
+     * @param toBeConvertedValues
+     *            字符串集合
+     * @return 如果 <code>toBeConvertedValues</code> 是null,返回null<br>
+     *         如果有元素是null,空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toLongArray(String[])
+     * @since 2.1.0
+     */
+    public static long[] toLongArray(Collection<String> toBeConvertedValues){
+        return BulkConverter.convert(toBeConvertedValues, BulkConverter.LONG);
+    }
+
+    /**
+     * 将使用 <code>delimiter</code> 分隔的字符串(比如请求参数 <code>"1,2,3"</code>)直接解析成 <code>long[]</code>,不拆分成子字符串,规则参见 {@link #toLongArray(String[])}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toLongArray(null, ',')     = null
+     * ConvertUtil.toLongArray(" ", ',')      = []
+     * ConvertUtil.toLongArray("1, 2,3", ',') = [1, 2, 3]
+     * ConvertUtil.toLongArray("1,,3", ',')   = 抛出 BulkConvertException, getIndex() 是 1
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            使用 <code>delimiter</code> 分隔的字符串
+     * @param delimiter
+     *            分隔符
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回null<br>
+     *         如果 <code>toBeConvertedValue</code> 是blank,返回长度是 0 的数组<br>
+     *         如果有元素是空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toLongArray(String[])
+     * @since 2.1.0
+     */
+    public static long[] toLongArray(CharSequence toBeConvertedValue,char delimiter){
+        return BulkConverter.convert(toBeConvertedValue, delimiter, BulkConverter.LONG);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将字符串数组 <code>toBeConvertedValues</code> 直接解析成 <code>double[]</code>,不装箱,不经过 {@link ConvertUtils}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toDoubleArray((String[]) null)                     = null
+     * ConvertUtil.toDoubleArray(new String[] {})                     = []
+     * ConvertUtil.toDoubleArray(new String[] { "1", " 2.5 ", "-3" }) = [1.0, 2.5, -3.0]
+     * ConvertUtil.toDoubleArray(new String[] { "1", "a" })           = 抛出 BulkConvertException, getIndex() 是 1
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>说明:</h3>
+     * 
+     * <blockquote>
+     * <ol>
+     * <li>每个元素去掉前后空白之后解析,规则和 {@link Double#parseDouble(String)} 一致</li>
+     * <li>和 {@link #toIntegers(Object)} 等方法不同,元素是null,空白或者不能转换的时候,不会忽略或者使用默认值,而是抛出 {@link BulkConvertException},可以通过
+     * {@link BulkConvertException#getIndex()} 知道是第几个元素</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param toBeConvertedValues
+     *            字符串数组
+     * @return 如果 <code>toBeConvertedValues</code> 是null,返回null<br>
+     *         如果有元素是null,空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toDoubleArray(Collection)
+     * @see #toDoubleArray(CharSequence, char)
+     * @since 2.1.0
+     */
+    public static double[] toDoubleArray(String[] toBeConvertedValues){
+        return BulkConverter.convert(toBeConvertedValues, BulkConverter.DOUBLE);
+    }
+
+    /**
+     * 将字符串集合 <code>toBeConvertedValues</code> 直接解析成 <code>double[]</code>,规则参见 {@link #toDoubleArray(String[])}.
+     *
+     * @param toBeConvertedValues
+     *            字符串集合
+     * @return 如果 <code>toBeConvertedValues</code> 是null,返回null<br>
+     *         如果有元素是null,空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toDoubleArray(String[])
+     * @since 2.1.0
+     */
+    public static double[] toDoubleArray(Collection<String> toBeConvertedValues){
+        return BulkConverter.convert(toBeConvertedValues, BulkConverter.DOUBLE);
+    }
+
+    /**
+     * 将使用 <code>delimiter</code> 分隔的字符串(比如请求参数 <code>"1,2,3"</code>)直接解析成 <code>double[]</code>,不拆分成子字符串,规则参见 {@link #toDoubleArray(String[])}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toDoubleArray(null, ',')     = null
+     * ConvertUtil.toDoubleArray(" ", ',')      = []
+     * ConvertUtil.toDoubleArray("1, 2,3", ',') = [1.0, 2.0, 3.0]
+     * ConvertUtil.toDoubleArray("1,,3", ',')   = 抛出 BulkConvertException, getIndex() 是 1
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            使用 <code>delimiter</code> 分隔的字符串
+     * @param delimiter
+     *            分隔符
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回null<br>
+     *         如果 <code>toBeConvertedValue</code> 是blank,返回长度是 0 的数组<br>
+     *         如果有元素是空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toDoubleArray(String[])
+     * @since 2.1.0
+     */
+    public static double[] toDoubleArray(CharSequence toBeConvertedValue,char delimiter){
+        return BulkConverter.convert(toBeConvertedValue, delimiter, BulkConverter.DOUBLE);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将字符串数组 <code>toBeConvertedValues</code> 直接解析成 <code>BigDecimal[]</code>,不装箱,不经过 {@link ConvertUtils}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toBigDecimalArray((String[]) null)                      = null
+     * ConvertUtil.toBigDecimalArray(new String[] {})                      = []
+     * ConvertUtil.toBigDecimalArray(new String[] { "1", " 2.50 ", "-3" }) = [1, 2.50, -3]
+     * ConvertUtil.toBigDecimalArray(new String[] { "1", "a" })            = 抛出 BulkConvertException, getIndex() 是 1
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>说明:</h3>
+     * 
+     * <blockquote>
+     * <ol>
+     * <li>每个元素去掉前后空白之后解析,规则和 {@link BigDecimal#BigDecimal(String)} 一致</li>
+     * <li>和 {@link #toIntegers(Object)} 等方法不同,元素是null,空白或者不能转换的时候,不会忽略或者使用默认值,而是抛出 {@link BulkConvertException},可以通过
+     * {@link BulkConvertException#getIndex()} 知道是第几个元素</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param toBeConvertedValues
+     *            字符串数组
+     * @return 如果 <code>toBeConvertedValues</code> 是null,返回null<br>
+     *         如果有元素是null,空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toBigDecimalArray(Collection)
+     * @see #toBigDecimalArray(CharSequence, char)
+     * @since 2.1.0
+     */
+    public static BigDecimal[] toBigDecimalArray(String[] toBeConvertedValues){
+        return BulkConverter.convert(toBeConvertedValues, BulkConverter.BIG_DECIMAL);
+    }
+
+    /**
+     * 将字符串集合 <code>toBeConvertedValues</code> 直接解析成 <code>BigDecimal[]</code>,规则参见 {@link #toBigDecimalArray(String[])}.
+     *
+     * @param toBeConvertedValues
+     *            字符串集合
+     * @return 如果 <code>toBeConvertedValues</code> 是null,返回null<br>
+     *         如果有元素是null,空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toBigDecimalArray(String[])
+     * @since 2.1.0
+     */
+    public static BigDecimal[] toBigDecimalArray(Collection<String> toBeConvertedValues){
+        return BulkConverter.convert(toBeConvertedValues, BulkConverter.BIG_DECIMAL);
+    }
+
+    /**
+     * 将使用 <code>delimiter</code> 分隔的字符串(比如请求参数 <code>"1,2,3"</code>)直接解析成 <code>BigDecimal[]</code>,不拆分成子字符串,规则参见 {@link #toBigDecimalArray(String[])}.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toBigDecimalArray(null, ',')     = null
+     * ConvertUtil.toBigDecimalArray(" ", ',')      = []
+     * ConvertUtil.toBigDecimalArray("1, 2,3", ',') = [1, 2, 3]
+     * ConvertUtil.toBigDecimalArray("1,,3", ',')   = 抛出 BulkConvertException, getIndex() 是 1
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            使用 <code>delimiter</code> 分隔的字符串
+     * @param delimiter
+     *            分隔符
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回null<br>
+     *         如果 <code>toBeConvertedValue</code> 是blank,返回长度是 0 的数组<br>
+     *         如果有元素是空白或者不能转换,抛出 {@link BulkConvertException}
+     * @see #toBigDecimalArray(String[])
+     * @since 2.1.0
+     */
+    public static BigDecimal[] toBigDecimalArray(CharSequence toBeConvertedValue,char delimiter){
+        return BulkConverter.convert(toBeConvertedValue, delimiter, BulkConverter.BIG_DECIMAL);
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * 把对象 <code>toBeConvertedValue</code> 转换成字符串.
      * 
@@ -3095,6 +3476,8 @@ public final class ConvertUtil{
      *            要转成什么类型
      * @return 如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>toBeConvertedValue</code> 是null,那么直接返回null<br>
+     *         如果 <code>toBeConvertedValue</code> 的类型就是 <code>targetType</code>,并且是数字,{@link Boolean} 或者 {@link Character},
+     *         而且 <code>targetType</code> 注册的是 beanutils 标准的 converter(而不是自定义的 converter),直接返回(since 2.1.0)<br>
      *         否则返回 {@link org.apache.commons.beanutils.ConvertUtils#convert(Object, Class)}
      * @see org.apache.commons.beanutils.ConvertUtils#convert(Object, Class)
      * @see org.apache.commons.beanutils.converters.AbstractConverter#convert(Class, Object)
@@ -3103,7 +3486,17 @@ public final class ConvertUtil{
     @SuppressWarnings("unchecked")
     public static <T> T convert(Object toBeConvertedValue,Class<T> targetType){
         Validate.notNull(targetType, "targetType can't be null!");
-        return null == toBeConvertedValue ? null : (T) ConvertUtils.convert(toBeConvertedValue, targetType);
+        if (null == toBeConvertedValue){
+            return null;
+        }
+        //已经是目标类型的不可变值, 标准的 converter 也是原样返回, 不需要再经过 converter 的分发; 自定义的 converter 依然要调用
+        if (targetType == toBeConvertedValue.getClass() && IMMUTABLE_VALUE_TYPES.contains(targetType)){
+            Converter converter = ConvertUtils.lookup(targetType);
+            if (null != converter && STANDARD_CONVERTER_TYPES.contains(converter.getClass())){
+                return (T) toBeConvertedValue;
+            }
+        }
+        return (T) ConvertUtils.convert(toBeConvertedValue, targetType);
     }
 
     //---------------------------------------------------------------
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 按照 (Class, propertyName) 缓存的属性访问器, 第一次访问的时候把 nested 路径解析成 getter 链, 之后直接 invoke, 不再每次 introspect.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>只编译简单属性以及 nested 属性(比如 <code>"userInfo.age"</code>), indexed/mapped 属性(比如 <code>"[0].id"</code>, <code>"map(key)"</code>)以及
+ * {@link Map}/{@link DynaBean} 不编译, {@link #of(Class, String)} 返回 null,由调用方走原来的 {@link PropertyUtils} 逻辑</li>
+ * <li>nested 路径中间的 getter 按照声明的返回类型解析;运行时中间值是 null,或者是 {@link Map}/{@link DynaBean},访问方法返回 {@link #UNRESOLVED},
+ * 调用方同样走原来的逻辑,保证异常以及取值规则和原来一致</li>
+ * <li>缓存挂在 {@link ClassValue} 上,随着 Class 一起被回收,不会因为缓存导致 classloader 泄漏,不同 classloader 加载的同名类也不会互相串</li>
+ * <li>jdk7 下 {@link java.lang.invoke.MethodHandle} 非常量调用并不比 inflate 之后的反射快,所以直接缓存 {@link Method}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class PropertyAccessor{
+
+    /** The Constant log. */
+    private static final Logger           LOGGER        = LoggerFactory.getLogger(PropertyAccessor.class);
+
+    /** 访问的时候无法直接处理, 调用方需要走原来的逻辑. */
+    static final Object                   UNRESOLVED    = new Object();
+
+    /** 不能编译的标识,用于缓存失败的结果,避免重复 introspect. */
+    private static final PropertyAccessor NOT_SUPPORTED = new PropertyAccessor(null, null, null);
+
+    /** 每个 Class 对应的 propertyName 和 访问器. */
+    private static final ClassValue<ConcurrentMap<String, PropertyAccessor>> CACHE = new ClassValue<ConcurrentMap<String, PropertyAccessor>>(){
+
+        @Override
+        protected ConcurrentMap<String, PropertyAccessor> computeValue(Class<?> type){
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    //---------------------------------------------------------------
+
+    /** nested 路径中间的 getter 链, 简单属性是 empty. */
+    private final Method[]                nestedReadMethods;
+
+    /** 最后一级属性的 getter,可能是 null. */
+    private final Method                  readMethod;
+
+    /** 最后一级属性的 setter,可能是 null. */
+    private final Method                  writeMethod;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new property accessor.
+     *
+     * @param nestedReadMethods
+     *            the nested read methods
+     * @param readMethod
+     *            the read method
+     * @param writeMethod
+     *            the write method
+     */
+    private PropertyAccessor(Method[] nestedReadMethods, Method readMethod, Method writeMethod){
+        this.nestedReadMethods = nestedReadMethods;
+        this.readMethod = readMethod;
+        this.writeMethod = writeMethod;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>klass</code> 的 <code>propertyName</code> 访问器.
+     *
+     * @param klass
+     *            the klass
+     * @param propertyName
+     *            the property name
+     * @return 如果不能编译(indexed/mapped 属性, {@link Map}/{@link DynaBean},找不到属性等),返回 null
+     */
+    static PropertyAccessor of(Class<?> klass,String propertyName){
+        ConcurrentMap<String, PropertyAccessor> propertyNameAndAccessorMap = CACHE.get(klass);
+
+        PropertyAccessor propertyAccessor = propertyNameAndAccessorMap.get(propertyName);
+        if (null == propertyAccessor){
+            propertyAccessor = build(klass, propertyName);
+            PropertyAccessor existed = propertyNameAndAccessorMap.putIfAbsent(propertyName, propertyAccessor);
+            propertyAccessor = null == existed ? propertyAccessor : existed;
+        }
+        return NOT_SUPPORTED == propertyAccessor ? null : propertyAccessor;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 取值.
+     *
+     * @param bean
+     *            the bean
+     * @return 如果没有 getter 或者路径中间的值不能直接处理,返回 {@link #UNRESOLVED}
+     * @throws IllegalAccessException
+     *             the illegal access exception
+     * @throws InvocationTargetException
+     *             getter 抛出异常
+     */
+    Object getValue(Object bean) throws IllegalAccessException,InvocationTargetException{
+        if (null == readMethod){
+            return UNRESOLVED;
+        }
+        Object target = resolveTarget(bean);
+        return UNRESOLVED == target ? UNRESOLVED : readMethod.invoke(target);
+    }
+
+    /**
+     * 设值.
+     *
+     * @param bean
+     *            the bean
+     * @param value
+     *            the value
+     * @return 如果没有 setter,<code>value</code> 类型不匹配,或者路径中间的值不能直接处理,返回 false,什么都不做
+     * @throws IllegalAccessException
+     *             the illegal access exception
+     * @throws InvocationTargetException
+     *             getter 或者 setter 抛出异常
+     */
+    boolean setValue(Object bean,Object value) throws IllegalAccessException,InvocationTargetException{
+        if (null == writeMethod || !isAssignable(writeMethod.getParameterTypes()[0], value)){
+            return false;
+        }
+        Object target = resolveTarget(bean);
+        if (UNRESOLVED == target){
+            return false;
+        }
+        writeMethod.invoke(target, value);
+        return true;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 是否有 getter.
+     *
+     * @return true, if is readable
+     */
+    boolean isReadable(){
+        return null != readMethod;
+    }
+
+    /**
+     * 是否有 setter.
+     *
+     * @return true, if is writable
+     */
+    boolean isWritable(){
+        return null != writeMethod;
+    }
+
+    /**
+     * setter 参数的类型.
+     *
+     * @return 如果没有 setter,返回 null
+     */
+    Class<?> getWriteType(){
+        return null == writeMethod ? null : writeMethod.getParameterTypes()[0];
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 沿着 nested getter 链,找到最后一级属性所在的对象.
+     *
+     * @param bean
+     *            the bean
+     * @return 如果中间的值是 null 或者是 {@link Map}/{@link DynaBean},返回 {@link #UNRESOLVED}
+     * @throws IllegalAccessException
+     *             the illegal access exception
+     * @throws InvocationTargetException
+     *             the invocation target exception
+     */
+    private Object resolveTarget(Object bean) throws IllegalAccessException,InvocationTargetException{
+        Object target = bean;
+        for (Method nestedReadMethod : nestedReadMethods){
+            target = nestedReadMethod.invoke(target);
+            if (null == target || target instanceof Map || target instanceof DynaBean){
+                return UNRESOLVED;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * <code>value</code> 是否可以直接传给类型是 <code>parameterType</code> 的参数.
+     *
+     * @param parameterType
+     *            the parameter type
+     * @param value
+     *            the value
+     * @return true, if is assignable
+     */
+    private static boolean isAssignable(Class<?> parameterType,Object value){
+        if (null == value){
+            return !parameterType.isPrimitive();
+        }
+        return ClassUtils.isAssignable(value.getClass(), parameterType, true);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析 <code>propertyName</code>.
+     *
+     * @param klass
+     *            the klass
+     * @param propertyName
+     *            the property name
+     * @return 不能编译返回 {@link #NOT_SUPPORTED}
+     */
+    private static PropertyAccessor build(Class<?> klass,String propertyName){
+        if (StringUtils.containsAny(propertyName, "[]()") || isMapOrDynaBean(klass)){
+            return NOT_SUPPORTED;
+        }
+
+        //---------------------------------------------------------------
+        String[] names = StringUtils.splitPreserveAllTokens(propertyName, '.');
+        Method[] nestedReadMethods = new Method[names.length - 1];
+
+        Class<?> currentClass = klass;
+        for (int i = 0; i < nestedReadMethods.length; ++i){
+            Method nestedReadMethod = getAccessibleMethod(currentClass, findPropertyDescriptor(currentClass, names[i]), true);
+            if (null == nestedReadMethod){
+                return NOT_SUPPORTED;
+            }
+            nestedReadMethods[i] = nestedReadMethod;
+
+            currentClass = nestedReadMethod.getReturnType();
+            if (currentClass.isPrimitive() || currentClass.isArray() || isMapOrDynaBean(currentClass)){
+                return NOT_SUPPORTED;
+            }
+        }
+
+        //---------------------------------------------------------------
+        PropertyDescriptor propertyDescriptor = findPropertyDescriptor(currentClass, names[names.length - 1]);
+        Method readMethod = getAccessibleMethod(currentClass, propertyDescriptor, true);
+        Method writeMethod = getAccessibleMethod(currentClass, propertyDescriptor, false);
+        if (null == readMethod && null == writeMethod){
+            return NOT_SUPPORTED;
+        }
+
+        if (LOGGER.isTraceEnabled()){
+            LOGGER.trace("build property accessor,class:[{}],propertyName:[{}]", klass.getName(), propertyName);
+        }
+        return new PropertyAccessor(nestedReadMethods, readMethod, writeMethod);
+    }
+
+    /**
+     * 在 <code>klass</code> 中找到名字是 <code>name</code> 的 {@link PropertyDescriptor}.
+     *
+     * @param klass
+     *            the klass
+     * @param name
+     *            the name
+     * @return 找不到返回 null
+     */
+    private static PropertyDescriptor findPropertyDescriptor(Class<?> klass,String name){
+        if (StringUtils.isEmpty(name)){
+            return null;
+        }
+        for (PropertyDescriptor propertyDescriptor : PropertyUtils.getPropertyDescriptors(klass)){
+            if (name.equals(propertyDescriptor.getName())){
+                return propertyDescriptor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获得可以访问的 getter 或者 setter.
+     *
+     * @param klass
+     *            the klass
+     * @param propertyDescriptor
+     *            the property descriptor
+     * @param isRead
+     *            true 表示 getter, false 表示 setter
+     * @return 如果 <code>propertyDescriptor</code> 是null,或者没有对应的方法,或者方法不可以访问,返回 null
+     * @see <a href="https://github.com/venusdrogon/feilong-core/issues/760">PropertyUtil.getProperty(Object, String) 排序异常</a>
+     */
+    private static Method getAccessibleMethod(Class<?> klass,PropertyDescriptor propertyDescriptor,boolean isRead){
+        if (null == propertyDescriptor){
+            return null;
+        }
+        Method method = isRead ? propertyDescriptor.getReadMethod() : propertyDescriptor.getWriteMethod();
+        return null == method ? null : MethodUtils.getAccessibleMethod(klass, method);
+    }
+
+    /**
+     * Checks if is map or dyna bean.
+     *
+     * @param klass
+     *            the klass
+     * @return true, if is map or dyna bean
+     */
+    private static boolean isMapOrDynaBean(Class<?> klass){
+        return Map.class.isAssignableFrom(klass) || DynaBean.class.isAssignableFrom(klass);
+    }
+}
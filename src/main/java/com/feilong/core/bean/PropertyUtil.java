@@ -221,6 +221,7 @@ public final class PropertyUtil{
      * @see #setProperty(Object, String, Object)
      * @see BeanUtil#copyProperties(Object, Object, String...)
      * @see org.apache.commons.beanutils.PropertyUtilsBean#copyProperties(Object, Object)
+     * @see BeanCopier#create(Class, Class, String...)
      * @see <a href="http://www.cnblogs.com/kaka/archive/2013/03/06/2945514.html">Bean复制的几种框架性能比较(Apache BeanUtils、PropertyUtils,Spring
      *      BeanUtils,Cglib BeanCopier)</a>
      * @since 1.4.1
@@ -230,22 +231,8 @@ public final class PropertyUtil{
         Validate.notNull(fromObj, "fromObj [origin bean] not specified!");
 
         //---------------------------------------------------------------
-
-        if (isNullOrEmpty(includePropertyNames)){
-            try{
-                PropertyUtils.copyProperties(toObj, fromObj);
-                return;
-            }catch (Exception e){
-                String pattern = "copyProperties exception,toObj:[{}],fromObj:[{}],includePropertyNames:[{}]";
-                throw new BeanOperationException(Slf4jUtil.format(pattern, toObj, fromObj, includePropertyNames), e);
-            }
-        }
-
-        //---------------------------------------------------------------
-        for (String propertyName : includePropertyNames){
-            Object value = getProperty(fromObj, propertyName);
-            setProperty(toObj, propertyName, value);
-        }
+        //since 2.1.0 使用按照 (fromClass, toClass, includePropertyNames) 缓存的复制器
+        BeanCopier.create(fromObj.getClass(), toObj.getClass(), includePropertyNames).copy(toObj, fromObj);
     }
 
     //---------------------------------------------------------------
@@ -403,6 +390,7 @@ public final class PropertyUtil{
      * <li>如果<code>bean</code>没有传入的 <code>propertyName</code>属性名字,会抛出异常,see
      * {@link PropertyUtilsBean#setSimpleProperty(Object, String, Object) setSimpleProperty} Line2078,转成 {@link BeanOperationException}</li>
      * <li>对于Date类型,<span style="color:red">不需要先注册converter</span></li>
+     * <li>since 2.1.0,简单属性以及 nested 属性使用按照 (Class, propertyName) 缓存的 setter,重复调用不会每次都 introspect</li>
      * </ol>
      * </blockquote>
      *
@@ -422,7 +410,11 @@ public final class PropertyUtil{
 
         //---------------------------------------------------------------
         try{
-            PropertyUtils.setProperty(bean, propertyName, value);
+            //since 2.1.0 优先使用缓存的访问器
+            PropertyAccessor propertyAccessor = PropertyAccessor.of(bean.getClass(), propertyName);
+            if (null == propertyAccessor || !propertyAccessor.setValue(bean, value)){
+                PropertyUtils.setProperty(bean, propertyName, value);
+            }
         }catch (Exception e){
             String pattern = "setProperty exception,bean:[{}],propertyName:[{}],value:[{}]";
             throw new BeanOperationException(Slf4jUtil.format(pattern, bean, propertyName, value), e);
@@ -504,6 +496,7 @@ public final class PropertyUtil{
      * <blockquote>
      * <ol>
      * <li>原样取出值,不会进行类型转换.</li>
+     * <li>since 2.1.0,简单属性以及 nested 属性使用按照 (Class, propertyName) 缓存的 getter 链,重复调用不会每次都 introspect.</li>
      * </ol>
      * </blockquote>
      * 
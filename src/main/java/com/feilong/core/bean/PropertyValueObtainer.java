@@ -53,6 +53,10 @@ public final class PropertyValueObtainer{
 
     /**
      * Gets the property focus.
+     * 
+     * <p>
+     * 简单属性以及 nested 属性优先使用按照 (Class, propertyName) 缓存的 {@link PropertyAccessor}, 其余情况使用 spring 或者 {@link PropertyUtils}.
+     * </p>
      *
      * @param <T>
      *            the generic type
@@ -62,7 +66,18 @@ public final class PropertyValueObtainer{
      *            the property name
      * @return the property focus
      */
+    @SuppressWarnings("unchecked")
     static <T> T obtain(Object bean,String propertyName){
+        //since 2.1.0 优先使用缓存的访问器
+        PropertyAccessor propertyAccessor = PropertyAccessor.of(bean.getClass(), propertyName);
+        if (null != propertyAccessor){
+            Object value = getDataUseAccessor(bean, propertyName, propertyAccessor);
+            if (PropertyAccessor.UNRESOLVED != value){
+                return (T) value;
+            }
+        }
+
+        //---------------------------------------------------------------
         if (PropertyDescriptorUtil.isUseSpringOperate(bean.getClass(), propertyName)){
             return getDataUseSpring(bean, propertyName);
         }
@@ -71,6 +86,29 @@ public final class PropertyValueObtainer{
 
     //---------------------------------------------------------------
 
+    /**
+     * 使用缓存的 {@link PropertyAccessor} 取值.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyName
+     *            the property name
+     * @param propertyAccessor
+     *            the property accessor
+     * @return 如果不能直接处理,返回 {@link PropertyAccessor#UNRESOLVED}
+     * @since 2.1.0
+     */
+    private static Object getDataUseAccessor(Object bean,String propertyName,PropertyAccessor propertyAccessor){
+        try{
+            return propertyAccessor.getValue(bean);
+        }catch (Exception e){
+            String pattern = "getProperty exception,bean:[{}],propertyName:[{}]";
+            throw new BeanOperationException(Slf4jUtil.format(pattern, bean, propertyName), e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * Gets the data use apache.
      *
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.apache.commons.beanutils.converters.BigDecimalConverter;
+import org.apache.commons.beanutils.converters.BooleanConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
+
+/**
+ * {@link ConvertUtil#toBoolean(Object)},{@link ConvertUtil#toInteger(Object, Integer)},{@link ConvertUtil#toLong(Object)} 以及
+ * {@link ConvertUtil#toBigDecimal(Object)} 的实现.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>默认值是null 的 converter 只创建一次,多线程共享(创建之后没有修改过, beanutils 的 converter 转换的时候不修改自身状态)</li>
+ * <li>有默认值的转换,等于默认值是null 的转换结果为null 的时候返回默认值(null 以及转换失败都返回默认值),所以不需要按照默认值缓存 converter</li>
+ * <li>常见的 String 以及 Number 直接转换,不经过 converter 的分发;结果和 {@link org.apache.commons.beanutils.converters.NumberConverter} 完全一致,
+ * 不能确定的情况(比如非 ASCII 数字,可能溢出的长数字)交给 converter</li>
+ * <li>和原来一样直接使用 beanutils 的 converter,不经过 {@link org.apache.commons.beanutils.ConvertUtils} 注册的 converter,
+ * 所以直接返回已经是目标类型的值不影响用户自定义的 converter</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class TypedConverter{
+
+    /** 默认值是null 的 {@link BooleanConverter}. */
+    private static final BooleanConverter    BOOLEAN_CONVERTER     = new BooleanConverter(null);
+
+    /** 默认值是null 的 {@link IntegerConverter}. */
+    private static final IntegerConverter    INTEGER_CONVERTER     = new IntegerConverter(null);
+
+    /** 默认值是null 的 {@link LongConverter}. */
+    private static final LongConverter       LONG_CONVERTER        = new LongConverter(null);
+
+    /** 默认值是null 的 {@link BigDecimalConverter}. */
+    private static final BigDecimalConverter BIG_DECIMAL_CONVERTER = new BigDecimalConverter(null);
+
+    //---------------------------------------------------------------
+
+    /** 不超过这个位数的数字字符串,一定不会溢出 int. */
+    private static final int                 MAX_INT_DIGITS        = 9;
+
+    /** 不超过这个位数的数字字符串,一定不会溢出 long. */
+    private static final int                 MAX_LONG_DIGITS       = 18;
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private TypedConverter(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转成 {@link Boolean}.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @return 如果 <code>toBeConvertedValue</code> 是null 或者不能转换,返回null
+     */
+    static Boolean toBoolean(Object toBeConvertedValue){
+        if (toBeConvertedValue instanceof Boolean){
+            return (Boolean) toBeConvertedValue;
+        }
+        return BOOLEAN_CONVERTER.convert(Boolean.class, toBeConvertedValue);
+    }
+
+    /**
+     * 转成 {@link Integer}.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @return 如果 <code>toBeConvertedValue</code> 是null 或者不能转换,返回null
+     */
+    static Integer toInteger(Object toBeConvertedValue){
+        if (toBeConvertedValue instanceof Integer){
+            return (Integer) toBeConvertedValue;
+        }
+        if (toBeConvertedValue instanceof Number){
+            Number number = (Number) toBeConvertedValue;
+            long longValue = number.longValue();
+            //和 NumberConverter 一样,超出范围转换失败
+            return longValue > Integer.MAX_VALUE || longValue < Integer.MIN_VALUE ? null : Integer.valueOf(number.intValue());
+        }
+        if (toBeConvertedValue instanceof String){
+            String value = ((String) toBeConvertedValue).trim();
+            if (isShortDecimal(value, MAX_INT_DIGITS)){
+                return Integer.valueOf((int) parseShortDecimal(value));
+            }
+        }
+        return INTEGER_CONVERTER.convert(Integer.class, toBeConvertedValue);
+    }
+
+    /**
+     * 转成 {@link Long}.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @return 如果 <code>toBeConvertedValue</code> 是null 或者不能转换,返回null
+     */
+    static Long toLong(Object toBeConvertedValue){
+        if (toBeConvertedValue instanceof Long){
+            return (Long) toBeConvertedValue;
+        }
+        if (toBeConvertedValue instanceof Number){
+            return Long.valueOf(((Number) toBeConvertedValue).longValue());
+        }
+        if (toBeConvertedValue instanceof String){
+            String value = ((String) toBeConvertedValue).trim();
+            if (isShortDecimal(value, MAX_LONG_DIGITS)){
+                return Long.valueOf(parseShortDecimal(value));
+            }
+        }
+        return LONG_CONVERTER.convert(Long.class, toBeConvertedValue);
+    }
+
+    /**
+     * 转成 {@link BigDecimal}.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @return 如果 <code>toBeConvertedValue</code> 是null 或者不能转换,返回null
+     */
+    static BigDecimal toBigDecimal(Object toBeConvertedValue){
+        if (null != toBeConvertedValue && BigDecimal.class == toBeConvertedValue.getClass()){
+            return (BigDecimal) toBeConvertedValue;
+        }
+        try{
+            if (toBeConvertedValue instanceof Number){
+                return toBigDecimal((Number) toBeConvertedValue);
+            }
+            if (toBeConvertedValue instanceof String){
+                String value = ((String) toBeConvertedValue).trim();
+                return value.isEmpty() ? null : new BigDecimal(value);
+            }
+        }catch (NumberFormatException e){
+            //和 BigDecimalConverter 一样,转换失败返回默认值null
+            return null;
+        }
+        return BIG_DECIMAL_CONVERTER.convert(BigDecimal.class, toBeConvertedValue);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 和 NumberConverter#toNumber(Class, Class, Number) 转成 {@link BigDecimal} 的规则一致.
+     *
+     * @param number
+     *            the number
+     * @return the big decimal
+     * @throws NumberFormatException
+     *             如果是 NaN 或者 Infinity
+     */
+    private static BigDecimal toBigDecimal(Number number){
+        if (number instanceof Float || number instanceof Double){
+            return new BigDecimal(number.toString());
+        }
+        if (number instanceof BigInteger){
+            return new BigDecimal((BigInteger) number);
+        }
+        if (number instanceof BigDecimal){
+            return new BigDecimal(number.toString());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    /**
+     * 是否是可选的正负号加上不超过 <code>maxDigits</code> 位的 ASCII 数字.
+     *
+     * @param value
+     *            the value
+     * @param maxDigits
+     *            the max digits
+     * @return true, if is short decimal
+     */
+    private static boolean isShortDecimal(String value,int maxDigits){
+        int length = value.length();
+        int start = length > 0 && ('-' == value.charAt(0) || '+' == value.charAt(0)) ? 1 : 0;
+        if (length == start || length - start > maxDigits){
+            return false;
+        }
+        for (int i = start; i < length; ++i){
+            char c = value.charAt(i);
+            if (c < '0' || c > '9'){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解析 {@link #isShortDecimal(String, int)} 检查过的字符串.
+     *
+     * @param value
+     *            the value
+     * @return the long
+     */
+    private static long parseShortDecimal(String value){
+        char first = value.charAt(0);
+        int start = '-' == first || '+' == first ? 1 : 0;
+        long result = 0;
+        for (int i = start; i < value.length(); ++i){
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+        return '-' == first ? -result : result;
+    }
+}
@@ -356,10 +356,18 @@ final class CalendarUtil{
      *            年份:{@link Calendar#YEAR}<br>
      *            ...
      * @return 如果 <code>calendar</code> 是null,抛出 {@link NullPointerException}<br>
+     *         年月日时分秒毫秒以及 {@link Calendar#DAY_OF_YEAR},{@link Calendar#DAY_OF_WEEK} 直接使用 epoch 毫秒计算,不创建 {@link Calendar},参见 {@link EpochCalendar}
      * @see #getFieldValue(Calendar, int)
      * @since 1.3.0
      */
     static int getFieldValue(Date date,int field){
+        Validate.notNull(date, "date can't be null!");
+        int value = EpochCalendar.getFieldValue(date, field);
+        if (value >= 0){
+            return value;
+        }
+
+        //---------------------------------------------------------------
         Calendar calendar = DateUtil.toCalendar(date);
         return getFieldValue(calendar, field);
     }
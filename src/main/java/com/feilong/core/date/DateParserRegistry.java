@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.time.FastDateFormat;
+
+/**
+ * 线程安全的日期解析器注册表,{@link DateUtil#toDate(String, String...)} 使用.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>{@link org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)} 每次调用,每个模式都要重新创建解析器;本类按照模式缓存解析器(线程安全的
+ * {@link FastDateFormat}),默认 {@link TimeZone} 或者 {@link Locale} 变化的时候重新获取</li>
+ * <li>解析逻辑和 {@link org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)} 完全一致:默认时区和语言,宽松模式,按照顺序尝试每个模式,
+ * 必须解析完整个字符串</li>
+ * <li>多个模式的时候,按照字符串的"形状"(长度以及每个非数字字符,数字都看成 0)记录上次成功的模式,下次同样形状的字符串直接先尝试这个模式;
+ * 形状相同的字符串只是数字不同,而宽松模式下数字的值不会影响前面的模式是否失败,所以结果和按照顺序尝试一致;如果失败,再按照顺序尝试全部模式</li>
+ * <li>每个模式解析成功的次数可以通过 {@link #getPatternHitCountMap()} 查看</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)
+ * @see FastDateFormat#parse(String, ParsePosition, Calendar)
+ * @since 2.1.0
+ */
+public final class DateParserRegistry{
+
+    /** 形状缓存的最大数量,超过之后不再缓存新的形状. */
+    private static final int                                  MAX_SHAPE_CACHE_SIZE = 1024;
+
+    /** 参与形状缓存的字符串最大长度. */
+    private static final int                                  MAX_SHAPE_LENGTH     = 64;
+
+    /** 超过这个长度的连续数字可能溢出 int,结果和数字的值有关,不参与形状缓存. */
+    private static final int                                  MAX_DIGIT_RUN_LENGTH = 9;
+
+    /** 模式到解析器的缓存. */
+    private static final ConcurrentMap<String, PatternParser> PATTERN_PARSER_MAP   = new ConcurrentHashMap<>();
+
+    /** (模式数组,形状) 到上次成功的模式下标. */
+    private static final ConcurrentMap<ShapeKey, Integer>     SHAPE_INDEX_MAP      = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private DateParserRegistry(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 <code>datePatterns</code> 按照顺序解析 <code>dateString</code>.
+     *
+     * @param dateString
+     *            时间字符串,不能是null
+     * @param datePatterns
+     *            模式,不能是null,也不能有null元素
+     * @return the date
+     * @throws ParseException
+     *             如果没有任何模式可以解析
+     */
+    static Date parse(String dateString,String...datePatterns) throws ParseException{
+        TimeZone timeZone = TimeZone.getDefault();
+        Locale locale = Locale.getDefault();
+        Calendar calendar = Calendar.getInstance(timeZone, locale);
+        calendar.setLenient(true);
+        ParsePosition parsePosition = new ParsePosition(0);
+
+        //---------------------------------------------------------------
+        if (1 == datePatterns.length){
+            if (parse(dateString, datePatterns[0], timeZone, locale, calendar, parsePosition)){
+                return calendar.getTime();
+            }
+            throw new ParseException("Unable to parse the date: " + dateString, -1);
+        }
+
+        //---------------------------------------------------------------
+        String shape = toShape(dateString);
+        Integer hintIndex = null == shape ? null : SHAPE_INDEX_MAP.get(new ShapeKey(datePatterns, shape));
+        if (null != hintIndex && parse(dateString, datePatterns[hintIndex], timeZone, locale, calendar, parsePosition)){
+            return calendar.getTime();
+        }
+
+        for (int i = 0; i < datePatterns.length; ++i){
+            if (null != hintIndex && i == hintIndex){
+                continue;
+            }
+            if (parse(dateString, datePatterns[i], timeZone, locale, calendar, parsePosition)){
+                if (null != shape && SHAPE_INDEX_MAP.size() < MAX_SHAPE_CACHE_SIZE){
+                    SHAPE_INDEX_MAP.put(new ShapeKey(datePatterns.clone(), shape), i);
+                }
+                return calendar.getTime();
+            }
+        }
+        throw new ParseException("Unable to parse the date: " + dateString, -1);
+    }
+
+    /**
+     * 每个模式解析成功的次数.
+     *
+     * @return 模式到成功次数的 map(按照模式排序),只包含使用过的模式;返回的是快照,不能修改
+     */
+    public static Map<String, Long> getPatternHitCountMap(){
+        Map<String, Long> map = new TreeMap<>();
+        for (Map.Entry<String, PatternParser> entry : PATTERN_PARSER_MAP.entrySet()){
+            map.put(entry.getKey(), entry.getValue().hitCount.get());
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * 把每个模式解析成功的次数清零.
+     */
+    public static void resetPatternHitCount(){
+        for (PatternParser patternParser : PATTERN_PARSER_MAP.values()){
+            patternParser.hitCount.set(0);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用一个模式解析,和 {@link org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)} 循环中的单次尝试一致.
+     *
+     * @param dateString
+     *            the date string
+     * @param datePattern
+     *            the date pattern
+     * @param timeZone
+     *            the time zone
+     * @param locale
+     *            the locale
+     * @param calendar
+     *            成功的时候,解析的结果设置在这里
+     * @param parsePosition
+     *            the parse position
+     * @return 是否解析成功并且解析完整个字符串
+     */
+    private static boolean parse(
+                    String dateString,
+                    String datePattern,
+                    TimeZone timeZone,
+                    Locale locale,
+                    Calendar calendar,
+                    ParsePosition parsePosition){
+        PatternParser patternParser = getPatternParser(datePattern);
+        FastDateFormat fastDateFormat = patternParser.getFastDateFormat(timeZone, locale);
+
+        calendar.clear();
+        parsePosition.setIndex(0);
+        try{
+            if (fastDateFormat.parse(dateString, parsePosition, calendar) && parsePosition.getIndex() == dateString.length()){
+                patternParser.hitCount.incrementAndGet();
+                return true;
+            }
+        }catch (IllegalArgumentException e){
+            //和 DateUtils 一样,忽略,继续尝试下一个模式
+        }
+        return false;
+    }
+
+    /**
+     * 获得模式对应的解析器,没有的时候创建.
+     *
+     * @param datePattern
+     *            the date pattern
+     * @return the pattern parser
+     */
+    private static PatternParser getPatternParser(String datePattern){
+        PatternParser patternParser = PATTERN_PARSER_MAP.get(datePattern);
+        if (null == patternParser){
+            PatternParser newPatternParser = new PatternParser(datePattern);
+            patternParser = PATTERN_PARSER_MAP.putIfAbsent(datePattern, newPatternParser);
+            if (null == patternParser){
+                patternParser = newPatternParser;
+            }
+        }
+        return patternParser;
+    }
+
+    /**
+     * 字符串的形状,数字都转成 '0',其他字符不变.
+     *
+     * @param dateString
+     *            the date string
+     * @return 如果字符串太长,或者有太长的连续数字,返回null,表示不参与形状缓存
+     */
+    private static String toShape(String dateString){
+        int length = dateString.length();
+        if (length > MAX_SHAPE_LENGTH){
+            return null;
+        }
+
+        char[] chars = new char[length];
+        int digitRunLength = 0;
+        for (int i = 0; i < length; ++i){
+            char c = dateString.charAt(i);
+            if (c >= '0' && c <= '9'){
+                if (++digitRunLength > MAX_DIGIT_RUN_LENGTH){
+                    return null;
+                }
+                chars[i] = '0';
+            }else{
+                digitRunLength = 0;
+                chars[i] = c;
+            }
+        }
+        return new String(chars);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 一个模式的解析器以及成功次数.
+     */
+    private static final class PatternParser{
+
+        /** The date pattern. */
+        private final String            datePattern;
+
+        /** 解析成功的次数. */
+        private final AtomicLong        hitCount = new AtomicLong();
+
+        /** 最近一次使用的解析器,默认时区或者语言变化的时候替换. */
+        private volatile FastDateFormat fastDateFormat;
+
+        /**
+         * Instantiates a new pattern parser.
+         *
+         * @param datePattern
+         *            the date pattern
+         */
+        private PatternParser(String datePattern){
+            this.datePattern = datePattern;
+        }
+
+        /**
+         * 获得 <code>timeZone</code> 和 <code>locale</code> 对应的解析器.
+         *
+         * @param timeZone
+         *            the time zone
+         * @param locale
+         *            the locale
+         * @return the fast date format
+         */
+        private FastDateFormat getFastDateFormat(TimeZone timeZone,Locale locale){
+            FastDateFormat current = fastDateFormat;
+            if (null == current || !current.getTimeZone().equals(timeZone) || !current.getLocale().equals(locale)){
+                current = FastDateFormat.getInstance(datePattern, timeZone, locale);
+                fastDateFormat = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * (模式数组,形状) 组成的 key.
+     */
+    private static final class ShapeKey{
+
+        /** The date patterns. */
+        private final String[] datePatterns;
+
+        /** The shape. */
+        private final String   shape;
+
+        /** The hash code. */
+        private final int      hashCode;
+
+        /**
+         * Instantiates a new shape key.
+         *
+         * @param datePatterns
+         *            the date patterns
+         * @param shape
+         *            the shape
+         */
+        private ShapeKey(String[] datePatterns, String shape){
+            this.datePatterns = datePatterns;
+            this.shape = shape;
+            this.hashCode = 31 * Arrays.hashCode(datePatterns) + shape.hashCode();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode(){
+            return hashCode;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj){
+            if (this == obj){
+                return true;
+            }
+            if (!(obj instanceof ShapeKey)){
+                return false;
+            }
+            ShapeKey other = (ShapeKey) obj;
+            return hashCode == other.hashCode && shape.equals(other.shape) && Arrays.equals(datePatterns, other.datePatterns);
+        }
+    }
+}
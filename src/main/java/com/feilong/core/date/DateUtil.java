@@ -332,6 +332,11 @@ public final class DateUtil{
      * @since 1.5.0
      */
     public static Date getFirstDateOfThisDay(Date date){
+        Validate.notNull(date, "date can't be null!");
+        Date boundary = EpochCalendar.getBoundary(date, EpochCalendar.DAY_BEGIN);
+        if (null != boundary){
+            return boundary;
+        }
         Calendar calendar = toCalendar(date);
         return CalendarUtil.toDate(resetDayBegin(calendar));
     }
@@ -355,6 +360,11 @@ public final class DateUtil{
      * @since 1.5.0
      */
     public static Date getLastDateOfThisDay(Date date){
+        Validate.notNull(date, "date can't be null!");
+        Date boundary = EpochCalendar.getBoundary(date, EpochCalendar.DAY_END);
+        if (null != boundary){
+            return boundary;
+        }
         Calendar calendar = toCalendar(date);
         return CalendarUtil.toDate(resetDayEnd(calendar));
     }
@@ -457,6 +467,11 @@ public final class DateUtil{
      * @see Calendar#getTime()
      */
     public static Date getFirstDateOfThisMonth(Date date){
+        Validate.notNull(date, "date can't be null!");
+        Date boundary = EpochCalendar.getBoundary(date, EpochCalendar.MONTH_BEGIN);
+        if (null != boundary){
+            return boundary;
+        }
         Calendar calendar = toCalendar(date);
         calendar.set(DAY_OF_MONTH, 1);
         return CalendarUtil.toDate(resetDayBegin(calendar));
@@ -491,6 +506,11 @@ public final class DateUtil{
      * @see Calendar#getTime()
      */
     public static Date getLastDateOfThisMonth(Date date){
+        Validate.notNull(date, "date can't be null!");
+        Date boundary = EpochCalendar.getBoundary(date, EpochCalendar.MONTH_END);
+        if (null != boundary){
+            return boundary;
+        }
         Calendar calendar = toCalendar(date);
         calendar.set(DAY_OF_MONTH, calendar.getActualMaximum(DAY_OF_MONTH));
         return CalendarUtil.toDate(resetDayEnd(calendar));
@@ -518,6 +538,11 @@ public final class DateUtil{
      * @see Calendar#getTime()
      */
     public static Date getFirstDateOfThisYear(Date date){
+        Validate.notNull(date, "date can't be null!");
+        Date boundary = EpochCalendar.getBoundary(date, EpochCalendar.YEAR_BEGIN);
+        if (null != boundary){
+            return boundary;
+        }
         Calendar calendar = toCalendar(date);
         calendar.set(MONTH, JANUARY);
         calendar.set(DAY_OF_MONTH, 1);
@@ -546,6 +571,11 @@ public final class DateUtil{
      * @see Calendar#getTime()
      */
     public static Date getLastDateOfThisYear(Date date){
+        Validate.notNull(date, "date can't be null!");
+        Date boundary = EpochCalendar.getBoundary(date, EpochCalendar.YEAR_END);
+        if (null != boundary){
+            return boundary;
+        }
         Calendar calendar = toCalendar(date);
         return CalendarUtil.toDate(resetYearEnd(calendar));
     }
@@ -1214,6 +1244,11 @@ public final class DateUtil{
     /**
      * 将指定日期 <code>date</code>转换成特殊格式 <code>datePattern</code> 的字符串.
      * 
+     * <p>
+     * 只由 yyyy,MM,dd,HH,mm,ss,SSS 组成的数字模式(比如 {@link DatePattern#COMMON_DATE_AND_TIME},{@link DatePattern#TIMESTAMP})使用预编译的格式化器,不创建
+     * {@link Calendar},同一秒内的重复调用直接复用;其他模式使用 {@link DateFormatUtils#format(Date, String)}.
+     * </p>
+     * 
      * <h3>示例:</h3>
      * <blockquote>
      * 
@@ -1240,7 +1275,9 @@ public final class DateUtil{
         Validate.notNull(date, "date can't be null!");
         Validate.notBlank(datePattern, "datePattern can't be blank!");
 
-        return DateFormatUtils.format(date, datePattern);
+        //纯数字的常用模式,不需要创建 Calendar
+        String formatted = PrecompiledDatePrinter.format(date.getTime(), datePattern);
+        return null != formatted ? formatted : DateFormatUtils.format(date, datePattern);
     }
 
     /**
@@ -1306,6 +1343,7 @@ public final class DateUtil{
      * <li>如果能解析所有的字符串,那么视为成功</li>
      * <li>如果没有任何的模式匹配,将会抛出异常</li>
      * <li>如果转换有异常,会将 {@link ParseException} 转成 {@link IllegalArgumentException} 返回,是 UnCheckedException异常 ,不需要强制catch处理</li>
+     * <li>解析器按照模式缓存,线程安全,不会每次都创建;每个模式的命中次数参见 {@link DateParserRegistry#getPatternHitCountMap()}</li>
      * </ol>
      * </blockquote>
      * 
@@ -1350,6 +1388,7 @@ public final class DateUtil{
      *         如果 <code>datePatterns</code> 是 empty,抛出 {@link IllegalArgumentException}<br>
      *         如果 <code>datePatterns</code> 有元素是 null,抛出 {@link IllegalArgumentException}<br>
      * @see org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)
+     * @see DateParserRegistry
      * @see <a href="http://stackoverflow.com/questions/4216745/java-string-to-date-conversion/">java-string-to-date-conversion</a>
      * @see <a href="http://stackoverflow.com/questions/4216745/java-string-to-date-conversion/22180505#22180505">java-string-to-date-
      *      conversion/22180505#22180505</a>
@@ -1365,7 +1404,7 @@ public final class DateUtil{
         //---------------------------------------------------------------
 
         try{
-            return DateUtils.parseDate(dateString, datePatterns);
+            return DateParserRegistry.parse(dateString, datePatterns);
         }catch (ParseException e){
             String pattern = "dateString:[{}],use patterns:[{}],parse to date exception,message:[{}]";
             throw new IllegalArgumentException(Slf4jUtil.format(pattern, dateString, datePatterns, e.getMessage()), e);
@@ -0,0 +1,471 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.DAY_OF_WEEK;
+import static java.util.Calendar.DAY_OF_YEAR;
+import static java.util.Calendar.HOUR_OF_DAY;
+import static java.util.Calendar.MILLISECOND;
+import static java.util.Calendar.MINUTE;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.SECOND;
+import static java.util.Calendar.YEAR;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 不创建 {@link Calendar},直接使用 epoch 毫秒计算日期字段以及日/月/年的边界.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>字段:使用默认 {@link TimeZone#getOffset(long)} 得到本地时间(和 {@link java.util.GregorianCalendar} 计算字段时使用的偏移量相同,包括夏令时),再用公历算法计算年月日时分秒</li>
+ * <li>边界:一天开始/结束的时刻只和时区以及本地日期有关,每个时区缓存最近用到的本地日期的开始/结束时刻;没有缓存的时候使用 {@link Calendar} 计算一次,所以夏令时切换(本地时间不存在或者重复)的处理和
+ * {@link Calendar} 完全一致</li>
+ * <li>为了和 {@link java.util.GregorianCalendar} 的结果完全一致,只处理 1900-01-01 到 9999-12-31 之间的本地时间,并且默认 {@link Locale} 使用的是公历;其他情况返回 -1 或者null,
+ * 由调用方使用 {@link Calendar}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class EpochCalendar{
+
+    /** 1900-01-01 00:00:00.000 (本地时间) 的毫秒数. */
+    static final long                                        MIN_LOCAL_MILLIS = -2208988800000L;
+
+    /** 10000-01-01 00:00:00.000 (本地时间) 的毫秒数. */
+    static final long                                        MAX_LOCAL_MILLIS = 253402300800000L;
+
+    /** The Constant MILLIS_PER_DAY. */
+    static final long                                        MILLIS_PER_DAY   = 86400000L;
+
+    //---------------------------------------------------------------
+
+    /** 边界:一天的开始. */
+    static final int                                         DAY_BEGIN        = 0;
+
+    /** 边界:一天的结束. */
+    static final int                                         DAY_END          = 1;
+
+    /** 边界:一个月的开始. */
+    static final int                                         MONTH_BEGIN      = 2;
+
+    /** 边界:一个月的结束. */
+    static final int                                         MONTH_END        = 3;
+
+    /** 边界:一年的开始. */
+    static final int                                         YEAR_BEGIN       = 4;
+
+    /** 边界:一年的结束. */
+    static final int                                         YEAR_END         = 5;
+
+    //---------------------------------------------------------------
+
+    /** 每个时区缓存的本地日期个数,必须是2的n次方. */
+    private static final int                                 DAY_CACHE_SIZE   = 1024;
+
+    /** 只有这个类型的时区,ID 可以唯一确定规则. */
+    private static final String                              ZONE_INFO_CLASS  = "sun.util.calendar.ZoneInfo";
+
+    /** 时区 ID 到边界缓存. */
+    private static final ConcurrentMap<String, ZoneDayCache> ZONE_DAY_CACHE   = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private EpochCalendar(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用默认时区以及 {@link Locale.Category#FORMAT} 默认 locale(和 {@link Calendar#getInstance()} 一致),获得 <code>date</code> 的字段值.
+     *
+     * @param date
+     *            the date
+     * @param field
+     *            {@link Calendar#YEAR},{@link Calendar#MONTH}(0 开始),{@link Calendar#DAY_OF_MONTH},{@link Calendar#DAY_OF_YEAR},{@link Calendar#DAY_OF_WEEK},
+     *            {@link Calendar#HOUR_OF_DAY},{@link Calendar#MINUTE},{@link Calendar#SECOND},{@link Calendar#MILLISECOND}
+     * @return 如果字段不支持,或者时间超出范围,或者默认 locale 使用的不是公历,返回 -1
+     */
+    static int getFieldValue(Date date,int field){
+        if (!isSupportedField(field) || !isGregorianLocale(Locale.getDefault(Locale.Category.FORMAT))){
+            return -1;
+        }
+        long localMillis = toLocalMillis(date.getTime(), TimeZone.getDefault());
+        if (localMillis < MIN_LOCAL_MILLIS || localMillis >= MAX_LOCAL_MILLIS){
+            return -1;
+        }
+
+        //---------------------------------------------------------------
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) (localMillis - epochDay * MILLIS_PER_DAY);
+        switch (field) {
+            case YEAR:
+                return getYear(epochDay);
+            case MONTH:
+                return getMonth(epochDay) - 1;
+            case DAY_OF_MONTH:
+                return getDayOfMonth(epochDay);
+            case DAY_OF_YEAR:
+                return (int) (epochDay - toEpochDay(getYear(epochDay), 1, 1)) + 1;
+            case DAY_OF_WEEK:
+                return getDayOfWeek(epochDay);
+            case HOUR_OF_DAY:
+                return millisOfDay / 3600000;
+            case MINUTE:
+                return millisOfDay / 60000 % 60;
+            case SECOND:
+                return millisOfDay / 1000 % 60;
+            default:
+                return millisOfDay % 1000;
+        }
+    }
+
+    /**
+     * 使用默认时区,获得 <code>date</code> 所在日/月/年的边界时刻.
+     *
+     * @param date
+     *            the date
+     * @param boundary
+     *            {@link #DAY_BEGIN},{@link #DAY_END},{@link #MONTH_BEGIN},{@link #MONTH_END},{@link #YEAR_BEGIN},{@link #YEAR_END}
+     * @return 如果默认时区不是 JDK 内置时区,或者时间超出范围,或者默认 locale 使用的不是公历,返回null
+     */
+    static Date getBoundary(Date date,int boundary){
+        TimeZone timeZone = TimeZone.getDefault();
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (!ZONE_INFO_CLASS.equals(timeZone.getClass().getName()) || !isGregorianLocale(locale)){
+            return null;
+        }
+        long localMillis = toLocalMillis(date.getTime(), timeZone);
+        if (localMillis < MIN_LOCAL_MILLIS || localMillis >= MAX_LOCAL_MILLIS){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        int year = getYear(epochDay);
+        int month = getMonth(epochDay);
+
+        ZoneDayCache zoneDayCache = getZoneDayCache(timeZone);
+        switch (boundary) {
+            case DAY_BEGIN:
+                return new Date(zoneDayCache.get(epochDay, timeZone, locale).begin);
+            case DAY_END:
+                return new Date(zoneDayCache.get(epochDay, timeZone, locale).end);
+            case MONTH_BEGIN:
+                return new Date(zoneDayCache.get(toEpochDay(year, month, 1), timeZone, locale).begin);
+            case MONTH_END:
+                long nextMonthFirstDay = 12 == month ? toEpochDay(year + 1, 1, 1) : toEpochDay(year, month + 1, 1);
+                return new Date(zoneDayCache.get(nextMonthFirstDay - 1, timeZone, locale).end);
+            case YEAR_BEGIN:
+                return new Date(zoneDayCache.get(toEpochDay(year, 1, 1), timeZone, locale).begin);
+            default:
+                return new Date(zoneDayCache.get(toEpochDay(year, 12, 31), timeZone, locale).end);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 本地时间的毫秒数.
+     *
+     * @param millis
+     *            the millis
+     * @param timeZone
+     *            the time zone
+     * @return the long
+     */
+    static long toLocalMillis(long millis,TimeZone timeZone){
+        return millis + timeZone.getOffset(millis);
+    }
+
+    /**
+     * 本地日期对应的年.
+     *
+     * @param epochDay
+     *            1970-01-01 开始的天数
+     * @return the year
+     */
+    static int getYear(long epochDay){
+        return toYearMonthDay(epochDay) / 10000;
+    }
+
+    /**
+     * 本地日期对应的月,1 开始.
+     *
+     * @param epochDay
+     *            1970-01-01 开始的天数
+     * @return the month
+     */
+    static int getMonth(long epochDay){
+        return toYearMonthDay(epochDay) / 100 % 100;
+    }
+
+    /**
+     * 本地日期对应的日.
+     *
+     * @param epochDay
+     *            1970-01-01 开始的天数
+     * @return the day of month
+     */
+    static int getDayOfMonth(long epochDay){
+        return toYearMonthDay(epochDay) % 100;
+    }
+
+    /**
+     * 本地日期对应的星期,和 {@link Calendar#DAY_OF_WEEK} 一致,{@link Calendar#SUNDAY} 是 1.
+     *
+     * @param epochDay
+     *            1970-01-01 开始的天数
+     * @return the day of week
+     */
+    static int getDayOfWeek(long epochDay){
+        //1970-01-01 是星期四
+        long remainder = (epochDay + 4) % 7;
+        return (int) (remainder < 0 ? remainder + 7 : remainder) + 1;
+    }
+
+    /**
+     * 年月日对应的 1970-01-01 开始的天数.
+     *
+     * @param year
+     *            the year
+     * @param month
+     *            1 开始
+     * @param day
+     *            the day
+     * @return the long
+     * @see <a href="http://howardhinnant.github.io/date_algorithms.html#days_from_civil">days_from_civil</a>
+     */
+    static long toEpochDay(int year,int month,int day){
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * 默认 {@link Locale} 创建的 {@link Calendar} 是否是公历(泰国佛历以及日本和历不是).
+     *
+     * @param locale
+     *            the locale
+     * @return true, if is gregorian locale
+     */
+    static boolean isGregorianLocale(Locale locale){
+        String calendarType = locale.getUnicodeLocaleType("ca");
+        if (null != calendarType){
+            return "gregory".equals(calendarType);
+        }
+        String language = locale.getLanguage();
+        String country = locale.getCountry();
+        if ("th".equals(language) && "TH".equals(country)){
+            return false;
+        }
+        return !("ja".equals(language) && "JP".equals(country) && "JP".equals(locale.getVariant()));
+    }
+
+    /**
+     * 向下取整的除法, see Math.floorDiv(long, long) (jdk8).
+     *
+     * @param dividend
+     *            the dividend
+     * @param divisor
+     *            the divisor
+     * @return the long
+     */
+    static long floorDiv(long dividend,long divisor){
+        long quotient = dividend / divisor;
+        return (dividend % divisor != 0 && (dividend ^ divisor) < 0) ? quotient - 1 : quotient;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 本地日期对应的年月日,压缩成 yyyyMMdd 形式的整数.
+     *
+     * @param epochDay
+     *            1970-01-01 开始的天数
+     * @return the int
+     * @see <a href="http://howardhinnant.github.io/date_algorithms.html#civil_from_days">civil_from_days</a>
+     */
+    private static int toYearMonthDay(long epochDay){
+        long z = epochDay + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * 是否是支持的字段.
+     *
+     * @param field
+     *            the field
+     * @return true, if is supported field
+     */
+    private static boolean isSupportedField(int field){
+        switch (field) {
+            case YEAR:
+            case MONTH:
+            case DAY_OF_MONTH:
+            case DAY_OF_YEAR:
+            case DAY_OF_WEEK:
+            case HOUR_OF_DAY:
+            case MINUTE:
+            case SECOND:
+            case MILLISECOND:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 获得时区的边界缓存,时区规则变化(比如重新设置了默认时区)的时候重建.
+     *
+     * @param timeZone
+     *            the time zone
+     * @return the zone day cache
+     */
+    private static ZoneDayCache getZoneDayCache(TimeZone timeZone){
+        String id = timeZone.getID();
+        ZoneDayCache zoneDayCache = ZONE_DAY_CACHE.get(id);
+        if (null == zoneDayCache || zoneDayCache.rawOffset != timeZone.getRawOffset()){
+            zoneDayCache = new ZoneDayCache(timeZone.getRawOffset());
+            ZONE_DAY_CACHE.put(id, zoneDayCache);
+        }
+        return zoneDayCache;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 一个时区最近用到的本地日期的开始/结束时刻,按照日期直接映射.
+     */
+    private static final class ZoneDayCache{
+
+        /** 时区的 raw offset,用来发现同一个 ID 的时区规则变化. */
+        private final int           rawOffset;
+
+        /** 元素是不可变的,并发读写不需要加锁. */
+        private final DayBoundary[] dayBoundaries = new DayBoundary[DAY_CACHE_SIZE];
+
+        /**
+         * Instantiates a new zone day cache.
+         *
+         * @param rawOffset
+         *            the raw offset
+         */
+        private ZoneDayCache(int rawOffset){
+            this.rawOffset = rawOffset;
+        }
+
+        /**
+         * 获得本地日期的开始/结束时刻,没有缓存的时候使用 {@link Calendar} 计算.
+         *
+         * @param epochDay
+         *            1970-01-01 开始的天数
+         * @param timeZone
+         *            the time zone
+         * @param locale
+         *            the locale
+         * @return the day boundary
+         */
+        private DayBoundary get(long epochDay,TimeZone timeZone,Locale locale){
+            int index = (int) epochDay & (DAY_CACHE_SIZE - 1);
+            DayBoundary dayBoundary = dayBoundaries[index];
+            if (null == dayBoundary || dayBoundary.epochDay != epochDay){
+                dayBoundary = DayBoundary.compute(epochDay, timeZone, locale);
+                dayBoundaries[index] = dayBoundary;
+            }
+            return dayBoundary;
+        }
+    }
+
+    /**
+     * 本地日期的开始/结束时刻,不可变.
+     */
+    private static final class DayBoundary{
+
+        /** 1970-01-01 开始的天数. */
+        private final long epochDay;
+
+        /** 00:00:00.000 的时刻. */
+        private final long begin;
+
+        /** 23:59:59.999 的时刻. */
+        private final long end;
+
+        /**
+         * Instantiates a new day boundary.
+         *
+         * @param epochDay
+         *            the epoch day
+         * @param begin
+         *            the begin
+         * @param end
+         *            the end
+         */
+        private DayBoundary(long epochDay, long begin, long end){
+            this.epochDay = epochDay;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        /**
+         * 使用 {@link Calendar} 计算,和 {@link CalendarUtil#resetDayBegin(Calendar)},{@link CalendarUtil#resetDayEnd(Calendar)} 的结果一致.
+         *
+         * @param epochDay
+         *            the epoch day
+         * @param timeZone
+         *            the time zone
+         * @param locale
+         *            the locale
+         * @return the day boundary
+         */
+        private static DayBoundary compute(long epochDay,TimeZone timeZone,Locale locale){
+            Calendar calendar = Calendar.getInstance(timeZone, locale);
+            calendar.clear();
+            calendar.set(getYear(epochDay), getMonth(epochDay) - 1, getDayOfMonth(epochDay));
+            long begin = CalendarUtil.resetDayBegin(calendar).getTimeInMillis();
+
+            calendar.clear();
+            calendar.set(getYear(epochDay), getMonth(epochDay) - 1, getDayOfMonth(epochDay));
+            long end = CalendarUtil.resetDayEnd(calendar).getTimeInMillis();
+            return new DayBoundary(epochDay, begin, end);
+        }
+    }
+}
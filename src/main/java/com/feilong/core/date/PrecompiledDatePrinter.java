@@ -0,0 +1,374 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.date.EpochCalendar.MAX_LOCAL_MILLIS;
+import static com.feilong.core.date.EpochCalendar.MILLIS_PER_DAY;
+import static com.feilong.core.date.EpochCalendar.MIN_LOCAL_MILLIS;
+import static com.feilong.core.date.EpochCalendar.floorDiv;
+import static com.feilong.core.date.EpochCalendar.isGregorianLocale;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 预编译的纯数字日期格式化器,{@link DateUtil#toString(java.util.Date, String)} 使用.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>只支持由 <code>yyyy</code>,<code>MM</code>,<code>dd</code>,<code>HH</code>,<code>mm</code>,<code>ss</code>,<code>SSS</code> 以及非字母的字符组成的模式,比如
+ * {@link com.feilong.core.DatePattern#COMMON_DATE_AND_TIME},{@link com.feilong.core.DatePattern#TIMESTAMP},
+ * {@link com.feilong.core.DatePattern#TIMESTAMP_WITH_MILLISECOND},{@link com.feilong.core.DatePattern#CHINESE_DATE} 等;其他模式返回null,由调用方使用
+ * {@link org.apache.commons.lang3.time.DateFormatUtils} 格式化</li>
+ * <li>模式只解析一次,格式化的时候不创建 {@link java.util.Calendar},使用默认 {@link TimeZone} 的偏移量直接计算年月日时分秒,把数字写到字符数组中</li>
+ * <li>每个格式化器缓存最近一次格式化的那一秒(本地时间),同一秒内的调用(比如 nowTimestamp)直接复用,只需要改写毫秒</li>
+ * <li>为了和 {@link java.util.GregorianCalendar} 的结果完全一致,只处理 1900-01-01 到 9999-12-31 之间的本地时间,并且默认 {@link Locale} 使用的是公历;
+ * 其他情况返回null</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class PrecompiledDatePrinter{
+
+    /** 不支持的模式的标记. */
+    private static final PrecompiledDatePrinter                        UNSUPPORTED = new PrecompiledDatePrinter(null, null, null);
+
+    /** 模式到格式化器的缓存. */
+    private static final ConcurrentMap<String, PrecompiledDatePrinter> CACHE       = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /** 字段:年,4位. */
+    private static final int                                           YEAR        = 0;
+
+    /** 字段:月,2位. */
+    private static final int                                           MONTH       = 1;
+
+    /** 字段:日,2位. */
+    private static final int                                           DAY         = 2;
+
+    /** 字段:时(0-23),2位. */
+    private static final int                                           HOUR        = 3;
+
+    /** 字段:分,2位. */
+    private static final int                                           MINUTE      = 4;
+
+    /** 字段:秒,2位. */
+    private static final int                                           SECOND      = 5;
+
+    /** 字段:毫秒,3位. */
+    private static final int                                           MILLISECOND = 6;
+
+    //---------------------------------------------------------------
+
+    /** 模板,常量字符已经填好. */
+    private final char[]                                               template;
+
+    /** 每个字段的类型. */
+    private final int[]                                                fields;
+
+    /** 每个字段在模板中的开始下标. */
+    private final int[]                                                offsets;
+
+    /** 毫秒字段在模板中的开始下标,没有的时候是 -1. */
+    private final int                                                  millisecondOffset;
+
+    /** 最近一次格式化的那一秒. */
+    private volatile SecondCache                                       secondCache;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new precompiled date printer.
+     *
+     * @param template
+     *            the template
+     * @param fields
+     *            the fields
+     * @param offsets
+     *            the offsets
+     */
+    private PrecompiledDatePrinter(char[] template, int[] fields, int[] offsets){
+        this.template = template;
+        this.fields = fields;
+        this.offsets = offsets;
+
+        int millisecondOffset = -1;
+        for (int i = 0; null != fields && i < fields.length; ++i){
+            if (MILLISECOND == fields[i]){
+                millisecondOffset = offsets[i];
+            }
+        }
+        this.millisecondOffset = millisecondOffset;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用默认时区格式化 <code>millis</code>.
+     *
+     * @param millis
+     *            the millis
+     * @param datePattern
+     *            the date pattern
+     * @return 如果模式不支持,或者时间超出范围,或者默认 {@link Locale} 使用的不是公历,返回null
+     */
+    static String format(long millis,String datePattern){
+        PrecompiledDatePrinter printer = getPrinter(datePattern);
+        if (UNSUPPORTED == printer || !isGregorianLocale(Locale.getDefault())){
+            return null;
+        }
+        return printer.format(millis, TimeZone.getDefault());
+    }
+
+    /**
+     * 格式化.
+     *
+     * @param millis
+     *            the millis
+     * @param timeZone
+     *            the time zone
+     * @return 如果时间超出范围,返回null
+     */
+    String format(long millis,TimeZone timeZone){
+        long localMillis = millis + timeZone.getOffset(millis);
+        if (localMillis < MIN_LOCAL_MILLIS || localMillis >= MAX_LOCAL_MILLIS){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        long localSecond = floorDiv(localMillis, 1000);
+        int millisecond = (int) (localMillis - localSecond * 1000);
+
+        SecondCache cache = secondCache;
+        if (null == cache || cache.localSecond != localSecond){
+            cache = new SecondCache(localSecond, render(localMillis));
+            secondCache = cache;
+        }
+        if (millisecondOffset < 0){
+            return cache.string;
+        }
+
+        char[] chars = cache.chars.clone();
+        writeDigits(chars, millisecondOffset, millisecond, 3);
+        return new String(chars);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 生成所有字段(毫秒除外,毫秒在 {@link #format(long, TimeZone)} 中写入).
+     *
+     * @param localMillis
+     *            the local millis
+     * @return the char[]
+     */
+    private char[] render(long localMillis){
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) (localMillis - epochDay * MILLIS_PER_DAY);
+
+        //---------------------------------------------------------------
+        char[] chars = template.clone();
+        for (int i = 0; i < fields.length; ++i){
+            switch (fields[i]) {
+                case YEAR:
+                    writeDigits(chars, offsets[i], EpochCalendar.getYear(epochDay), 4);
+                    break;
+                case MONTH:
+                    writeDigits(chars, offsets[i], EpochCalendar.getMonth(epochDay), 2);
+                    break;
+                case DAY:
+                    writeDigits(chars, offsets[i], EpochCalendar.getDayOfMonth(epochDay), 2);
+                    break;
+                case HOUR:
+                    writeDigits(chars, offsets[i], millisOfDay / 3600000, 2);
+                    break;
+                case MINUTE:
+                    writeDigits(chars, offsets[i], millisOfDay / 60000 % 60, 2);
+                    break;
+                case SECOND:
+                    writeDigits(chars, offsets[i], millisOfDay / 1000 % 60, 2);
+                    break;
+                default:
+                    //毫秒每次单独写入
+                    break;
+            }
+        }
+        return chars;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得模式对应的格式化器,没有的时候编译.
+     *
+     * @param datePattern
+     *            the date pattern
+     * @return 不支持的模式返回 {@link #UNSUPPORTED}
+     */
+    private static PrecompiledDatePrinter getPrinter(String datePattern){
+        PrecompiledDatePrinter printer = CACHE.get(datePattern);
+        if (null == printer){
+            printer = compile(datePattern);
+            PrecompiledDatePrinter existing = CACHE.putIfAbsent(datePattern, printer);
+            if (null != existing){
+                printer = existing;
+            }
+        }
+        return printer;
+    }
+
+    /**
+     * 编译模式.
+     *
+     * @param datePattern
+     *            the date pattern
+     * @return 不支持的模式返回 {@link #UNSUPPORTED}
+     */
+    private static PrecompiledDatePrinter compile(String datePattern){
+        int length = datePattern.length();
+        char[] template = new char[length];
+        int[] fields = new int[length];
+        int[] offsets = new int[length];
+        int fieldCount = 0;
+
+        for (int i = 0; i < length;){
+            char c = datePattern.charAt(i);
+            //单引号转义不支持
+            if ('\'' == c){
+                return UNSUPPORTED;
+            }
+            if (!isPatternLetter(c)){
+                template[i++] = c;
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            int end = i;
+            while (end < length && datePattern.charAt(end) == c){
+                template[end++] = '0';
+            }
+            int field = toField(c, end - i);
+            if (field < 0){
+                return UNSUPPORTED;
+            }
+            fields[fieldCount] = field;
+            offsets[fieldCount] = i;
+            ++fieldCount;
+            i = end;
+        }
+        return new PrecompiledDatePrinter(template, Arrays.copyOf(fields, fieldCount), Arrays.copyOf(offsets, fieldCount));
+    }
+
+    /**
+     * 模式字母以及个数对应的字段.
+     *
+     * @param c
+     *            the c
+     * @param count
+     *            the count
+     * @return 不支持的时候返回 -1
+     */
+    private static int toField(char c,int count){
+        switch (c) {
+            case 'y':
+                return 4 == count ? YEAR : -1;
+            case 'M':
+                return 2 == count ? MONTH : -1;
+            case 'd':
+                return 2 == count ? DAY : -1;
+            case 'H':
+                return 2 == count ? HOUR : -1;
+            case 'm':
+                return 2 == count ? MINUTE : -1;
+            case 's':
+                return 2 == count ? SECOND : -1;
+            case 'S':
+                return 3 == count ? MILLISECOND : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 是否是模式字母,和 {@link java.text.SimpleDateFormat} 一样,只有 a-z 以及 A-Z.
+     *
+     * @param c
+     *            the c
+     * @return true, if is pattern letter
+     */
+    private static boolean isPatternLetter(char c){
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * 把非负整数 <code>value</code> 左补 0 写成 <code>width</code> 位.
+     *
+     * @param chars
+     *            the chars
+     * @param offset
+     *            the offset
+     * @param value
+     *            the value
+     * @param width
+     *            the width
+     */
+    private static void writeDigits(char[] chars,int offset,int value,int width){
+        int remain = value;
+        for (int i = offset + width - 1; i >= offset; --i){
+            chars[i] = (char) ('0' + remain % 10);
+            remain /= 10;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 最近一次格式化的那一秒,不可变.
+     */
+    private static final class SecondCache{
+
+        /** 本地时间的秒数. */
+        private final long   localSecond;
+
+        /** 这一秒格式化的字符(毫秒位置是 0). */
+        private final char[] chars;
+
+        /** chars 对应的字符串,没有毫秒字段的时候直接返回. */
+        private final String string;
+
+        /**
+         * Instantiates a new second cache.
+         *
+         * @param localSecond
+         *            the local second
+         * @param chars
+         *            the chars
+         */
+        private SecondCache(long localSecond, char[] chars){
+            this.localSecond = localSecond;
+            this.chars = chars;
+            this.string = new String(chars);
+        }
+    }
+}
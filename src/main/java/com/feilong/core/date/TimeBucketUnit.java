@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.date.EpochCalendar.MAX_LOCAL_MILLIS;
+import static com.feilong.core.date.EpochCalendar.MILLIS_PER_DAY;
+import static com.feilong.core.date.EpochCalendar.MIN_LOCAL_MILLIS;
+import static com.feilong.core.date.EpochCalendar.floorDiv;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 时间分桶的单位(小时,天,星期,月,年),用于按照时间段统计,比如 {@link com.feilong.core.util.AggregateUtil#timeBucketAggregate(Iterable, String, TimeBucketUnit, com.feilong.core.util.AggregateSpec)
+ * AggregateUtil.timeBucketAggregate}.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>每个桶的开始时间和下面的方法一致:
+ * <ul>
+ * <li>{@link #HOUR}: 当前小时的 <code>mm:ss.SSS</code> 清零</li>
+ * <li>{@link #DAY}: {@link DateUtil#getFirstDateOfThisDay(Date)},{@link DateExtensionUtil#getDayStartAndEndPair(Date)} 的 left</li>
+ * <li>{@link #WEEK}: 所在星期的周日 <code>00:00:00.000</code>,<b>总是</b>以周日为一个星期第一天,和默认 {@link java.util.Locale} 无关;
+ * 注意 {@link DateUtil#getFirstDateOfThisWeek(Date)} 依赖默认 {@link java.util.Locale} 的一个星期的第一天,只有在周日为第一天的 Locale(比如 zh_CN,en_US)
+ * 下两者一致</li>
+ * <li>{@link #MONTH}: {@link DateUtil#getFirstDateOfThisMonth(Date)},{@link DateExtensionUtil#getMonthStartAndEndPair(Date)} 的 left</li>
+ * <li>{@link #YEAR}: {@link DateUtil#getFirstDateOfThisYear(Date)},{@link DateExtensionUtil#getYearStartAndEndPair(Date)} 的 left</li>
+ * </ul>
+ * </li>
+ * <li>桶序号 {@link #toBucketIndex(Date, TimeZone)} 直接使用 epoch 毫秒以及时区偏移量计算,不创建 {@link Calendar};相邻的桶序号相差 1,可以用来排序以及补全没有数据的桶</li>
+ * <li>桶的开始时间 {@link #toBucketStart(long, TimeZone)} 使用 {@link GregorianCalendar} 计算,夏令时切换(本地时间不存在或者重复)的处理和 {@link DateUtil} 一致</li>
+ * <li>只支持本地时间 1900-01-01 到 9999-12-31 之间的时间,按照公历计算</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see DateExtensionUtil#getDayStartAndEndPair(Date)
+ * @see DateExtensionUtil#getMonthStartAndEndPair(Date)
+ * @see DateExtensionUtil#getYearStartAndEndPair(Date)
+ * @since 2.1.0
+ */
+public enum TimeBucketUnit{
+
+    /** 小时. */
+    HOUR{
+
+        @Override
+        long toBucketIndex(long localMillis){
+            return floorDiv(localMillis, MILLIS_PER_HOUR);
+        }
+
+        @Override
+        long toLocalMillis(long bucketIndex){
+            return bucketIndex * MILLIS_PER_HOUR;
+        }
+    },
+
+    /** 天. */
+    DAY{
+
+        @Override
+        long toBucketIndex(long localMillis){
+            return floorDiv(localMillis, MILLIS_PER_DAY);
+        }
+
+        @Override
+        long toLocalMillis(long bucketIndex){
+            return bucketIndex * MILLIS_PER_DAY;
+        }
+    },
+
+    /** 星期,总是以周日为一个星期第一天,和默认 {@link java.util.Locale} 无关. */
+    WEEK{
+
+        @Override
+        long toBucketIndex(long localMillis){
+            //1970-01-01 是星期四, 1970-01-04(第 3 天) 是周日
+            return floorDiv(floorDiv(localMillis, MILLIS_PER_DAY) + 4, 7);
+        }
+
+        @Override
+        long toLocalMillis(long bucketIndex){
+            return (bucketIndex * 7 - 4) * MILLIS_PER_DAY;
+        }
+    },
+
+    /** 月. */
+    MONTH{
+
+        @Override
+        long toBucketIndex(long localMillis){
+            long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+            return EpochCalendar.getYear(epochDay) * 12L + EpochCalendar.getMonth(epochDay) - 1;
+        }
+
+        @Override
+        long toLocalMillis(long bucketIndex){
+            return EpochCalendar.toEpochDay((int) (bucketIndex / 12), (int) (bucketIndex % 12) + 1, 1) * MILLIS_PER_DAY;
+        }
+    },
+
+    /** 年. */
+    YEAR{
+
+        @Override
+        long toBucketIndex(long localMillis){
+            return EpochCalendar.getYear(floorDiv(localMillis, MILLIS_PER_DAY));
+        }
+
+        @Override
+        long toLocalMillis(long bucketIndex){
+            return EpochCalendar.toEpochDay((int) bucketIndex, 1, 1) * MILLIS_PER_DAY;
+        }
+    };
+
+    //---------------------------------------------------------------
+
+    /** The Constant MILLIS_PER_HOUR. */
+    private static final long MILLIS_PER_HOUR = 3600000L;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 本地时间对应的桶序号.
+     *
+     * @param localMillis
+     *            本地时间的毫秒数
+     * @return the long
+     */
+    abstract long toBucketIndex(long localMillis);
+
+    /**
+     * 桶开始的本地时间的毫秒数.
+     *
+     * @param bucketIndex
+     *            桶序号
+     * @return the long
+     */
+    abstract long toLocalMillis(long bucketIndex);
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用默认时区,获得 <code>date</code> 所在的桶的开始时间.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * TimeBucketUnit.HOUR.getBucketStart(2012-10-11 17:10:30.701)  = 2012-10-11 17:00:00.000
+     * TimeBucketUnit.DAY.getBucketStart(2012-10-11 17:10:30.701)   = 2012-10-11 00:00:00.000
+     * TimeBucketUnit.WEEK.getBucketStart(2012-10-11 17:10:30.701)  = 2012-10-07 00:00:00.000
+     * TimeBucketUnit.MONTH.getBucketStart(2012-10-11 17:10:30.701) = 2012-10-01 00:00:00.000
+     * TimeBucketUnit.YEAR.getBucketStart(2012-10-11 17:10:30.701)  = 2012-01-01 00:00:00.000
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * @param date
+     *            任意时间
+     * @return 如果 <code>date</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>date</code> 的本地时间不在 1900-01-01 到 9999-12-31 之间,抛出 {@link IllegalArgumentException}
+     */
+    public Date getBucketStart(Date date){
+        TimeZone timeZone = TimeZone.getDefault();
+        return toBucketStart(toBucketIndex(date, timeZone), timeZone);
+    }
+
+    /**
+     * 获得 <code>date</code> 在 <code>timeZone</code> 时区所在的桶的序号,相邻的桶序号相差 1.
+     *
+     * @param date
+     *            任意时间
+     * @param timeZone
+     *            时区
+     * @return 如果 <code>date</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>date</code> 的本地时间不在 1900-01-01 到 9999-12-31 之间,抛出 {@link IllegalArgumentException}
+     */
+    public long toBucketIndex(Date date,TimeZone timeZone){
+        Validate.notNull(date, "date can't be null!");
+        Validate.notNull(timeZone, "timeZone can't be null!");
+
+        long localMillis = EpochCalendar.toLocalMillis(date.getTime(), timeZone);
+        Validate.isTrue(localMillis >= MIN_LOCAL_MILLIS && localMillis < MAX_LOCAL_MILLIS, "date:[%s] out of range [1900,9999]", date);
+        return toBucketIndex(localMillis);
+    }
+
+    /**
+     * 获得桶序号 <code>bucketIndex</code> 在 <code>timeZone</code> 时区的开始时间.
+     *
+     * @param bucketIndex
+     *            {@link #toBucketIndex(Date, TimeZone)} 返回的桶序号
+     * @param timeZone
+     *            时区
+     * @return 如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果这个桶的本地时间完全不存在(比如夏令时跳过的那一个小时,或者时区调整跳过的那一天),返回null
+     */
+    public Date toBucketStart(long bucketIndex,TimeZone timeZone){
+        Validate.notNull(timeZone, "timeZone can't be null!");
+
+        long localMillis = toLocalMillis(bucketIndex);
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+
+        //和 DateUtil 一样使用宽松模式,本地时间不存在的时候往后顺延
+        Calendar calendar = new GregorianCalendar(timeZone);
+        calendar.clear();
+        calendar.set(
+                        EpochCalendar.getYear(epochDay),
+                        EpochCalendar.getMonth(epochDay) - 1,
+                        EpochCalendar.getDayOfMonth(epochDay),
+                        (int) ((localMillis - epochDay * MILLIS_PER_DAY) / MILLIS_PER_HOUR),
+                        0,
+                        0);
+        Date bucketStart = calendar.getTime();
+
+        //顺延到了下一个桶,说明这个桶不存在
+        long actualLocalMillis = EpochCalendar.toLocalMillis(bucketStart.getTime(), timeZone);
+        return toBucketIndex(actualLocalMillis) == bucketIndex ? bucketStart : null;
+    }
+}
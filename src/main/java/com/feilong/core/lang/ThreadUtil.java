@@ -28,12 +28,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.feilong.core.TimeInterval;
+import com.feilong.core.lang.thread.AbstractPartitionThreadExecutor;
 import com.feilong.core.lang.thread.DefaultPartitionRunnableBuilder;
 import com.feilong.core.lang.thread.DefaultPartitionThreadExecutor;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
 import com.feilong.core.lang.thread.PartitionEachSizeThreadConfigBuilder;
+import com.feilong.core.lang.thread.PartitionFuture;
 import com.feilong.core.lang.thread.PartitionPerHandler;
+import com.feilong.core.lang.thread.PartitionResultHandler;
 import com.feilong.core.lang.thread.PartitionRunnableBuilder;
 import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.PartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionThrottle;
 
 /**
  * 线程相关工具类.
@@ -1060,6 +1066,16 @@ public final class ThreadUtil{
      * 
      * </blockquote>
      * 
+     * <h3>限流:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>partitionThreadConfig</code> 设置了 {@link PartitionThreadConfig#setMaxConcurrentPartitions(int) maxConcurrentPartitions} 或者
+     * {@link PartitionThreadConfig#setPermitsPerSecond(double) permitsPerSecond},使用 {@link PartitionThreadConfig#getPartitionThrottle()} 限流,
+     * 使用同一个配置的所有调用(包括并发的调用)共享一个限制;默认都不限制,和之前的行为一样.<br>
+     * 限流的等待发生在调用线程中,获取到名额之后才提交分区,不会占用执行分区的线程.
+     * </p>
+     * </blockquote>
+     * 
      * <h3>异常:</h3>
      * <blockquote>
      * <p>
@@ -1101,8 +1117,234 @@ public final class ThreadUtil{
         Validate.notNull(partitionThreadConfig, "partitionConfig can't be null!");
         Validate.notNull(partitionPerHandler, "partitionPerHandler can't be null!");
         //---------------------------------------------------------------
+        execute(list, partitionThreadConfig, paramsMap, partitionPerHandler, DefaultPartitionThreadExecutor.INSTANCE);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 给定一个待解析的 <code>list</code>,设定每个线程执行多少条 <code>eachSize</code>,传入一些额外的参数 <code>paramsMap</code>,使用自定义的
+     * <code>partitionRunnableBuilder</code>,交给指定的 <code>partitionThreadExecutor</code> 执行.
+     * 
+     * <p>
+     * 和 {@link #execute(List, int, Map, PartitionRunnableBuilder)} 的区别在于可以选择执行器,比如高频调用的场景可以使用基于共享线程池的
+     * {@link com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor#INSTANCE},避免每次调用都创建和销毁线程.
+     * </p>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>partitionThreadExecutor</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 {@code eachSize <=0} ,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionRunnableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个线程执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionRunnableBuilder
+     *            每个线程做的事情,不能为null
+     * @param partitionThreadExecutor
+     *            分区执行器,不能为null
+     * @see com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor
+     * @since 2.1.0
+     */
+    public static <T> void execute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder,
+                    PartitionThreadExecutor partitionThreadExecutor){
+        Validate.notNull(partitionThreadExecutor, "partitionThreadExecutor can't be null!");
+        partitionThreadExecutor.execute(list, eachSize, paramsMap, partitionRunnableBuilder);
+    }
+
+    /**
+     * 给定一个待解析的 <code>list</code>,设定每个线程执行多少条 <code>eachSize</code>,传入一些额外的参数 <code>paramsMap</code>,使用自定义的
+     * <code>partitionPerHandler</code>,交给指定的 <code>partitionThreadExecutor</code> 执行.
+     * 
+     * <p>
+     * 主要是用来简化 {@link #execute(List, int, Map, PartitionRunnableBuilder, PartitionThreadExecutor)} 调用
+     * </p>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>partitionPerHandler</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>partitionThreadExecutor</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 {@code eachSize <=0} ,抛出 {@link IllegalArgumentException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个线程执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionPerHandler
+     *            the partition per handler
+     * @param partitionThreadExecutor
+     *            分区执行器,不能为null
+     * @see com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor
+     * @since 2.1.0
+     */
+    public static <T> void execute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionPerHandler<T> partitionPerHandler,
+                    PartitionThreadExecutor partitionThreadExecutor){
+        Validate.notNull(partitionPerHandler, "partitionPerHandler can't be null!");
+        execute(list, eachSize, paramsMap, new DefaultPartitionRunnableBuilder<T>(partitionPerHandler), partitionThreadExecutor);
+    }
+
+    /**
+     * 给定一个待解析的 <code>list</code>,使用 <code>partitionThreadConfig</code> 计算每个线程执行多少条,传入一些额外的参数
+     * <code>paramsMap</code>,使用自定义的 <code>partitionPerHandler</code>,交给指定的 <code>partitionThreadExecutor</code> 执行.
+     * 
+     * <h3>限流:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>partitionThreadConfig</code> 设置了 {@link PartitionThreadConfig#setMaxConcurrentPartitions(int) maxConcurrentPartitions} 或者
+     * {@link PartitionThreadConfig#setPermitsPerSecond(double) permitsPerSecond},使用 {@link PartitionThreadConfig#getPartitionThrottle()} 限流,
+     * 使用同一个配置的所有调用(包括并发的调用)共享一个限制;默认都不限制,和之前的行为一样.<br>
+     * 限流的等待发生在调用线程中,获取到名额之后才提交分区,不会占用执行分区的线程.
+     * </p>
+     * </blockquote>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionThreadConfig</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>partitionPerHandler</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>partitionThreadExecutor</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果配置了限流,并且 <code>partitionThreadExecutor</code> 不是 {@link AbstractPartitionThreadExecutor},抛出 {@link IllegalArgumentException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param partitionThreadConfig
+     *            the partition config
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionPerHandler
+     *            the partition per handler
+     * @param partitionThreadExecutor
+     *            分区执行器,不能为null
+     * @see com.feilong.core.lang.thread.PartitionEachSizeThreadConfigBuilder
+     * @since 2.1.0
+     */
+    public static <T> void execute(
+                    List<T> list,
+                    PartitionThreadConfig partitionThreadConfig,
+                    Map<String, ?> paramsMap,
+                    PartitionPerHandler<T> partitionPerHandler,
+                    PartitionThreadExecutor partitionThreadExecutor){
+        Validate.notEmpty(list, "list can't be null/empty!");
+        Validate.notNull(partitionThreadConfig, "partitionConfig can't be null!");
+        Validate.notNull(partitionPerHandler, "partitionPerHandler can't be null!");
+        //---------------------------------------------------------------
+        Validate.notNull(partitionThreadExecutor, "partitionThreadExecutor can't be null!");
+        //---------------------------------------------------------------
         int eachSize = new PartitionEachSizeThreadConfigBuilder(partitionThreadConfig).build(list.size());
-        execute(list, eachSize, paramsMap, new DefaultPartitionRunnableBuilder<T>(partitionPerHandler));
+        PartitionRunnableBuilder<T> partitionRunnableBuilder = new DefaultPartitionRunnableBuilder<>(partitionPerHandler);
+
+        PartitionThrottle partitionThrottle = partitionThreadConfig.getPartitionThrottle();
+        if (null == partitionThrottle){
+            execute(list, eachSize, paramsMap, partitionRunnableBuilder, partitionThreadExecutor);
+            return;
+        }
+
+        //限流交给执行器, 在提交分区的线程中等待, 不占用执行分区的线程
+        Validate.isTrue(
+                        partitionThreadExecutor instanceof AbstractPartitionThreadExecutor,
+                        "partitionThreadConfig with throttle only support AbstractPartitionThreadExecutor,partitionThreadExecutor:[%s]",
+                        partitionThreadExecutor);
+        ((AbstractPartitionThreadExecutor) partitionThreadExecutor).execute(list, eachSize, paramsMap, partitionRunnableBuilder, partitionThrottle);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 给定一个待解析的 <code>list</code>,设定每个线程执行多少条 <code>eachSize</code>,使用自定义的 <code>partitionResultHandler</code>,
+     * 在共享线程池 {@link ExecutorServicePartitionThreadExecutor#INSTANCE} 中<span style="color:green">异步</span>执行,调用线程不等待,立即返回.
+     * 
+     * <p>
+     * 和 {@link #execute(List, int, Map, PartitionPerHandler)} 的区别在于每个分区可以返回结果,不需要再通过 <code>paramsMap</code> 中共享的同步 map 收集结果.
+     * </p>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * 
+     * PartitionFuture{@code <Map<Integer, Boolean>>} partitionFuture = ThreadUtil.submit(list, 2, null, new PartitionResultHandler{@code <Integer, Map<Integer, Boolean>>}(){
+     * 
+     *     &#64;Override
+     *     public Map{@code <Integer, Boolean>} handle(List{@code <Integer>} perBatchList,PartitionThreadEntity partitionThreadEntity,Map{@code <String, ?>} paramsMap){
+     *         Map{@code <Integer, Boolean>} indexAndResultMap = new HashMap{@code <>}();
+     *         <span style="color:green">//...</span>
+     *         return indexAndResultMap;
+     *     }
+     * });
+     * 
+     * <span style="color:green">//每个分区一个结果,按照 batchNumber 排序</span>
+     * List{@code <Map<Integer, Boolean>>} resultList = partitionFuture.get();
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 {@code eachSize <=0} ,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionResultHandler</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个线程执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionResultHandler
+     *            每个分区做的事情以及返回的结果,不能为null
+     * @return 所有分区的 {@link PartitionFuture}
+     * @see com.feilong.core.lang.thread.AsyncPartitionThreadExecutor
+     * @since 2.1.0
+     */
+    public static <T, R> PartitionFuture<R> submit(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionResultHandler<T, R> partitionResultHandler){
+        return ExecutorServicePartitionThreadExecutor.INSTANCE.submit(list, eachSize, paramsMap, partitionResultHandler);
     }
 
     //---------------------------------------------------------------
@@ -20,14 +20,18 @@ import static com.feilong.core.date.DateUtil.now;
 import static com.feilong.core.lang.ObjectUtil.defaultIfNullOrEmpty;
 import static org.apache.commons.lang3.ClassUtils.getSimpleName;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.feilong.tools.slf4j.Slf4jUtil;
+
 /**
  * 抽象实现.
  * 
@@ -43,6 +47,22 @@ public abstract class AbstractPartitionThreadExecutor implements PartitionThread
     /** The Constant log. */
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractPartitionThreadExecutor.class);
 
+    //---------------------------------------------------------------
+
+    /**
+     * 分区执行的监听器,可以为null.
+     * 
+     * @since 2.1.0
+     */
+    private PartitionListener   partitionListener;
+
+    /**
+     * 分区执行的限流,可以为null.
+     * 
+     * @since 2.1.0
+     */
+    private PartitionThrottle   partitionThrottle;
+
     //---------------------------------------------------------------
     /**
      * Excute.
@@ -79,6 +99,37 @@ public abstract class AbstractPartitionThreadExecutor implements PartitionThread
      */
     @Override
     public <T> void execute(List<T> list,int eachSize,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        execute(list, eachSize, paramsMap, partitionRunnableBuilder, null);
+    }
+
+    /**
+     * 除了 {@link #setPartitionThrottle(PartitionThrottle)} 设置的限流,本次执行再额外使用 <code>partitionThrottle</code> 限流.
+     * 
+     * <p>
+     * 用于按照调用方的配置限流(比如 {@link PartitionThreadConfig#getPartitionThrottle()}),不需要修改共享的执行器(比如 INSTANCE);
+     * 限流的等待发生在调用线程中,不会占用执行分区的线程,共享同一个执行器的其他调用不受影响.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @param partitionThrottle
+     *            本次执行额外使用的限流,可以为null;如果和设置的限流是同一个实例,只限流一次
+     * @since 2.1.0
+     */
+    public <T> void execute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder,
+                    PartitionThrottle partitionThrottle){
         Validate.notEmpty(list, "list can't be null/empty!");
         Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
 
@@ -93,7 +144,15 @@ public abstract class AbstractPartitionThreadExecutor implements PartitionThread
         //---------------------------------------------------------------
         Date beginDate = now();
 
-        actualExecute(list, eachSize, paramsMap, partitionRunnableBuilder);
+        PartitionRunnableBuilder<T> decoratedPartitionRunnableBuilder = buildDecoratedPartitionRunnableBuilder(
+                        partitionRunnableBuilder,
+                        partitionRunnableBuilderName,
+                        partitionThrottle);
+        try{
+            actualExecute(list, eachSize, paramsMap, decoratedPartitionRunnableBuilder);
+        }finally{
+            releaseUnused(decoratedPartitionRunnableBuilder);
+        }
 
         //---------------------------------------------------------------
         if (LOGGER.isInfoEnabled()){
@@ -135,6 +194,241 @@ public abstract class AbstractPartitionThreadExecutor implements PartitionThread
 
     //---------------------------------------------------------------
 
+    /**
+     * 按照设置的 {@link #partitionListener} 以及 {@link #partitionThrottle} 包装 <code>partitionRunnableBuilder</code>.
+     * 
+     * <p>
+     * 限流在最外层,在 {@link PartitionRunnableBuilder#build(List, PartitionThreadEntity, Map)} 的时候,也就是提交分区的线程中等待,
+     * 所以限流等待的时间计入 {@link PartitionListener} 的排队耗时,不计入执行耗时;执行结束的时候需要调用 {@link #releaseUnused(PartitionRunnableBuilder)}.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @return 如果都没有设置,直接返回 <code>partitionRunnableBuilder</code>
+     * @since 2.1.0
+     */
+    protected <T> PartitionRunnableBuilder<T> buildDecoratedPartitionRunnableBuilder(PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        return buildDecoratedPartitionRunnableBuilder(partitionRunnableBuilder, getName(partitionRunnableBuilder));
+    }
+
+    /**
+     * 按照设置的 {@link #partitionListener} 以及 {@link #partitionThrottle} 包装 <code>partitionRunnableBuilder</code>,回调
+     * {@link PartitionListener} 的时候使用指定的名字 <code>name</code>.
+     * 
+     * <p>
+     * 用于 {@link AsyncPartitionThreadExecutor#submit(List, int, Map, PartitionResultHandler)} 等内部构造
+     * {@link PartitionRunnableBuilder} 的场景,名字使用调用方传入的 handler 的名字.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @param name
+     *            回调 {@link PartitionListener} 使用的名字
+     * @return 如果都没有设置,直接返回 <code>partitionRunnableBuilder</code>
+     * @since 2.1.0
+     */
+    protected <T> PartitionRunnableBuilder<T> buildDecoratedPartitionRunnableBuilder(
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder,
+                    String name){
+        return buildDecoratedPartitionRunnableBuilder(partitionRunnableBuilder, name, null);
+    }
+
+    /**
+     * 按照设置的 {@link #partitionListener},{@link #partitionThrottle} 以及本次执行额外的 <code>extraPartitionThrottle</code> 包装
+     * <code>partitionRunnableBuilder</code>.
+     *
+     * @param <T>
+     *            the generic type
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @param name
+     *            回调 {@link PartitionListener} 使用的名字
+     * @param extraPartitionThrottle
+     *            本次执行额外使用的限流,可以为null
+     * @return 如果都没有设置,直接返回 <code>partitionRunnableBuilder</code>
+     */
+    private <T> PartitionRunnableBuilder<T> buildDecoratedPartitionRunnableBuilder(
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder,
+                    String name,
+                    PartitionThrottle extraPartitionThrottle){
+        PartitionRunnableBuilder<T> decoratedPartitionRunnableBuilder = partitionRunnableBuilder;
+        if (null != partitionListener){
+            decoratedPartitionRunnableBuilder = new ListenablePartitionRunnableBuilder<>(decoratedPartitionRunnableBuilder, partitionListener, name);
+        }
+
+        //限流在最外层
+        PartitionThrottle partitionThrottle = getPartitionThrottle();
+        List<PartitionThrottle> partitionThrottleList = new ArrayList<>(2);
+        if (null != partitionThrottle){
+            partitionThrottleList.add(partitionThrottle);
+        }
+        if (null != extraPartitionThrottle && extraPartitionThrottle != partitionThrottle){
+            partitionThrottleList.add(extraPartitionThrottle);
+        }
+        if (!partitionThrottleList.isEmpty()){
+            decoratedPartitionRunnableBuilder = new ThrottledPartitionRunnableBuilder<>(decoratedPartitionRunnableBuilder, partitionThrottleList, name);
+        }
+        return decoratedPartitionRunnableBuilder;
+    }
+
+    /**
+     * 一次执行结束的时候,释放 <code>decoratedPartitionRunnableBuilder</code> 已经获取了限流名额,但是没有执行的分区(比如 fail fast 取消,提交被拒绝)的名额.
+     *
+     * @param <T>
+     *            the generic type
+     * @param decoratedPartitionRunnableBuilder
+     *            {@link #buildDecoratedPartitionRunnableBuilder(PartitionRunnableBuilder, String)} 返回的 builder
+     * @since 2.1.0
+     */
+    protected static <T> void releaseUnused(PartitionRunnableBuilder<T> decoratedPartitionRunnableBuilder){
+        if (decoratedPartitionRunnableBuilder instanceof ThrottledPartitionRunnableBuilder){
+            ((ThrottledPartitionRunnableBuilder<T>) decoratedPartitionRunnableBuilder).releaseUnused();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 构建线程名称.
+     * 
+     * <h3>格式:</h3>
+     * 
+     * <blockquote>
+     * "Thread-partitionRunnableBuilder 实现类名称-{@link com.feilong.core.lang.PartitionThreadEntity#getBatchNumber() batchNumber}"
+     * </blockquote>
+     * 
+     * <h3>作用:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <ul>
+     * <li>一来便于管理, 可以使用相关代码来获得线程;</li>
+     * <li>二来常用于日志显示, 比如, 如果是 log4j 的配置文件,如果 ConversionPattern
+     * 
+     * <pre>
+     * {@code 
+     * <param name="ConversionPattern" value="%d}{HH:mm:ss} {@code %t %-5p (%F:%L) %m%n" />
+     * }
+     * </pre>
+     * 
+     * 其中 %t 表示 线程名称
+     * 
+     * 正常情况的日志,会显示(示例)
+     * 
+     * <pre>
+     * 13:54:43 <span style=
+     * "color:red">Thread-NovelpartitionRunnableBuilder-13</span> INFO (NovelpartitionRunnableBuilder.java:91) 第914章 好手段 3406 [6/20] 14 30%
+     * 13:54:43 <span style=
+     * "color:red">Thread-NovelpartitionRunnableBuilder-5</span> INFO (NovelpartitionRunnableBuilder.java:91) 第761章 不得其时 3573 [7/20] 6 35%
+     * 13:54:43 <span style=
+     * "color:red">Thread-NovelpartitionRunnableBuilder-3</span> INFO (NovelpartitionRunnableBuilder.java:91) 第718章 各打各的算盘 3411 [4/20] 4 20%
+     * </pre>
+     * 
+     * 如果代码有异常, 会显示
+     * 
+     * <pre>
+     * 13:54:52 <span style="color:red">Thread-NovelpartitionRunnableBuilder-16</span> ERROR (DefaultChapterBuilder.java:83) Exception:
+     * com.feilong.tools.jsoup.JsoupUtilException: urlString:[http://www.37zw.com/0/181/1662249.html],userAgent:[Mozilla/5.0 (X11; Linux
+     * x86_64) AppleWebKit/535.21 (KHTML, like Gecko) Chrome/19.0.1042.0 Safari/535.21]
+     * at com.feilong.tools.jsoup.JsoupUtil.getDocument(JsoupUtil.java:87)
+     * at com.feilong.tools.jsoup.JsoupUtil.getDocument(JsoupUtil.java:65)
+     * at com.feilong.project.novel.build.DefaultChapterBuilder.getContentElement(DefaultChapterBuilder.java:124)
+     * at com.feilong.project.novel.build.DefaultChapterBuilder.build(DefaultChapterBuilder.java:68)
+     * at com.feilong.project.novel.build.NovelpartitionRunnableBuilder$1.run(NovelpartitionRunnableBuilder.java:86)
+     * at java.lang.Thread.run(Thread.java:745)
+     * </pre>
+     * 
+     * </li>
+     * </ul>
+     * 
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param batchNumber
+     *            the batch number
+     * @param partitionRunnableBuilder
+     *            the group runnable builder
+     * @return 如果 <code>partitionRunnableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    protected static <T> String buildThreadName(int batchNumber,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
+        return Slf4jUtil.format("Thread-{}-{}", getName(partitionRunnableBuilder), batchNumber);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 包装 <code>runnable</code>,执行期间把当前线程的名字临时改成 <code>threadName</code>,执行完成之后还原.
+     * 
+     * <p>
+     * 用于线程池等复用线程的实现,使得日志中的线程名字(比如 log4j 的 %t)和 {@link DefaultPartitionThreadExecutor} 保持一致.
+     * </p>
+     *
+     * @param threadName
+     *            分区的线程名字,参见 {@link #buildThreadName(int, PartitionRunnableBuilder)}
+     * @param runnable
+     *            the runnable
+     * @return the runnable
+     * @since 2.1.0
+     */
+    protected static Runnable buildNamedRunnable(final String threadName,final Runnable runnable){
+        return new Runnable(){
+
+            @Override
+            public void run(){
+                Thread currentThread = Thread.currentThread();
+                String originalName = currentThread.getName();
+
+                currentThread.setName(threadName);
+                try{
+                    runnable.run();
+                }finally{
+                    currentThread.setName(originalName);
+                }
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 包装 <code>callable</code>,执行期间把当前线程的名字临时改成 <code>threadName</code>,执行完成之后还原.
+     *
+     * @param <V>
+     *            the value type
+     * @param threadName
+     *            分区的线程名字,参见 {@link #buildThreadName(int, PartitionRunnableBuilder)}
+     * @param callable
+     *            the callable
+     * @return the callable
+     * @see #buildNamedRunnable(String, Runnable)
+     * @since 2.1.0
+     */
+    protected static <V> Callable<V> buildNamedCallable(final String threadName,final Callable<V> callable){
+        return new Callable<V>(){
+
+            @Override
+            public V call() throws Exception{
+                Thread currentThread = Thread.currentThread();
+                String originalName = currentThread.getName();
+
+                currentThread.setName(threadName);
+                try{
+                    return callable.call();
+                }finally{
+                    currentThread.setName(originalName);
+                }
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * Gets the name.
      *
@@ -145,6 +439,95 @@ public abstract class AbstractPartitionThreadExecutor implements PartitionThread
      * @return the name
      */
     protected static <T> String getName(PartitionRunnableBuilder<T> partitionRunnableBuilder){
-        return defaultIfNullOrEmpty(getSimpleName(partitionRunnableBuilder.getClass()), partitionRunnableBuilder.getClass().getName());
+        //包装的 builder 使用被包装的 builder 的名字, 保证线程名字不变
+        if (partitionRunnableBuilder instanceof ListenablePartitionRunnableBuilder){
+            return ((ListenablePartitionRunnableBuilder<T>) partitionRunnableBuilder).getName();
+        }
+        if (partitionRunnableBuilder instanceof ThrottledPartitionRunnableBuilder){
+            return ((ThrottledPartitionRunnableBuilder<T>) partitionRunnableBuilder).getName();
+        }
+        return getClassName(partitionRunnableBuilder);
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            the generic type
+     * @param partitionResultHandler
+     *            the partition result handler
+     * @return the name
+     * @since 2.1.0
+     */
+    protected static <T, R> String getName(PartitionResultHandler<T, R> partitionResultHandler){
+        return getClassName(partitionResultHandler);
+    }
+
+    /**
+     * 获得 <code>obj</code> 的类名,匿名类没有 simple name,使用全类名.
+     *
+     * @param obj
+     *            the obj
+     * @return the class name
+     */
+    private static String getClassName(Object obj){
+        return defaultIfNullOrEmpty(getSimpleName(obj.getClass()), obj.getClass().getName());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 分区执行的监听器.
+     *
+     * @return the partitionListener
+     * @since 2.1.0
+     */
+    public PartitionListener getPartitionListener(){
+        return partitionListener;
+    }
+
+    /**
+     * 设置 分区执行的监听器,比如 {@link PartitionMetricsListener}.
+     * 
+     * <p>
+     * 对之后开始的 execute 以及 {@link AsyncPartitionThreadExecutor#submit(List, int, Map, PartitionResultHandler) submit} 生效;共享的 INSTANCE
+     * 会影响所有调用方,建议 new 一个新的执行器再设置.
+     * </p>
+     *
+     * @param partitionListener
+     *            the partitionListener to set,可以为null,表示不监听
+     * @since 2.1.0
+     */
+    public void setPartitionListener(PartitionListener partitionListener){
+        this.partitionListener = partitionListener;
+    }
+
+    /**
+     * 获得 分区执行的限流.
+     *
+     * @return the partitionThrottle
+     * @since 2.1.0
+     */
+    public PartitionThrottle getPartitionThrottle(){
+        return partitionThrottle;
+    }
+
+    /**
+     * 设置 分区执行的限流,限制同时执行的分区数量以及每秒处理的元素数量.
+     * 
+     * <p>
+     * 对之后开始的 execute 以及 {@link AsyncPartitionThreadExecutor#submit(List, int, Map, PartitionResultHandler) submit}
+     * 生效;同一个 {@link PartitionThrottle} 在多次调用之间共享计数;限流的等待发生在提交分区的线程中,不会占用执行分区的线程.
+     * </p>
+     *
+     * @param partitionThrottle
+     *            the partitionThrottle to set,可以为null,表示不限流
+     * @see PartitionThreadConfig#getPartitionThrottle()
+     * @since 2.1.0
+     */
+    public void setPartitionThrottle(PartitionThrottle partitionThrottle){
+        this.partitionThrottle = partitionThrottle;
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 异步的分区执行器,提交之后立即返回,不阻塞调用线程.
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * 
+ * PartitionFuture{@code <Integer>} partitionFuture = ExecutorServicePartitionThreadExecutor.INSTANCE.submit(
+ *                 list,
+ *                 100,
+ *                 null,
+ *                 new PartitionResultHandler{@code <Integer, Integer>}(){
+ * 
+ *                     &#64;Override
+ *                     public Integer handle(List{@code <Integer>} perBatchList,PartitionThreadEntity partitionThreadEntity,Map{@code <String, ?>} paramsMap){
+ *                         return sum(perBatchList);
+ *                     }
+ *                 });
+ * 
+ * <span style="color:green">//do something else ...</span>
+ * 
+ * <span style="color:green">//每个分区一个结果,按照 batchNumber 排序</span>
+ * List{@code <Integer>} resultList = partitionFuture.get();
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ExecutorServicePartitionThreadExecutor
+ * @since 2.1.0
+ */
+public interface AsyncPartitionThreadExecutor{
+
+    /**
+     * 给定一个待解析的 <code>list</code>,设定每个线程执行多少条 <code>eachSize</code>,传入一些额外的参数 <code>paramsMap</code>,使用自定义的
+     * <code>partitionResultHandler</code>,异步执行每个分区,并立即返回 {@link PartitionFuture}.
+     * 
+     * <p>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 {@code eachSize <=0} ,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionResultHandler</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个线程执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionResultHandler
+     *            每个分区做的事情以及返回的结果,不能为null
+     * @return 所有分区的 {@link PartitionFuture}
+     */
+    <T, R> PartitionFuture<R> submit(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionResultHandler<T, R> partitionResultHandler);
+}
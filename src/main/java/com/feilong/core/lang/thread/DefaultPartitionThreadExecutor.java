@@ -15,6 +15,7 @@
  */
 package com.feilong.core.lang.thread;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -65,17 +66,21 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
                     int eachSize,
                     Map<String, ?> paramsMap,
                     PartitionRunnableBuilder<T> partitionRunnableBuilder){
-        //1. 自动构造需要启动的线程数组
-        Thread[] threads = buildThreadArray(list, eachSize, paramsMap, partitionRunnableBuilder);
-
-        //2. start 并且 join
-        ThreadUtil.startAndJoin(threads);
+        List<Thread> threadList = new ArrayList<>();
+        try{
+            //1. 自动构造并且 start 线程
+            //构造分区的时候可能需要等待限流, 而限流的名额要等之前的分区执行结束才释放, 所以每构造一个线程立即 start
+            startThreads(list, eachSize, paramsMap, partitionRunnableBuilder, threadList);
+        }finally{
+            //2. join 所有已经 start 的线程
+            join(threadList);
+        }
     }
 
     //---------------------------------------------------------------
 
     /**
-     * Builds the thread array.
+     * 构造并且 start 线程.
      * 
      * <p>
      * 调用 {@link ListUtils#partition(List, int)} 对list 分成N份,对应的创建N份线程,每个线程的 名字 参见 {@link #buildThreadName(int, PartitionRunnableBuilder)}
@@ -96,13 +101,15 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
      *            the params map
      * @param partitionRunnableBuilder
      *            the group runnable builder
-     * @return the thread[]
+     * @param threadList
+     *            已经 start 的线程
      */
-    private static <T> Thread[] buildThreadArray(
+    private static <T> void startThreads(
                     List<T> list,
                     int eachSize,
                     Map<String, ?> paramsMap,
-                    PartitionRunnableBuilder<T> partitionRunnableBuilder){
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder,
+                    List<Thread> threadList){
 
         //使用group进行管理  
         ThreadGroup threadGroup = new ThreadGroup(buildThreadGroupName(list, partitionRunnableBuilder));
@@ -112,7 +119,6 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
 
         //-------------------------------------------------------------------
         int i = 0;
-        Thread[] threads = new Thread[groupList.size()];
         for (List<T> perBatchList : groupList){
             String threadName = buildThreadName(i, partitionRunnableBuilder);
 
@@ -124,14 +130,41 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
                             perBatchList.size());
 
             Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
-            threads[i] = new Thread(threadGroup, runnable, threadName);
+            Thread thread = new Thread(threadGroup, runnable, threadName);
+            thread.start();// 使该线程开始执行；Java 虚拟机调用该线程的 run 方法。
+            threadList.add(thread);
+            LOGGER.debug("thread [{}] start", threadName);
             i++;
         }
 
         //---------------------------------------------------------------
 
-        LOGGER.info("total list size:[{}],build [{}] threads,perSize:[{}]", list.size(), threads.length, eachSize);
-        return threads;
+        LOGGER.info("total list size:[{}],build [{}] threads,perSize:[{}]", list.size(), threadList.size(), eachSize);
+    }
+
+    /**
+     * 等待 <code>threadList</code> 中的线程执行完成.
+     * 
+     * <p>
+     * 如果调用线程被中断,不再等待并恢复中断状态.
+     * </p>
+     *
+     * @param threadList
+     *            the thread list
+     * @see ThreadUtil#startAndJoin(Thread[])
+     */
+    private static void join(List<Thread> threadList){
+        try{
+            for (Thread thread : threadList){
+                LOGGER.debug("begin thread [{}] join", thread.getName());
+                thread.join(); //在一个线程中调用 otherThread.join(),将等待 otherThread 执行完后才继续本线程
+                LOGGER.debug("end thread [{}] join", thread.getName());
+            }
+        }catch (InterruptedException e){
+            LOGGER.error("", e);
+            // clean up state...
+            Thread.currentThread().interrupt();
+        }
     }
 
     //---------------------------------------------------------------
@@ -158,72 +191,4 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
         return Slf4jUtil.format("ThreadGroup-{}-{}", getName(partitionRunnableBuilder), list.size());
     }
 
-    /**
-     * 构建线程名称.
-     * 
-     * <h3>格式:</h3>
-     * 
-     * <blockquote>
-     * "Thread-partitionRunnableBuilder 实现类名称-{@link com.feilong.core.lang.PartitionThreadEntity#getBatchNumber() batchNumber}"
-     * </blockquote>
-     * 
-     * <h3>作用:</h3>
-     * 
-     * <blockquote>
-     * 
-     * <ul>
-     * <li>一来便于管理, 可以使用相关代码来获得线程;</li>
-     * <li>二来常用于日志显示, 比如, 如果是 log4j 的配置文件,如果 ConversionPattern
-     * 
-     * <pre>
-     * {@code 
-     * <param name="ConversionPattern" value="%d}{HH:mm:ss} {@code %t %-5p (%F:%L) %m%n" />
-     * }
-     * </pre>
-     * 
-     * 其中 %t 表示 线程名称
-     * 
-     * 正常情况的日志,会显示(示例)
-     * 
-     * <pre>
-     * 13:54:43 <span style=
-     * "color:red">Thread-NovelpartitionRunnableBuilder-13</span> INFO (NovelpartitionRunnableBuilder.java:91) 第914章 好手段 3406 [6/20] 14 30%
-     * 13:54:43 <span style=
-     * "color:red">Thread-NovelpartitionRunnableBuilder-5</span> INFO (NovelpartitionRunnableBuilder.java:91) 第761章 不得其时 3573 [7/20] 6 35%
-     * 13:54:43 <span style=
-     * "color:red">Thread-NovelpartitionRunnableBuilder-3</span> INFO (NovelpartitionRunnableBuilder.java:91) 第718章 各打各的算盘 3411 [4/20] 4 20%
-     * </pre>
-     * 
-     * 如果代码有异常, 会显示
-     * 
-     * <pre>
-     * 13:54:52 <span style="color:red">Thread-NovelpartitionRunnableBuilder-16</span> ERROR (DefaultChapterBuilder.java:83) Exception:
-     * com.feilong.tools.jsoup.JsoupUtilException: urlString:[http://www.37zw.com/0/181/1662249.html],userAgent:[Mozilla/5.0 (X11; Linux
-     * x86_64) AppleWebKit/535.21 (KHTML, like Gecko) Chrome/19.0.1042.0 Safari/535.21]
-     * at com.feilong.tools.jsoup.JsoupUtil.getDocument(JsoupUtil.java:87)
-     * at com.feilong.tools.jsoup.JsoupUtil.getDocument(JsoupUtil.java:65)
-     * at com.feilong.project.novel.build.DefaultChapterBuilder.getContentElement(DefaultChapterBuilder.java:124)
-     * at com.feilong.project.novel.build.DefaultChapterBuilder.build(DefaultChapterBuilder.java:68)
-     * at com.feilong.project.novel.build.NovelpartitionRunnableBuilder$1.run(NovelpartitionRunnableBuilder.java:86)
-     * at java.lang.Thread.run(Thread.java:745)
-     * </pre>
-     * 
-     * </li>
-     * </ul>
-     * 
-     * </blockquote>
-     *
-     * @param <T>
-     *            the generic type
-     * @param batchNumber
-     *            the batch number
-     * @param partitionRunnableBuilder
-     *            the group runnable builder
-     * @return 如果 <code>partitionRunnableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
-     */
-    private static <T> String buildThreadName(int batchNumber,PartitionRunnableBuilder<T> partitionRunnableBuilder){
-        Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
-        return Slf4jUtil.format("Thread-{}-{}", getName(partitionRunnableBuilder), batchNumber);
-    }
-
 }
@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 基于线程池 {@link ExecutorService} 的分区执行实现.
+ *
+ * <h3>背景:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link DefaultPartitionThreadExecutor} 每次调用都会新建一个 {@link ThreadGroup},并且每个分区 new 一个 {@link Thread};<br>
+ * 如果在请求链路里面高频调用,线程的创建和销毁会占掉小批量数据的大部分耗时;而 list 很大,eachSize 很小的时候,一次会创建几百个系统线程.
+ * </p>
+ *
+ * <p>
+ * 此实现把每个分区的 {@link Runnable} 提交到一个共享的,线程数有上限的线程池中执行,调用线程会等待所有分区执行完成之后再返回.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>{@link PartitionRunnableBuilder} 以及 {@link PartitionThreadEntity} 的语义和 {@link DefaultPartitionThreadExecutor} 保持一致,
+ * 分区执行期间,线程池线程的名字会临时改成 {@link #buildThreadName(int, PartitionRunnableBuilder)},执行完成之后还原</li>
+ * <li>默认某个分区抛出的异常只会记录 error 日志,不会影响其他分区的执行,这一点和 {@link DefaultPartitionThreadExecutor} 一致;<br>
+ * 可以通过 {@link PartitionFailurePolicy} 指定 fail fast,汇总所有异常,或者重试</li>
+ * <li>不要在分区的 {@link Runnable} 中使用<b>同一个</b>执行器再次调用 execute,线程池线程都在等待子任务时会发生死锁</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ *
+ * <span style="color:green">//共享的实例,线程数为 cpu 核数 * 2</span>
+ * ThreadUtil.execute(list, 100, paramsMap, partitionPerHandler, ExecutorServicePartitionThreadExecutor.INSTANCE);
+ *
+ * <span style="color:green">//自定义并发度</span>
+ * PartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(16);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see DefaultPartitionThreadExecutor
+ * @since 2.1.0
+ */
+public class ExecutorServicePartitionThreadExecutor extends AbstractPartitionThreadExecutor implements AsyncPartitionThreadExecutor{
+
+    /** The Constant LOGGER. */
+    private static final Logger                                LOGGER              = LoggerFactory
+                    .getLogger(ExecutorServicePartitionThreadExecutor.class);
+
+    /** 默认的并发度, cpu 核数 * 2. */
+    public static final int                                    DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** 空闲线程存活时间,单位秒. */
+    private static final long                                  KEEP_ALIVE_SECONDS  = 60L;
+
+    //---------------------------------------------------------------
+
+    /** Static instance,使用 {@link #DEFAULT_PARALLELISM} 并发度的共享线程池. */
+    public static final ExecutorServicePartitionThreadExecutor INSTANCE            = new ExecutorServicePartitionThreadExecutor(
+                    DEFAULT_PARALLELISM);
+
+    //---------------------------------------------------------------
+
+    /** 执行分区任务的线程池. */
+    private final ExecutorService                              executorService;
+
+    /** 分区执行异常的处理策略. */
+    private final PartitionFailurePolicy                       partitionFailurePolicy;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用指定并发度 <code>parallelism</code> 创建一个内部的线程池.
+     *
+     * <p>
+     * 线程池的线程是 daemon 线程,名字前缀是 "PartitionThreadExecutor",空闲 60 秒之后会自动回收.
+     * </p>
+     *
+     * @param parallelism
+     *            线程池最大线程数,必须 {@code >} 0
+     * @throws IllegalArgumentException
+     *             如果 {@code parallelism <=0}
+     */
+    public ExecutorServicePartitionThreadExecutor(int parallelism){
+        this(buildExecutorService(parallelism));
+    }
+
+    /**
+     * 使用外部的线程池,线程池的生命周期(比如 shutdown)由调用方负责.
+     *
+     * @param executorService
+     *            执行分区任务的线程池
+     * @throws NullPointerException
+     *             如果 <code>executorService</code> 是null
+     */
+    public ExecutorServicePartitionThreadExecutor(ExecutorService executorService){
+        this(executorService, PartitionFailurePolicy.LOG_AND_CONTINUE);
+    }
+
+    /**
+     * 使用外部的线程池以及指定的异常处理策略,线程池的生命周期(比如 shutdown)由调用方负责.
+     * 
+     * <p>
+     * 如果需要共享默认的线程池,可以使用 {@code new ExecutorServicePartitionThreadExecutor(INSTANCE.getExecutorService(), PartitionFailurePolicy.FAIL_FAST)}
+     * </p>
+     *
+     * @param executorService
+     *            执行分区任务的线程池
+     * @param partitionFailurePolicy
+     *            分区执行异常的处理策略
+     * @throws NullPointerException
+     *             如果 <code>executorService</code> 或者 <code>partitionFailurePolicy</code> 是null
+     * @since 2.1.0
+     */
+    public ExecutorServicePartitionThreadExecutor(ExecutorService executorService, PartitionFailurePolicy partitionFailurePolicy){
+        super();
+        Validate.notNull(executorService, "executorService can't be null!");
+        Validate.notNull(partitionFailurePolicy, "partitionFailurePolicy can't be null!");
+        this.executorService = executorService;
+        this.partitionFailurePolicy = partitionFailurePolicy;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Actual execute.
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     */
+    @Override
+    protected <T> void actualExecute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        PartitionFailureTracker partitionFailureTracker = new PartitionFailureTracker(partitionFailurePolicy);
+
+        try{
+            //1. 将 list 分成 N 份, 每份提交到线程池
+            submitPartitions(list, eachSize, paramsMap, partitionRunnableBuilder, partitionFailureTracker);
+        }finally{
+            //2. 等待所有(已经提交的)分区执行完成, 比如等待限流的时候被中断
+            partitionFailureTracker.await();
+        }
+
+        //3. 按照 partitionFailurePolicy 决定是否抛出异常
+        partitionFailureTracker.check();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 list 分成 N 份,每份构造 {@link Runnable} 并提交到线程池.
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @param partitionFailureTracker
+     *            the partition failure tracker
+     */
+    private <T> void submitPartitions(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder,
+                    PartitionFailureTracker partitionFailureTracker){
+        List<List<T>> groupList = ListUtils.partition(list, eachSize);
+
+        //---------------------------------------------------------------
+        int i = 0;
+        for (List<T> perBatchList : groupList){
+            //fail fast 已经有分区失败了, 不再提交剩下的分区
+            if (partitionFailureTracker.isAborted()){
+                break;
+            }
+            String threadName = buildThreadName(i, partitionRunnableBuilder);
+
+            PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                            threadName,
+                            list.size(),
+                            eachSize,
+                            i,
+                            perBatchList.size());
+
+            Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+            Runnable wrapRunnable = buildNamedRunnable(threadName, partitionFailureTracker.wrap(i, runnable));
+            partitionFailureTracker.add(submit(Executors.callable(wrapRunnable), runnable));
+            i++;
+        }
+
+        //---------------------------------------------------------------
+        LOGGER.info("total list size:[{}],submit [{}] partitions,perSize:[{}]", list.size(), groupList.size(), eachSize);
+    }
+
+    /**
+     * 异步执行每个分区,调用线程不等待,立即返回 {@link PartitionFuture}.
+     * 
+     * <p>
+     * 和 execute 一样,设置的 {@link #setPartitionListener(PartitionListener) partitionListener} 以及
+     * {@link #setPartitionThrottle(PartitionThrottle) partitionThrottle} 对每个分区生效;<br>
+     * 注意:设置了 partitionThrottle 的时候,每个分区在调用线程中获取到限流的名额之后才提交,此时本方法会阻塞到最后一个分区提交为止.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     * @param list
+     *            the list
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionResultHandler
+     *            the partition result handler
+     * @return the partition future
+     * @since 2.1.0
+     */
+    @Override
+    public <T, R> PartitionFuture<R> submit(
+                    final List<T> list,
+                    final int eachSize,
+                    final Map<String, ?> paramsMap,
+                    final PartitionResultHandler<T, R> partitionResultHandler){
+        Validate.notEmpty(list, "list can't be null/empty!");
+        Validate.notNull(partitionResultHandler, "partitionResultHandler can't be null!");
+        Validate.isTrue(eachSize > 0, "eachSize must > 0");
+
+        //---------------------------------------------------------------
+        List<List<T>> groupList = ListUtils.partition(list, eachSize);
+
+        //和 execute 一样按照 partitionListener 以及 partitionThrottle 包装, 每个分区的结果按照 batchNumber 存放
+        final AtomicReferenceArray<R> results = new AtomicReferenceArray<>(groupList.size());
+        PartitionRunnableBuilder<T> partitionRunnableBuilder = buildDecoratedPartitionRunnableBuilder(
+                        new ResultPartitionRunnableBuilder<>(partitionResultHandler, results),
+                        getName(partitionResultHandler));
+
+        int i = 0;
+        List<Future<R>> futures = new ArrayList<>(groupList.size());
+        for (List<T> perBatchList : groupList){
+            String threadName = Slf4jUtil.format("Thread-{}-{}", getName(partitionResultHandler), i);
+
+            PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                            threadName,
+                            list.size(),
+                            eachSize,
+                            i,
+                            perBatchList.size());
+
+            final Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+            final int batchNumber = i;
+            futures.add(submit(buildNamedCallable(threadName, new Callable<R>(){
+
+                @Override
+                public R call(){
+                    runnable.run();
+                    return results.get(batchNumber);
+                }
+            }), runnable));
+            i++;
+        }
+
+        //---------------------------------------------------------------
+        LOGGER.info("total list size:[{}],submit [{}] partitions async,perSize:[{}]", list.size(), futures.size(), eachSize);
+        return new PartitionFuture<>(futures);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 提交 <code>callable</code> 到线程池.
+     * 
+     * <p>
+     * 分区被取消(可能还没有执行)或者提交被拒绝的时候,释放 <code>runnable</code> 已经获取的限流名额.
+     * </p>
+     *
+     * @param <V>
+     *            the value type
+     * @param callable
+     *            执行 <code>runnable</code> 的 callable
+     * @param runnable
+     *            {@link PartitionRunnableBuilder#build(List, PartitionThreadEntity, Map)} 返回的 runnable
+     * @return the future
+     */
+    private <V> Future<V> submit(Callable<V> callable,final Runnable runnable){
+        FutureTask<V> futureTask = new FutureTask<V>(callable){
+
+            @Override
+            protected void done(){
+                ThrottledPartitionRunnableBuilder.release(runnable);
+            }
+        };
+        try{
+            executorService.execute(futureTask);
+        }catch (RejectedExecutionException e){
+            ThrottledPartitionRunnableBuilder.release(runnable);
+            throw e;
+        }
+        return futureTask;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 把 {@link PartitionResultHandler} 适配成 {@link PartitionRunnableBuilder},分区的结果按照 batchNumber 存放到 <code>results</code>.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区的结果类型
+     */
+    private static final class ResultPartitionRunnableBuilder<T, R> implements PartitionRunnableBuilder<T>{
+
+        /** The partition result handler. */
+        private final PartitionResultHandler<T, R> partitionResultHandler;
+
+        /** 每个分区的结果. */
+        private final AtomicReferenceArray<R>      results;
+
+        /**
+         * Instantiates a new result partition runnable builder.
+         *
+         * @param partitionResultHandler
+         *            the partition result handler
+         * @param results
+         *            每个分区的结果
+         */
+        private ResultPartitionRunnableBuilder(PartitionResultHandler<T, R> partitionResultHandler, AtomicReferenceArray<R> results){
+            this.partitionResultHandler = partitionResultHandler;
+            this.results = results;
+        }
+
+        /**
+         * Builds the.
+         *
+         * @param perBatchList
+         *            the per batch list
+         * @param partitionThreadEntity
+         *            the partition thread entity
+         * @param paramsMap
+         *            the params map
+         * @return the runnable
+         */
+        @Override
+        public Runnable build(final List<T> perBatchList,final PartitionThreadEntity partitionThreadEntity,final Map<String, ?> paramsMap){
+            return new Runnable(){
+
+                @Override
+                public void run(){
+                    R result = partitionResultHandler.handle(perBatchList, partitionThreadEntity, paramsMap);
+                    results.set(partitionThreadEntity.getBatchNumber(), result);
+                }
+            };
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 构造线程数上限为 <code>parallelism</code> 的线程池.
+     *
+     * @param parallelism
+     *            the parallelism
+     * @return the executor service
+     */
+    private static ExecutorService buildExecutorService(int parallelism){
+        Validate.isTrue(parallelism > 0, "parallelism must > 0,parallelism:%s", parallelism);
+
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                        parallelism,
+                        parallelism,
+                        KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new PartitionThreadFactory("PartitionThreadExecutor"));
+        //空闲的时候不占用线程
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 执行分区任务的线程池.
+     *
+     * @return the executorService
+     */
+    public ExecutorService getExecutorService(){
+        return executorService;
+    }
+}
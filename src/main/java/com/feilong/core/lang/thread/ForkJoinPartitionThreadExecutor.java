@@ -0,0 +1,443 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 基于 {@link ForkJoinPool} 工作窃取(work-stealing)的分区执行实现.
+ *
+ * <h3>背景:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link PartitionEachSizeThreadConfigBuilder} 一次性算出固定的 eachSize,如果数据有倾斜,某一个分区特别慢,整个 execute 调用都要等这个分区,而其他线程早就空闲了.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>原理:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>和其他执行器一样,把 list 按照调用方传入的 eachSize 切成若干块,每一块交给 {@link PartitionRunnableBuilder} 处理一次;<br>
+ * 想要更细的窃取粒度,传入更小的 eachSize</li>
+ * <li>从所有块开始递归二分,把右半部分 fork 出去,空闲的工作线程会窃取这些还没有执行的任务;<br>
+ * 一个任务包含的元素数量不超过 {@link PartitionThreadConfig#getMinPerThreadHandlerCount()},或者当前工作线程队列中积压的任务较多时
+ * ({@link RecursiveAction#getSurplusQueuedTaskCount()} {@code >} 3)停止拆分,直接顺序执行剩下的块,避免产生过多的小任务</li>
+ * <li>慢的块只会拖住执行它的那一个工作线程,剩下的块会被其他线程窃取执行,因此倾斜数据的总耗时接近平均值而不是最慢的那个分区</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>每一块对应一个 {@link PartitionThreadEntity},其 eachSize 是调用方传入的 eachSize,batchNumber 是块序号,因此
+ * {@code batchNumber * eachSize + i} 依然是元素在 list 中的索引</li>
+ * <li>块的 {@link Runnable} 在工作线程中才构造并执行,执行期间线程名字临时改成 {@link #buildThreadName(int, PartitionRunnableBuilder)};<br>
+ * 有限流的时候,为了不让限流的等待占住工作线程,改为在调用线程中逐块构造(等待限流)并提交,不再递归拆分</li>
+ * <li>某一块抛出的异常只会记录 error 日志,不会影响其他块的执行;{@link Error} 不会被吞掉,所有块执行完成之后抛给调用方</li>
+ * <li>没有通过 {@link #setPartitionThrottle(PartitionThrottle)} 设置限流的时候,每次执行都使用 {@link PartitionThreadConfig#getPartitionThrottle()}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see java.util.concurrent.ForkJoinPool
+ * @since 2.1.0
+ */
+public class ForkJoinPartitionThreadExecutor extends AbstractPartitionThreadExecutor{
+
+    /** The Constant LOGGER. */
+    private static final Logger                          LOGGER                    = LoggerFactory
+                    .getLogger(ForkJoinPartitionThreadExecutor.class);
+
+    /** 当前工作线程队列积压的任务数超过这个值的时候,不再拆分. */
+    private static final int                             SURPLUS_QUEUED_TASK_COUNT = 3;
+
+    /** 共享的 {@link ForkJoinPool},并发度为 cpu 核数. */
+    private static final ForkJoinPool                    DEFAULT_FORK_JOIN_POOL    = new ForkJoinPool();
+
+    //---------------------------------------------------------------
+
+    /** Static instance, 使用 {@link PartitionThreadConfig#INSTANCE}. */
+    public static final ForkJoinPartitionThreadExecutor INSTANCE                  = new ForkJoinPartitionThreadExecutor();
+
+    //---------------------------------------------------------------
+
+    /** 分区控制,使用其 minPerThreadHandlerCount 作为拆分的阈值. */
+    private final PartitionThreadConfig                  partitionThreadConfig;
+
+    /** The fork join pool. */
+    private final ForkJoinPool                           forkJoinPool;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new fork join partition thread executor, 使用 {@link PartitionThreadConfig#INSTANCE} 以及共享的 {@link ForkJoinPool}.
+     */
+    public ForkJoinPartitionThreadExecutor(){
+        this(PartitionThreadConfig.INSTANCE);
+    }
+
+    /**
+     * Instantiates a new fork join partition thread executor, 使用共享的 {@link ForkJoinPool}.
+     *
+     * @param partitionThreadConfig
+     *            分区控制,使用其 minPerThreadHandlerCount 作为拆分的阈值
+     */
+    public ForkJoinPartitionThreadExecutor(PartitionThreadConfig partitionThreadConfig){
+        this(partitionThreadConfig, DEFAULT_FORK_JOIN_POOL);
+    }
+
+    /**
+     * Instantiates a new fork join partition thread executor.
+     *
+     * @param partitionThreadConfig
+     *            分区控制,使用其 minPerThreadHandlerCount 作为拆分的阈值;如果配置了 maxConcurrentPartitions 或者 permitsPerSecond,使用
+     *            {@link PartitionThreadConfig#getPartitionThrottle()} 限流,和使用同一个配置的其他调用共享限制,配置修改之后立即生效
+     * @param forkJoinPool
+     *            the fork join pool
+     * @throws NullPointerException
+     *             如果 <code>partitionThreadConfig</code> 或者 <code>forkJoinPool</code> 是null
+     */
+    public ForkJoinPartitionThreadExecutor(PartitionThreadConfig partitionThreadConfig, ForkJoinPool forkJoinPool){
+        super();
+        Validate.notNull(partitionThreadConfig, "partitionThreadConfig can't be null!");
+        Validate.notNull(forkJoinPool, "forkJoinPool can't be null!");
+        this.partitionThreadConfig = partitionThreadConfig;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 分区执行的限流.
+     *
+     * @return 如果没有通过 {@link #setPartitionThrottle(PartitionThrottle)} 设置,返回 {@link PartitionThreadConfig#getPartitionThrottle()},
+     *         每次都从配置中读取,配置修改之后立即生效
+     */
+    @Override
+    public PartitionThrottle getPartitionThrottle(){
+        PartitionThrottle partitionThrottle = super.getPartitionThrottle();
+        return null != partitionThrottle ? partitionThrottle : partitionThreadConfig.getPartitionThrottle();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Actual execute.
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     */
+    @Override
+    protected <T> void actualExecute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        int minPerThreadHandlerCount = partitionThreadConfig.getMinPerThreadHandlerCount();
+        Validate.isTrue(minPerThreadHandlerCount > 0, "minPerThreadHandlerCount must >0,minPerThreadHandlerCount:%s", minPerThreadHandlerCount);
+
+        //每块 eachSize 个元素; minPerThreadHandlerCount 只是拆分的阈值
+        int chunkCount = (list.size() + eachSize - 1) / eachSize;
+
+        LOGGER.info(
+                        "total list size:[{}],split [{}] chunks,eachSize:[{}],minPerThreadHandlerCount:[{}]",
+                        list.size(),
+                        chunkCount,
+                        eachSize,
+                        minPerThreadHandlerCount);
+
+        //---------------------------------------------------------------
+        PartitionContext<T> partitionContext = new PartitionContext<>(
+                        list,
+                        eachSize,
+                        minPerThreadHandlerCount,
+                        paramsMap,
+                        partitionRunnableBuilder);
+        if (partitionRunnableBuilder instanceof ThrottledPartitionRunnableBuilder){
+            executeThrottled(partitionContext, chunkCount);
+        }else{
+            forkJoinPool.invoke(new PartitionAction<>(partitionContext, 0, chunkCount));
+        }
+
+        //所有块执行完成之后, 抛出块中的 Error
+        partitionContext.rethrowError();
+    }
+
+    /**
+     * 有限流的时候,在调用线程中逐块构造(限流在构造的时候等待)并提交到 {@link #forkJoinPool},等待所有已经提交的块执行完成.
+     * 
+     * <p>
+     * 限流的等待不能发生在工作线程中,否则会占住共享的 {@link ForkJoinPool},拖慢其他调用;代价是有限流的时候不再递归拆分.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param partitionContext
+     *            the partition context
+     * @param chunkCount
+     *            the chunk count
+     */
+    private <T> void executeThrottled(PartitionContext<T> partitionContext,int chunkCount){
+        List<ForkJoinTask<?>> forkJoinTaskList = new ArrayList<>(chunkCount);
+        try{
+            for (int batchNumber = 0; batchNumber < chunkCount; ++batchNumber){
+                forkJoinTaskList.add(forkJoinPool.submit(partitionContext.buildTask(batchNumber)));
+            }
+        }finally{
+            for (ForkJoinTask<?> forkJoinTask : forkJoinTaskList){
+                forkJoinTask.quietlyJoin();
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 一次 execute 调用中所有块共享的参数.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private static final class PartitionContext<T> {
+
+        /** The list. */
+        private final List<T>                     list;
+
+        /** 每块的元素数量. */
+        private final int                         eachSize;
+
+        /** 拆分的阈值,一个任务包含的元素数量不超过这个值的时候不再拆分. */
+        private final int                         splitThreshold;
+
+        /** The params map. */
+        private final Map<String, ?>              paramsMap;
+
+        /** The partition runnable builder. */
+        private final PartitionRunnableBuilder<T> partitionRunnableBuilder;
+
+        /** 第一个块抛出的 {@link Error}. */
+        private final AtomicReference<Error>      errorReference = new AtomicReference<>();
+
+        /**
+         * Instantiates a new partition context.
+         *
+         * @param list
+         *            the list
+         * @param eachSize
+         *            每块的元素数量
+         * @param splitThreshold
+         *            拆分的阈值
+         * @param paramsMap
+         *            the params map
+         * @param partitionRunnableBuilder
+         *            the partition runnable builder
+         */
+        private PartitionContext(List<T> list, int eachSize, int splitThreshold, Map<String, ?> paramsMap,
+                        PartitionRunnableBuilder<T> partitionRunnableBuilder){
+            this.list = list;
+            this.eachSize = eachSize;
+            this.splitThreshold = splitThreshold;
+            this.paramsMap = paramsMap;
+            this.partitionRunnableBuilder = partitionRunnableBuilder;
+        }
+
+        /**
+         * 包含 <code>chunkCount</code> 块的任务是否需要继续拆分.
+         *
+         * @param chunkCount
+         *            块的数量
+         * @return 如果多于 1 块,并且元素数量超过 {@link #splitThreshold},返回true
+         */
+        private boolean canSplit(int chunkCount){
+            return chunkCount > 1 && (long) chunkCount * eachSize > splitThreshold;
+        }
+
+        /**
+         * 在工作线程中构造并执行第 <code>batchNumber</code> 块.
+         *
+         * @param batchNumber
+         *            块序号
+         */
+        private void run(int batchNumber){
+            try{
+                build(batchNumber).run();
+            }catch (RuntimeException | Error e){
+                fail(batchNumber, e);
+            }
+        }
+
+        /**
+         * 在当前线程中构造第 <code>batchNumber</code> 块,返回在工作线程中执行的任务.
+         *
+         * @param batchNumber
+         *            块序号
+         * @return the fork join task
+         */
+        private ForkJoinTask<?> buildTask(final int batchNumber){
+            final Runnable runnable = build(batchNumber);
+            return ForkJoinTask.adapt(new Runnable(){
+
+                @Override
+                public void run(){
+                    try{
+                        runnable.run();
+                    }catch (RuntimeException | Error e){
+                        fail(batchNumber, e);
+                    }
+                }
+            });
+        }
+
+        /**
+         * 构造第 <code>batchNumber</code> 块的 {@link Runnable}.
+         *
+         * @param batchNumber
+         *            块序号
+         * @return the runnable
+         */
+        private Runnable build(int batchNumber){
+            int fromIndex = batchNumber * eachSize;
+            List<T> perBatchList = list.subList(fromIndex, Math.min(fromIndex + eachSize, list.size()));
+
+            String threadName = buildThreadName(batchNumber, partitionRunnableBuilder);
+            PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                            threadName,
+                            list.size(),
+                            eachSize,
+                            batchNumber,
+                            perBatchList.size());
+            Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+            return buildNamedRunnable(threadName, runnable);
+        }
+
+        /**
+         * 记录 error 日志,不影响其他块的执行;{@link Error} 记录下来,所有块执行完成之后通过 {@link #rethrowError()} 抛给调用方.
+         *
+         * @param batchNumber
+         *            块序号
+         * @param throwable
+         *            the throwable
+         */
+        private void fail(int batchNumber,Throwable throwable){
+            LOGGER.error(Slf4jUtil.format("partition [{}] execute error", batchNumber), throwable);
+            if (throwable instanceof Error){
+                errorReference.compareAndSet(null, (Error) throwable);
+            }
+        }
+
+        /**
+         * 如果有块抛出过 {@link Error},抛出第一个.
+         */
+        private void rethrowError(){
+            Error error = errorReference.get();
+            if (null != error){
+                throw error;
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 执行 [fromBatchNumber,toBatchNumber) 范围内的块.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private static final class PartitionAction<T> extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long         serialVersionUID = 288232184086761959L;
+
+        /** The partition context. */
+        private final PartitionContext<T> partitionContext;
+
+        /** 开始的块序号,包含. */
+        private final int                 fromBatchNumber;
+
+        /** 结束的块序号,不包含. */
+        private final int                 toBatchNumber;
+
+        /**
+         * Instantiates a new partition action.
+         *
+         * @param partitionContext
+         *            the partition context
+         * @param fromBatchNumber
+         *            开始的块序号,包含
+         * @param toBatchNumber
+         *            结束的块序号,不包含
+         */
+        private PartitionAction(PartitionContext<T> partitionContext, int fromBatchNumber, int toBatchNumber){
+            this.partitionContext = partitionContext;
+            this.fromBatchNumber = fromBatchNumber;
+            this.toBatchNumber = toBatchNumber;
+        }
+
+        /**
+         * Compute.
+         */
+        @Override
+        protected void compute(){
+            int from = fromBatchNumber;
+            int to = toBatchNumber;
+
+            //二分,把右半部分 fork 出去让空闲的线程窃取; 元素数量不超过阈值或者积压任务较多的时候不再拆分
+            List<PartitionAction<T>> forkedList = new ArrayList<>();
+            while (partitionContext.canSplit(to - from) && getSurplusQueuedTaskCount() <= SURPLUS_QUEUED_TASK_COUNT){
+                int middle = (from + to) >>> 1;
+
+                PartitionAction<T> right = new PartitionAction<>(partitionContext, middle, to);
+                right.fork();
+                forkedList.add(right);
+                to = middle;
+            }
+
+            //---------------------------------------------------------------
+            for (int batchNumber = from; batchNumber < to; ++batchNumber){
+                partitionContext.run(batchNumber);
+            }
+
+            //后 fork 的先 join, 优先拿回本线程队列顶部的任务自己执行
+            for (int i = forkedList.size() - 1; i >= 0; --i){
+                forkedList.get(i).join();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 固定内存的并发耗时直方图,用于计算 p50/p99 等分位数.
+ *
+ * <p>
+ * 每个 2 的幂次区间再等分成 {@link #SUB_BUCKET_COUNT} 个桶,相对误差不超过 1/16;小于 {@link #SUB_BUCKET_COUNT} 的值精确记录.<br>
+ * 不管记录多少个值,内存占用都是固定的.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class LatencyHistogram{
+
+    /** 每个 2 的幂次区间的桶数量的位数. */
+    private static final int SUB_BUCKET_BITS  = 4;
+
+    /** 每个 2 的幂次区间的桶数量. */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    //---------------------------------------------------------------
+
+    /** 每个桶的数量. */
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT);
+
+    //---------------------------------------------------------------
+
+    /**
+     * 记录一个值.
+     *
+     * @param value
+     *            the value,小于0 的当做0
+     */
+    void record(long value){
+        counts.incrementAndGet(index(Math.max(value, 0)));
+    }
+
+    /**
+     * 获得分位数 <code>percentile</code> 对应的值(所在桶的上界).
+     *
+     * @param percentile
+     *            分位数,比如 0.5,0.99,必须在 (0,1] 之间
+     * @return 如果没有记录任何值,返回 0
+     */
+    long getValueAtPercentile(double percentile){
+        Validate.isTrue(percentile > 0 && percentile <= 1, "percentile must in (0,1],percentile:%s", percentile);
+
+        long[] snapshot = new long[counts.length()];
+        long totalCount = 0;
+        for (int i = 0; i < snapshot.length; ++i){
+            snapshot[i] = counts.get(i);
+            totalCount += snapshot[i];
+        }
+        if (totalCount == 0){
+            return 0;
+        }
+
+        //---------------------------------------------------------------
+        long rank = (long) Math.ceil(percentile * totalCount);
+        long cumulativeCount = 0;
+        for (int i = 0; i < snapshot.length; ++i){
+            cumulativeCount += snapshot[i];
+            if (cumulativeCount >= rank){
+                return upperBound(i);
+            }
+        }
+        return upperBound(snapshot.length - 1);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 值所在桶的索引.
+     *
+     * @param value
+     *            the value
+     * @return the int
+     */
+    private static int index(long value){
+        if (value < SUB_BUCKET_COUNT){
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * 桶 <code>index</code> 的上界(包含).
+     *
+     * @param index
+     *            the index
+     * @return the long
+     */
+    private static long upperBound(int index){
+        if (index < SUB_BUCKET_COUNT){
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
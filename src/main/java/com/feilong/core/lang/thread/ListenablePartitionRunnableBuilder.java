@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 包装 {@link PartitionRunnableBuilder},在分区提交,开始,结束的时候回调 {@link PartitionListener}.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <T>
+ *            the generic type
+ * @since 2.1.0
+ */
+final class ListenablePartitionRunnableBuilder<T> implements PartitionRunnableBuilder<T>{
+
+    /** 被包装的 partition runnable builder. */
+    private final PartitionRunnableBuilder<T> partitionRunnableBuilder;
+
+    /** The partition listener. */
+    private final PartitionListener           partitionListener;
+
+    /** 被包装的 partitionRunnableBuilder 的名字. */
+    private final String                      name;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new listenable partition runnable builder.
+     *
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @param partitionListener
+     *            the partition listener
+     * @param name
+     *            被包装的 partitionRunnableBuilder 的名字
+     */
+    ListenablePartitionRunnableBuilder(PartitionRunnableBuilder<T> partitionRunnableBuilder, PartitionListener partitionListener,
+                    String name){
+        this.partitionRunnableBuilder = partitionRunnableBuilder;
+        this.partitionListener = partitionListener;
+        this.name = name;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Builds the.
+     *
+     * @param perBatchList
+     *            the per batch list
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     * @param paramsMap
+     *            the params map
+     * @return the runnable
+     */
+    @Override
+    public Runnable build(List<T> perBatchList,final PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+        final Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+        final long submitNanoTime = System.nanoTime();
+        partitionListener.onSubmit(name, partitionThreadEntity);
+
+        return new Runnable(){
+
+            @Override
+            public void run(){
+                long startNanoTime = System.nanoTime();
+                partitionListener.onStart(name, partitionThreadEntity, startNanoTime - submitNanoTime);
+
+                Throwable throwable = null;
+                try{
+                    runnable.run();
+                }catch (RuntimeException | Error e){
+                    throwable = e;
+                    throw e;
+                }finally{
+                    partitionListener.onComplete(name, partitionThreadEntity, System.nanoTime() - startNanoTime, throwable);
+                }
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 被包装的 partitionRunnableBuilder 的名字.
+     *
+     * @return the name
+     */
+    String getName(){
+        return name;
+    }
+}
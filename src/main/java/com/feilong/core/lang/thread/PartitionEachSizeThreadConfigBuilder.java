@@ -67,6 +67,9 @@ public class PartitionEachSizeThreadConfigBuilder implements PartitionEachSizeBu
      * 
      *         如果 <code>totalSize</code> 小于等于 <code>minPerThreadHandlerCount</code>(每个线程最少处理数量),那么直接返回<code>totalSize</code>,也就是说接下来开 1
      *         个线程就足够了<br>
+     *         如果 <code>totalSize/minPerThreadHandlerCount</code> 向上取整之后大于等于 <code>maxThreadCount</code>,返回
+     *         <code>totalSize/maxThreadCount</code> 向上取整<br>
+     *         否则返回 <code>minPerThreadHandlerCount</code>
      */
     @Override
     public int build(int totalSize){
@@ -96,8 +99,8 @@ public class PartitionEachSizeThreadConfigBuilder implements PartitionEachSizeBu
             return toInteger(NumberUtil.getDivideValue(totalSize, maxThreadCount, 0, RoundingMode.UP));
         }
 
-        //否则返回  threadCount
-        return threadCount;
+        //否则每个线程处理 minPerThreadHandlerCount 条, 开启 threadCount 个线程
+        return minPerThreadHandlerCount;
     }
 
     //---------------------------------------------------------------
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.feilong.core.DefaultRuntimeException;
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 分区执行失败的异常,汇总了所有失败分区的异常.
+ *
+ * <p>
+ * {@link #getCause()} 是 batchNumber 最小的失败分区的异常,所有失败分区的异常参见 {@link #getBatchNumberAndThrowableMap()}.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PartitionFailurePolicy
+ * @since 2.1.0
+ */
+public final class PartitionExecuteException extends DefaultRuntimeException{
+
+    /** The Constant serialVersionUID. */
+    private static final long                      serialVersionUID = 3287212469180237406L;
+
+    /** 失败分区的 batchNumber 和异常,按照 batchNumber 排序. */
+    private final SortedMap<Integer, Throwable> batchNumberAndThrowableMap;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition execute exception.
+     *
+     * @param batchNumberAndThrowableMap
+     *            失败分区的 batchNumber 和异常,不能为empty
+     */
+    public PartitionExecuteException(Map<Integer, Throwable> batchNumberAndThrowableMap){
+        this(new TreeMap<>(batchNumberAndThrowableMap));
+    }
+
+    /**
+     * Instantiates a new partition execute exception.
+     *
+     * @param sortedMap
+     *            the sorted map
+     */
+    private PartitionExecuteException(SortedMap<Integer, Throwable> sortedMap){
+        super(
+                        Slf4jUtil.format("[{}] partitions execute error,batchNumbers:{}", sortedMap.size(), sortedMap.keySet()),
+                        sortedMap.get(sortedMap.firstKey()));
+        this.batchNumberAndThrowableMap = Collections.unmodifiableSortedMap(sortedMap);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 失败分区的 batchNumber 和异常,按照 batchNumber 排序.
+     *
+     * @return the batchNumberAndThrowableMap
+     */
+    public SortedMap<Integer, Throwable> getBatchNumberAndThrowableMap(){
+        return batchNumberAndThrowableMap;
+    }
+}
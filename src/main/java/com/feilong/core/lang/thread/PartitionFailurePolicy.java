@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * 分区执行异常的处理策略.
+ *
+ * <h3>可选的策略:</h3>
+ *
+ * <blockquote>
+ * <table border="1" cellspacing="0" cellpadding="4" summary="">
+ * <tr style="background-color:#ccccff">
+ * <th align="left">策略</th>
+ * <th align="left">说明</th>
+ * </tr>
+ * <tr valign="top">
+ * <td>{@link #LOG_AND_CONTINUE}</td>
+ * <td>默认,记录 error 日志,其他分区继续执行,execute 正常返回(和 {@link DefaultPartitionThreadExecutor} 的行为一致)</td>
+ * </tr>
+ * <tr valign="top" style="background-color:#eeeeff">
+ * <td>{@link #FAIL_FAST}</td>
+ * <td>第一个分区失败之后,取消其他还没有执行完的分区,execute 抛出 {@link PartitionExecuteException}</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>{@link #COLLECT_ALL}</td>
+ * <td>所有分区都执行完,再把所有失败的分区汇总到 {@link PartitionExecuteException} 中抛出</td>
+ * </tr>
+ * <tr valign="top" style="background-color:#eeeeff">
+ * <td>{@link #retry(int, long)}</td>
+ * <td>失败的分区最多重试 N 次,每次重试前等待的时间指数增长(backoff, backoff*2, backoff*4 ...);<br>
+ * 重试之后依然失败的分区汇总到 {@link PartitionExecuteException} 中抛出</td>
+ * </tr>
+ * </table>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ExecutorServicePartitionThreadExecutor
+ * @since 2.1.0
+ */
+public final class PartitionFailurePolicy{
+
+    /** 记录 error 日志,其他分区继续执行,不抛出异常. */
+    public static final PartitionFailurePolicy LOG_AND_CONTINUE = new PartitionFailurePolicy(false, false, 0, 0);
+
+    /** 第一个分区失败之后,取消其他分区,抛出 {@link PartitionExecuteException}. */
+    public static final PartitionFailurePolicy FAIL_FAST        = new PartitionFailurePolicy(true, true, 0, 0);
+
+    /** 所有分区执行完之后,汇总所有失败的分区,抛出 {@link PartitionExecuteException}. */
+    public static final PartitionFailurePolicy COLLECT_ALL      = new PartitionFailurePolicy(true, false, 0, 0);
+
+    //---------------------------------------------------------------
+
+    /** 是否在有分区失败的时候抛出 {@link PartitionExecuteException}. */
+    private final boolean                      throwException;
+
+    /** 是否第一个分区失败之后就取消其他分区. */
+    private final boolean                      failFast;
+
+    /** 失败之后最多重试次数. */
+    private final int                          maxRetries;
+
+    /** 第一次重试前等待的毫秒数,之后每次翻倍. */
+    private final long                         retryBackoffMilliseconds;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition failure policy.
+     *
+     * @param throwException
+     *            是否在有分区失败的时候抛出 {@link PartitionExecuteException}
+     * @param failFast
+     *            是否第一个分区失败之后就取消其他分区
+     * @param maxRetries
+     *            失败之后最多重试次数
+     * @param retryBackoffMilliseconds
+     *            第一次重试前等待的毫秒数,之后每次翻倍
+     */
+    private PartitionFailurePolicy(boolean throwException, boolean failFast, int maxRetries, long retryBackoffMilliseconds){
+        this.throwException = throwException;
+        this.failFast = failFast;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMilliseconds = retryBackoffMilliseconds;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 失败的分区最多重试 <code>maxRetries</code> 次,重试之后依然失败的分区汇总到 {@link PartitionExecuteException} 中抛出.
+     *
+     * @param maxRetries
+     *            最多重试次数,必须 {@code >=} 0
+     * @param retryBackoffMilliseconds
+     *            第一次重试前等待的毫秒数,之后每次翻倍,必须 {@code >=} 0
+     * @return the partition failure policy
+     * @throws IllegalArgumentException
+     *             如果 {@code maxRetries < 0} 或者 {@code retryBackoffMilliseconds < 0}
+     */
+    public static PartitionFailurePolicy retry(int maxRetries,long retryBackoffMilliseconds){
+        Validate.isTrue(maxRetries >= 0, "maxRetries must >=0,maxRetries:%s", maxRetries);
+        Validate.isTrue(retryBackoffMilliseconds >= 0, "retryBackoffMilliseconds must >=0,retryBackoffMilliseconds:%s", retryBackoffMilliseconds);
+        return new PartitionFailurePolicy(true, false, maxRetries, retryBackoffMilliseconds);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 第 <code>retryCount</code> 次重试前需要等待的毫秒数.
+     *
+     * @param retryCount
+     *            第几次重试,从1开始
+     * @return the long
+     */
+    long getBackoffMilliseconds(int retryCount){
+        //防止溢出,最多左移 30 位
+        return retryBackoffMilliseconds << Math.min(retryCount - 1, 30);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 是否在有分区失败的时候抛出 {@link PartitionExecuteException}.
+     *
+     * @return the throwException
+     */
+    public boolean isThrowException(){
+        return throwException;
+    }
+
+    /**
+     * 获得 是否第一个分区失败之后就取消其他分区.
+     *
+     * @return the failFast
+     */
+    public boolean isFailFast(){
+        return failFast;
+    }
+
+    /**
+     * 获得 失败之后最多重试次数.
+     *
+     * @return the maxRetries
+     */
+    public int getMaxRetries(){
+        return maxRetries;
+    }
+
+    /**
+     * 获得 第一次重试前等待的毫秒数,之后每次翻倍.
+     *
+     * @return the retryBackoffMilliseconds
+     */
+    public long getRetryBackoffMilliseconds(){
+        return retryBackoffMilliseconds;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 一次分区执行中,按照 {@link PartitionFailurePolicy} 处理分区异常(重试,记录,fail fast 取消其他分区),并在最后汇总.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class PartitionFailureTracker{
+
+    /** The Constant LOGGER. */
+    private static final Logger          LOGGER                     = LoggerFactory.getLogger(PartitionFailureTracker.class);
+
+    //---------------------------------------------------------------
+
+    /** The partition failure policy. */
+    private final PartitionFailurePolicy partitionFailurePolicy;
+
+    /** 失败分区的 batchNumber 和异常. */
+    private final Map<Integer, Throwable> batchNumberAndThrowableMap = new ConcurrentHashMap<>();
+
+    /** 已经提交的分区. */
+    private final List<Future<?>>        futures                    = new CopyOnWriteArrayList<>();
+
+    /** fail fast 的时候,是否已经有分区失败. */
+    private volatile boolean             aborted;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition failure tracker.
+     *
+     * @param partitionFailurePolicy
+     *            the partition failure policy
+     */
+    PartitionFailureTracker(PartitionFailurePolicy partitionFailurePolicy){
+        this.partitionFailurePolicy = partitionFailurePolicy;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 包装第 <code>batchNumber</code> 个分区的 <code>runnable</code>,按照策略重试以及记录异常.
+     * 
+     * <p>
+     * {@link RuntimeException} 按照策略重试; {@link Error} 不重试,记录之后继续抛出.
+     * </p>
+     *
+     * @param batchNumber
+     *            the batch number
+     * @param runnable
+     *            the runnable
+     * @return the runnable
+     */
+    Runnable wrap(final int batchNumber,final Runnable runnable){
+        return new Runnable(){
+
+            @Override
+            public void run(){
+                for (int retryCount = 0;; ++retryCount){
+                    //fail fast 已经有分区失败了,还没开始的分区不再执行,释放限流的名额
+                    if (aborted){
+                        ThrottledPartitionRunnableBuilder.release(runnable);
+                        return;
+                    }
+                    try{
+                        runnable.run();
+                        return;
+                    }catch (RuntimeException e){
+                        if (!canRetry(retryCount)){
+                            fail(batchNumber, e);
+                            return;
+                        }
+                        backoff(batchNumber, retryCount + 1, e);
+                    }catch (Error e){
+                        //Error 不重试, 记录之后继续抛出
+                        fail(batchNumber, e);
+                        throw e;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * 记录提交的分区,用于等待以及 fail fast 的时候取消.
+     *
+     * @param future
+     *            the future
+     */
+    void add(Future<?> future){
+        futures.add(future);
+        //提交的时候已经有分区失败
+        if (aborted){
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * 等待所有分区执行完成.
+     *
+     * <p>
+     * 如果调用线程被中断,取消还没有执行完的分区并恢复中断状态.
+     * </p>
+     */
+    void await(){
+        for (int i = 0; i < futures.size(); ++i){
+            try{
+                futures.get(i).get();
+            }catch (CancellationException e){
+                //fail fast 取消的分区
+                LOGGER.trace("partition [{}] cancelled", i);
+            }catch (ExecutionException e){
+                //wrap 已经记录过的 Error 不再重复记录
+                Throwable cause = e.getCause();
+                if (!batchNumberAndThrowableMap.containsValue(cause)){
+                    fail(i, cause);
+                }
+            }catch (InterruptedException e){
+                LOGGER.error("", e);
+                cancelAll();
+                // clean up state...
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 如果策略需要抛出异常,并且有分区失败,抛出 {@link PartitionExecuteException}.
+     *
+     * @throws PartitionExecuteException
+     *             如果策略需要抛出异常,并且有分区失败
+     */
+    void check(){
+        if (partitionFailurePolicy.isThrowException() && !batchNumberAndThrowableMap.isEmpty()){
+            throw new PartitionExecuteException(batchNumberAndThrowableMap);
+        }
+    }
+
+    /**
+     * fail fast 的时候,是否已经有分区失败.
+     *
+     * @return true, if is aborted
+     */
+    boolean isAborted(){
+        return aborted;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 是否可以再次重试.
+     *
+     * @param retryCount
+     *            已经重试的次数
+     * @return true, if successful
+     */
+    private boolean canRetry(int retryCount){
+        return retryCount < partitionFailurePolicy.getMaxRetries() && !aborted && !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * 重试前等待.
+     *
+     * @param batchNumber
+     *            the batch number
+     * @param retryCount
+     *            第几次重试,从1开始
+     * @param e
+     *            the e
+     */
+    private void backoff(int batchNumber,int retryCount,RuntimeException e){
+        long backoffMilliseconds = partitionFailurePolicy.getBackoffMilliseconds(retryCount);
+        if (LOGGER.isWarnEnabled()){
+            String pattern = "partition [{}] execute error,retry [{}/{}] after [{}]ms,error:[{}]";
+            LOGGER.warn(pattern, batchNumber, retryCount, partitionFailurePolicy.getMaxRetries(), backoffMilliseconds, e.toString());
+        }
+        if (backoffMilliseconds > 0){
+            ThreadUtil.sleep(backoffMilliseconds);
+        }
+    }
+
+    /**
+     * 记录失败的分区, fail fast 的时候取消其他分区.
+     *
+     * @param batchNumber
+     *            the batch number
+     * @param throwable
+     *            the throwable
+     */
+    private void fail(int batchNumber,Throwable throwable){
+        LOGGER.error(Slf4jUtil.format("partition [{}] execute error", batchNumber), throwable);
+        batchNumberAndThrowableMap.put(batchNumber, throwable);
+
+        if (partitionFailurePolicy.isFailFast() && !aborted){
+            aborted = true;
+            cancelAll();
+        }
+    }
+
+    /**
+     * 取消所有没有执行完的分区.
+     */
+    private void cancelAll(){
+        for (Future<?> future : futures){
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 一次异步分区执行的结果, 由每个分区的 {@link Future} 组成.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>{@link #get()} 返回的 list 中,每个分区一个结果,按照 batchNumber 排序;每个分区的结果只写入自己的 {@link Future},合并的时候没有锁竞争</li>
+ * <li>如果某个分区执行异常, {@link #get()} 抛出该分区(按照 batchNumber 顺序第一个)的 {@link ExecutionException}</li>
+ * <li>如果需要单独处理每个分区的结果或者异常,可以使用 {@link #getPartitionFutures()}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <R>
+ *            每个分区的结果类型
+ * @see AsyncPartitionThreadExecutor
+ * @since 2.1.0
+ */
+public class PartitionFuture<R> implements Future<List<R>>{
+
+    /** 每个分区的 future,按照 batchNumber 排序. */
+    private final List<Future<R>> partitionFutures;
+
+    /** 是否调用过 cancel. */
+    private volatile boolean      cancelled;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition future.
+     *
+     * @param partitionFutures
+     *            每个分区的 future,按照 batchNumber 排序
+     * @throws NullPointerException
+     *             如果 <code>partitionFutures</code> 是null
+     */
+    public PartitionFuture(List<Future<R>> partitionFutures){
+        super();
+        Validate.notNull(partitionFutures, "partitionFutures can't be null!");
+        this.partitionFutures = Collections.unmodifiableList(partitionFutures);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 取消所有没有执行完的分区.
+     *
+     * @param mayInterruptIfRunning
+     *            the may interrupt if running
+     * @return 如果至少有一个分区被取消,返回true
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning){
+        boolean result = false;
+        for (Future<R> future : partitionFutures){
+            result |= future.cancel(mayInterruptIfRunning);
+        }
+        cancelled |= result;
+        return result;
+    }
+
+    /**
+     * Checks if is cancelled.
+     *
+     * @return true, if is cancelled
+     */
+    @Override
+    public boolean isCancelled(){
+        return cancelled;
+    }
+
+    /**
+     * 所有分区是否都已经完成(正常结束,异常或者取消).
+     *
+     * @return true, if is done
+     */
+    @Override
+    public boolean isDone(){
+        for (Future<R> future : partitionFutures){
+            if (!future.isDone()){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 等待所有分区执行完成,返回每个分区的结果,按照 batchNumber 排序.
+     *
+     * @return the list
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ExecutionException
+     *             按照 batchNumber 顺序,第一个执行异常的分区
+     */
+    @Override
+    public List<R> get() throws InterruptedException,ExecutionException{
+        List<R> resultList = new ArrayList<>(partitionFutures.size());
+        for (Future<R> future : partitionFutures){
+            resultList.add(future.get());
+        }
+        return resultList;
+    }
+
+    /**
+     * 在 <code>timeout</code> 时间内等待所有分区执行完成,返回每个分区的结果,按照 batchNumber 排序.
+     *
+     * @param timeout
+     *            所有分区总的等待时间
+     * @param unit
+     *            the unit
+     * @return the list
+     * @throws InterruptedException
+     *             the interrupted exception
+     * @throws ExecutionException
+     *             按照 batchNumber 顺序,第一个执行异常的分区
+     * @throws TimeoutException
+     *             the timeout exception
+     */
+    @Override
+    public List<R> get(long timeout,TimeUnit unit) throws InterruptedException,ExecutionException,TimeoutException{
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        List<R> resultList = new ArrayList<>(partitionFutures.size());
+        for (Future<R> future : partitionFutures){
+            resultList.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+        }
+        return resultList;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 每个分区的 future,按照 batchNumber 排序.
+     *
+     * @return the partitionFutures
+     */
+    public List<Future<R>> getPartitionFutures(){
+        return partitionFutures;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+/**
+ * 分区执行的监听器,用于收集排队耗时,执行耗时,吞吐量,失败等指标.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>参数 <code>name</code> 是 {@link PartitionRunnableBuilder} 实现类的名字,分区的序号是 {@link PartitionThreadEntity#getBatchNumber()}</li>
+ * <li>{@link #onStart(String, PartitionThreadEntity, long)} 以及 {@link #onComplete(String, PartitionThreadEntity, long, Throwable)}
+ * 在执行分区的线程中回调,实现类需要线程安全,并且不要抛出异常,不要有耗时的操作</li>
+ * <li>如果配置了重试 {@link PartitionFailurePolicy#retry(int, long)},每次执行(包括重试)都会回调 onStart 以及 onComplete</li>
+ * <li>{@link ForkJoinPartitionThreadExecutor} 在工作线程中才构造分区,排队耗时接近 0</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see AbstractPartitionThreadExecutor#setPartitionListener(PartitionListener)
+ * @see PartitionMetricsListener
+ * @since 2.1.0
+ */
+public interface PartitionListener{
+
+    /**
+     * 分区构造完成,提交执行(比如提交到线程池排队)的时候回调.
+     *
+     * @param name
+     *            {@link PartitionRunnableBuilder} 实现类的名字
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     */
+    void onSubmit(String name,PartitionThreadEntity partitionThreadEntity);
+
+    /**
+     * 分区开始执行的时候回调.
+     *
+     * @param name
+     *            {@link PartitionRunnableBuilder} 实现类的名字
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     * @param queueWaitNanos
+     *            从提交到开始执行,排队等待的纳秒数
+     */
+    void onStart(String name,PartitionThreadEntity partitionThreadEntity,long queueWaitNanos);
+
+    /**
+     * 分区执行结束(不管成功还是失败)的时候回调.
+     *
+     * @param name
+     *            {@link PartitionRunnableBuilder} 实现类的名字
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     * @param runNanos
+     *            执行耗时纳秒数
+     * @param throwable
+     *            执行抛出的异常,成功的话是 null
+     */
+    void onComplete(String name,PartitionThreadEntity partitionThreadEntity,long runNanos,Throwable throwable);
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 某个 {@link PartitionRunnableBuilder} 的分区执行指标,由 {@link PartitionMetricsListener} 累计.
+ *
+ * <p>
+ * 所有的值都是实时读取的,读取期间可能还有分区在执行,各个值之间不保证是同一时刻的快照.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PartitionMetricsListener
+ * @since 2.1.0
+ */
+public final class PartitionMetrics{
+
+    /** 提交的分区数量. */
+    private final AtomicLong       submitCount             = new AtomicLong();
+
+    /** 开始执行的分区数量(包括重试). */
+    private final AtomicLong       startCount              = new AtomicLong();
+
+    /** 执行结束的分区数量(包括重试). */
+    private final AtomicLong       completeCount           = new AtomicLong();
+
+    /** 执行失败的分区数量(包括重试). */
+    private final AtomicLong       failureCount            = new AtomicLong();
+
+    /** 执行成功的元素数量. */
+    private final AtomicLong       itemCount               = new AtomicLong();
+
+    /** 累计排队纳秒数. */
+    private final AtomicLong       totalQueueWaitNanos     = new AtomicLong();
+
+    /** 累计执行纳秒数. */
+    private final AtomicLong       totalRunNanos           = new AtomicLong();
+
+    /** 第一个分区提交的时间, {@link System#nanoTime()}. */
+    private final AtomicLong       firstSubmitNanoTime     = new AtomicLong(Long.MAX_VALUE);
+
+    /** 最后一个分区结束的时间, {@link System#nanoTime()}. */
+    private final AtomicLong       lastCompleteNanoTime    = new AtomicLong(Long.MIN_VALUE);
+
+    /** 执行耗时直方图. */
+    private final LatencyHistogram runNanosHistogram       = new LatencyHistogram();
+
+    /** 排队耗时直方图. */
+    private final LatencyHistogram queueWaitNanosHistogram = new LatencyHistogram();
+
+    /** 最慢的分区的执行纳秒数. */
+    private long                   maxRunNanos             = -1;
+
+    /** 最慢的分区的 batchNumber. */
+    private int                    slowestBatchNumber      = -1;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 记录分区提交.
+     */
+    void recordSubmit(){
+        submitCount.incrementAndGet();
+        updateMin(firstSubmitNanoTime, System.nanoTime());
+    }
+
+    /**
+     * 记录分区开始执行.
+     *
+     * @param queueWaitNanos
+     *            the queue wait nanos
+     */
+    void recordStart(long queueWaitNanos){
+        startCount.incrementAndGet();
+        totalQueueWaitNanos.addAndGet(queueWaitNanos);
+        queueWaitNanosHistogram.record(queueWaitNanos);
+    }
+
+    /**
+     * 记录分区执行结束.
+     *
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     * @param runNanos
+     *            the run nanos
+     * @param throwable
+     *            the throwable
+     */
+    void recordComplete(PartitionThreadEntity partitionThreadEntity,long runNanos,Throwable throwable){
+        if (null == throwable){
+            itemCount.addAndGet(partitionThreadEntity.getCurrentListSize());
+        }else{
+            failureCount.incrementAndGet();
+        }
+        totalRunNanos.addAndGet(runNanos);
+        runNanosHistogram.record(runNanos);
+
+        synchronized (this){
+            if (runNanos > maxRunNanos){
+                maxRunNanos = runNanos;
+                slowestBatchNumber = partitionThreadEntity.getBatchNumber();
+            }
+        }
+
+        updateMax(lastCompleteNanoTime, System.nanoTime());
+        //最后再累加, 保证 completeCount 可见的时候其他值已经更新
+        completeCount.incrementAndGet();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 提交的分区数量.
+     *
+     * @return the submitCount
+     */
+    public long getSubmitCount(){
+        return submitCount.get();
+    }
+
+    /**
+     * 获得 执行结束的分区数量(包括重试).
+     *
+     * @return the completeCount
+     */
+    public long getCompleteCount(){
+        return completeCount.get();
+    }
+
+    /**
+     * 获得 执行失败的分区数量(包括重试).
+     *
+     * @return the failureCount
+     */
+    public long getFailureCount(){
+        return failureCount.get();
+    }
+
+    /**
+     * 获得 执行成功的元素数量.
+     *
+     * @return the itemCount
+     */
+    public long getItemCount(){
+        return itemCount.get();
+    }
+
+    /**
+     * 获得 正在执行(in-flight)的分区数量.
+     *
+     * @return the running count
+     */
+    public long getRunningCount(){
+        return Math.max(startCount.get() - completeCount.get(), 0);
+    }
+
+    /**
+     * 获得 平均排队毫秒数.
+     *
+     * @return 如果还没有分区开始执行,返回 0
+     */
+    public double getAverageQueueWaitMilliseconds(){
+        long count = startCount.get();
+        return count == 0 ? 0 : toMilliseconds(totalQueueWaitNanos.get()) / count;
+    }
+
+    /**
+     * 获得 平均执行毫秒数.
+     *
+     * @return 如果还没有分区执行结束,返回 0
+     */
+    public double getAverageRunMilliseconds(){
+        long count = completeCount.get();
+        return count == 0 ? 0 : toMilliseconds(totalRunNanos.get()) / count;
+    }
+
+    /**
+     * 获得 排队耗时的分位数.
+     *
+     * @param percentile
+     *            分位数,比如 0.5,0.99,必须在 (0,1] 之间
+     * @return 毫秒数
+     * @throws IllegalArgumentException
+     *             如果 <code>percentile</code> 不在 (0,1] 之间
+     */
+    public double getQueueWaitMillisecondsAtPercentile(double percentile){
+        return toMilliseconds(queueWaitNanosHistogram.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * 获得 执行耗时的分位数.
+     *
+     * @param percentile
+     *            分位数,比如 0.5,0.99,必须在 (0,1] 之间
+     * @return 毫秒数
+     * @throws IllegalArgumentException
+     *             如果 <code>percentile</code> 不在 (0,1] 之间
+     */
+    public double getRunMillisecondsAtPercentile(double percentile){
+        return toMilliseconds(runNanosHistogram.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * 获得 执行耗时的 p50.
+     *
+     * @return 毫秒数
+     */
+    public double getP50RunMilliseconds(){
+        return getRunMillisecondsAtPercentile(0.5);
+    }
+
+    /**
+     * 获得 执行耗时的 p99.
+     *
+     * @return 毫秒数
+     */
+    public double getP99RunMilliseconds(){
+        return getRunMillisecondsAtPercentile(0.99);
+    }
+
+    /**
+     * 获得 最慢的分区的执行毫秒数.
+     *
+     * @return 如果还没有分区执行结束,返回 0
+     */
+    public synchronized double getMaxRunMilliseconds(){
+        return maxRunNanos < 0 ? 0 : toMilliseconds(maxRunNanos);
+    }
+
+    /**
+     * 获得 最慢的分区的 batchNumber,用于定位倾斜的分区.
+     *
+     * @return 如果还没有分区执行结束,返回 -1
+     */
+    public synchronized int getSlowestBatchNumber(){
+        return slowestBatchNumber;
+    }
+
+    /**
+     * 获得 吞吐量,每秒执行成功的元素数量.
+     *
+     * <p>
+     * 按照第一个分区提交到最后一个分区结束的时间计算.
+     * </p>
+     *
+     * @return 如果还没有分区执行结束,返回 0
+     */
+    public double getItemsPerSecond(){
+        long elapsedNanos = lastCompleteNanoTime.get() - firstSubmitNanoTime.get();
+        if (completeCount.get() == 0 || elapsedNanos <= 0){
+            return 0;
+        }
+        return itemCount.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * To milliseconds.
+     *
+     * @param nanos
+     *            the nanos
+     * @return the double
+     */
+    private static double toMilliseconds(long nanos){
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 如果 <code>value</code> 比当前值小,更新.
+     *
+     * @param atomicLong
+     *            the atomic long
+     * @param value
+     *            the value
+     */
+    private static void updateMin(AtomicLong atomicLong,long value){
+        for (long current = atomicLong.get(); value < current; current = atomicLong.get()){
+            if (atomicLong.compareAndSet(current, value)){
+                return;
+            }
+        }
+    }
+
+    /**
+     * 如果 <code>value</code> 比当前值大,更新.
+     *
+     * @param atomicLong
+     *            the atomic long
+     * @param value
+     *            the value
+     */
+    private static void updateMax(AtomicLong atomicLong,long value){
+        for (long current = atomicLong.get(); value > current; current = atomicLong.get()){
+            if (atomicLong.compareAndSet(current, value)){
+                return;
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return Slf4jUtil.format(
+                        "submit:[{}],complete:[{}],failure:[{}],running:[{}],items:[{}],items/s:[{}],avgQueueWait:[{}]ms,p50:[{}]ms,p99:[{}]ms,max:[{}]ms,slowestBatchNumber:[{}]",
+                        getSubmitCount(),
+                        getCompleteCount(),
+                        getFailureCount(),
+                        getRunningCount(),
+                        getItemCount(),
+                        String.format("%.1f", getItemsPerSecond()),
+                        String.format("%.3f", getAverageQueueWaitMilliseconds()),
+                        String.format("%.3f", getP50RunMilliseconds()),
+                        String.format("%.3f", getP99RunMilliseconds()),
+                        String.format("%.3f", getMaxRunMilliseconds()),
+                        getSlowestBatchNumber());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 默认的 {@link PartitionListener} 实现,按照 {@link PartitionRunnableBuilder} 的名字在内存中累计 {@link PartitionMetrics}.
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ *
+ * PartitionMetricsListener partitionMetricsListener = new PartitionMetricsListener();
+ *
+ * ExecutorServicePartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(16);
+ * partitionThreadExecutor.setPartitionListener(partitionMetricsListener);
+ *
+ * ThreadUtil.execute(list, 100, paramsMap, partitionPerHandler, partitionThreadExecutor);
+ *
+ * <span style="color:green">//submit:[100],complete:[100],failure:[0],running:[0],items:[10000],items/s:[...],p50:[...]ms,p99:[...]ms,slowestBatchNumber:[37]</span>
+ * LOGGER.info("{}", partitionMetricsListener.getPartitionMetrics("DefaultPartitionRunnableBuilder"));
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * <p>
+ * 指标会一直累计,如果需要按照每次执行统计,可以在执行前调用 {@link #clear()}.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class PartitionMetricsListener implements PartitionListener{
+
+    /** key 是 {@link PartitionRunnableBuilder} 的名字. */
+    private final ConcurrentMap<String, PartitionMetrics> nameAndPartitionMetricsMap = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.feilong.core.lang.thread.PartitionListener#onSubmit(java.lang.String, com.feilong.core.lang.thread.PartitionThreadEntity)
+     */
+    @Override
+    public void onSubmit(String name,PartitionThreadEntity partitionThreadEntity){
+        getOrCreate(name).recordSubmit();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.feilong.core.lang.thread.PartitionListener#onStart(java.lang.String, com.feilong.core.lang.thread.PartitionThreadEntity,
+     * long)
+     */
+    @Override
+    public void onStart(String name,PartitionThreadEntity partitionThreadEntity,long queueWaitNanos){
+        getOrCreate(name).recordStart(queueWaitNanos);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.feilong.core.lang.thread.PartitionListener#onComplete(java.lang.String, com.feilong.core.lang.thread.PartitionThreadEntity,
+     * long, java.lang.Throwable)
+     */
+    @Override
+    public void onComplete(String name,PartitionThreadEntity partitionThreadEntity,long runNanos,Throwable throwable){
+        getOrCreate(name).recordComplete(partitionThreadEntity, runNanos, throwable);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>name</code> 对应的指标.
+     *
+     * @param name
+     *            {@link PartitionRunnableBuilder} 实现类的名字
+     * @return 如果没有执行过,返回 null
+     */
+    public PartitionMetrics getPartitionMetrics(String name){
+        return nameAndPartitionMetricsMap.get(name);
+    }
+
+    /**
+     * 获得所有的指标,key 是 {@link PartitionRunnableBuilder} 实现类的名字.
+     *
+     * @return 不可修改的 map
+     */
+    public Map<String, PartitionMetrics> getPartitionMetricsMap(){
+        return Collections.unmodifiableMap(nameAndPartitionMetricsMap);
+    }
+
+    /**
+     * 清空所有的指标.
+     */
+    public void clear(){
+        nameAndPartitionMetricsMap.clear();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得或者创建 <code>name</code> 对应的指标.
+     *
+     * @param name
+     *            the name
+     * @return the partition metrics
+     */
+    private PartitionMetrics getOrCreate(String name){
+        PartitionMetrics partitionMetrics = nameAndPartitionMetricsMap.get(name);
+        if (null != partitionMetrics){
+            return partitionMetrics;
+        }
+        PartitionMetrics newPartitionMetrics = new PartitionMetrics();
+        partitionMetrics = nameAndPartitionMetricsMap.putIfAbsent(name, newPartitionMetrics);
+        return null == partitionMetrics ? newPartitionMetrics : partitionMetrics;
+    }
+}
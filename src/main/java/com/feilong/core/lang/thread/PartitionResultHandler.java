@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分区中的每个线程执行,并返回该分区的结果.
+ * 
+ * <p>
+ * 和 {@link PartitionPerHandler} 的区别在于有返回值,每个分区的结果由 {@link PartitionFuture} 按照 batchNumber 顺序合并,不再需要通过共享的
+ * <code>paramsMap</code> 传递结果.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <T>
+ *            the generic type
+ * @param <R>
+ *            每个分区的结果类型
+ * @see AsyncPartitionThreadExecutor
+ * @since 2.1.0
+ */
+public interface PartitionResultHandler<T, R> {
+
+    /**
+     * Handle.
+     *
+     * @param perBatchList
+     *            自动分组之后,每个对象list组的数据
+     * @param partitionThreadEntity
+     *            线程执行此组list 的时候,可以使用的 thread参数信息
+     * @param paramsMap
+     *            自定义的参数map
+     * @return 该分区的结果
+     */
+    R handle(List<T> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap);
+}
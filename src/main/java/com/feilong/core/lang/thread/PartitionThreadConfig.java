@@ -30,6 +30,18 @@ public class PartitionThreadConfig{
     // the static instance works for all types
     public static final PartitionThreadConfig INSTANCE                 = new PartitionThreadConfig();
 
+    /**
+     * I/O 密集场景使用的实例, 启动最大线程数 10000, 每个线程最少处理数量 1.
+     * 
+     * <p>
+     * 用于 {@link VirtualThreadPartitionThreadExecutor} 等不为每个分区创建系统线程的执行器,使得 {@link PartitionEachSizeThreadConfigBuilder}
+     * 能切分出更细的分区;<b>不要</b>和 {@link DefaultPartitionThreadExecutor} 一起使用,否则最多会创建 10000 个系统线程.
+     * </p>
+     * 
+     * @since 2.1.0
+     */
+    public static final PartitionThreadConfig IO_INSTANCE              = new PartitionThreadConfig(10000, 1);
+
     //---------------------------------------------------------------
 
     /** 启动最大线程数. */
@@ -38,6 +50,27 @@ public class PartitionThreadConfig{
     /** 每个线程最少处理数量. */
     private int                         minPerThreadHandlerCount = 20;
 
+    /**
+     * 同时执行的分区数量上限, {@link PartitionThrottle#UNLIMITED} 表示不限制.
+     * 
+     * @since 2.1.0
+     */
+    private int                         maxConcurrentPartitions  = PartitionThrottle.UNLIMITED;
+
+    /**
+     * 每秒处理的元素数量上限(令牌桶), {@link PartitionThrottle#UNLIMITED} 表示不限制.
+     * 
+     * @since 2.1.0
+     */
+    private double                      permitsPerSecond         = PartitionThrottle.UNLIMITED;
+
+    /**
+     * 按照 {@link #maxConcurrentPartitions} 以及 {@link #permitsPerSecond} 生成的限流,第一次使用的时候创建,修改这两个属性之后重新创建.
+     * 
+     * @since 2.1.0
+     */
+    private PartitionThrottle           partitionThrottle;
+
     //---------------------------------------------------------------
 
     /**
@@ -112,6 +145,73 @@ public class PartitionThreadConfig{
         this.minPerThreadHandlerCount = minPerThreadHandlerCount;
     }
 
+    /**
+     * 获得 同时执行的分区数量上限, {@link PartitionThrottle#UNLIMITED} 表示不限制.
+     *
+     * @return the maxConcurrentPartitions
+     * @since 2.1.0
+     */
+    public synchronized int getMaxConcurrentPartitions(){
+        return maxConcurrentPartitions;
+    }
+
+    /**
+     * 设置 同时执行的分区数量上限, {@link PartitionThrottle#UNLIMITED} 表示不限制.
+     * 
+     * <p>
+     * 比如下游服务的连接池大小是 10,可以设置为 10,避免分区同时启动把连接池打满.
+     * </p>
+     *
+     * @param maxConcurrentPartitions
+     *            the maxConcurrentPartitions to set
+     * @since 2.1.0
+     */
+    public synchronized void setMaxConcurrentPartitions(int maxConcurrentPartitions){
+        this.maxConcurrentPartitions = maxConcurrentPartitions;
+        this.partitionThrottle = null;
+    }
+
+    /**
+     * 获得 每秒处理的元素数量上限(令牌桶), {@link PartitionThrottle#UNLIMITED} 表示不限制.
+     *
+     * @return the permitsPerSecond
+     * @since 2.1.0
+     */
+    public synchronized double getPermitsPerSecond(){
+        return permitsPerSecond;
+    }
+
+    /**
+     * 设置 每秒处理的元素数量上限(令牌桶), {@link PartitionThrottle#UNLIMITED} 表示不限制.
+     *
+     * @param permitsPerSecond
+     *            the permitsPerSecond to set
+     * @since 2.1.0
+     */
+    public synchronized void setPermitsPerSecond(double permitsPerSecond){
+        this.permitsPerSecond = permitsPerSecond;
+        this.partitionThrottle = null;
+    }
+
+    /**
+     * 获得这个配置的限流.
+     * 
+     * <p>
+     * 同一个配置(比如定义成常量的配置)返回同一个 {@link PartitionThrottle},所以使用这个配置的所有调用共享一个并发上限以及一个令牌桶,一起保护同一个下游;
+     * 修改 {@link #setMaxConcurrentPartitions(int)} 或者 {@link #setPermitsPerSecond(double)} 之后,重新创建.
+     * </p>
+     *
+     * @return 如果 {@link #maxConcurrentPartitions} 以及 {@link #permitsPerSecond} 都是 {@link PartitionThrottle#UNLIMITED},返回null
+     * @see PartitionThrottle#build(PartitionThreadConfig)
+     * @since 2.1.0
+     */
+    public synchronized PartitionThrottle getPartitionThrottle(){
+        if (null == partitionThrottle){
+            partitionThrottle = PartitionThrottle.build(this);
+        }
+        return partitionThrottle;
+    }
+
     //---------------------------------------------------------------
     /*
      * (non-Javadoc)
@@ -41,6 +41,10 @@ import java.util.Map;
  * <p>
  * 目前已知快速调用有 {@link com.feilong.core.lang.ThreadUtil#execute(List, int, Map, PartitionRunnableBuilder) }, 或者调用
  * {@link com.feilong.core.lang.thread.DefaultPartitionThreadExecutor}, 或者调用
+ * {@link com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor}(基于共享线程池), 或者调用
+ * {@link com.feilong.core.lang.thread.VirtualThreadPartitionThreadExecutor}(基于虚拟线程), 或者调用
+ * {@link com.feilong.core.lang.thread.ForkJoinPartitionThreadExecutor}(基于工作窃取), 或者调用
+ * {@link com.feilong.core.lang.thread.StreamingPartitionThreadExecutor}(基于 Iterator 流式读取), 或者调用
  * {@link "com.feilong.spring.scheduling.concurrent.AsyncTaskExecutorPartitionThreadExecutor"}
  * </p>
  * 
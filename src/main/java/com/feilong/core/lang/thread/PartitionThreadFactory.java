@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 带名字前缀的 {@link ThreadFactory},用于分区执行器的线程池.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>线程名字格式为 "namePrefix-序号",序号从1开始,便于在日志(比如 log4j 的 %t)中区分线程池线程</li>
+ * <li>默认创建的是 daemon 线程,这样共享的线程池不会阻止 JVM 退出</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class PartitionThreadFactory implements ThreadFactory{
+
+    /** 线程名字前缀. */
+    private final String        namePrefix;
+
+    /** 是否是 daemon 线程. */
+    private final boolean       daemon;
+
+    /** 线程序号. */
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition thread factory, 创建 daemon 线程.
+     *
+     * @param namePrefix
+     *            线程名字前缀
+     */
+    public PartitionThreadFactory(String namePrefix){
+        this(namePrefix, true);
+    }
+
+    /**
+     * Instantiates a new partition thread factory.
+     *
+     * @param namePrefix
+     *            线程名字前缀
+     * @param daemon
+     *            是否是 daemon 线程
+     */
+    public PartitionThreadFactory(String namePrefix, boolean daemon){
+        super();
+        Validate.notBlank(namePrefix, "namePrefix can't be blank!");
+        this.namePrefix = namePrefix;
+        this.daemon = daemon;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * New thread.
+     *
+     * @param runnable
+     *            the runnable
+     * @return the thread
+     */
+    @Override
+    public Thread newThread(Runnable runnable){
+        Thread thread = new Thread(runnable, Slf4jUtil.format("{}-{}", namePrefix, threadNumber.getAndIncrement()));
+        thread.setDaemon(daemon);
+        if (thread.getPriority() != Thread.NORM_PRIORITY){
+            thread.setPriority(Thread.NORM_PRIORITY);
+        }
+        return thread;
+    }
+}
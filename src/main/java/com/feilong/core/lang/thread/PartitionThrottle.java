@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * 分区执行的限流,用于保护下游服务(比如连接池).
+ *
+ * <h3>支持两种限制,可以同时使用:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li><b>并发上限</b>:同时执行的分区数量不超过 <code>maxConcurrentPartitions</code>,超过的分区阻塞等待</li>
+ * <li><b>令牌桶</b>:每秒处理的元素数量不超过 <code>permitsPerSecond</code>,每个分区开始执行前按照 {@link PartitionThreadEntity#getCurrentListSize()}
+ * 获取令牌;令牌不足的时候计算出需要等待的时间直接 sleep,不会自旋;桶的容量是 1 秒的令牌,空闲之后允许一次突发</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>同一个实例在多次 execute 之间共享计数,多个执行器共用一个实例,可以保护同一个下游</li>
+ * <li>等待发生在提交分区的线程(调用 execute 的线程)中,获取到名额之后才提交分区,不会占用线程池线程,也不会拖慢共享同一个线程池的其他调用</li>
+ * <li>等待期间线程被中断,不再提交剩下的分区,等待已经提交的分区执行完成之后,抛出 {@link com.feilong.core.DefaultRuntimeException}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ *
+ * <span style="color:green">//最多 8 个分区同时执行, 每秒最多处理 500 条</span>
+ * ExecutorServicePartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(16);
+ * partitionThreadExecutor.setPartitionThrottle(new PartitionThrottle(8, 500));
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PartitionThreadConfig#setMaxConcurrentPartitions(int)
+ * @see PartitionThreadConfig#setPermitsPerSecond(double)
+ * @see PartitionThreadConfig#getPartitionThrottle()
+ * @see AbstractPartitionThreadExecutor#setPartitionThrottle(PartitionThrottle)
+ * @since 2.1.0
+ */
+public final class PartitionThrottle{
+
+    /** 不限制. */
+    public static final int  UNLIMITED        = 0;
+
+    //---------------------------------------------------------------
+
+    /** 同时执行的分区数量上限, {@link #UNLIMITED} 表示不限制. */
+    private final int        maxConcurrentPartitions;
+
+    /** 每秒处理的元素数量上限, {@link #UNLIMITED} 表示不限制. */
+    private final double     permitsPerSecond;
+
+    /** 并发上限,如果不限制是 null. */
+    private final Semaphore  semaphore;
+
+    /** 生成一个令牌需要的纳秒数. */
+    private final double     nanosPerPermit;
+
+    /** 当前可用的令牌数,可以为负数(表示已经预支,后来者需要等待). */
+    private double           storedPermits;
+
+    /** 上次补充令牌的时间, {@link System#nanoTime()}. */
+    private long             lastRefillNanoTime = System.nanoTime();
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition throttle.
+     *
+     * @param maxConcurrentPartitions
+     *            同时执行的分区数量上限,{@link #UNLIMITED} 表示不限制,必须 {@code >=} 0
+     * @param permitsPerSecond
+     *            每秒处理的元素数量上限,{@link #UNLIMITED} 表示不限制,必须 {@code >=} 0
+     * @throws IllegalArgumentException
+     *             如果 {@code maxConcurrentPartitions < 0} 或者 {@code permitsPerSecond < 0}
+     */
+    public PartitionThrottle(int maxConcurrentPartitions, double permitsPerSecond){
+        Validate.isTrue(maxConcurrentPartitions >= 0, "maxConcurrentPartitions must >=0,maxConcurrentPartitions:%s", maxConcurrentPartitions);
+        Validate.isTrue(permitsPerSecond >= 0, "permitsPerSecond must >=0,permitsPerSecond:%s", permitsPerSecond);
+
+        this.maxConcurrentPartitions = maxConcurrentPartitions;
+        this.permitsPerSecond = permitsPerSecond;
+        this.semaphore = maxConcurrentPartitions == UNLIMITED ? null : new Semaphore(maxConcurrentPartitions, true);
+        this.nanosPerPermit = permitsPerSecond == UNLIMITED ? 0 : TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.storedPermits = permitsPerSecond;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 <code>partitionThreadConfig</code> 中的 {@link PartitionThreadConfig#getMaxConcurrentPartitions()} 以及
+     * {@link PartitionThreadConfig#getPermitsPerSecond()} 构造.
+     * 
+     * <p>
+     * 每次调用都会创建一个新的实例,计数不共享;需要多次执行共享同一个限制的时候,使用 {@link PartitionThreadConfig#getPartitionThrottle()}.
+     * </p>
+     *
+     * @param partitionThreadConfig
+     *            the partition thread config
+     * @return 如果 <code>partitionThreadConfig</code> 没有配置任何限制,返回 null
+     * @throws NullPointerException
+     *             如果 <code>partitionThreadConfig</code> 是null
+     */
+    public static PartitionThrottle build(PartitionThreadConfig partitionThreadConfig){
+        Validate.notNull(partitionThreadConfig, "partitionThreadConfig can't be null!");
+
+        int maxConcurrentPartitions = partitionThreadConfig.getMaxConcurrentPartitions();
+        double permitsPerSecond = partitionThreadConfig.getPermitsPerSecond();
+        if (maxConcurrentPartitions == UNLIMITED && permitsPerSecond == UNLIMITED){
+            return null;
+        }
+        return new PartitionThrottle(maxConcurrentPartitions, permitsPerSecond);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获取执行一个有 <code>itemCount</code> 个元素的分区的许可,必要的时候阻塞等待.
+     *
+     * <p>
+     * 返回之后必须调用 {@link #release()}.
+     * </p>
+     *
+     * @param itemCount
+     *            分区的元素数量
+     * @throws InterruptedException
+     *             等待期间线程被中断,此时不需要调用 {@link #release()}
+     */
+    void acquire(int itemCount) throws InterruptedException{
+        if (null != semaphore){
+            semaphore.acquire();
+        }
+        try{
+            long waitNanos = reserve(itemCount);
+            if (waitNanos > 0){
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }catch (InterruptedException e){
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * 分区执行结束,释放并发名额.
+     */
+    void release(){
+        if (null != semaphore){
+            semaphore.release();
+        }
+    }
+
+    /**
+     * 预支 <code>itemCount</code> 个令牌,返回需要等待的纳秒数.
+     *
+     * <p>
+     * 分区的元素数量可能大于桶的容量,所以允许预支,后来者等待还清之后再执行.
+     * </p>
+     *
+     * @param itemCount
+     *            the item count
+     * @return 需要等待的纳秒数
+     */
+    private synchronized long reserve(int itemCount){
+        if (permitsPerSecond == UNLIMITED){
+            return 0;
+        }
+        long nowNanoTime = System.nanoTime();
+        storedPermits = Math.min(permitsPerSecond, storedPermits + (nowNanoTime - lastRefillNanoTime) / nanosPerPermit);
+        lastRefillNanoTime = nowNanoTime;
+
+        storedPermits -= itemCount;
+        return storedPermits >= 0 ? 0 : (long) (-storedPermits * nanosPerPermit);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 同时执行的分区数量上限, {@link #UNLIMITED} 表示不限制.
+     *
+     * @return the maxConcurrentPartitions
+     */
+    public int getMaxConcurrentPartitions(){
+        return maxConcurrentPartitions;
+    }
+
+    /**
+     * 获得 每秒处理的元素数量上限, {@link #UNLIMITED} 表示不限制.
+     *
+     * @return the permitsPerSecond
+     */
+    public double getPermitsPerSecond(){
+        return permitsPerSecond;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)//
+                        .append("maxConcurrentPartitions", maxConcurrentPartitions)
+                        .append("permitsPerSecond", permitsPerSecond)
+                        .toString();
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+import static com.feilong.core.date.DateUtil.now;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 基于 {@link Iterator} 的流式分区执行实现,内存占用和数据总量无关.
+ *
+ * <h3>背景:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link PartitionThreadExecutor} 的所有方法都需要一个完整的 {@link List},如果需要处理几千万条的导出数据,仅仅为了分区而把数据全部加载到 list 中会撑爆堆内存.
+ * </p>
+ *
+ * <p>
+ * 此实现从 {@link Iterator} 中边读边切分,每凑满 <code>eachSize</code> 个元素就提交一个分区到线程池;<br>
+ * 同时最多只有 <code>maxInFlightBatches</code> 个分区在排队或者执行,达到上限的时候读取线程阻塞等待(背压),直到有分区执行完成,
+ * 所以任意时刻内存中最多只有 {@code (maxInFlightBatches + 1) * eachSize} 个元素.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>因为事先不知道总数,{@link PartitionThreadEntity#getTotalListCount()} 固定为 {@link #UNKNOWN_TOTAL_COUNT}</li>
+ * <li>调用线程负责读取 {@link Iterator},并且等待所有分区执行完成之后再返回;{@link Iterator} 不需要是线程安全的</li>
+ * <li>异常处理参见 {@link PartitionFailurePolicy};fail fast 的时候,已经在执行的分区不会被中断,但是不会再读取和提交新的分区</li>
+ * <li>读取 <code>iterator</code> 抛出异常,或者调用线程被中断的时候,不再提交新的分区,等待已经提交的分区执行完成之后再抛出异常或者返回</li>
+ * <li>如果传入的是 {@link List},也可以作为普通的 {@link PartitionThreadExecutor} 使用</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ *
+ * Iterator{@code <User>} iterator = userDao.iterateAll();
+ * StreamingPartitionThreadExecutor.INSTANCE.execute(iterator, 1000, paramsMap, new DefaultPartitionRunnableBuilder{@code <User>}(partitionPerHandler));
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ExecutorServicePartitionThreadExecutor
+ * @since 2.1.0
+ */
+public class StreamingPartitionThreadExecutor extends AbstractPartitionThreadExecutor{
+
+    /** The Constant LOGGER. */
+    private static final Logger                          LOGGER              = LoggerFactory.getLogger(StreamingPartitionThreadExecutor.class);
+
+    /** 流式执行的时候,总数未知, {@link PartitionThreadEntity#getTotalListCount()} 的值. */
+    public static final int                              UNKNOWN_TOTAL_COUNT = -1;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Static instance,共享 {@link ExecutorServicePartitionThreadExecutor#INSTANCE} 的线程池,最多
+     * {@link ExecutorServicePartitionThreadExecutor#DEFAULT_PARALLELISM} * 2 个分区在排队或者执行.
+     */
+    public static final StreamingPartitionThreadExecutor INSTANCE            = new StreamingPartitionThreadExecutor(
+                    ExecutorServicePartitionThreadExecutor.INSTANCE.getExecutorService(),
+                    ExecutorServicePartitionThreadExecutor.DEFAULT_PARALLELISM * 2);
+
+    //---------------------------------------------------------------
+
+    /** 执行分区任务的线程池. */
+    private final ExecutorService                        executorService;
+
+    /** 最多同时在排队或者执行的分区数量. */
+    private final int                                    maxInFlightBatches;
+
+    /** 分区执行异常的处理策略. */
+    private final PartitionFailurePolicy                 partitionFailurePolicy;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用外部的线程池,线程池的生命周期(比如 shutdown)由调用方负责.
+     *
+     * @param executorService
+     *            执行分区任务的线程池
+     * @param maxInFlightBatches
+     *            最多同时在排队或者执行的分区数量,必须 {@code >} 0
+     * @throws NullPointerException
+     *             如果 <code>executorService</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 {@code maxInFlightBatches <=0}
+     */
+    public StreamingPartitionThreadExecutor(ExecutorService executorService, int maxInFlightBatches){
+        this(executorService, maxInFlightBatches, PartitionFailurePolicy.LOG_AND_CONTINUE);
+    }
+
+    /**
+     * 使用外部的线程池以及指定的异常处理策略,线程池的生命周期(比如 shutdown)由调用方负责.
+     *
+     * @param executorService
+     *            执行分区任务的线程池
+     * @param maxInFlightBatches
+     *            最多同时在排队或者执行的分区数量,必须 {@code >} 0
+     * @param partitionFailurePolicy
+     *            分区执行异常的处理策略
+     * @throws NullPointerException
+     *             如果 <code>executorService</code> 或者 <code>partitionFailurePolicy</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 {@code maxInFlightBatches <=0}
+     */
+    public StreamingPartitionThreadExecutor(ExecutorService executorService, int maxInFlightBatches,
+                    PartitionFailurePolicy partitionFailurePolicy){
+        super();
+        Validate.notNull(executorService, "executorService can't be null!");
+        Validate.isTrue(maxInFlightBatches > 0, "maxInFlightBatches must > 0,maxInFlightBatches:%s", maxInFlightBatches);
+        Validate.notNull(partitionFailurePolicy, "partitionFailurePolicy can't be null!");
+        this.executorService = executorService;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.partitionFailurePolicy = partitionFailurePolicy;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从 <code>iterable</code> 中边读边切分执行.
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterable
+     *            数据源,不能为null
+     * @param eachSize
+     *            每个分区多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionRunnableBuilder
+     *            每个分区做的事情,不能为null
+     * @throws NullPointerException
+     *             如果 <code>iterable</code> 或者 <code>partitionRunnableBuilder</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 {@code eachSize <=0}
+     * @throws PartitionExecuteException
+     *             如果 {@link PartitionFailurePolicy} 需要抛出异常,并且有分区失败
+     * @see #execute(Iterator, int, Map, PartitionRunnableBuilder)
+     */
+    public <T> void execute(Iterable<T> iterable,int eachSize,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        Validate.notNull(iterable, "iterable can't be null!");
+        execute(iterable.iterator(), eachSize, paramsMap, partitionRunnableBuilder);
+    }
+
+    /**
+     * 从 <code>iterator</code> 中边读边切分执行,每凑满 <code>eachSize</code> 个元素提交一个分区,等待所有分区执行完成之后返回.
+     *
+     * <p>
+     * 如果 <code>iterator</code> 没有元素,直接返回.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterator
+     *            数据源,不能为null
+     * @param eachSize
+     *            每个分区多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以是null
+     * @param partitionRunnableBuilder
+     *            每个分区做的事情,不能为null
+     * @throws NullPointerException
+     *             如果 <code>iterator</code> 或者 <code>partitionRunnableBuilder</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 {@code eachSize <=0}
+     * @throws PartitionExecuteException
+     *             如果 {@link PartitionFailurePolicy} 需要抛出异常,并且有分区失败
+     */
+    public <T> void execute(Iterator<T> iterator,int eachSize,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        Validate.notNull(iterator, "iterator can't be null!");
+        Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
+        Validate.isTrue(eachSize > 0, "eachSize must > 0");
+
+        //---------------------------------------------------------------
+        String partitionRunnableBuilderName = getName(partitionRunnableBuilder);
+        if (LOGGER.isInfoEnabled()){
+            LOGGER.info("begin [{}] streaming,eachSize:[{}],maxInFlightBatches:[{}]", partitionRunnableBuilderName, eachSize, maxInFlightBatches);
+        }
+
+        //---------------------------------------------------------------
+        Date beginDate = now();
+
+        PartitionRunnableBuilder<T> decoratedPartitionRunnableBuilder = buildDecoratedPartitionRunnableBuilder(partitionRunnableBuilder);
+        int batchCount;
+        try{
+            batchCount = actualExecute(iterator, eachSize, paramsMap, decoratedPartitionRunnableBuilder);
+        }finally{
+            releaseUnused(decoratedPartitionRunnableBuilder);
+        }
+
+        //---------------------------------------------------------------
+        if (LOGGER.isInfoEnabled()){
+            LOGGER.info("end [{}],[{}] partitions,use time:[{}]", partitionRunnableBuilderName, batchCount, formatDuration(beginDate));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Actual execute.
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     */
+    @Override
+    protected <T> void actualExecute(List<T> list,int eachSize,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        actualExecute(list.iterator(), eachSize, paramsMap, partitionRunnableBuilder);
+    }
+
+    /**
+     * 读取 <code>iterator</code> 提交分区,等待所有分区执行完成,并按照 {@link PartitionFailurePolicy} 决定是否抛出异常.
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            已经包装过的 partition runnable builder
+     * @return 提交的分区数量
+     */
+    private <T> int actualExecute(Iterator<T> iterator,int eachSize,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        PartitionFailureTracker partitionFailureTracker = new PartitionFailureTracker(partitionFailurePolicy);
+        Semaphore semaphore = new Semaphore(maxInFlightBatches);
+
+        int batchCount;
+        try{
+            batchCount = submitPartitions(iterator, eachSize, paramsMap, partitionRunnableBuilder, partitionFailureTracker, semaphore);
+        }finally{
+            //iterator 抛出异常,提交被拒绝或者调用线程被中断,都要等已经提交的分区执行完成
+            awaitAll(semaphore);
+        }
+
+        partitionFailureTracker.check();
+        return batchCount;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 读取 <code>iterator</code>,每凑满 <code>eachSize</code> 个元素,等待空闲的名额,提交一个分区.
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @param partitionFailureTracker
+     *            the partition failure tracker
+     * @param semaphore
+     *            在排队或者执行的分区名额
+     * @return 提交的分区数量
+     */
+    private <T> int submitPartitions(
+                    Iterator<T> iterator,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder,
+                    PartitionFailureTracker partitionFailureTracker,
+                    Semaphore semaphore){
+        int batchNumber = 0;
+        while (iterator.hasNext() && !partitionFailureTracker.isAborted()){
+            List<T> perBatchList = new ArrayList<>(eachSize);
+            while (perBatchList.size() < eachSize && iterator.hasNext()){
+                perBatchList.add(iterator.next());
+            }
+
+            //背压, 在排队或者执行的分区达到上限,阻塞等待
+            try{
+                semaphore.acquire();
+            }catch (InterruptedException e){
+                LOGGER.error("", e);
+                // clean up state...
+                Thread.currentThread().interrupt();
+                return batchNumber;
+            }
+
+            //---------------------------------------------------------------
+            String threadName = buildThreadName(batchNumber, partitionRunnableBuilder);
+            PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                            threadName,
+                            UNKNOWN_TOTAL_COUNT,
+                            eachSize,
+                            batchNumber,
+                            perBatchList.size());
+
+            Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+            Runnable wrapRunnable = buildNamedRunnable(threadName, partitionFailureTracker.wrap(batchNumber, runnable));
+            try{
+                executorService.execute(buildReleaseRunnable(wrapRunnable, semaphore));
+            }catch (RejectedExecutionException e){
+                semaphore.release();
+                throw e;
+            }
+            batchNumber++;
+        }
+        return batchNumber;
+    }
+
+    /**
+     * 等待所有在排队或者执行的分区执行完成(拿回所有的名额).
+     *
+     * <p>
+     * 即使调用线程被中断也会等待,保证返回之后没有还在执行的分区;返回的时候保留中断状态.
+     * </p>
+     *
+     * @param semaphore
+     *            the semaphore
+     */
+    private void awaitAll(Semaphore semaphore){
+        semaphore.acquireUninterruptibly(maxInFlightBatches);
+        semaphore.release(maxInFlightBatches);
+    }
+
+    /**
+     * 包装 <code>runnable</code>,执行完成之后(不管是否异常)释放名额.
+     *
+     * @param runnable
+     *            the runnable
+     * @param semaphore
+     *            the semaphore
+     * @return the runnable
+     */
+    private static Runnable buildReleaseRunnable(final Runnable runnable,final Semaphore semaphore){
+        return new Runnable(){
+
+            @Override
+            public void run(){
+                try{
+                    runnable.run();
+                }finally{
+                    semaphore.release();
+                }
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 执行分区任务的线程池.
+     *
+     * @return the executorService
+     */
+    public ExecutorService getExecutorService(){
+        return executorService;
+    }
+
+    /**
+     * 获得 最多同时在排队或者执行的分区数量.
+     *
+     * @return the maxInFlightBatches
+     */
+    public int getMaxInFlightBatches(){
+        return maxInFlightBatches;
+    }
+}
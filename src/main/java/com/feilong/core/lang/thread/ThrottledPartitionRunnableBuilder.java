@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.feilong.core.DefaultRuntimeException;
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 包装 {@link PartitionRunnableBuilder},通过 {@link PartitionThrottle} 限流.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>限流的等待发生在 {@link #build(List, PartitionThreadEntity, Map)} 中,也就是提交分区的线程,不会占用执行分区的线程池线程</li>
+ * <li>分区执行结束之后释放并发名额;已经获取了名额却没有执行的分区(比如 fail fast 取消,提交被拒绝),需要调用 {@link #releaseUnused()} 释放</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <T>
+ *            the generic type
+ * @since 2.1.0
+ */
+final class ThrottledPartitionRunnableBuilder<T> implements PartitionRunnableBuilder<T>{
+
+    /** 被包装的 partition runnable builder. */
+    private final PartitionRunnableBuilder<T> partitionRunnableBuilder;
+
+    /** 依次获取,倒序释放的限流. */
+    private final List<PartitionThrottle>     partitionThrottleList;
+
+    /** 被包装的 partitionRunnableBuilder 的名字. */
+    private final String                      name;
+
+    /** 已经获取了名额,还没有释放的分区. */
+    private final Set<ThrottledRunnable>      acquiredRunnableSet = Collections
+                    .newSetFromMap(new ConcurrentHashMap<ThrottledRunnable, Boolean>());
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new throttled partition runnable builder.
+     *
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @param partitionThrottleList
+     *            依次获取,倒序释放的限流,不能为empty
+     * @param name
+     *            被包装的 partitionRunnableBuilder 的名字
+     */
+    ThrottledPartitionRunnableBuilder(PartitionRunnableBuilder<T> partitionRunnableBuilder, List<PartitionThrottle> partitionThrottleList,
+                    String name){
+        this.partitionRunnableBuilder = partitionRunnableBuilder;
+        this.partitionThrottleList = partitionThrottleList;
+        this.name = name;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 先构造被包装的 {@link Runnable},再在当前(提交分区的)线程中等待限流.
+     *
+     * <p>
+     * 被包装的 builder 先构造(比如 {@link PartitionListener#onSubmit(String, PartitionThreadEntity)}),所以限流等待的时间计入排队耗时.
+     * </p>
+     *
+     * @param perBatchList
+     *            the per batch list
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     * @param paramsMap
+     *            the params map
+     * @return the runnable
+     * @throws DefaultRuntimeException
+     *             如果等待限流期间线程被中断
+     */
+    @Override
+    public Runnable build(List<T> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+        Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+        acquire(partitionThreadEntity);
+
+        ThrottledRunnable throttledRunnable = new ThrottledRunnable(this, runnable);
+        acquiredRunnableSet.add(throttledRunnable);
+        return throttledRunnable;
+    }
+
+    /**
+     * 释放已经获取了名额,还没有释放的分区的名额.
+     *
+     * <p>
+     * 分区执行器在一次执行结束的时候调用,此时还没有释放的分区,要么没有执行(比如 fail fast 取消,提交被拒绝),要么已经被取消.
+     * </p>
+     */
+    void releaseUnused(){
+        for (ThrottledRunnable throttledRunnable : acquiredRunnableSet){
+            throttledRunnable.release();
+        }
+    }
+
+    /**
+     * 如果 <code>runnable</code> 是 {@link #build(List, PartitionThreadEntity, Map)} 返回的,并且还没有释放名额,释放名额.
+     *
+     * <p>
+     * 用于分区被取消的时候,比如 {@link java.util.concurrent.FutureTask#done()}.
+     * </p>
+     *
+     * @param runnable
+     *            the runnable
+     */
+    static void release(Runnable runnable){
+        if (runnable instanceof ThrottledRunnable){
+            ((ThrottledRunnable) runnable).release();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 依次获取每个限流的名额,中断的时候释放已经获取的名额.
+     *
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     */
+    private void acquire(PartitionThreadEntity partitionThreadEntity){
+        int acquiredCount = 0;
+        try{
+            for (PartitionThrottle partitionThrottle : partitionThrottleList){
+                partitionThrottle.acquire(partitionThreadEntity.getCurrentListSize());
+                acquiredCount++;
+            }
+        }catch (InterruptedException e){
+            release(acquiredCount);
+            // clean up state...
+            Thread.currentThread().interrupt();
+            throw new DefaultRuntimeException(
+                            Slf4jUtil.format("partition [{}] interrupted while waiting for throttle", partitionThreadEntity.getBatchNumber()),
+                            e);
+        }
+    }
+
+    /**
+     * 倒序释放前 <code>acquiredCount</code> 个限流的名额.
+     *
+     * @param acquiredCount
+     *            已经获取名额的限流数量
+     */
+    private void release(int acquiredCount){
+        for (int i = acquiredCount - 1; i >= 0; --i){
+            partitionThrottleList.get(i).release();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 被包装的 partitionRunnableBuilder 的名字.
+     *
+     * @return the name
+     */
+    String getName(){
+        return name;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 执行结束之后释放名额的 {@link Runnable},名额只释放一次.
+     */
+    private static final class ThrottledRunnable implements Runnable{
+
+        /** The throttled partition runnable builder. */
+        private final ThrottledPartitionRunnableBuilder<?> throttledPartitionRunnableBuilder;
+
+        /** 被包装的 runnable. */
+        private final Runnable                             runnable;
+
+        /** 是否已经释放名额. */
+        private final AtomicBoolean                        released = new AtomicBoolean(false);
+
+        /**
+         * Instantiates a new throttled runnable.
+         *
+         * @param throttledPartitionRunnableBuilder
+         *            the throttled partition runnable builder
+         * @param runnable
+         *            被包装的 runnable
+         */
+        private ThrottledRunnable(ThrottledPartitionRunnableBuilder<?> throttledPartitionRunnableBuilder, Runnable runnable){
+            this.throttledPartitionRunnableBuilder = throttledPartitionRunnableBuilder;
+            this.runnable = runnable;
+        }
+
+        /**
+         * Run.
+         */
+        @Override
+        public void run(){
+            try{
+                runnable.run();
+            }finally{
+                release();
+            }
+        }
+
+        /**
+         * 释放名额,多次调用只释放一次.
+         */
+        private void release(){
+            if (released.compareAndSet(false, true)){
+                throttledPartitionRunnableBuilder.acquiredRunnableSet.remove(this);
+                throttledPartitionRunnableBuilder.release(throttledPartitionRunnableBuilder.partitionThrottleList.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.thread;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 基于虚拟线程(virtual thread)的分区执行实现,适合 I/O 密集(比如调用数据库,http 接口)的 {@link PartitionPerHandler}.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>每个分区使用一个虚拟线程执行,虚拟线程在阻塞 I/O 时不占用系统线程,因此分区数量可以远大于 {@link PartitionThreadConfig#getMaxThreadCount()}
+ * 的默认值,推荐配合 {@link PartitionThreadConfig#IO_INSTANCE} 使用,切分出更细的分区</li>
+ * <li>运行时通过反射检测 {@code Executors.newVirtualThreadPerTaskExecutor()}(JDK 21+),
+ * 如果当前 JVM 不支持,自动使用构造函数传入的 <code>fallbackPartitionThreadExecutor</code>,默认是
+ * {@link ExecutorServicePartitionThreadExecutor#INSTANCE} 共享线程池</li>
+ * <li>{@link PartitionRunnableBuilder} 以及 {@link PartitionThreadEntity} 的语义和 {@link DefaultPartitionThreadExecutor} 保持一致</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * ThreadUtil.execute(list, PartitionThreadConfig.IO_INSTANCE, paramsMap, partitionPerHandler, VirtualThreadPartitionThreadExecutor.INSTANCE);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ExecutorServicePartitionThreadExecutor
+ * @since 2.1.0
+ */
+public class VirtualThreadPartitionThreadExecutor extends AbstractPartitionThreadExecutor{
+
+    /** The Constant LOGGER. */
+    private static final Logger                              LOGGER                          = LoggerFactory
+                    .getLogger(VirtualThreadPartitionThreadExecutor.class);
+
+    /** 每个任务一个虚拟线程的 {@link ExecutorService},如果当前 JVM 不支持虚拟线程,那么是null. */
+    private static final ExecutorService                     VIRTUAL_THREAD_EXECUTOR_SERVICE = buildVirtualThreadExecutorService();
+
+    //---------------------------------------------------------------
+
+    /** Static instance. */
+    public static final VirtualThreadPartitionThreadExecutor INSTANCE                        = new VirtualThreadPartitionThreadExecutor();
+
+    //---------------------------------------------------------------
+
+    /** 实际执行的执行器. */
+    private final AbstractPartitionThreadExecutor            partitionThreadExecutor;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new virtual thread partition thread executor,不支持虚拟线程的时候使用 {@link ExecutorServicePartitionThreadExecutor#INSTANCE}.
+     */
+    public VirtualThreadPartitionThreadExecutor(){
+        this(ExecutorServicePartitionThreadExecutor.INSTANCE);
+    }
+
+    /**
+     * Instantiates a new virtual thread partition thread executor.
+     *
+     * @param fallbackPartitionThreadExecutor
+     *            当前 JVM 不支持虚拟线程的时候使用的执行器,比如 {@link ExecutorServicePartitionThreadExecutor} 或者
+     *            {@link DefaultPartitionThreadExecutor}
+     * @throws NullPointerException
+     *             如果 <code>fallbackPartitionThreadExecutor</code> 是null
+     */
+    public VirtualThreadPartitionThreadExecutor(AbstractPartitionThreadExecutor fallbackPartitionThreadExecutor){
+        super();
+        Validate.notNull(fallbackPartitionThreadExecutor, "fallbackPartitionThreadExecutor can't be null!");
+        this.partitionThreadExecutor = isVirtualThreadSupported() ? new ExecutorServicePartitionThreadExecutor(VIRTUAL_THREAD_EXECUTOR_SERVICE)
+                        : fallbackPartitionThreadExecutor;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Actual execute.
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param eachSize
+     *            the each size
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     */
+    @Override
+    protected <T> void actualExecute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        partitionThreadExecutor.actualExecute(list, eachSize, paramsMap, partitionRunnableBuilder);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前 JVM 是否支持虚拟线程.
+     *
+     * @return 如果支持,返回true
+     */
+    public static boolean isVirtualThreadSupported(){
+        return null != VIRTUAL_THREAD_EXECUTOR_SERVICE;
+    }
+
+    /**
+     * 通过反射调用 {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     *
+     * @return 如果当前 JVM 不支持虚拟线程,返回null
+     */
+    private static ExecutorService buildVirtualThreadExecutorService(){
+        try{
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        }catch (NoSuchMethodException e){
+            LOGGER.debug("virtual thread is not supported in current jvm:[{}]", System.getProperty("java.version"));
+            return null;
+        }catch (Exception e){
+            //比如 JDK 19/20 preview 特性没有开启的时候,会抛出 UnsupportedOperationException
+            LOGGER.debug("virtual thread is not available,use fallback executor", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.feilong.core.lang.NumberUtil;
+import com.feilong.core.util.AggregateSpec.Column;
+import com.feilong.core.util.AggregateSpec.Function;
+
+/**
+ * {@link AggregateSpec} 的可变累加器,一个分组一个.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class AggregateAccumulator{
+
+    /** 统计列. */
+    private final List<Column>     columnList;
+
+    /** 每个属性的总和,null 当做 0. */
+    private final SumAccumulator[] sums;
+
+    /** 每个属性的最小值,忽略null. */
+    private final BigDecimal[]     mins;
+
+    /** 每个属性的最大值,忽略null. */
+    private final BigDecimal[]     maxs;
+
+    /** 是否有 min/max 统计列,没有的时候不需要转换 BigDecimal. */
+    private final boolean          hasMinOrMax;
+
+    /** 元素个数. */
+    private int                    count;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new aggregate accumulator.
+     *
+     * @param aggregateSpec
+     *            the aggregate spec
+     */
+    AggregateAccumulator(AggregateSpec<?> aggregateSpec){
+        int length = aggregateSpec.getPropertyNames().length;
+        this.columnList = aggregateSpec.getColumnList();
+        this.sums = new SumAccumulator[length];
+        this.mins = new BigDecimal[length];
+        this.maxs = new BigDecimal[length];
+        for (int i = 0; i < length; ++i){
+            sums[i] = new SumAccumulator();
+        }
+        this.hasMinOrMax = hasMinOrMax(columnList);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 累加一个元素.
+     *
+     * @param values
+     *            元素的属性值,下标和 {@link AggregateSpec#getPropertyNames()} 一致
+     */
+    void add(Number[] values){
+        ++count;
+        for (int i = 0; i < values.length; ++i){
+            if (null == values[i]){
+                continue;
+            }
+            sums[i].add(values[i]);
+            if (!hasMinOrMax){
+                continue;
+            }
+
+            BigDecimal value = toBigDecimal(values[i]);
+            if (null == mins[i] || value.compareTo(mins[i]) < 0){
+                mins[i] = value;
+            }
+            if (null == maxs[i] || value.compareTo(maxs[i]) > 0){
+                maxs[i] = value;
+            }
+        }
+    }
+
+    /**
+     * 是否没有累加过任何元素.
+     *
+     * @return true, if is empty
+     */
+    boolean isEmpty(){
+        return 0 == count;
+    }
+
+    /**
+     * 转成结果 map,key 是统计列名,顺序和声明的顺序一致.
+     *
+     * @return the map
+     */
+    Map<String, BigDecimal> toMap(){
+        Map<String, BigDecimal> map = newLinkedHashMap(columnList.size());
+        for (Column column : columnList){
+            map.put(column.getLabel(), getValue(column));
+        }
+        return map;
+    }
+
+    /**
+     * 是否有 min/max 统计列.
+     *
+     * @param columnList
+     *            the column list
+     * @return true, if successful
+     */
+    private static boolean hasMinOrMax(List<Column> columnList){
+        for (Column column : columnList){
+            if (Function.MIN == column.getFunction() || Function.MAX == column.getFunction()){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获得统计列的值.
+     *
+     * @param column
+     *            the column
+     * @return the value
+     */
+    private BigDecimal getValue(Column column){
+        int index = column.getPropertyIndex();
+        switch (column.getFunction()) {
+            case SUM:
+                return sums[index].getSum();
+            case AVG:
+                //和 sql 一样,没有元素的时候(补全的时间段)是null
+                return 0 == count ? null : NumberUtil.getDivideValue(sums[index].getSum(), count, column.getScale());
+            case COUNT:
+                return BigDecimal.valueOf(count);
+            case MIN:
+                return mins[index];
+            default:
+                return maxs[index];
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 统计规则,一次声明多个统计列(sum,avg,count,min,max),由 {@link AggregateUtil#aggregate(Iterable, AggregateSpec)} 以及
+ * {@link AggregateUtil#groupAggregate(Iterable, String, AggregateSpec)} <b>一次循环</b>计算出全部结果.
+ *
+ * <h3>示例:</h3>
+ * <blockquote>
+ *
+ * <p>
+ * <b>场景:</b> 按照 storeId 分组, 统计每个店铺的订单金额总和, 平均单价, 订单数, 最低单价以及最高单价
+ * </p>
+ *
+ * <pre class="code">
+ * AggregateSpec{@code <Order>} aggregateSpec = AggregateSpec.{@code <Order>} builder()//
+ *                 .sum("amount")
+ *                 .avg("price", 2)
+ *                 .count()
+ *                 .min("price")
+ *                 .max("price")
+ *                 .build();
+ *
+ * Map{@code <Long, Map<String, BigDecimal>>} map = AggregateUtil.groupAggregate(orderList, "storeId", aggregateSpec);
+ * </pre>
+ *
+ * <b>返回:</b>
+ *
+ * <pre class="code">
+ * {
+ * "1": {"sum(amount)": 300,"avg(price)": 12.50,"count": 2,"min(price)": 10,"max(price)": 15},
+ * "2": {"sum(amount)": 100,"avg(price)": 20.00,"count": 1,"min(price)": 20,"max(price)": 20}
+ * }
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>每个统计列的名字和 sql 一样,比如 <code>"sum(amount)"</code>,<code>"avg(price)"</code>,<code>"count"</code>,
+ * <code>"min(price)"</code>,<code>"max(price)"</code>;结果 map 的 key 顺序和声明的顺序一致</li>
+ * <li>sum 以及 avg, 和 {@link AggregateUtil#sum(Iterable, String...)} 以及 {@link AggregateUtil#avg(Iterable, String[], int)} 规则一致,
+ * 属性值是null 当做 0 处理</li>
+ * <li>min 以及 max, 和 sql 一样忽略 null 的属性值, 如果全部是null, 那么结果是null</li>
+ * <li>多个统计列使用同一个属性, 每个元素的这个属性只会取一次值</li>
+ * <li>本类是不可变的, 可以复用以及多线程共享</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <O>
+ *            the generic type
+ * @see AggregateUtil#aggregate(Iterable, AggregateSpec)
+ * @see AggregateUtil#groupAggregate(Iterable, String, AggregateSpec)
+ * @since 2.1.0
+ */
+public final class AggregateSpec<O>{
+
+    /** 统计列. */
+    private final List<Column> columnList;
+
+    /** 统计列使用到的属性名称(去重). */
+    private final String[]     propertyNames;
+
+    /** 只统计符合条件的元素,如果是null,统计全部元素. */
+    private final Predicate<O> includePredicate;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new aggregate spec.
+     *
+     * @param columnList
+     *            the column list
+     * @param propertyNames
+     *            the property names
+     * @param includePredicate
+     *            the include predicate
+     */
+    private AggregateSpec(List<Column> columnList, String[] propertyNames, Predicate<O> includePredicate){
+        this.columnList = columnList;
+        this.propertyNames = propertyNames;
+        this.includePredicate = includePredicate;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建 {@link Builder}.
+     *
+     * @param <O>
+     *            the generic type
+     * @return the builder
+     */
+    public static <O> Builder<O> builder(){
+        return new Builder<>();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Gets the 统计列.
+     *
+     * @return the columnList
+     */
+    List<Column> getColumnList(){
+        return columnList;
+    }
+
+    /**
+     * Gets the 统计列使用到的属性名称(去重).
+     *
+     * @return the propertyNames
+     */
+    String[] getPropertyNames(){
+        return propertyNames;
+    }
+
+    /**
+     * Gets the 只统计符合条件的元素,如果是null,统计全部元素.
+     *
+     * @return the includePredicate
+     */
+    Predicate<O> getIncludePredicate(){
+        return includePredicate;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 统计函数.
+     */
+    enum Function{
+
+        /** 总和. */
+        SUM,
+
+        /** 算术平均值. */
+        AVG,
+
+        /** 个数. */
+        COUNT,
+
+        /** 最小值. */
+        MIN,
+
+        /** 最大值. */
+        MAX
+    }
+
+    /**
+     * 统计列.
+     */
+    static final class Column{
+
+        /** 列名,比如 "sum(amount)". */
+        private final String   label;
+
+        /** The function. */
+        private final Function function;
+
+        /** 属性在 {@link AggregateSpec#getPropertyNames()} 中的下标, count 是 -1. */
+        private final int      propertyIndex;
+
+        /** avg 的标度. */
+        private final int      scale;
+
+        /**
+         * Instantiates a new column.
+         *
+         * @param label
+         *            the label
+         * @param function
+         *            the function
+         * @param propertyIndex
+         *            the property index
+         * @param scale
+         *            the scale
+         */
+        private Column(String label, Function function, int propertyIndex, int scale){
+            this.label = label;
+            this.function = function;
+            this.propertyIndex = propertyIndex;
+            this.scale = scale;
+        }
+
+        /**
+         * Gets the 列名,比如 "sum(amount)".
+         *
+         * @return the label
+         */
+        String getLabel(){
+            return label;
+        }
+
+        /**
+         * Gets the function.
+         *
+         * @return the function
+         */
+        Function getFunction(){
+            return function;
+        }
+
+        /**
+         * Gets the 属性在 {@link AggregateSpec#getPropertyNames()} 中的下标, count 是 -1.
+         *
+         * @return the propertyIndex
+         */
+        int getPropertyIndex(){
+            return propertyIndex;
+        }
+
+        /**
+         * Gets the avg 的标度.
+         *
+         * @return the scale
+         */
+        int getScale(){
+            return scale;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * {@link AggregateSpec} 的构造器.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    public static final class Builder<O>{
+
+        /** 统计列的名字. */
+        private final Set<String>  labelSet         = new HashSet<>();
+
+        /** 统计列. */
+        private final List<Column> columnList       = new ArrayList<>();
+
+        /** 统计列使用到的属性名称(去重). */
+        private final List<String> propertyNameList = new ArrayList<>();
+
+        /** The include predicate. */
+        private Predicate<O>       includePredicate;
+
+        //---------------------------------------------------------------
+
+        /**
+         * Instantiates a new builder.
+         */
+        private Builder(){
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 总和,属性值是null 当做 0 处理, 列名是 <code>"sum(propertyName)"</code>.
+         *
+         * @param propertyName
+         *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+         *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>propertyName</code> 是null
+         * @throws IllegalArgumentException
+         *             如果 <code>propertyName</code> 是blank, 或者已经声明过相同的统计列
+         */
+        public Builder<O> sum(String propertyName){
+            return add(Function.SUM, propertyName, 0);
+        }
+
+        /**
+         * 算术平均值(总和除以元素个数, 属性值是null 当做 0 处理), 列名是 <code>"avg(propertyName)"</code>.
+         *
+         * @param propertyName
+         *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+         *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+         * @param scale
+         *            标度,小数的位数,四舍五入,用于 {@link java.math.BigDecimal#setScale(int, RoundingMode)}
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>propertyName</code> 是null
+         * @throws IllegalArgumentException
+         *             如果 <code>propertyName</code> 是blank, 或者已经声明过相同的统计列
+         */
+        public Builder<O> avg(String propertyName,int scale){
+            return add(Function.AVG, propertyName, scale);
+        }
+
+        /**
+         * 元素个数, 列名是 <code>"count"</code>.
+         *
+         * @return this
+         * @throws IllegalArgumentException
+         *             如果已经声明过 count
+         */
+        public Builder<O> count(){
+            return add(Function.COUNT, null, 0);
+        }
+
+        /**
+         * 最小值(忽略null), 列名是 <code>"min(propertyName)"</code>.
+         *
+         * @param propertyName
+         *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+         *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>propertyName</code> 是null
+         * @throws IllegalArgumentException
+         *             如果 <code>propertyName</code> 是blank, 或者已经声明过相同的统计列
+         */
+        public Builder<O> min(String propertyName){
+            return add(Function.MIN, propertyName, 0);
+        }
+
+        /**
+         * 最大值(忽略null), 列名是 <code>"max(propertyName)"</code>.
+         *
+         * @param propertyName
+         *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+         *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>propertyName</code> 是null
+         * @throws IllegalArgumentException
+         *             如果 <code>propertyName</code> 是blank, 或者已经声明过相同的统计列
+         */
+        public Builder<O> max(String propertyName){
+            return add(Function.MAX, propertyName, 0);
+        }
+
+        /**
+         * 只统计符合 <code>includePredicate</code> 的元素.
+         *
+         * @param includePredicate
+         *            如果是null,统计全部元素
+         * @return this
+         */
+        public Builder<O> where(Predicate<O> includePredicate){
+            this.includePredicate = includePredicate;
+            return this;
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 构造 {@link AggregateSpec}.
+         *
+         * @return the aggregate spec
+         * @throws IllegalArgumentException
+         *             如果没有声明任何统计列
+         */
+        public AggregateSpec<O> build(){
+            Validate.isTrue(!columnList.isEmpty(), "aggregate spec must have at least one column!");
+            return new AggregateSpec<>(
+                            Collections.unmodifiableList(new ArrayList<>(columnList)),
+                            propertyNameList.toArray(new String[propertyNameList.size()]),
+                            includePredicate);
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 添加统计列.
+         *
+         * @param function
+         *            the function
+         * @param propertyName
+         *            the property name
+         * @param scale
+         *            the scale
+         * @return this
+         */
+        private Builder<O> add(Function function,String propertyName,int scale){
+            if (Function.COUNT != function){
+                Validate.notBlank(propertyName, "propertyName can't be blank!");
+            }
+
+            String label = toLabel(function, propertyName);
+            Validate.isTrue(labelSet.add(label), "column:[%s] already exists!", label);
+
+            int propertyIndex = -1;
+            if (null != propertyName){
+                propertyIndex = propertyNameList.indexOf(propertyName);
+                if (-1 == propertyIndex){
+                    propertyNameList.add(propertyName);
+                    propertyIndex = propertyNameList.size() - 1;
+                }
+            }
+            columnList.add(new Column(label, function, propertyIndex, scale));
+            return this;
+        }
+
+        /**
+         * 列名,比如 "sum(amount)".
+         *
+         * @param function
+         *            the function
+         * @param propertyName
+         *            the property name
+         * @return the string
+         */
+        private static String toLabel(Function function,String propertyName){
+            String functionName = function.name().toLowerCase(Locale.ENGLISH);
+            return null == propertyName ? functionName : functionName + "(" + propertyName + ")";
+        }
+    }
+}
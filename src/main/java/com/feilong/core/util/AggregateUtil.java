@@ -19,15 +19,19 @@ import static com.feilong.core.Validator.isNullOrEmpty;
 import static com.feilong.core.bean.ConvertUtil.toArray;
 import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
 import static com.feilong.core.util.MapUtil.newLinkedHashMap;
-import static java.math.BigDecimal.ZERO;
 import static java.util.Collections.emptyMap;
 import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
 
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.collections4.Predicate;
@@ -35,6 +39,7 @@ import org.apache.commons.collections4.Transformer;
 import org.apache.commons.lang3.Validate;
 
 import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.date.TimeBucketUnit;
 import com.feilong.core.lang.NumberUtil;
 
 /**
@@ -448,23 +453,62 @@ public final class AggregateUtil{
         }
         Validate.noNullElements(propertyNames, "propertyNames can't be null/empty!");
 
-        Map<String, BigDecimal> sumMap = newLinkedHashMap(IterableUtils.size(beanIterable));
+        //相同的属性名称使用同一个累加器(和原来一样会累加多次)
+        List<String> distinctPropertyNameList = new ArrayList<>(propertyNames.length);
+        int[] indexes = new int[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; ++i){
+            int index = distinctPropertyNameList.indexOf(propertyNames[i]);
+            if (-1 == index){
+                distinctPropertyNameList.add(propertyNames[i]);
+                index = distinctPropertyNameList.size() - 1;
+            }
+            indexes[i] = index;
+        }
+
+        //---------------------------------------------------------------
+        //整数使用 long 累加,最后才生成 BigDecimal
+        SumAccumulator[] sumAccumulators = null;
         for (O obj : beanIterable){
             if (null != includePredicate && !includePredicate.evaluate(obj)){
                 continue;
             }
+            if (null == sumAccumulators){
+                sumAccumulators = newSumAccumulators(distinctPropertyNameList.size());
+            }
 
-            for (String propertyName : propertyNames){
+            for (int i = 0; i < propertyNames.length; ++i){
                 //如果通过反射某个元素值是null,则使用默认值0 代替
-                BigDecimal addValue = NumberUtil.getAddValue(
-                                defaultIfNull(sumMap.get(propertyName), 0),
-                                defaultIfNull(PropertyUtil.<Number> getProperty(obj, propertyName), 0));
-                sumMap.put(propertyName, addValue);
+                sumAccumulators[indexes[i]].add(PropertyUtil.<Number> getProperty(obj, propertyNames[i]));
             }
         }
+
+        //---------------------------------------------------------------
+        if (null == sumAccumulators){
+            return newLinkedHashMap(0);
+        }
+        Map<String, BigDecimal> sumMap = newLinkedHashMap(distinctPropertyNameList.size());
+        for (int i = 0; i < sumAccumulators.length; ++i){
+            sumMap.put(distinctPropertyNameList.get(i), sumAccumulators[i].getSum());
+        }
         return sumMap;
     }
 
+    /**
+     * 创建 <code>length</code> 个 {@link SumAccumulator}.
+     *
+     * @param length
+     *            the length
+     * @return the sum accumulator[]
+     * @since 2.1.0
+     */
+    private static SumAccumulator[] newSumAccumulators(int length){
+        SumAccumulator[] sumAccumulators = new SumAccumulator[length];
+        for (int i = 0; i < length; ++i){
+            sumAccumulators[i] = new SumAccumulator();
+        }
+        return sumAccumulators;
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -598,15 +642,27 @@ public final class AggregateUtil{
         Validate.notBlank(keyPropertyName, "keyPropertyName can't be null/empty!");
         Validate.notBlank(sumPropertyName, "sumPropertyName can't be null/empty!");
 
-        Map<T, BigDecimal> map = newLinkedHashMap();
+        //整数使用 long 累加,最后才生成 BigDecimal
+        Map<T, SumAccumulator> sumAccumulatorMap = newLinkedHashMap();
         for (O obj : beanIterable){
             if (null != includePredicate && !includePredicate.evaluate(obj)){
                 continue;
             }
 
             T keyPropertyValue = PropertyUtil.<T> getProperty(obj, keyPropertyName);
-            BigDecimal value = toBigDecimal(defaultIfNull(PropertyUtil.<Number> getProperty(obj, sumPropertyName), ZERO));
-            MapUtil.putSumValue(map, keyPropertyValue, value);
+            SumAccumulator sumAccumulator = sumAccumulatorMap.get(keyPropertyValue);
+            if (null == sumAccumulator){
+                sumAccumulator = new SumAccumulator();
+                sumAccumulatorMap.put(keyPropertyValue, sumAccumulator);
+            }
+            //如果通过反射某个元素值是null,则使用默认值0 代替
+            sumAccumulator.add(PropertyUtil.<Number> getProperty(obj, sumPropertyName));
+        }
+
+        //---------------------------------------------------------------
+        Map<T, BigDecimal> map = newLinkedHashMap(sumAccumulatorMap.size());
+        for (Map.Entry<T, SumAccumulator> entry : sumAccumulatorMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue().getSum());
         }
         return map;
     }
@@ -1133,6 +1189,467 @@ public final class AggregateUtil{
         return resultMap;
     }
 
+    //-------------------------parallel--------------------------------------
+
+    /**
+     * 并行版本的 {@link #groupSum(Iterable, String, String)}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param keyPropertyName
+     *            分组的属性名称
+     * @param sumPropertyName
+     *            求和的属性名称
+     * @return 和 {@link #groupSum(Iterable, String, String)} 完全一致(包括 key 的顺序)
+     * @see #parallelGroupSum(Iterable, String, String, Predicate)
+     * @since 2.1.0
+     */
+    public static <O, T> Map<T, BigDecimal> parallelGroupSum(Iterable<O> beanIterable,String keyPropertyName,String sumPropertyName){
+        return parallelGroupSum(beanIterable, keyPropertyName, sumPropertyName, null);
+    }
+
+    /**
+     * 并行版本的 {@link #groupSum(Iterable, String, String, Predicate)}.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>把 <code>beanIterable</code> 拆分成连续的多段,每个线程生成自己的 key 到累加器的 map,最后按照段的顺序合并</li>
+     * <li>返回的 {@link LinkedHashMap} key 的顺序以及值,和 {@link #groupSum(Iterable, String, String, Predicate)} 完全一致,可以直接替换</li>
+     * <li>元素个数小于 8192 的时候,直接串行计算</li>
+     * <li><code>includePredicate</code> 会在多个线程中调用,需要是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param keyPropertyName
+     *            分组的属性名称
+     * @param sumPropertyName
+     *            求和的属性名称
+     * @param includePredicate
+     *            the include predicate
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     * @see #groupSum(Iterable, String, String, Predicate)
+     * @since 2.1.0
+     */
+    public static <O, T> Map<T, BigDecimal> parallelGroupSum(
+                    Iterable<O> beanIterable,
+                    final String keyPropertyName,
+                    final String sumPropertyName,
+                    Predicate<O> includePredicate){
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+
+        //---------------------------------------------------------------
+        Validate.notBlank(keyPropertyName, "keyPropertyName can't be null/empty!");
+        Validate.notBlank(sumPropertyName, "sumPropertyName can't be null/empty!");
+
+        Map<T, SumAccumulator> sumAccumulatorMap = new ParallelGroupReducer<O, T, SumAccumulator>(includePredicate){
+
+            @Override
+            protected T getKey(O obj){
+                return PropertyUtil.<T> getProperty(obj, keyPropertyName);
+            }
+
+            @Override
+            protected SumAccumulator newAccumulator(){
+                return new SumAccumulator();
+            }
+
+            @Override
+            protected void accumulate(SumAccumulator accumulator,O obj){
+                accumulator.add(PropertyUtil.<Number> getProperty(obj, sumPropertyName));
+            }
+
+            @Override
+            protected void merge(SumAccumulator accumulator,SumAccumulator other){
+                accumulator.add(other);
+            }
+        }.reduce(beanIterable);
+
+        //---------------------------------------------------------------
+        Map<T, BigDecimal> map = newLinkedHashMap(sumAccumulatorMap.size());
+        for (Map.Entry<T, SumAccumulator> entry : sumAccumulatorMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue().getSum());
+        }
+        return map;
+    }
+
+    /**
+     * 并行版本的 {@link #groupCount(Iterable, String)}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyName
+     *            分组的属性名称
+     * @return 和 {@link #groupCount(Iterable, String)} 完全一致(包括 key 的顺序)
+     * @see #parallelGroupCount(Iterable, String, Predicate)
+     * @since 2.1.0
+     */
+    public static <O, T> Map<T, Integer> parallelGroupCount(Iterable<O> beanIterable,String propertyName){
+        return parallelGroupCount(beanIterable, propertyName, null);
+    }
+
+    /**
+     * 并行版本的 {@link #groupCount(Iterable, String, Predicate)}.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>把 <code>beanIterable</code> 拆分成连续的多段,每个线程使用自己的 map 以及计数器(不需要竞争,所以不需要 LongAdder 之类的并发计数器),最后按照段的顺序合并</li>
+     * <li>返回的 {@link LinkedHashMap} key 的顺序以及值,和 {@link #groupCount(Iterable, String, Predicate)} 完全一致,可以直接替换</li>
+     * <li>元素个数小于 8192 的时候,直接串行计算</li>
+     * <li><code>includePredicate</code> 会在多个线程中调用,需要是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyName
+     *            分组的属性名称
+     * @param includePredicate
+     *            the include predicate
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     * @see #groupCount(Iterable, String, Predicate)
+     * @since 2.1.0
+     */
+    public static <O, T> Map<T, Integer> parallelGroupCount(Iterable<O> beanIterable,final String propertyName,Predicate<O> includePredicate){
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+
+        //---------------------------------------------------------------
+        Map<T, int[]> countMap = new ParallelGroupReducer<O, T, int[]>(includePredicate){
+
+            @Override
+            protected T getKey(O obj){
+                return PropertyUtil.<T> getProperty(obj, propertyName);
+            }
+
+            @Override
+            protected int[] newAccumulator(){
+                return new int[1];
+            }
+
+            @Override
+            protected void accumulate(int[] accumulator,O obj){
+                ++accumulator[0];
+            }
+
+            @Override
+            protected void merge(int[] accumulator,int[] other){
+                accumulator[0] += other[0];
+            }
+        }.reduce(beanIterable);
+
+        //---------------------------------------------------------------
+        Map<T, Integer> map = newLinkedHashMap(countMap.size());
+        for (Map.Entry<T, int[]> entry : countMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return map;
+    }
+
+    //-------------------------aggregate--------------------------------------
+
+    /**
+     * 按照 <code>aggregateSpec</code> 声明的统计列(sum,avg,count,min,max),<b>一次循环</b>统计 <code>beanIterable</code>.
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * AggregateSpec{@code <User>} aggregateSpec = AggregateSpec.{@code <User>} builder().sum("id").avg("age", 2).count().max("age").build();
+     * Map{@code <String, BigDecimal>} map = AggregateUtil.aggregate(list, aggregateSpec);
+     * </pre>
+     * 
+     * <b>返回:</b>
+     * 
+     * <pre class="code">
+     * {"sum(id)": 12,"avg(age)": 24.00,"count": 3,"max(age)": 30}
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param aggregateSpec
+     *            统计规则
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果没有符合 includePredicate 的元素,返回 {@link Collections#emptyMap()}<br>
+     *         否则返回 {@link LinkedHashMap},key是统计列名,顺序和声明的顺序一致
+     * @throws NullPointerException
+     *             如果 <code>aggregateSpec</code> 是null
+     * @see AggregateSpec
+     * @since 2.1.0
+     */
+    public static <O> Map<String, BigDecimal> aggregate(Iterable<O> beanIterable,AggregateSpec<O> aggregateSpec){
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+        Validate.notNull(aggregateSpec, "aggregateSpec can't be null!");
+
+        //---------------------------------------------------------------
+        String[] propertyNames = aggregateSpec.getPropertyNames();
+        Predicate<O> includePredicate = aggregateSpec.getIncludePredicate();
+
+        Number[] values = new Number[propertyNames.length];
+        AggregateAccumulator aggregateAccumulator = new AggregateAccumulator(aggregateSpec);
+        for (O obj : beanIterable){
+            if (null != includePredicate && !includePredicate.evaluate(obj)){
+                continue;
+            }
+            aggregateAccumulator.add(extractValues(obj, propertyNames, values));
+        }
+        return aggregateAccumulator.isEmpty() ? Collections.<String, BigDecimal> emptyMap() : aggregateAccumulator.toMap();
+    }
+
+    /**
+     * 按照 <code>keyPropertyName</code> 属性值分组,每组按照 <code>aggregateSpec</code> 声明的统计列(sum,avg,count,min,max)统计,<b>一次循环</b>得到结果表.
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * AggregateSpec{@code <Order>} aggregateSpec = AggregateSpec.{@code <Order>} builder().sum("amount").count().min("price").build();
+     * Map{@code <Long, Map<String, BigDecimal>>} map = AggregateUtil.groupAggregate(orderList, "storeId", aggregateSpec);
+     * </pre>
+     * 
+     * <b>返回:</b>
+     * 
+     * <pre class="code">
+     * {
+     * "1": {"sum(amount)": 300,"count": 2,"min(price)": 10},
+     * "2": {"sum(amount)": 100,"count": 1,"min(price)": 20}
+     * }
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param keyPropertyName
+     *            分组的属性名称
+     * @param aggregateSpec
+     *            统计规则
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         否则返回 {@link LinkedHashMap},key是 <code>keyPropertyName</code> 的属性值(顺序是第一次出现的顺序),value是这一组的统计结果
+     * @throws NullPointerException
+     *             如果 <code>keyPropertyName</code> 或者 <code>aggregateSpec</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>keyPropertyName</code> 是blank
+     * @see AggregateSpec
+     * @see #groupSum(Iterable, String, String, Predicate)
+     * @since 2.1.0
+     */
+    public static <O, T> Map<T, Map<String, BigDecimal>> groupAggregate(
+                    Iterable<O> beanIterable,
+                    String keyPropertyName,
+                    AggregateSpec<O> aggregateSpec){
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+        Validate.notBlank(keyPropertyName, "keyPropertyName can't be null/empty!");
+        Validate.notNull(aggregateSpec, "aggregateSpec can't be null!");
+
+        //---------------------------------------------------------------
+        String[] propertyNames = aggregateSpec.getPropertyNames();
+        Predicate<O> includePredicate = aggregateSpec.getIncludePredicate();
+
+        Number[] values = new Number[propertyNames.length];
+        Map<T, AggregateAccumulator> accumulatorMap = newLinkedHashMap();
+        for (O obj : beanIterable){
+            if (null != includePredicate && !includePredicate.evaluate(obj)){
+                continue;
+            }
+
+            T keyPropertyValue = PropertyUtil.<T> getProperty(obj, keyPropertyName);
+            AggregateAccumulator aggregateAccumulator = accumulatorMap.get(keyPropertyValue);
+            if (null == aggregateAccumulator){
+                aggregateAccumulator = new AggregateAccumulator(aggregateSpec);
+                accumulatorMap.put(keyPropertyValue, aggregateAccumulator);
+            }
+            aggregateAccumulator.add(extractValues(obj, propertyNames, values));
+        }
+
+        //---------------------------------------------------------------
+        Map<T, Map<String, BigDecimal>> map = newLinkedHashMap(accumulatorMap.size());
+        for (Map.Entry<T, AggregateAccumulator> entry : accumulatorMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue().toMap());
+        }
+        return map;
+    }
+
+    /**
+     * 按照 <code>datePropertyName</code> 属性值所在的时间段(小时,天,星期,月,年)分组,每组按照 <code>aggregateSpec</code> 声明的统计列统计,
+     * <b>一次循环</b>得到按照时间排序,并且补全了中间没有数据的时间段的时间序列.
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <p>
+     * <b>场景:</b> 按天统计订单金额总和以及订单数
+     * </p>
+     * 
+     * <pre class="code">
+     * AggregateSpec{@code <Order>} aggregateSpec = AggregateSpec.{@code <Order>} builder().sum("amount").count().build();
+     * Map{@code <Date, Map<String, BigDecimal>>} map = AggregateUtil.timeBucketAggregate(orderList, "createTime", TimeBucketUnit.DAY, aggregateSpec);
+     * </pre>
+     * 
+     * <b>返回:</b>
+     * 
+     * <pre class="code">
+     * {
+     * "2018-10-01 00:00:00": {"sum(amount)": 300,"count": 2},
+     * "2018-10-02 00:00:00": {"sum(amount)": 0,"count": 0},
+     * "2018-10-03 00:00:00": {"sum(amount)": 100,"count": 1}
+     * }
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>key 是时间段的开始时间,和 {@link TimeBucketUnit} 说明的 {@link com.feilong.core.date.DateUtil DateUtil} 方法一致,使用默认时区</li>
+     * <li>时间段使用 epoch 毫秒直接计算,不会每个元素创建 {@link java.util.Calendar};只有每个时间段的开始时间使用 {@link java.util.Calendar} 计算一次</li>
+     * <li>第一个时间段到最后一个时间段之间没有元素的时间段也会返回,count 以及 sum 是 0,avg,min 以及 max 是null;时间跨度很大并且单位很小的时候,返回的 map 会很大</li>
+     * <li><code>datePropertyName</code> 属性值是null 的元素不参与统计</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param datePropertyName
+     *            分组的时间属性名称,属性值必须是 {@link java.util.Date} 或者它的子类
+     * @param timeBucketUnit
+     *            时间段的单位
+     * @param aggregateSpec
+     *            统计规则
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果没有符合 includePredicate 并且时间不是null的元素,返回 {@link Collections#emptyMap()}<br>
+     *         否则返回 {@link LinkedHashMap},key是时间段的开始时间(从早到晚),value是这个时间段的统计结果
+     * @throws NullPointerException
+     *             如果 <code>datePropertyName</code>,<code>timeBucketUnit</code> 或者 <code>aggregateSpec</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>datePropertyName</code> 是blank,或者时间不在 1900-01-01 到 9999-12-31 之间
+     * @see TimeBucketUnit
+     * @see #groupAggregate(Iterable, String, AggregateSpec)
+     * @since 2.1.0
+     */
+    public static <O> Map<Date, Map<String, BigDecimal>> timeBucketAggregate(
+                    Iterable<O> beanIterable,
+                    String datePropertyName,
+                    TimeBucketUnit timeBucketUnit,
+                    AggregateSpec<O> aggregateSpec){
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+        Validate.notBlank(datePropertyName, "datePropertyName can't be null/empty!");
+        Validate.notNull(timeBucketUnit, "timeBucketUnit can't be null!");
+        Validate.notNull(aggregateSpec, "aggregateSpec can't be null!");
+
+        //---------------------------------------------------------------
+        String[] propertyNames = aggregateSpec.getPropertyNames();
+        Predicate<O> includePredicate = aggregateSpec.getIncludePredicate();
+        TimeZone timeZone = TimeZone.getDefault();
+
+        Number[] values = new Number[propertyNames.length];
+        Map<Long, AggregateAccumulator> accumulatorMap = new HashMap<>();
+        long minBucketIndex = Long.MAX_VALUE;
+        long maxBucketIndex = Long.MIN_VALUE;
+
+        //数据通常按照时间排序,连续的元素大多落在同一个时间段,不需要每次查 map
+        long lastBucketIndex = 0;
+        AggregateAccumulator lastAccumulator = null;
+        for (O obj : beanIterable){
+            if (null != includePredicate && !includePredicate.evaluate(obj)){
+                continue;
+            }
+            Date date = PropertyUtil.<Date> getProperty(obj, datePropertyName);
+            if (null == date){
+                continue;
+            }
+
+            long bucketIndex = timeBucketUnit.toBucketIndex(date, timeZone);
+            if (null == lastAccumulator || bucketIndex != lastBucketIndex){
+                lastAccumulator = accumulatorMap.get(bucketIndex);
+                if (null == lastAccumulator){
+                    lastAccumulator = new AggregateAccumulator(aggregateSpec);
+                    accumulatorMap.put(bucketIndex, lastAccumulator);
+                    minBucketIndex = Math.min(minBucketIndex, bucketIndex);
+                    maxBucketIndex = Math.max(maxBucketIndex, bucketIndex);
+                }
+                lastBucketIndex = bucketIndex;
+            }
+            lastAccumulator.add(extractValues(obj, propertyNames, values));
+        }
+        if (accumulatorMap.isEmpty()){
+            return emptyMap();
+        }
+
+        //---------------------------------------------------------------
+        Map<Date, Map<String, BigDecimal>> map = newLinkedHashMap((int) Math.min(maxBucketIndex - minBucketIndex + 1, Integer.MAX_VALUE));
+        for (long bucketIndex = minBucketIndex; bucketIndex <= maxBucketIndex; ++bucketIndex){
+            Date bucketStart = timeBucketUnit.toBucketStart(bucketIndex, timeZone);
+            //本地时间不存在的时间段(比如夏令时跳过的那一个小时),不会有元素
+            if (null == bucketStart){
+                continue;
+            }
+            AggregateAccumulator aggregateAccumulator = accumulatorMap.get(bucketIndex);
+            map.put(bucketStart, (null == aggregateAccumulator ? new AggregateAccumulator(aggregateSpec) : aggregateAccumulator).toMap());
+        }
+        return map;
+    }
+
+    /**
+     * 提取 <code>obj</code> 的 <code>propertyNames</code> 属性值,放到 <code>values</code> 中(复用数组,避免每个元素创建一个).
+     *
+     * @param <O>
+     *            the generic type
+     * @param obj
+     *            the obj
+     * @param propertyNames
+     *            the property names
+     * @param values
+     *            the values
+     * @return the values
+     * @since 2.1.0
+     */
+    private static <O> Number[] extractValues(O obj,String[] propertyNames,Number[] values){
+        for (int i = 0; i < propertyNames.length; ++i){
+            values[i] = PropertyUtil.<Number> getProperty(obj, propertyNames[i]);
+        }
+        return values;
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -34,7 +34,6 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -537,6 +536,7 @@ public final class CollectionsUtil{
      *             如果 <code>propertyName</code> 是blank
      * @see org.apache.commons.collections4.ListUtils#indexOf(List, Predicate)
      * @see BeanPredicateUtil#equalPredicate(String, Object)
+     * @see PropertyIndex#indexOf(Object)
      * @since 1.5.5
      */
     public static <O, V> int indexOf(List<O> list,String propertyName,V propertyValue){
@@ -853,6 +853,7 @@ public final class CollectionsUtil{
      * <ol>
      * <li>如果原 <code>objectCollection</code> 是有序的,那么返回的结果参照原 <code>objectCollection</code>元素顺序</li>
      * <li>原 <code>objectCollection</code>不变</li>
+     * <li>每个元素提取一次属性值组成组合 key,使用 {@link HashSet} 判断是否重复(属性值之间使用 equals 比较),时间复杂度 O(n)</li>
      * </ol>
      * </blockquote>
      *
@@ -882,64 +883,20 @@ public final class CollectionsUtil{
         }
 
         //---------------------------------------------------------------
-        //用来识别是否重复
-        List<Map<String, Object>> mapList = newArrayList();
+        //用来识别是否重复, 每个元素一个组合 key, hash 查找 O(1)
+        int size = IterableUtils.size(objectCollection);
+        Set<PropertyValuesKey> keySet = new HashSet<>(Math.max((int) (size / .75f) + 1, 16));
 
         //用来存放返回list
-        List<O> returnList = new ArrayList<>(IterableUtils.size(objectCollection));
+        List<O> returnList = new ArrayList<>(size);
         for (O o : objectCollection){
-            Map<String, Object> propertyNameAndValueMap = PropertyUtil.describe(o, propertyNames);
-            boolean isNotExist = !isExist(mapList, propertyNameAndValueMap, propertyNames);
-            if (isNotExist){
+            if (keySet.add(PropertyValuesKey.of(o, propertyNames))){
                 returnList.add(o);
-                mapList.add(propertyNameAndValueMap);
             }
         }
         return returnList;
     }
 
-    /**
-     * 判断<code>mapList</code> 中,是否含有 指定 key-value 的map.
-     *
-     * @param mapList
-     *            the map list
-     * @param propertyNameAndValueMap
-     *            the property name and value map
-     * @param keys
-     *            the keys
-     * @return 存在,返回true
-     * @since 2.1.0
-     */
-    private static boolean isExist(List<Map<String, Object>> mapList,Map<String, Object> propertyNameAndValueMap,String...keys){
-        for (Map<String, Object> map : mapList){
-            if (eqauls(map, propertyNameAndValueMap, keys)){
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * 判断两个map ,提取每个属性 <code>keys</code> 值, 看看是否一致, 如果有不一致的返回false; 如果都一致那么返回true.
-     *
-     * @param map
-     *            the map
-     * @param propertyNameAndValueMap
-     *            the property name and value map
-     * @param keys
-     *            the property names
-     * @return true, if successful
-     * @since 2.1.0
-     */
-    private static boolean eqauls(Map<String, Object> map,Map<String, Object> propertyNameAndValueMap,String...keys){
-        for (String propertyName : keys){
-            if (!Objects.equals(map.get(propertyName), propertyNameAndValueMap.get(propertyName))){
-                return false;
-            }
-        }
-        return true;
-    }
-
     //----------------------获得 属性值-----------------------------------------
 
     /**
@@ -1326,6 +1283,7 @@ public final class CollectionsUtil{
      * <blockquote>
      * <ol>
      * <li>返回第一个匹配对象</li>
+     * <li>每次调用都会遍历 <code>beanIterable</code>,如果需要在循环中多次查找,请使用 {@link PropertyIndex}</li>
      * </ol>
      * </blockquote>
      *
@@ -1346,6 +1304,7 @@ public final class CollectionsUtil{
      *         如果 <code>iterable</code>中没有相关元素的属性<code>propertyName</code> 值是<code>propertyValue</code>,返回null
      * @see #find(Iterable, Predicate)
      * @see com.feilong.core.util.predicate.BeanPredicateUtil#equalPredicate(String, Object)
+     * @see PropertyIndex#find(Object)
      */
     public static <O, V> O find(Iterable<O> beanIterable,String propertyName,V propertyValue){
         return null == beanIterable ? null : find(beanIterable, BeanPredicateUtil.<O, V> equalPredicate(propertyName, propertyValue));
@@ -1533,6 +1492,7 @@ public final class CollectionsUtil{
      *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
      *         如果 <code>propertyValues</code> 是null,返回 {@code new ArrayList<O>}<br>
      * @see BeanPredicateUtil#containsPredicate(String, Object...)
+     * @see PropertyIndex#select(Object...)
      */
     @SafeVarargs
     public static <O, V> List<O> select(Iterable<O> beanIterable,String propertyName,V...propertyValues){
@@ -2383,6 +2343,87 @@ public final class CollectionsUtil{
         });
     }
 
+    /**
+     * 并行版本的 {@link #group(Iterable, String)}.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 和 {@link #group(Iterable, String)} 完全一致(key 的顺序以及每组元素的顺序)
+     * @see #parallelGroup(Iterable, String, Predicate)
+     * @since 2.1.0
+     */
+    public static <T, O> Map<T, List<O>> parallelGroup(Iterable<O> beanIterable,String propertyName){
+        return parallelGroup(beanIterable, propertyName, null);
+    }
+
+    /**
+     * 并行版本的 {@link #group(Iterable, String, Predicate)}.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>把 <code>beanIterable</code> 拆分成连续的多段,每个线程生成自己的分组 map,最后按照段的顺序合并</li>
+     * <li>返回的 {@link LinkedHashMap} key 的顺序以及每组元素的顺序,和 {@link #group(Iterable, String, Predicate)} 完全一致,可以直接替换</li>
+     * <li>元素个数小于 8192 的时候,直接串行计算</li>
+     * <li><code>includePredicate</code> 会在多个线程中调用,需要是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param includePredicate
+     *            the include predicate
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * @see #group(Iterable, String, Predicate)
+     * @since 2.1.0
+     */
+    public static <T, O> Map<T, List<O>> parallelGroup(Iterable<O> beanIterable,final String propertyName,Predicate<O> includePredicate){
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+
+        //---------------------------------------------------------------
+        return new ParallelGroupReducer<O, T, List<O>>(includePredicate){
+
+            @Override
+            protected T getKey(O obj){
+                return PropertyUtil.getProperty(obj, propertyName);
+            }
+
+            @Override
+            protected List<O> newAccumulator(){
+                return new ArrayList<>();
+            }
+
+            @Override
+            protected void accumulate(List<O> accumulator,O obj){
+                accumulator.add(obj);
+            }
+
+            @Override
+            protected void merge(List<O> accumulator,List<O> other){
+                accumulator.addAll(other);
+            }
+        }.reduce(beanIterable);
+    }
+
     /**
      * 循环 <code>beanIterable</code>,将元素使用<code>keyTransformer</code>转成key,相同值的元素组成list作为value,封装成map返回.
      * 
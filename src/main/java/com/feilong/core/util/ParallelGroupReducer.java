@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.commons.collections4.Predicate;
+
+/**
+ * 并行分组归约.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>把元素拆分成连续的多段,每段在 {@link ParallelSupport#FORK_JOIN_POOL} 中生成自己的 {@link java.util.LinkedHashMap}(key 到累加器),互不竞争</li>
+ * <li>再按照段的顺序,左段合并右段:右段中左段没有的 key 追加到后面,有的 key 调用 {@link #merge(Object, Object)}</li>
+ * <li>因为段是连续的并且按顺序合并,所以 key 的顺序(第一次出现的顺序)以及每个累加器中元素的顺序,都和串行循环的结果一致</li>
+ * <li>元素个数小于 {@link #MIN_PARALLEL_SIZE} 的时候直接串行计算</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <O>
+ *            元素类型
+ * @param <K>
+ *            分组 key 类型
+ * @param <A>
+ *            累加器类型
+ * @since 2.1.0
+ */
+abstract class ParallelGroupReducer<O, K, A>{
+
+    /** 小于这个数量(以及拆分后的每段)直接串行计算. */
+    static final int           MIN_PARALLEL_SIZE = 1 << 13;
+
+    /** 只统计符合条件的元素,如果是null,统计全部元素;需要是线程安全的. */
+    private final Predicate<O> includePredicate;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new parallel group reducer.
+     *
+     * @param includePredicate
+     *            只统计符合条件的元素,如果是null,统计全部元素
+     */
+    ParallelGroupReducer(Predicate<O> includePredicate){
+        this.includePredicate = includePredicate;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得元素的分组 key.
+     *
+     * @param obj
+     *            the obj
+     * @return the key
+     */
+    protected abstract K getKey(O obj);
+
+    /**
+     * 创建新的累加器.
+     *
+     * @return the a
+     */
+    protected abstract A newAccumulator();
+
+    /**
+     * 累加元素.
+     *
+     * @param accumulator
+     *            the accumulator
+     * @param obj
+     *            the obj
+     */
+    protected abstract void accumulate(A accumulator,O obj);
+
+    /**
+     * 把右段的累加器 <code>other</code> 合并到左段的累加器 <code>accumulator</code> 中.
+     *
+     * @param accumulator
+     *            左段的累加器
+     * @param other
+     *            右段的累加器
+     */
+    protected abstract void merge(A accumulator,A other);
+
+    //---------------------------------------------------------------
+
+    /**
+     * 分组归约.
+     *
+     * @param iterable
+     *            the iterable
+     * @return key 到累加器的 {@link java.util.LinkedHashMap},key 的顺序是第一次出现的顺序
+     */
+    final Map<K, A> reduce(Iterable<O> iterable){
+        List<O> list = toRandomAccessList(iterable);
+        int size = list.size();
+        int granularity = ParallelSupport.granularity(size, MIN_PARALLEL_SIZE);
+        if (size < MIN_PARALLEL_SIZE || granularity >= size){
+            return reduce(list, 0, size);
+        }
+        return ParallelSupport.FORK_JOIN_POOL.invoke(new ReduceTask(list, 0, size, granularity));
+    }
+
+    /**
+     * 串行归约 [from, to) 区间.
+     *
+     * @param list
+     *            the list
+     * @param from
+     *            开始下标(包含)
+     * @param to
+     *            结束下标(不包含)
+     * @return the map
+     */
+    private Map<K, A> reduce(List<O> list,int from,int to){
+        Map<K, A> map = newLinkedHashMap();
+        for (int i = from; i < to; ++i){
+            O obj = list.get(i);
+            if (null != includePredicate && !includePredicate.evaluate(obj)){
+                continue;
+            }
+
+            K key = getKey(obj);
+            A accumulator = map.get(key);
+            if (null == accumulator){
+                accumulator = newAccumulator();
+                map.put(key, accumulator);
+            }
+            accumulate(accumulator, obj);
+        }
+        return map;
+    }
+
+    /**
+     * 把右段的结果合并到左段的结果中.
+     *
+     * @param left
+     *            the left
+     * @param right
+     *            the right
+     * @return left
+     */
+    private Map<K, A> mergeMap(Map<K, A> left,Map<K, A> right){
+        for (Map.Entry<K, A> entry : right.entrySet()){
+            A accumulator = left.get(entry.getKey());
+            if (null == accumulator){
+                left.put(entry.getKey(), entry.getValue());
+            }else{
+                merge(accumulator, entry.getValue());
+            }
+        }
+        return left;
+    }
+
+    /**
+     * 转成支持快速随机访问的 list.
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterable
+     *            the iterable
+     * @return the list
+     */
+    private static <O> List<O> toRandomAccessList(Iterable<O> iterable){
+        if (iterable instanceof List && iterable instanceof RandomAccess){
+            return (List<O>) iterable;
+        }
+        if (iterable instanceof Collection){
+            return new ArrayList<>((Collection<O>) iterable);
+        }
+        List<O> list = new ArrayList<>();
+        for (O obj : iterable){
+            list.add(obj);
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 归约 [from, to) 区间.
+     */
+    private final class ReduceTask extends RecursiveTask<Map<K, A>>{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 288446L;
+
+        /** The list. */
+        private final List<O>     list;
+
+        /** 开始下标(包含). */
+        private final int         from;
+
+        /** 结束下标(不包含). */
+        private final int         to;
+
+        /** 小于等于这个数量直接串行计算. */
+        private final int         granularity;
+
+        /**
+         * Instantiates a new reduce task.
+         *
+         * @param list
+         *            the list
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         * @param granularity
+         *            the granularity
+         */
+        private ReduceTask(List<O> list, int from, int to, int granularity){
+            this.list = list;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.RecursiveTask#compute()
+         */
+        @Override
+        protected Map<K, A> compute(){
+            if (to - from <= granularity){
+                return reduce(list, from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+            ReduceTask leftTask = new ReduceTask(list, from, middle, granularity);
+            ReduceTask rightTask = new ReduceTask(list, middle, to, granularity);
+            rightTask.fork();
+            Map<K, A> left = leftTask.compute();
+            return mergeMap(left, rightTask.join());
+        }
+    }
+}
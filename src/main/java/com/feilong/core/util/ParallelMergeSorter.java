@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.collections4.ComparatorUtils;
+
+/**
+ * 基于 {@link java.util.concurrent.ForkJoinPool ForkJoinPool} 的稳定并行归并排序.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>把数组拆分成多段,每段使用 {@link Arrays#sort(Object[], int, int, Comparator)} 排序,再两两归并;归并的时候相等的元素取左边的,所以整体是稳定排序</li>
+ * <li>对于满足约定的 {@link Comparator},结果和 {@link Arrays#sort(Object[], Comparator)} 完全一致</li>
+ * <li>jdk7 没有 <code>Arrays.parallelSort</code>,所以自己实现</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class ParallelMergeSorter{
+
+    /** 小于这个长度的数组(以及拆分后的每段)直接串行排序. */
+    static final int MIN_PARALLEL_SORT_SIZE = 1 << 13;
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private ParallelMergeSorter(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 <code>comparator</code> 对 <code>array</code> 并行排序.
+     *
+     * @param <T>
+     *            the generic type
+     * @param array
+     *            the array
+     * @param comparator
+     *            如果是null,和 {@link Arrays#sort(Object[], Comparator)} 一样,使用自然顺序
+     */
+    @SuppressWarnings("unchecked")
+    static <T> void sort(T[] array,Comparator<? super T> comparator){
+        int length = array.length;
+        int granularity = ParallelSupport.granularity(length, MIN_PARALLEL_SORT_SIZE);
+        if (length < MIN_PARALLEL_SORT_SIZE || granularity >= length){
+            Arrays.sort(array, comparator);
+            return;
+        }
+
+        Comparator<? super T> useComparator = null == comparator ? ComparatorUtils.NATURAL_COMPARATOR : comparator;
+        ParallelSupport.FORK_JOIN_POOL.invoke(new SortTask<>(array, array.clone(), 0, length, granularity, useComparator));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 排序 [from, to) 区间.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private static final class SortTask<T> extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long           serialVersionUID = 288446L;
+
+        /** 待排序数组. */
+        private final T[]                   array;
+
+        /** 归并使用的缓冲数组,和 array 一样长. */
+        private final T[]                   buffer;
+
+        /** 开始下标(包含). */
+        private final int                   from;
+
+        /** 结束下标(不包含). */
+        private final int                   to;
+
+        /** 小于等于这个长度直接串行排序. */
+        private final int                   granularity;
+
+        /** The comparator. */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * Instantiates a new sort task.
+         *
+         * @param array
+         *            the array
+         * @param buffer
+         *            the buffer
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         * @param granularity
+         *            the granularity
+         * @param comparator
+         *            the comparator
+         */
+        private SortTask(T[] array, T[] buffer, int from, int to, int granularity, Comparator<? super T> comparator){
+            this.array = array;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+            this.comparator = comparator;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute(){
+            if (to - from <= granularity){
+                Arrays.sort(array, from, to, comparator);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                            new SortTask<>(array, buffer, from, middle, granularity, comparator),
+                            new SortTask<>(array, buffer, middle, to, granularity, comparator));
+            merge(middle);
+        }
+
+        /**
+         * 归并 [from, middle) 以及 [middle, to) 两段有序区间,相等的时候取左边的,保证稳定.
+         *
+         * @param middle
+         *            the middle
+         */
+        private void merge(int middle){
+            //已经有序
+            if (comparator.compare(array[middle - 1], array[middle]) <= 0){
+                return;
+            }
+
+            System.arraycopy(array, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; ++i){
+                if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)){
+                    array[i] = buffer[left++];
+                }else{
+                    array[i] = buffer[right++];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * util 包内并行计算(并行排序,并行分组统计)共享的 {@link ForkJoinPool} 以及拆分规则.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class ParallelSupport{
+
+    /** 共享的 {@link ForkJoinPool},并发度为 cpu 核数. */
+    static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool();
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private ParallelSupport(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 每段的大小,小于等于这个大小的段不再拆分,直接串行计算.
+     * 
+     * <p>
+     * 每个线程大约分到 4 段,方便工作窃取;但是每段不小于 <code>minSize</code>.
+     * </p>
+     *
+     * @param size
+     *            总数
+     * @param minSize
+     *            每段最小的大小
+     * @return 如果返回值大于等于 <code>size</code>,说明不需要并行
+     */
+    static int granularity(int size,int minSize){
+        int parallelism = FORK_JOIN_POOL.getParallelism();
+        return parallelism <= 1 ? size : Math.max(minSize, size / (parallelism << 2));
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 基于属性值的索引,一次构建,多次查找.
+ *
+ * <p>
+ * 在循环中调用 {@link CollectionsUtil#find(Iterable, String, Object)},{@link CollectionsUtil#select(Iterable, String, Object...)}
+ * 等方法,每次都要遍历集合并且反射取值,总的时间复杂度是 O(n*m);使用本类,构建的时候每个元素只反射取值一次(O(n)),之后每次
+ * find/indexOf 是 O(1),select 是 O(k)(k 是结果个数).
+ * </p>
+ *
+ * <h3>示例:</h3>
+ * <blockquote>
+ *
+ * <pre class="code">
+ * PropertyIndex{@code <Sku>} skuIndex = PropertyIndex.unique(skuList, "code");
+ * for (OrderLine orderLine : orderLineList){
+ *     Sku sku = skuIndex.find(orderLine.getSkuCode());
+ *     ...
+ * }
+ *
+ * PropertyIndex{@code <Order>} statusIndex = PropertyIndex.of(orderList, "status");
+ * List{@code <Order>} list = statusIndex.select(1, 2);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>查询结果和 {@link CollectionsUtil} 对应的方法完全一致(属性值使用 equals 比较,结果的顺序是元素原来的顺序)</li>
+ * <li>多个属性名称的时候,查询的值需要传 Object[],元素顺序和属性名称的顺序一致,比如 {@code index.find(new Object[] { 1L, "red" })}</li>
+ * <li>构建之后不会再感知原集合或者元素属性的变化,如果有变化需要重新构建</li>
+ * <li>本类是不可变的,构建之后可以多线程共享</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <O>
+ *            the generic type
+ * @see CollectionsUtil#find(Iterable, String, Object)
+ * @see CollectionsUtil#indexOf(List, String, Object)
+ * @see CollectionsUtil#select(Iterable, String, Object...)
+ * @see CollectionsUtil#selectRejected(Iterable, String, Object...)
+ * @since 2.1.0
+ */
+public final class PropertyIndex<O>{
+
+    /** 属性名称. */
+    private final String[]              propertyNames;
+
+    /** 元素,顺序是构建时的遍历顺序. */
+    private final List<O>               elementList;
+
+    /** 属性值(组合)到元素下标的索引. */
+    private final Map<Object, Positions> positionsMap;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new property index.
+     *
+     * @param propertyNames
+     *            the property names
+     * @param elementList
+     *            the element list
+     * @param positionsMap
+     *            the positions map
+     */
+    private PropertyIndex(String[] propertyNames, List<O> elementList, Map<Object, Positions> positionsMap){
+        this.propertyNames = propertyNames;
+        this.elementList = elementList;
+        this.positionsMap = positionsMap;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 基于 <code>propertyNames</code> 的值构建索引,相同属性值可以对应多个元素.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return the property index
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null,或者 <code>beanIterable</code> 有元素是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty,或者有元素是blank
+     */
+    public static <O> PropertyIndex<O> of(Iterable<O> beanIterable,String...propertyNames){
+        return build(beanIterable, propertyNames, false);
+    }
+
+    /**
+     * 基于 <code>propertyNames</code> 的值构建唯一索引,每个属性值(组合)最多对应一个元素.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return the property index
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null,或者 <code>beanIterable</code> 有元素是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty,或者有元素是blank,或者有多个元素的属性值(组合)相同
+     */
+    public static <O> PropertyIndex<O> unique(Iterable<O> beanIterable,String...propertyNames){
+        return build(beanIterable, propertyNames, true);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 查找第一个属性值是 <code>propertyValue</code> 的元素,和 {@link CollectionsUtil#find(Iterable, String, Object)} 结果一致.
+     *
+     * @param propertyValue
+     *            属性值;多个属性名称的时候是 Object[]
+     * @return 如果没有找到,返回null
+     */
+    public O find(Object propertyValue){
+        Positions positions = positionsMap.get(toKey(propertyValue));
+        return null == positions ? null : elementList.get(positions.get(0));
+    }
+
+    /**
+     * 查找第一个属性值是 <code>propertyValue</code> 的元素的下标(构建时的遍历顺序),和 {@link CollectionsUtil#indexOf(List, String, Object)} 结果一致.
+     *
+     * @param propertyValue
+     *            属性值;多个属性名称的时候是 Object[]
+     * @return 如果没有找到,返回 -1
+     */
+    public int indexOf(Object propertyValue){
+        Positions positions = positionsMap.get(toKey(propertyValue));
+        return null == positions ? -1 : positions.get(0);
+    }
+
+    /**
+     * 查找属性值是 <code>propertyValues</code> 中任意一个的元素,和 {@link CollectionsUtil#select(Iterable, String, Object...)} 结果一致.
+     *
+     * @param propertyValues
+     *            属性值;多个属性名称的时候每个元素是 Object[]
+     * @return 如果 <code>propertyValues</code> 是null或者empty,或者没有找到,返回 {@link java.util.Collections#emptyList()}<br>
+     *         结果的顺序是元素原来的顺序
+     */
+    public List<O> select(Object...propertyValues){
+        return null == propertyValues ? Collections.<O> emptyList() : select(Arrays.asList(propertyValues));
+    }
+
+    /**
+     * 查找属性值是 <code>propertyValueList</code> 中任意一个的元素,和 {@link CollectionsUtil#select(Iterable, String, Collection)} 结果一致.
+     *
+     * @param propertyValueList
+     *            属性值;多个属性名称的时候每个元素是 Object[]
+     * @return 如果 <code>propertyValueList</code> 是null或者empty,或者没有找到,返回 {@link java.util.Collections#emptyList()}<br>
+     *         结果的顺序是元素原来的顺序
+     */
+    public List<O> select(Collection<?> propertyValueList){
+        int[] positions = collectPositions(propertyValueList);
+        if (0 == positions.length){
+            return emptyList();
+        }
+
+        List<O> list = new ArrayList<>(positions.length);
+        for (int position : positions){
+            list.add(elementList.get(position));
+        }
+        return list;
+    }
+
+    /**
+     * 查找属性值不是 <code>propertyValues</code> 中任意一个的元素,和 {@link CollectionsUtil#selectRejected(Iterable, String, Object...)} 结果一致.
+     *
+     * @param propertyValues
+     *            属性值;多个属性名称的时候每个元素是 Object[]
+     * @return 结果的顺序是元素原来的顺序
+     */
+    public List<O> selectRejected(Object...propertyValues){
+        return selectRejected(null == propertyValues ? Collections.<Object> emptyList() : Arrays.asList(propertyValues));
+    }
+
+    /**
+     * 查找属性值不是 <code>propertyValueList</code> 中任意一个的元素,和 {@link CollectionsUtil#selectRejected(Iterable, String, Collection)} 结果一致.
+     *
+     * @param propertyValueList
+     *            属性值;多个属性名称的时候每个元素是 Object[]
+     * @return 结果的顺序是元素原来的顺序
+     */
+    public List<O> selectRejected(Collection<?> propertyValueList){
+        int[] positions = collectPositions(propertyValueList);
+
+        List<O> list = new ArrayList<>(elementList.size() - positions.length);
+        int next = 0;
+        for (int i = 0; i < elementList.size(); ++i){
+            if (next < positions.length && positions[next] == i){
+                ++next;
+                continue;
+            }
+            list.add(elementList.get(i));
+        }
+        return list;
+    }
+
+    /**
+     * 索引的元素个数.
+     *
+     * @return the int
+     */
+    public int size(){
+        return elementList.size();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Builds the.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            the bean iterable
+     * @param propertyNames
+     *            the property names
+     * @param isUnique
+     *            是否是唯一索引
+     * @return the property index
+     */
+    private static <O> PropertyIndex<O> build(Iterable<O> beanIterable,String[] propertyNames,boolean isUnique){
+        Validate.notEmpty(propertyNames, "propertyNames can't be null/empty!");
+        for (String propertyName : propertyNames){
+            Validate.notBlank(propertyName, "propertyName can't be blank!");
+        }
+
+        //---------------------------------------------------------------
+        List<O> elementList = new ArrayList<>();
+        Map<Object, Positions> positionsMap = newHashMap();
+        if (null != beanIterable){
+            for (O obj : beanIterable){
+                Object key = 1 == propertyNames.length ? PropertyUtil.getProperty(obj, propertyNames[0])
+                                : PropertyValuesKey.of(obj, propertyNames);
+
+                Positions positions = positionsMap.get(key);
+                if (null == positions){
+                    positionsMap.put(key, new Positions(elementList.size()));
+                }else{
+                    //只有真的重复的时候才拼接异常信息
+                    if (isUnique){
+                        throw new IllegalArgumentException(Slf4jUtil.format("duplicate key:[{}] of propertyNames:{}", key, propertyNames));
+                    }
+                    positions.add(elementList.size());
+                }
+                elementList.add(obj);
+            }
+        }
+        return new PropertyIndex<>(propertyNames.clone(), elementList, positionsMap);
+    }
+
+    /**
+     * 收集属性值是 <code>propertyValueList</code> 中任意一个的元素下标,从小到大排序,并且不重复.
+     *
+     * @param propertyValueList
+     *            the property value list
+     * @return the int[]
+     */
+    private int[] collectPositions(Collection<?> propertyValueList){
+        if (null == propertyValueList || propertyValueList.isEmpty()){
+            return new int[0];
+        }
+
+        //---------------------------------------------------------------
+        int count = 0;
+        List<Positions> positionsList = new ArrayList<>(propertyValueList.size());
+        Set<Object> keySet = new HashSet<>();
+        for (Object propertyValue : propertyValueList){
+            Object key = toKey(propertyValue);
+            Positions positions = positionsMap.get(key);
+            //重复的值只算一次
+            if (null != positions && keySet.add(key)){
+                positionsList.add(positions);
+                count += positions.size();
+            }
+        }
+
+        //---------------------------------------------------------------
+        int[] result = new int[count];
+        int index = 0;
+        for (Positions positions : positionsList){
+            positions.copyTo(result, index);
+            index += positions.size();
+        }
+        //多个值的时候,恢复元素原来的顺序
+        if (positionsList.size() > 1){
+            Arrays.sort(result);
+        }
+        return result;
+    }
+
+    /**
+     * 查询的属性值转成索引的 key.
+     *
+     * @param propertyValue
+     *            the property value
+     * @return the object
+     */
+    private Object toKey(Object propertyValue){
+        if (1 == propertyNames.length){
+            return propertyValue;
+        }
+
+        //---------------------------------------------------------------
+        Validate.isInstanceOf(
+                        Object[].class,
+                        propertyValue,
+                        "propertyValue must be Object[] when index has multiple propertyNames:%s",
+                        Arrays.toString(propertyNames));
+        Object[] propertyValues = (Object[]) propertyValue;
+        Validate.isTrue(
+                        propertyValues.length == propertyNames.length,
+                        "propertyValue length:[%s] must equals propertyNames length:[%s]",
+                        propertyValues.length,
+                        propertyNames.length);
+        return new PropertyValuesKey(propertyValues);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 同一个属性值的元素下标,从小到大.
+     */
+    private static final class Positions{
+
+        /** The values. */
+        private int[] values;
+
+        /** The size. */
+        private int   size;
+
+        /**
+         * Instantiates a new positions.
+         *
+         * @param first
+         *            the first
+         */
+        private Positions(int first){
+            this.values = new int[] { first };
+            this.size = 1;
+        }
+
+        /**
+         * Adds the.
+         *
+         * @param position
+         *            the position
+         */
+        private void add(int position){
+            if (size == values.length){
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = position;
+        }
+
+        /**
+         * Gets the.
+         *
+         * @param index
+         *            the index
+         * @return the int
+         */
+        private int get(int index){
+            return values[index];
+        }
+
+        /**
+         * Size.
+         *
+         * @return the int
+         */
+        private int size(){
+            return size;
+        }
+
+        /**
+         * Copy to.
+         *
+         * @param dest
+         *            the dest
+         * @param destPos
+         *            the dest pos
+         */
+        private void copyTo(int[] dest,int destPos){
+            System.arraycopy(values, 0, dest, destPos, size);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Arrays;
+
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * 多个属性值组成的组合 key, 可以用作 {@link java.util.HashMap} / {@link java.util.HashSet} 的 key.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>两个 key 相等,当且仅当每个位置的属性值都 {@link java.util.Objects#equals(Object, Object)}</li>
+ * <li>hashCode 在构造的时候计算一次</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class PropertyValuesKey{
+
+    /** 属性值. */
+    private final Object[] values;
+
+    /** The hash code. */
+    private final int      hashCode;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new property values key.
+     *
+     * @param values
+     *            属性值,顺序和属性名称的顺序一致;不会复制,调用方不要再修改
+     */
+    PropertyValuesKey(Object[] values){
+        this.values = values;
+        this.hashCode = Arrays.hashCode(values);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 提取 <code>bean</code> 的 <code>propertyNames</code> 属性值,组成 key.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyNames
+     *            the property names
+     * @return the property values key
+     * @throws NullPointerException
+     *             如果 <code>bean</code> 是null
+     * @see PropertyUtil#getProperty(Object, String)
+     */
+    static PropertyValuesKey of(Object bean,String...propertyNames){
+        Object[] values = new Object[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; ++i){
+            values[i] = PropertyUtil.getProperty(bean, propertyNames[i]);
+        }
+        return new PropertyValuesKey(values);
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode(){
+        return hashCode;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj){
+        if (this == obj){
+            return true;
+        }
+        if (!(obj instanceof PropertyValuesKey)){
+            return false;
+        }
+        PropertyValuesKey other = (PropertyValuesKey) obj;
+        return hashCode == other.hashCode && Arrays.equals(values, other.values);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return Arrays.toString(values);
+    }
+}
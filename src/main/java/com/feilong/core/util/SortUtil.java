@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 
 import org.apache.commons.collections4.ComparatorUtils;
@@ -36,6 +37,7 @@ import org.apache.commons.lang3.Validate;
 import com.feilong.core.util.comparator.BeanComparatorUtil;
 import com.feilong.core.util.comparator.ComparatorUtil;
 import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.core.util.comparator.PropertyKeySorter;
 
 /**
  * 专注于排序的工具类.
@@ -214,6 +216,43 @@ public final class SortUtil{
         return arrays;
     }
 
+    /**
+     * 对 数组 <code>arrays</code> 使用 <code>comparators</code> 进行并行排序.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>排序结果和 {@link #sortArray(Object[], Comparator...)} 完全一致(稳定排序,相等元素的顺序不变;{@link PropertyComparator} null 的排序规则不变)</li>
+     * <li>数组长度小于 8192 的时候,直接使用 {@link java.util.Arrays#sort(Object[], Comparator) Arrays.sort}串行排序</li>
+     * <li>否则拆分成多段,使用 {@link java.util.concurrent.ForkJoinPool ForkJoinPool} 并行排序,再归并;适合元素多,并且比较比较耗时(比如 {@link PropertyComparator})的场景</li>
+     * <li>需要额外 O(n) 的内存</li>
+     * <li><code>comparators</code> 需要是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param arrays
+     *            the arrays
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>array</code> 是null,返回 empty array<br>
+     *         如果 <code>comparators</code> 是null或者empty,直接返回 <code>arrays</code><br>
+     * @see #sortArray(Object[], Comparator...)
+     * @since 2.1.0
+     */
+    @SafeVarargs
+    public static <T> T[] parallelSortArray(T[] arrays,Comparator<T>...comparators){
+        if (null == arrays){
+            return toArray();
+        }
+        if (isNullOrEmpty(comparators)){
+            return arrays;
+        }
+        ParallelMergeSorter.sort(arrays, toComparator(comparators));
+        return arrays;
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -531,6 +570,53 @@ public final class SortUtil{
         return list;
     }
 
+    /**
+     * 对 集合 <code>list</code> 使用 <code>comparators</code> 进行并行排序.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>排序结果和 {@link #sortList(List, Comparator...)} 完全一致(稳定排序,相等元素的顺序不变;{@link PropertyComparator} null 的排序规则不变)</li>
+     * <li>和 {@link java.util.Collections#sort(List, Comparator) Collections.sort} 一样,先转成数组排序,再回写到 <code>list</code></li>
+     * <li>元素个数小于 8192 的时候,直接串行排序,否则使用 {@link java.util.concurrent.ForkJoinPool ForkJoinPool} 并行归并排序</li>
+     * <li><code>comparators</code> 需要是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>comparators</code> 是null或者empty,直接返回 <code>list</code><br>
+     * @see #sortList(List, Comparator...)
+     * @since 2.1.0
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <O> List<O> parallelSortList(List<O> list,Comparator<O>...comparators){
+        if (null == list){
+            return emptyList();
+        }
+
+        if (isNullOrEmpty(comparators)){
+            return list;
+        }
+
+        Object[] arrays = list.toArray();
+        ParallelMergeSorter.sort((O[]) arrays, toComparator(comparators));
+
+        //和 Collections.sort 一样回写
+        ListIterator<O> listIterator = list.listIterator();
+        for (Object obj : arrays){
+            listIterator.next();
+            listIterator.set((O) obj);
+        }
+        return list;
+    }
+
     /**
      * 如果 <code>comparators length ==1</code>,返回 comparators[0]; 否则返回 {@link ComparatorUtils#chainedComparator(Comparator...)};
      *
@@ -646,6 +732,7 @@ public final class SortUtil{
      * @see BeanComparatorUtil#chainedComparator(String...)
      * @see org.apache.commons.collections4.ComparatorUtils#chainedComparator(java.util.Comparator...)
      * @see #sortList(List, Comparator...)
+     * @see PropertyKeySorter#sort(List, String...)
      * @since 1.8.7 change name
      */
     public static <O> List<O> sortListByPropertyNamesValue(List<O> list,String...propertyNameAndOrders){
@@ -655,8 +742,8 @@ public final class SortUtil{
         Validate.notEmpty(propertyNameAndOrders, "propertyNameAndOrders can't be null/empty!");
         Validate.noNullElements(propertyNameAndOrders, "propertyNameAndOrders:[%s] has empty value", propertyNameAndOrders);
 
-        Comparator<O> comparator = BeanComparatorUtil.chainedComparator(propertyNameAndOrders);
-        return sortList(list, comparator);
+        //since 2.1.0 每个元素的排序属性只提取一次,不再每次比较都反射取值
+        return PropertyKeySorter.sort(list, propertyNameAndOrders);
     }
 
     //---------------------------------------------------------------
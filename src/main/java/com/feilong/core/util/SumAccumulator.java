@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+
+import java.math.BigDecimal;
+
+/**
+ * 总和累加器,整数使用 <code>long</code> 累加,只在最后生成一次 {@link BigDecimal}.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>{@link Integer},{@link Long},{@link Short},{@link Byte} 使用 <code>long</code> 累加,溢出的时候把已经累加的值转移到 {@link BigDecimal} 中,继续使用 <code>long</code>
+ * 累加</li>
+ * <li>其他类型(比如 {@link BigDecimal},{@link Double})和原来一样,使用 {@link com.feilong.core.bean.ConvertUtil#toBigDecimal(Object)} 转换之后使用
+ * {@link BigDecimal#add(BigDecimal)} 累加,保证精度</li>
+ * <li>{@link BigDecimal} 加法是精确的,所以结果(包括 scale)和全部使用 {@link BigDecimal} 累加完全一致</li>
+ * <li>null 值忽略(当做 0)</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+final class SumAccumulator{
+
+    /** 整数部分的总和. */
+    private long       longSum;
+
+    /** 非整数值以及 long 溢出部分的总和,没有的时候是null. */
+    private BigDecimal bigDecimalSum;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 累加 <code>value</code>.
+     *
+     * @param value
+     *            如果是null,忽略
+     */
+    void add(Number value){
+        if (null == value){
+            return;
+        }
+        if (isIntegral(value)){
+            addLong(value.longValue());
+            return;
+        }
+        BigDecimal bigDecimal = toBigDecimal(value);
+        bigDecimalSum = null == bigDecimalSum ? bigDecimal : bigDecimalSum.add(bigDecimal);
+    }
+
+    /**
+     * 合并另外一个累加器(比如并行计算的时候,合并每段的结果).
+     *
+     * @param other
+     *            the other
+     */
+    void add(SumAccumulator other){
+        addLong(other.longSum);
+        if (null != other.bigDecimalSum){
+            bigDecimalSum = null == bigDecimalSum ? other.bigDecimalSum : bigDecimalSum.add(other.bigDecimalSum);
+        }
+    }
+
+    /**
+     * 获得总和.
+     *
+     * @return 如果没有累加过任何非null的值,返回 {@link BigDecimal#ZERO}
+     */
+    BigDecimal getSum(){
+        //和原来从 0 开始累加一样, 结果的 scale 不会小于 0
+        BigDecimal sum = BigDecimal.valueOf(longSum);
+        return null == bigDecimalSum ? sum : sum.add(bigDecimalSum);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 long 累加,溢出的时候转移到 {@link #bigDecimalSum}.
+     *
+     * @param value
+     *            the value
+     */
+    private void addLong(long value){
+        long result = longSum + value;
+        //两个加数符号相同,而结果符号不同,说明溢出, see Math.addExact(long, long) (jdk8)
+        if (((longSum ^ result) & (value ^ result)) < 0){
+            BigDecimal overflow = BigDecimal.valueOf(longSum).add(BigDecimal.valueOf(value));
+            bigDecimalSum = null == bigDecimalSum ? overflow : bigDecimalSum.add(overflow);
+            longSum = 0;
+            return;
+        }
+        longSum = result;
+    }
+
+    /**
+     * 是否是可以使用 long 精确累加的类型.
+     *
+     * @param value
+     *            the value
+     * @return true, if is integral
+     */
+    private static boolean isIntegral(Number value){
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+}
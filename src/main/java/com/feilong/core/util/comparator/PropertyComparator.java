@@ -426,14 +426,43 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
         }
 
         //---------------------------------------------------------------------
-        Comparable propertyValue1 = PropertyUtil.getProperty(t1, propertyName);
-        Comparable propertyValue2 = PropertyUtil.getProperty(t2, propertyName);
+        return compareValue(t1, t2, extractValue(t1), extractValue(t2));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 提取 <code>t</code> 的 {@link #propertyName} 属性值,如果有 {@link #propertyValueConvertToClass},那么转换类型.
+     *
+     * @param t
+     *            the t
+     * @return the comparable
+     * @since 2.1.0
+     */
+    @SuppressWarnings("rawtypes")
+    Comparable extractValue(T t){
+        Comparable propertyValue = PropertyUtil.getProperty(t, propertyName);
 
         //如果值需要类型转换
-        if (null != propertyValueConvertToClass){
-            propertyValue1 = ConvertUtil.convert(propertyValue1, propertyValueConvertToClass);
-            propertyValue2 = ConvertUtil.convert(propertyValue2, propertyValueConvertToClass);
-        }
+        return null == propertyValueConvertToClass ? propertyValue : ConvertUtil.convert(propertyValue, propertyValueConvertToClass);
+    }
+
+    /**
+     * 比较已经提取出来的属性值,<code>t1</code> 和 <code>t2</code> 都不是null.
+     *
+     * @param t1
+     *            the t 1
+     * @param t2
+     *            the t 2
+     * @param propertyValue1
+     *            t1 的属性值,see {@link #extractValue(Object)}
+     * @param propertyValue2
+     *            t2 的属性值,see {@link #extractValue(Object)}
+     * @return the int
+     * @since 2.1.0
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    int compareValue(T t1,T t2,Comparable propertyValue1,Comparable propertyValue2){
         return null == comparator ? compare(t1, t2, propertyValue1, propertyValue2) : comparator.compare(propertyValue1, propertyValue2);
     }
 
@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.comparator;
+
+import static com.feilong.core.util.comparator.SortHelper.isAsc;
+import static java.util.Collections.emptyList;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * 先提取排序属性值(decorate),再排序,最后按照排序结果回写 list(undecorate).
+ *
+ * <p>
+ * 使用 {@link PropertyComparator} 或者 {@link BeanComparatorUtil#chainedComparator(String...)} 直接排序的时候,每次比较都要反射取两次属性值(以及类型转换),
+ * 一共是 O(n log n) 次反射;使用本类,每个元素的每个排序属性只提取(转换)一次,一共是 O(n) 次反射.
+ * </p>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>排序结果和直接使用对应的 {@link Comparator} 调用 {@link Collections#sort(List, Comparator)} 完全一致(包括 null 元素,null 属性值,相等值的顺序)</li>
+ * <li>排序是稳定的</li>
+ * <li>需要额外 O(n) 的内存保存属性值</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PropertyComparator
+ * @see BeanComparatorUtil#chainedComparator(String...)
+ * @since 2.1.0
+ */
+public final class PropertyKeySorter{
+
+    /** Don't let anyone instantiate this class. */
+    private PropertyKeySorter(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 对集合 <code>list</code>,按照指定属性的值(组合)进行排序, 结果和 {@link BeanComparatorUtil#chainedComparator(String...)} 排序一致.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyNameAndOrders
+     *            属性名称和排序因子, 比如 "name" 或者 "name desc"
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @throws NullPointerException
+     *             如果 <code>propertyNameAndOrders</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNameAndOrders</code> 是empty ,或者有 blank元素
+     * @see BeanComparatorUtil#chainedComparator(String...)
+     */
+    public static <O> List<O> sort(List<O> list,String...propertyNameAndOrders){
+        if (null == list){
+            return emptyList();
+        }
+        Validate.notEmpty(propertyNameAndOrders, "propertyNameAndOrders can't be null/empty!");
+
+        //和 BeanComparatorUtil.chainedComparator 一致, 单值使用 PropertyComparator 的规则
+        if (1 == propertyNameAndOrders.length){
+            Validate.notBlank(propertyNameAndOrders[0], "propertyNameAndOrder can't be blank!");
+            String[] propertyNameAndOrderArray = SortHelper.parsePropertyNameAndOrder(propertyNameAndOrders[0]);
+            return sort(list, new PropertyComparator<O>(propertyNameAndOrderArray[0]), isAsc(propertyNameAndOrderArray));
+        }
+
+        //---------------------------------------------------------------
+        int length = propertyNameAndOrders.length;
+        String[] propertyNames = new String[length];
+        boolean[] ascs = new boolean[length];
+        for (int i = 0; i < length; ++i){
+            Validate.notBlank(propertyNameAndOrders[i], "propertyNameAndOrder can't be blank!");
+            String[] propertyNameAndOrderArray = SortHelper.parsePropertyNameAndOrder(propertyNameAndOrders[i]);
+            propertyNames[i] = propertyNameAndOrderArray[0];
+            ascs[i] = isAsc(propertyNameAndOrderArray);
+        }
+
+        //---------------------------------------------------------------
+        if (list.size() < 2){
+            return list;
+        }
+        //null 元素, 原来的比较器会抛出异常, 交给原来的比较器处理
+        if (list.contains(null)){
+            Collections.sort(list, BeanComparatorUtil.<O> chainedComparator(propertyNameAndOrders));
+            return list;
+        }
+
+        //---------------------------------------------------------------
+        Entry<O>[] entries = newEntries(list.size());
+        int index = 0;
+        for (O obj : list){
+            Object[] keys = new Object[length];
+            for (int i = 0; i < length; ++i){
+                keys[i] = PropertyUtil.getProperty(obj, propertyNames[i]);
+            }
+            entries[index++] = new Entry<>(obj, keys, null);
+        }
+        Arrays.sort(entries, new ChainedEntryComparator<O>(ascs));
+        return writeBack(list, entries);
+    }
+
+    /**
+     * 对集合 <code>list</code>,按照 <code>propertyComparator</code> 的规则正序排序,结果和 {@code Collections.sort(list, propertyComparator)} 一致.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyComparator
+     *            the property comparator
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @throws NullPointerException
+     *             如果 <code>propertyComparator</code> 是null
+     */
+    public static <O> List<O> sort(List<O> list,PropertyComparator<O> propertyComparator){
+        return sort(list, propertyComparator, true);
+    }
+
+    /**
+     * 对集合 <code>list</code>,按照 <code>propertyComparator</code> 的规则排序.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyComparator
+     *            the property comparator
+     * @param isAsc
+     *            如果是false,结果和 {@code Collections.sort(list, new ReverseComparator(propertyComparator))} 一致
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @throws NullPointerException
+     *             如果 <code>propertyComparator</code> 是null
+     */
+    public static <O> List<O> sort(List<O> list,PropertyComparator<O> propertyComparator,boolean isAsc){
+        if (null == list){
+            return emptyList();
+        }
+        Validate.notNull(propertyComparator, "propertyComparator can't be null!");
+
+        if (list.size() < 2){
+            return list;
+        }
+
+        //---------------------------------------------------------------
+        Entry<O>[] entries = newEntries(list.size());
+        int index = 0;
+        for (O obj : list){
+            entries[index++] = new Entry<>(obj, null, null == obj ? null : propertyComparator.extractValue(obj));
+        }
+        Arrays.sort(entries, new PropertyEntryComparator<>(propertyComparator, isAsc));
+        return writeBack(list, entries);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * New entries.
+     *
+     * @param <O>
+     *            the generic type
+     * @param size
+     *            the size
+     * @return the entry[]
+     */
+    @SuppressWarnings("unchecked")
+    private static <O> Entry<O>[] newEntries(int size){
+        return (Entry<O>[]) new Entry<?>[size];
+    }
+
+    /**
+     * 按照排序之后的 <code>entries</code> 回写 <code>list</code>.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param entries
+     *            the entries
+     * @return the list
+     * @see java.util.Collections#sort(List, Comparator)
+     */
+    private static <O> List<O> writeBack(List<O> list,Entry<O>[] entries){
+        ListIterator<O> listIterator = list.listIterator();
+        for (Entry<O> entry : entries){
+            listIterator.next();
+            listIterator.set(entry.obj);
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 元素以及提取出来的属性值.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class Entry<O>{
+
+        /** 元素. */
+        private final O          obj;
+
+        /** 多个属性的值. */
+        private final Object[]   keys;
+
+        /** 单个属性的值. */
+        @SuppressWarnings("rawtypes")
+        private final Comparable key;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param obj
+         *            the obj
+         * @param keys
+         *            the keys
+         * @param key
+         *            the key
+         */
+        @SuppressWarnings("rawtypes")
+        private Entry(O obj, Object[] keys, Comparable key){
+            this.obj = obj;
+            this.keys = keys;
+            this.key = key;
+        }
+    }
+
+    /**
+     * 和 {@link PropertyComparator#compare(Object, Object)} 规则一致.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class PropertyEntryComparator<O> implements Comparator<Entry<O>>{
+
+        /** The property comparator. */
+        private final PropertyComparator<O> propertyComparator;
+
+        /** The is asc. */
+        private final boolean               isAsc;
+
+        /**
+         * Instantiates a new property entry comparator.
+         *
+         * @param propertyComparator
+         *            the property comparator
+         * @param isAsc
+         *            the is asc
+         */
+        private PropertyEntryComparator(PropertyComparator<O> propertyComparator, boolean isAsc){
+            this.propertyComparator = propertyComparator;
+            this.isAsc = isAsc;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public int compare(Entry<O> entry1,Entry<O> entry2){
+            return isAsc ? doCompare(entry1, entry2) : doCompare(entry2, entry1);
+        }
+
+        /**
+         * Do compare.
+         *
+         * @param entry1
+         *            the entry 1
+         * @param entry2
+         *            the entry 2
+         * @return the int
+         */
+        private int doCompare(Entry<O> entry1,Entry<O> entry2){
+            if (entry1.obj == entry2.obj){
+                return 0;
+            }else if (null == entry1.obj){//null 排在后面
+                return 1;
+            }else if (null == entry2.obj){
+                return -1;
+            }
+            return propertyComparator.compareValue(entry1.obj, entry2.obj, entry1.key, entry2.key);
+        }
+    }
+
+    /**
+     * 和 {@link BeanComparatorUtil#chainedComparator(String...)} 规则一致, null 属性值排在后面(倒序的时候排在前面).
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class ChainedEntryComparator<O> implements Comparator<Entry<O>>{
+
+        /** 每个属性是否正序. */
+        private final boolean[] ascs;
+
+        /**
+         * Instantiates a new chained entry comparator.
+         *
+         * @param ascs
+         *            the ascs
+         */
+        private ChainedEntryComparator(boolean[] ascs){
+            this.ascs = ascs;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public int compare(Entry<O> entry1,Entry<O> entry2){
+            for (int i = 0; i < ascs.length; ++i){
+                int result = ascs[i] ? compareKey(entry1.keys[i], entry2.keys[i]) : compareKey(entry2.keys[i], entry1.keys[i]);
+                if (0 != result){
+                    return result;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * null 大于非 null.
+         *
+         * @param key1
+         *            the key 1
+         * @param key2
+         *            the key 2
+         * @return the int
+         * @see org.apache.commons.collections4.ComparatorUtils#nullHighComparator(Comparator)
+         * @see org.apache.commons.collections4.comparators.ComparableComparator
+         */
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        private static int compareKey(Object key1,Object key2){
+            if (null == key1){
+                return null == key2 ? 0 : 1;
+            }
+            if (null == key2){
+                return -1;
+            }
+            return ((Comparable) key1).compareTo(key2);
+        }
+    }
+}
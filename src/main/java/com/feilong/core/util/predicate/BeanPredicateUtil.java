@@ -15,8 +15,6 @@
  */
 package com.feilong.core.util.predicate;
 
-import static com.feilong.core.Validator.isNotNullOrEmpty;
-
 import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Comparator;
@@ -365,6 +363,7 @@ public final class BeanPredicateUtil{
      * {@link AggregateUtil#groupCount(Iterable, String, Predicate) groupCount},
      * {@link AggregateUtil#sum(Iterable, String, Predicate) sum} 等方法.
      * </li>
+     * <li><code>propertyValues</code> 比较多(比如几千个 id)的时候,会预先构建 hash 结构,每次判断是 O(1),而不是遍历 <code>propertyValues</code></li>
      * </ol>
      * </blockquote>
      * 
@@ -384,13 +383,7 @@ public final class BeanPredicateUtil{
     @SafeVarargs
     public static <T, V> Predicate<T> containsPredicate(final String propertyName,final V...propertyValues){
         Validate.notBlank(propertyName, "propertyName can't be blank!");
-        return new BeanPredicate<>(propertyName, new Predicate<V>(){
-
-            @Override
-            public boolean evaluate(V propertyValue){
-                return org.apache.commons.lang3.ArrayUtils.contains(propertyValues, propertyValue);
-            }
-        });
+        return new BeanPredicate<>(propertyName, ContainsValuePredicate.of(propertyValues));
     }
 
     /**
@@ -407,6 +400,8 @@ public final class BeanPredicateUtil{
      * {@link AggregateUtil#groupCount(Iterable, String, Predicate) groupCount},
      * {@link AggregateUtil#sum(Iterable, String, Predicate) sum} 等方法.
      * </li>
+     * <li><code>propertyValueList</code> 不是 {@link java.util.Set} 并且比较多(比如几千个 id)的时候,会预先复制成 hash 结构,每次判断是 O(1);
+     * 因此创建 predicate 之后再修改 <code>propertyValueList</code> 不会影响结果</li>
      * </ol>
      * </blockquote>
      *
@@ -425,13 +420,7 @@ public final class BeanPredicateUtil{
      */
     public static <T, V> Predicate<T> containsPredicate(final String propertyName,final Collection<V> propertyValueList){
         Validate.notBlank(propertyName, "propertyName can't be blank!");
-        return new BeanPredicate<>(propertyName, new Predicate<V>(){
-
-            @Override
-            public boolean evaluate(V propertyValue){
-                return isNotNullOrEmpty(propertyValueList) && propertyValueList.contains(propertyValue);
-            }
-        });
+        return new BeanPredicate<>(propertyName, ContainsValuePredicate.of(propertyValueList));
     }
 
     //---------------------------------------------------------------
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.predicate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * 判断值是否在指定的多个值中,值比较多的时候预先构建 hash 结构,每次判断是 O(1).
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>值的个数不超过 {@link #MAX_LINEAR_SIZE} 的时候,和原来一样线性查找</li>
+ * <li>值全部是同一种整数类型({@link Long},{@link Integer},{@link Short},{@link Byte})的时候,使用 long 开放寻址表,不需要 Entry 对象,也不需要调用 equals</li>
+ * <li>其他情况使用 {@link HashSet},比较依然是 {@link Object#equals(Object)},所以结果和线性查找一致</li>
+ * <li>如果传入的本来就是 {@link Set},直接使用它的 {@link Set#contains(Object)},保持原来的比较语义(比如 TreeSet 的 comparator)</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <V>
+ *            the value type
+ * @since 2.1.0
+ */
+final class ContainsValuePredicate<V> implements Predicate<V>{
+
+    /** 值的个数不超过这个数量的时候,线性查找比构建 hash 结构更划算. */
+    static final int            MAX_LINEAR_SIZE = 16;
+
+    //---------------------------------------------------------------
+
+    /** 值全部是同一种整数类型的时候,是这个类型;否则是null. */
+    private final Class<?>      integralType;
+
+    /** {@link #integralType} 不是null的时候使用. */
+    private final LongHashSet   longHashSet;
+
+    /** {@link #integralType} 是null的时候使用. */
+    private final Collection<?> valueCollection;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new contains value predicate.
+     *
+     * @param integralType
+     *            the integral type
+     * @param longHashSet
+     *            the long hash set
+     * @param valueCollection
+     *            the value collection
+     */
+    private ContainsValuePredicate(Class<?> integralType, LongHashSet longHashSet, Collection<?> valueCollection){
+        this.integralType = integralType;
+        this.longHashSet = longHashSet;
+        this.valueCollection = valueCollection;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 判断值是否在 <code>values</code> 中,结果和 {@link ArrayUtils#contains(Object[], Object)} 一致.
+     *
+     * @param <V>
+     *            the value type
+     * @param values
+     *            the values
+     * @return the predicate
+     */
+    static <V> Predicate<V> of(final V[] values){
+        if (null == values || values.length <= MAX_LINEAR_SIZE){
+            return new Predicate<V>(){
+
+                @Override
+                public boolean evaluate(V value){
+                    return ArrayUtils.contains(values, value);
+                }
+            };
+        }
+        return build(Arrays.asList(values));
+    }
+
+    /**
+     * 判断值是否在 <code>valueCollection</code> 中,结果和 {@link Collection#contains(Object)} 一致.
+     *
+     * <p>
+     * 不是 {@link Set} 并且值比较多的时候,会在这里复制一份,之后对 <code>valueCollection</code> 的修改不会影响返回的 predicate.
+     * </p>
+     *
+     * @param <V>
+     *            the value type
+     * @param valueCollection
+     *            the value collection
+     * @return the predicate
+     */
+    static <V> Predicate<V> of(final Collection<V> valueCollection){
+        if (null == valueCollection || valueCollection instanceof Set || valueCollection.size() <= MAX_LINEAR_SIZE){
+            return new Predicate<V>(){
+
+                @Override
+                public boolean evaluate(V value){
+                    return null != valueCollection && valueCollection.contains(value);
+                }
+            };
+        }
+        return build(valueCollection);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 构建 hash 结构.
+     *
+     * @param <V>
+     *            the value type
+     * @param values
+     *            the values
+     * @return the contains value predicate
+     */
+    private static <V> ContainsValuePredicate<V> build(Collection<V> values){
+        Class<?> integralType = getIntegralType(values);
+        if (null == integralType){
+            return new ContainsValuePredicate<>(null, null, new HashSet<>(values));
+        }
+
+        LongHashSet longHashSet = new LongHashSet(values.size());
+        for (V value : values){
+            longHashSet.add(((Number) value).longValue());
+        }
+        return new ContainsValuePredicate<>(integralType, longHashSet, null);
+    }
+
+    /**
+     * 如果值全部是同一种整数类型,返回这个类型.
+     *
+     * @param values
+     *            the values
+     * @return 否则返回null
+     */
+    private static Class<?> getIntegralType(Collection<?> values){
+        Class<?> integralType = null;
+        for (Object value : values){
+            if (null == value){
+                return null;
+            }
+            Class<?> klass = value.getClass();
+            if (null == integralType){
+                if (klass != Long.class && klass != Integer.class && klass != Short.class && klass != Byte.class){
+                    return null;
+                }
+                integralType = klass;
+            }else if (klass != integralType){
+                return null;
+            }
+        }
+        return integralType;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.commons.collections4.Predicate#evaluate(java.lang.Object)
+     */
+    @Override
+    public boolean evaluate(V value){
+        if (null == integralType){
+            return valueCollection.contains(value);
+        }
+        //Long.equals(Integer) 是 false,所以类型必须完全相同
+        return null != value && value.getClass() == integralType && longHashSet.contains(((Number) value).longValue());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * long 开放寻址(线性探测)集合,只支持添加和查找.
+     */
+    private static final class LongHashSet{
+
+        /** 空槽位的标记, 0 本身使用 {@link #hasZero} 记录. */
+        private static final long EMPTY = 0L;
+
+        /** The table. */
+        private final long[]      table;
+
+        /** table.length - 1. */
+        private final int         mask;
+
+        /** 是否包含 0. */
+        private boolean           hasZero;
+
+        /**
+         * Instantiates a new long hash set.
+         *
+         * @param expectedSize
+         *            the expected size
+         */
+        private LongHashSet(int expectedSize){
+            //负载因子不超过 0.5
+            int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+            this.table = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * Adds the.
+         *
+         * @param value
+         *            the value
+         */
+        private void add(long value){
+            if (EMPTY == value){
+                hasZero = true;
+                return;
+            }
+            int index = indexFor(value);
+            while (EMPTY != table[index]){
+                if (table[index] == value){
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            table[index] = value;
+        }
+
+        /**
+         * Contains.
+         *
+         * @param value
+         *            the value
+         * @return true, if successful
+         */
+        private boolean contains(long value){
+            if (EMPTY == value){
+                return hasZero;
+            }
+            int index = indexFor(value);
+            while (EMPTY != table[index]){
+                if (table[index] == value){
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        /**
+         * 打散之后的下标, 连续的 id 也能分散开.
+         *
+         * @param value
+         *            the value
+         * @return the int
+         */
+        private int indexFor(long value){
+            long hash = value * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
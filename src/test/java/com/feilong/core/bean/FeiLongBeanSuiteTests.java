@@ -19,6 +19,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.feilong.core.bean.beancopiertest.FeiLongBeanCopierSuiteTests;
 import com.feilong.core.bean.beanutiltest.FeiLongBeanUtilSuiteTests;
 import com.feilong.core.bean.convertutiltest.FeiLongConvertUtilSuiteTests;
 import com.feilong.core.bean.propertyValueobtainer.FeiLongPropertyValueObtainerSuiteTests;
@@ -32,6 +33,7 @@ import com.feilong.core.bean.propertyutiltest.FeiLongPropertyUtilSuiteTests;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ //
+                FeiLongBeanCopierSuiteTests.class,
                 FeiLongBeanUtilSuiteTests.class,
                 FeiLongConvertUtilSuiteTests.class,
                 FeiLongPropertyUtilSuiteTests.class,
@@ -0,0 +1,394 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.beancopiertest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.beans.Introspector;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanCopier;
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.bean.BeanUtil;
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * The Class BeanCopierTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class BeanCopierTest{
+
+    @Test
+    public void testCreateCache(){
+        assertSame(BeanCopier.create(UserForm.class, User.class, "name"), BeanCopier.create(UserForm.class, User.class, "name"));
+        assertSame(BeanCopier.create(UserForm.class, User.class), BeanCopier.create(UserForm.class, User.class, (String[]) null));
+    }
+
+    @Test
+    public void testCopyAll(){
+        UserForm userForm = buildUserForm();
+
+        User user = new User();
+        BeanCopier.create(UserForm.class, User.class).copy(user, userForm);
+
+        assertEquals("feilong", user.getName());
+        assertEquals(Integer.valueOf(18), user.getAge());
+        assertEquals(new BigDecimal("10.50"), user.getMoney());
+        assertArrayEquals(userForm.getNickNames(), user.getNickNames());
+        assertSame(userForm.getAddress(), user.getAddress());
+        //UserForm 中没有 id 属性
+        assertNull(user.getId());
+    }
+
+    @Test
+    public void testCopyIncludePropertyNames(){
+        UserForm userForm = buildUserForm();
+
+        User user = new User();
+        user.setAddress(new Address());
+        BeanCopier.create(UserForm.class, User.class, "name", "address.city").copy(user, userForm);
+
+        assertEquals("feilong", user.getName());
+        assertNull(user.getAge());
+        assertEquals("shanghai", user.getAddress().getCity());
+    }
+
+    /**
+     * 目标对象 nested 属性中间值是 null, 抛出异常.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testCopyToNullNested(){
+        BeanCopier.create(UserForm.class, User.class, "address.city").copy(new User(), buildUserForm());
+    }
+
+    @Test
+    public void testCopyMap(){
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "feilong");
+        map.put("age", 18);
+
+        User user = new User();
+        PropertyUtil.copyProperties(user, map);
+
+        assertEquals("feilong", user.getName());
+        assertEquals(Integer.valueOf(18), user.getAge());
+    }
+
+    /**
+     * 不进行类型转换, 同名不同类型的属性抛出异常.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testCopyTypeMismatch(){
+        PropertyUtil.copyProperties(new User(), new StringUser("18"), "age");
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testCopyAllTypeMismatch(){
+        PropertyUtil.copyProperties(new User(), new StringUser("18"));
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testCopyFromNotExistProperty(){
+        PropertyUtil.copyProperties(new User(), buildUserForm(), "id");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCopyNotInstance(){
+        BeanCopier.create(UserForm.class, User.class).copy(new User(), new StringUser("18"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCopyNullFromObj(){
+        BeanCopier.create(UserForm.class, User.class).copy(new User(), null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCreateNullFromClass(){
+        BeanCopier.create(null, User.class);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testCopyWithConvertAll(){
+        User user = new User();
+        BeanUtil.copyProperties(user, new StringUser("18"));
+        assertEquals(Integer.valueOf(18), user.getAge());
+
+        UserForm userForm = buildUserForm();
+        BeanUtil.copyProperties(user, userForm);
+        assertEquals("feilong", user.getName());
+        assertEquals(new BigDecimal("10.50"), user.getMoney());
+        assertSame(userForm.getAddress(), user.getAddress());
+        assertArrayEquals(userForm.getNickNames(), user.getNickNames());
+    }
+
+    @Test
+    public void testCopyWithConvertIncludePropertyNames(){
+        User user = new User();
+        BeanUtil.copyProperties(user, new StringUser("18"), "age");
+        assertEquals(Integer.valueOf(18), user.getAge());
+
+        BeanUtil.copyProperties(user, buildUserForm(), "name", "money");
+        assertEquals("feilong", user.getName());
+        assertEquals(new BigDecimal("10.50"), user.getMoney());
+    }
+
+    /**
+     * 指定属性的时候数组经过 String 转换只剩下第一个元素.
+     */
+    @Test
+    public void testCopyWithConvertArray(){
+        User user = new User();
+        BeanUtil.copyProperties(user, buildUserForm(), "nickNames");
+        assertArrayEquals(new String[] { "feilong" }, user.getNickNames());
+    }
+
+    /**
+     * 目标对象没有的属性跳过.
+     */
+    @Test
+    public void testCopyWithConvertToNotExistProperty(){
+        UserForm userForm = new UserForm();
+        BeanUtil.copyProperties(userForm, new User(), "id", "name");
+        assertNull(userForm.getName());
+    }
+
+    /**
+     * 从缓存取复制器的时候, 重新注册过的 Converter 生效.
+     */
+    @Test
+    public void testCopyWithConvertAfterRegisterConverter(){
+        User user = new User();
+        BeanUtil.copyProperties(user, buildUserForm());
+        assertEquals(Integer.valueOf(18), user.getAge());
+
+        Converter integerConverter = ConvertUtils.lookup(Integer.class);
+        try{
+            ConvertUtils.register(new Converter(){
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> T convert(Class<T> type,Object value){
+                    return (T) Integer.valueOf(99);
+                }
+            }, Integer.class);
+
+            BeanUtil.copyProperties(user, buildUserForm());
+            assertEquals(Integer.valueOf(99), user.getAge());
+        }finally{
+            ConvertUtils.register(integerConverter, Integer.class);
+        }
+
+        BeanUtil.copyProperties(user, buildUserForm());
+        assertEquals(Integer.valueOf(18), user.getAge());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * fromClass 在父 classloader, toClass 在子 classloader, 缓存不会导致子 classloader 不能回收.
+     */
+    @Test
+    public void testNotPinChildClassLoader() throws Exception{
+        WeakReference<ClassLoader> classLoaderReference = copyWithChildClassLoader();
+        for (int i = 0; i < 50 && null != classLoaderReference.get(); ++i){
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(classLoaderReference.get());
+    }
+
+    private static WeakReference<ClassLoader> copyWithChildClassLoader() throws Exception{
+        ClassLoader classLoader = new ChildFirstClassLoader(User.class);
+        Class<?> userClass = classLoader.loadClass(User.class.getName());
+        assertNotSame(User.class, userClass);
+
+        Object user = userClass.newInstance();
+        BeanCopier.create(UserForm.class, userClass).copy(user, buildUserForm());
+        assertEquals("feilong", PropertyUtil.getProperty(user, "name"));
+
+        Object convertUser = userClass.newInstance();
+        BeanCopier.createWithConvert(UserForm.class, userClass, "age").copy(convertUser, buildUserForm());
+        assertEquals(Integer.valueOf(18), PropertyUtil.getProperty(convertUser, "age"));
+
+        //jdk Introspector 以及 commons-beanutils 自己的缓存也会引用 userClass, 清掉之后只剩下 BeanCopier 的缓存
+        Introspector.flushCaches();
+        PropertyUtils.clearDescriptors();
+        return new WeakReference<>(classLoader);
+    }
+
+    //---------------------------------------------------------------
+
+    private static UserForm buildUserForm(){
+        Address address = new Address();
+        address.setCity("shanghai");
+
+        UserForm userForm = new UserForm();
+        userForm.setName("feilong");
+        userForm.setAge(18);
+        userForm.setMoney(new BigDecimal("10.50"));
+        userForm.setNickNames(new String[] { "feilong", "venusdrogon" });
+        userForm.setAddress(address);
+        return userForm;
+    }
+
+    //---------------------------------------------------------------
+
+    public static class UserForm{
+
+        private String     name;
+
+        private Integer    age;
+
+        private BigDecimal money;
+
+        private String[]   nickNames;
+
+        private Address    address;
+
+        public String getName(){
+            return name;
+        }
+
+        public void setName(String name){
+            this.name = name;
+        }
+
+        public Integer getAge(){
+            return age;
+        }
+
+        public void setAge(Integer age){
+            this.age = age;
+        }
+
+        public BigDecimal getMoney(){
+            return money;
+        }
+
+        public void setMoney(BigDecimal money){
+            this.money = money;
+        }
+
+        public String[] getNickNames(){
+            return nickNames;
+        }
+
+        public void setNickNames(String[] nickNames){
+            this.nickNames = nickNames;
+        }
+
+        public Address getAddress(){
+            return address;
+        }
+
+        public void setAddress(Address address){
+            this.address = address;
+        }
+    }
+
+    public static class User extends UserForm{
+
+        private Long id;
+
+        public Long getId(){
+            return id;
+        }
+
+        public void setId(Long id){
+            this.id = id;
+        }
+    }
+
+    public static class StringUser{
+
+        private final String age;
+
+        public StringUser(String age){
+            this.age = age;
+        }
+
+        public String getAge(){
+            return age;
+        }
+    }
+
+    /**
+     * 自己加载 <code>klass</code>, 其他的类交给父 classloader.
+     */
+    private static class ChildFirstClassLoader extends ClassLoader{
+
+        private final Class<?> klass;
+
+        private ChildFirstClassLoader(Class<?> klass){
+            super(klass.getClassLoader());
+            this.klass = klass;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name,boolean resolve) throws ClassNotFoundException{
+            if (!klass.getName().equals(name)){
+                return super.loadClass(name, resolve);
+            }
+            Class<?> loadedClass = findLoadedClass(name);
+            if (null != loadedClass){
+                return loadedClass;
+            }
+            try (InputStream inputStream = klass.getResourceAsStream(klass.getName().substring(klass.getName().lastIndexOf('.') + 1) + ".class")){
+                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                for (int length = inputStream.read(buffer); length != -1; length = inputStream.read(buffer)){
+                    byteArrayOutputStream.write(buffer, 0, length);
+                }
+                byte[] bytes = byteArrayOutputStream.toByteArray();
+                return defineClass(name, bytes, 0, bytes.length);
+            }catch (IOException e){
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+
+    public static class Address{
+
+        private String city;
+
+        public String getCity(){
+            return city;
+        }
+
+        public void setCity(String city){
+            this.city = city;
+        }
+    }
+}
@@ -51,6 +51,8 @@ import org.junit.runners.Suite.SuiteClasses;
 
                 ToLongParameterizedTest.class,
                 ToLongsParameterizedTest.class,
+                ToNumberFastPathTest.class,
+                ToPrimitiveArrayTest.class,
 
                 ToMapArrayTest.class,
                 ToMapCollectionTest.class,
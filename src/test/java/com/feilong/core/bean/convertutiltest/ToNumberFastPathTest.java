@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.BigDecimalConverter;
+import org.apache.commons.beanutils.converters.BooleanConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
+import org.junit.Test;
+
+import com.feilong.core.bean.ConvertUtil;
+
+/**
+ * toBoolean,toInteger,toLong 以及 toBigDecimal 的直接转换,结果和每次创建 converter 完全一致.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ToNumberFastPathTest{
+
+    private static final Object[] VALUES = {
+                                             null,
+                                             "",
+                                             " ",
+                                             "12",
+                                             " 12 ",
+                                             "+12",
+                                             "-12",
+                                             "-0",
+                                             "+",
+                                             "-",
+                                             "12a",
+                                             "1.5",
+                                             "1e3",
+                                             "0x10",
+                                             "٣",
+                                             "999999999",
+                                             "-999999999",
+                                             "2147483647",
+                                             "2147483648",
+                                             "-2147483648",
+                                             "-2147483649",
+                                             "999999999999999999",
+                                             "9223372036854775807",
+                                             "9223372036854775808",
+                                             "-9223372036854775808",
+                                             "true",
+                                             "Yes",
+                                             "off",
+                                             "aaaa",
+                                             "1,2,3",
+                                             12,
+                                             Integer.MIN_VALUE,
+                                             Long.MAX_VALUE,
+                                             2147483648L,
+                                             (short) 7,
+                                             (byte) -7,
+                                             1.9d,
+                                             -1.9d,
+                                             0.1f,
+                                             1e20,
+                                             Double.NaN,
+                                             Double.POSITIVE_INFINITY,
+                                             new BigInteger("123456789012345678901234567890"),
+                                             new BigDecimal("12.50"),
+                                             new BigDecimal("1E+3"),
+                                             new AtomicLong(5),
+                                             true,
+                                             false,
+                                             new Date(1500000000000L),
+                                             new String[] { "5", "6" },
+                                             new String[] {},
+                                             new int[] { 9 },
+                                             toList("7", "8"),
+                                             new ArrayList<String>() };
+
+    @Test
+    public void testSameAsConverter(){
+        for (Object value : values()){
+            String message = String.valueOf(value);
+            assertEquals(message, new BooleanConverter(null).convert(Boolean.class, value), ConvertUtil.toBoolean(value));
+            assertEquals(message, new IntegerConverter(null).convert(Integer.class, value), ConvertUtil.toInteger(value));
+            assertEquals(message, new IntegerConverter(-1).convert(Integer.class, value), ConvertUtil.toInteger(value, -1));
+            assertEquals(message, new LongConverter(null).convert(Long.class, value), ConvertUtil.toLong(value));
+            assertEquals(message, new BigDecimalConverter(null).convert(BigDecimal.class, value), ConvertUtil.toBigDecimal(value));
+        }
+    }
+
+    @Test
+    public void testSameInstance(){
+        Integer integer = 123456;
+        BigDecimal bigDecimal = new BigDecimal("1.23");
+        assertSame(integer, ConvertUtil.toInteger(integer));
+        assertSame(bigDecimal, ConvertUtil.toBigDecimal(bigDecimal));
+
+        assertSame(integer, ConvertUtil.convert(integer, Integer.class));
+        assertSame(bigDecimal, ConvertUtil.convert(bigDecimal, BigDecimal.class));
+    }
+
+    /**
+     * 用户自定义的 converter, 已经是目标类型的值也要经过 converter.
+     */
+    @Test
+    public void testCustomConverter(){
+        ConvertUtils.register(new Converter(){
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T convert(Class<T> type,Object value){
+                return (T) Integer.valueOf(((Number) value).intValue() * 2);
+            }
+        }, Integer.class);
+
+        try{
+            assertEquals(Integer.valueOf(10), ConvertUtil.convert(5, Integer.class));
+        }finally{
+            ConvertUtil.registerStandardDefaultNull();
+        }
+        assertEquals(Integer.valueOf(5), ConvertUtil.convert(5, Integer.class));
+    }
+
+    //---------------------------------------------------------------
+
+    private static List<Object> values(){
+        List<Object> list = toList(VALUES);
+
+        Random random = new Random(20181018L);
+        for (int i = 0; i < 2000; ++i){
+            long value = random.nextLong() >> random.nextInt(64);
+            list.add(String.valueOf(value));
+            list.add(value);
+            list.add(random.nextDouble() * value);
+        }
+        return list;
+    }
+}
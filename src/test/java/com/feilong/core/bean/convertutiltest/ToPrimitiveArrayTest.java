@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BulkConvertException;
+import com.feilong.core.bean.ConvertUtil;
+
+/**
+ * The Class ToPrimitiveArrayTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ToPrimitiveArrayTest{
+
+    @Test
+    public void testToIntArray(){
+        assertArrayEquals(new int[] { 1, 2, -3, 4 }, ConvertUtil.toIntArray(new String[] { "1", " 2 ", "-3", "+4" }));
+        assertArrayEquals(new int[] { 1, 2, -3 }, ConvertUtil.toIntArray(toList("1", "2", "-3")));
+        assertArrayEquals(new int[] { 1, 2, 3 }, ConvertUtil.toIntArray("1, 2,3 ", ','));
+        assertArrayEquals(
+                        new int[] { Integer.MAX_VALUE, Integer.MIN_VALUE },
+                        ConvertUtil.toIntArray(new String[] { "2147483647", "-2147483648" }));
+
+        assertArrayEquals(new int[0], ConvertUtil.toIntArray(new String[0]));
+        assertArrayEquals(new int[0], ConvertUtil.toIntArray(" ", ','));
+        assertNull(ConvertUtil.toIntArray((String[]) null));
+        assertNull(ConvertUtil.toIntArray(null, ','));
+    }
+
+    @Test
+    public void testToIntArrayLarge(){
+        StringBuilder sb = new StringBuilder();
+        int[] expected = new int[100000];
+        for (int i = 0; i < expected.length; ++i){
+            expected[i] = i + 1;
+            sb.append(i > 0 ? "," : "").append(i + 1);
+        }
+        assertArrayEquals(expected, ConvertUtil.toIntArray(sb, ','));
+        assertArrayEquals(expected, ConvertUtil.toIntArray(sb.toString(), ','));
+    }
+
+    @Test
+    public void testToLongArray(){
+        assertArrayEquals(
+                        new long[] { 1, Long.MAX_VALUE, Long.MIN_VALUE },
+                        ConvertUtil.toLongArray(new String[] { "1", "9223372036854775807", "-9223372036854775808" }));
+        assertArrayEquals(new long[] { 1, 2, 3 }, ConvertUtil.toLongArray("1|2|3", '|'));
+
+        Random random = new Random(20181018L);
+        for (int i = 0; i < 5000; ++i){
+            long value = random.nextLong() >> random.nextInt(64);
+            assertArrayEquals(new long[] { value }, ConvertUtil.toLongArray(new String[] { String.valueOf(value) }));
+        }
+    }
+
+    @Test
+    public void testToDoubleArray(){
+        assertArrayEquals(new double[] { 1, 2.5, -3, 0.5, 5 }, ConvertUtil.toDoubleArray("1, 2.5,-3,.5,5.", ','), 0);
+
+        String[] values = { "0", "-0", "0.1", "0.3", "123.456", "1e5", "NaN", "-Infinity", "1.7976931348623157E308", "4.9E-324",
+                            "0.000000000000000000000001", "123456789012345678901234567890", "9007199254740993", "1.5d" };
+        assertSameAsParseDouble(values);
+
+        Random random = new Random(20181018L);
+        String[] randomValues = new String[5000];
+        for (int i = 0; i < randomValues.length; ++i){
+            String digits = String.valueOf(Math.abs(random.nextLong()));
+            int length = 1 + random.nextInt(digits.length());
+            int point = random.nextInt(length + 1);
+            randomValues[i] = (random.nextBoolean() ? "-" : "") + digits.substring(0, point) + "." + digits.substring(point, length);
+        }
+        assertSameAsParseDouble(randomValues);
+    }
+
+    @Test
+    public void testToBigDecimalArray(){
+        String[] values = { "1", "2.50", "-3", "1E+3", "0.000000000000000000000001", "123456789012345678901234567890.123" };
+        BigDecimal[] expected = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; ++i){
+            expected[i] = new BigDecimal(values[i]);
+        }
+        assertArrayEquals(expected, ConvertUtil.toBigDecimalArray(values));
+        assertArrayEquals(expected, ConvertUtil.toBigDecimalArray(Arrays.asList(values)));
+        assertArrayEquals(expected, ConvertUtil.toBigDecimalArray(" 1, 2.50 ,-3,1E+3,0.000000000000000000000001,123456789012345678901234567890.123", ','));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testError(){
+        assertError(1, "a", new Runnable(){
+
+            @Override
+            public void run(){
+                ConvertUtil.toIntArray(new String[] { "1", "a" });
+            }
+        });
+        assertError(2, "2147483648", new Runnable(){
+
+            @Override
+            public void run(){
+                ConvertUtil.toIntArray(new String[] { "1", "2", "2147483648" });
+            }
+        });
+        assertError(1, null, new Runnable(){
+
+            @Override
+            public void run(){
+                ConvertUtil.toLongArray(toList("1", null));
+            }
+        });
+        assertError(1, "", new Runnable(){
+
+            @Override
+            public void run(){
+                ConvertUtil.toLongArray("1,,3", ',');
+            }
+        });
+        assertError(2, " ", new Runnable(){
+
+            @Override
+            public void run(){
+                ConvertUtil.toDoubleArray("1,2, ", ',');
+            }
+        });
+        assertError(0, "1.2.3", new Runnable(){
+
+            @Override
+            public void run(){
+                ConvertUtil.toBigDecimalArray(new String[] { "1.2.3" });
+            }
+        });
+        assertError(0, "-", new Runnable(){
+
+            @Override
+            public void run(){
+                ConvertUtil.toIntArray("-", ',');
+            }
+        });
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertSameAsParseDouble(String[] values){
+        double[] doubles = ConvertUtil.toDoubleArray(values);
+        for (int i = 0; i < values.length; ++i){
+            assertEquals(values[i], Double.doubleToLongBits(Double.parseDouble(values[i])), Double.doubleToLongBits(doubles[i]));
+        }
+    }
+
+    private static void assertError(int index,String value,Runnable runnable){
+        try{
+            runnable.run();
+            fail();
+        }catch (BulkConvertException e){
+            assertEquals(index, e.getIndex());
+            assertEquals(value, e.getValue());
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 DescribeTest.class,
                 FindValueOfTypeTest.class,
                 GetPropertyTest.class,
+                PropertyAccessorTest.class,
                 SetPropertyIfValueNotNullOrEmptyTest.class,
                 SetPropertyIfValueNotNullTest.class,
                 SetPropertyTest.class
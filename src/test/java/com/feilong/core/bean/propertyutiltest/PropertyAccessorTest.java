@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.propertyutiltest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * 缓存的属性访问器 (simple/nested 属性) 的取值和设值规则需要和 {@link org.apache.commons.beanutils.PropertyUtils} 保持一致.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class PropertyAccessorTest{
+
+    @Test
+    public void testGetProperty(){
+        Person person = new Person("jim", new Address("shanghai"));
+
+        //多次调用, 第二次走缓存
+        for (int i = 0; i < 2; ++i){
+            assertEquals("jim", PropertyUtil.<String> getProperty(person, "name"));
+            assertEquals("shanghai", PropertyUtil.<String> getProperty(person, "address.city"));
+        }
+    }
+
+    /**
+     * 中间值的运行时类型是声明类型的子类.
+     */
+    @Test
+    public void testGetPropertySubClass(){
+        Person person = new Person("jim", new ChinaAddress("shanghai"));
+        assertEquals("shanghai", PropertyUtil.<String> getProperty(person, "address.city"));
+    }
+
+    @Test
+    public void testGetPropertyMapInPath(){
+        Map<String, Object> map = new HashMap<>();
+        map.put("city", "beijing");
+
+        Holder holder = new Holder();
+        holder.setValue(map);
+        assertEquals("beijing", PropertyUtil.<String> getProperty(holder, "value.city"));
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testGetPropertyNullNested(){
+        PropertyUtil.getProperty(new Person("jim", null), "address.city");
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testGetPropertyNotExist(){
+        PropertyUtil.getProperty(new Person("jim", null), "age");
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testGetPropertyGetterException(){
+        PropertyUtil.getProperty(new Person("jim", null), "error");
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSetProperty(){
+        Person person = new Person("jim", new Address("shanghai"));
+
+        PropertyUtil.setProperty(person, "name", "feilong");
+        PropertyUtil.setProperty(person, "address.city", "beijing");
+        PropertyUtil.setProperty(person, "address.zip", 200000);
+
+        assertEquals("feilong", person.getName());
+        assertEquals("beijing", person.getAddress().getCity());
+        assertEquals(200000, person.getAddress().getZip());
+
+        PropertyUtil.setProperty(person, "name", null);
+        assertNull(person.getName());
+    }
+
+    /**
+     * 不会进行类型转换.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testSetPropertyTypeMismatch(){
+        PropertyUtil.setProperty(new Person("jim", new Address("shanghai")), "address.zip", "200000");
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testSetPropertyNullToPrimitive(){
+        PropertyUtil.setProperty(new Person("jim", new Address("shanghai")), "address.zip", null);
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testSetPropertyNullNested(){
+        PropertyUtil.setProperty(new Person("jim", null), "address.city", "beijing");
+    }
+
+    //---------------------------------------------------------------
+
+    public static class Person{
+
+        private String  name;
+
+        private Address address;
+
+        public Person(String name, Address address){
+            this.name = name;
+            this.address = address;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        public void setName(String name){
+            this.name = name;
+        }
+
+        public Address getAddress(){
+            return address;
+        }
+
+        public void setAddress(Address address){
+            this.address = address;
+        }
+
+        public String getError(){
+            throw new IllegalStateException("mock exception");
+        }
+    }
+
+    public static class Address{
+
+        private String city;
+
+        private int    zip;
+
+        public Address(String city){
+            this.city = city;
+        }
+
+        public String getCity(){
+            return city;
+        }
+
+        public void setCity(String city){
+            this.city = city;
+        }
+
+        public int getZip(){
+            return zip;
+        }
+
+        public void setZip(int zip){
+            this.zip = zip;
+        }
+    }
+
+    public static class ChinaAddress extends Address{
+
+        public ChinaAddress(String city){
+            super(city);
+        }
+    }
+
+    public static class Holder{
+
+        private Object value;
+
+        public Object getValue(){
+            return value;
+        }
+
+        public void setValue(Object value){
+            this.value = value;
+        }
+    }
+}
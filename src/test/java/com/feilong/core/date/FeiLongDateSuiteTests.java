@@ -31,6 +31,7 @@ import com.feilong.core.date.dateutiltest.FeiLongDateUtilSuiteTests;
 @RunWith(Suite.class)
 @SuiteClasses({
                 CalendarUtilTest.class, //
+                TimeBucketUnitTest.class,
 
                 FeiLongDateExtensionUtilSuiteTests.class,
                 FeiLongDateUtilSuiteTests.class,
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+import static com.feilong.core.date.DateUtil.toDate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * The Class TimeBucketUnitTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class TimeBucketUnitTest{
+
+    private static final String[] TIME_ZONE_IDS   = { "Asia/Shanghai", "America/New_York", "America/Sao_Paulo", "Australia/Lord_Howe" };
+
+    private final TimeZone        defaultTimeZone = TimeZone.getDefault();
+
+    private final Locale          defaultLocale   = Locale.getDefault();
+
+    @After
+    public void after(){
+        TimeZone.setDefault(defaultTimeZone);
+        Locale.setDefault(defaultLocale);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGetBucketStart(){
+        Date date = toDate("2012-10-11 17:10:30.701", COMMON_DATE_AND_TIME_WITH_MILLISECOND);
+        assertEquals(toDate("2012-10-11 17:00:00.000", COMMON_DATE_AND_TIME_WITH_MILLISECOND), TimeBucketUnit.HOUR.getBucketStart(date));
+        assertEquals(toDate("2012-10-11 00:00:00.000", COMMON_DATE_AND_TIME_WITH_MILLISECOND), TimeBucketUnit.DAY.getBucketStart(date));
+        assertEquals(toDate("2012-10-07 00:00:00.000", COMMON_DATE_AND_TIME_WITH_MILLISECOND), TimeBucketUnit.WEEK.getBucketStart(date));
+        assertEquals(toDate("2012-10-01 00:00:00.000", COMMON_DATE_AND_TIME_WITH_MILLISECOND), TimeBucketUnit.MONTH.getBucketStart(date));
+        assertEquals(toDate("2012-01-01 00:00:00.000", COMMON_DATE_AND_TIME_WITH_MILLISECOND), TimeBucketUnit.YEAR.getBucketStart(date));
+    }
+
+    /**
+     * 周日为一个星期第一天的 Locale 下, 和 DateUtil 的结果一致, 相邻的桶序号相差 1.
+     */
+    @Test
+    public void testSameAsDateUtil(){
+        Locale.setDefault(Locale.US);
+        for (String timeZoneId : TIME_ZONE_IDS){
+            TimeZone timeZone = TimeZone.getTimeZone(timeZoneId);
+            TimeZone.setDefault(timeZone);
+
+            Random random = new Random(20181018L);
+            for (int i = 0; i < 2000; ++i){
+                Date date = new Date(946684800000L + (long) (random.nextDouble() * 1000000000000L));
+
+                assertEquals(DateUtils.truncate(date, Calendar.HOUR_OF_DAY), TimeBucketUnit.HOUR.getBucketStart(date));
+                assertEquals(DateUtil.getFirstDateOfThisDay(date), TimeBucketUnit.DAY.getBucketStart(date));
+                assertEquals(DateUtil.getFirstDateOfThisWeek(date), TimeBucketUnit.WEEK.getBucketStart(date));
+                assertEquals(DateUtil.getFirstDateOfThisMonth(date), TimeBucketUnit.MONTH.getBucketStart(date));
+                assertEquals(DateUtil.getFirstDateOfThisYear(date), TimeBucketUnit.YEAR.getBucketStart(date));
+
+                for (TimeBucketUnit timeBucketUnit : TimeBucketUnit.values()){
+                    long bucketIndex = timeBucketUnit.toBucketIndex(date, timeZone);
+                    Date previousDate = new Date(timeBucketUnit.getBucketStart(date).getTime() - 1);
+                    assertEquals(timeZoneId + " " + date.getTime(), bucketIndex - 1, timeBucketUnit.toBucketIndex(previousDate, timeZone));
+                }
+            }
+        }
+    }
+
+    /**
+     * 周一为一个星期第一天的 Locale 下, WEEK 仍然从周日开始.
+     */
+    @Test
+    public void testWeekIgnoreLocale(){
+        Date date = toDate("2012-10-10 17:10:30.701", COMMON_DATE_AND_TIME_WITH_MILLISECOND);
+        Date sunday = toDate("2012-10-07 00:00:00.000", COMMON_DATE_AND_TIME_WITH_MILLISECOND);
+
+        for (Locale locale : new Locale[] { Locale.GERMANY, Locale.FRANCE, Locale.US }){
+            Locale.setDefault(locale);
+            assertEquals(locale.toString(), sunday, TimeBucketUnit.WEEK.getBucketStart(date));
+            assertEquals(
+                            locale.toString(),
+                            TimeBucketUnit.WEEK.toBucketIndex(sunday, TimeZone.getDefault()),
+                            TimeBucketUnit.WEEK.toBucketIndex(date, TimeZone.getDefault()));
+        }
+    }
+
+    /**
+     * 2018-03-11 02:00 America/New_York 不存在.
+     */
+    @Test
+    public void testToBucketStartNotExist(){
+        TimeZone timeZone = TimeZone.getTimeZone("America/New_York");
+        TimeZone.setDefault(timeZone);
+
+        long bucketIndex = TimeBucketUnit.HOUR.toBucketIndex(toDate("2018-03-11 01:30:00.000", COMMON_DATE_AND_TIME_WITH_MILLISECOND), timeZone);
+        assertNull(TimeBucketUnit.HOUR.toBucketStart(bucketIndex + 1, timeZone));
+        assertEquals(
+                        toDate("2018-03-11 03:00:00.000", COMMON_DATE_AND_TIME_WITH_MILLISECOND),
+                        TimeBucketUnit.HOUR.toBucketStart(bucketIndex + 2, timeZone));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToBucketIndexOutOfRange(){
+        TimeBucketUnit.DAY.toBucketIndex(toDate("1800-01-01", "yyyy-MM-dd"), TimeZone.getDefault());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetBucketStartNullDate(){
+        TimeBucketUnit.DAY.getBucketStart(null);
+    }
+}
@@ -60,6 +60,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 GetDayOfYearParameterizedTest.class,
                 GetDayOfMonthParameterizedTest.class,
                 GetDayOfWeekParameterizedTest.class,
+                GetFieldAndBoundaryTimeZoneTest.class,
 
                 AddTest.class,
 
@@ -85,6 +86,8 @@ import org.junit.runners.Suite.SuiteClasses;
                 IsTodayTest.class,
 
                 ToDateTest.class,
+                ToDateMultiplePatternsTest.class,
+                ToStringPrecompiledPatternTest.class,
 
                 ToStringTest.class,
                 ToStringParameterizedTest.class,
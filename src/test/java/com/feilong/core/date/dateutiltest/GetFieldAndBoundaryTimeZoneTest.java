@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date.dateutiltest;
+
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.DAY_OF_WEEK;
+import static java.util.Calendar.DAY_OF_YEAR;
+import static java.util.Calendar.DECEMBER;
+import static java.util.Calendar.HOUR_OF_DAY;
+import static java.util.Calendar.JANUARY;
+import static java.util.Calendar.MILLISECOND;
+import static java.util.Calendar.MINUTE;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.SECOND;
+import static java.util.Calendar.YEAR;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.feilong.core.date.DateUtil;
+
+/**
+ * 字段以及日/月/年边界不使用 {@link Calendar} 计算,结果需要和 {@link Calendar} 完全一致(包括夏令时切换).
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class GetFieldAndBoundaryTimeZoneTest{
+
+    private static final String[] TIME_ZONE_IDS = {
+                                                    "Asia/Shanghai",
+                                                    "UTC",
+                                                    "America/New_York",
+                                                    "America/Sao_Paulo",
+                                                    "America/Havana",
+                                                    "America/St_Johns",
+                                                    "Europe/London",
+                                                    "Asia/Tehran",
+                                                    "Asia/Kathmandu",
+                                                    "Australia/Lord_Howe",
+                                                    "Pacific/Apia",
+                                                    "Pacific/Kiritimati" };
+
+    private final TimeZone        defaultTimeZone = TimeZone.getDefault();
+
+    private final Locale          defaultLocale   = Locale.getDefault();
+
+    @After
+    public void after(){
+        TimeZone.setDefault(defaultTimeZone);
+        Locale.setDefault(defaultLocale);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testRandom(){
+        for (String timeZoneId : TIME_ZONE_IDS){
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZoneId));
+
+            Random random = new Random(20181018L);
+            //1899-12-01 到 10000-02-01
+            long min = -2211667200000L;
+            long max = 253405065600000L;
+            for (int i = 0; i < 5000; ++i){
+                assertSameAsCalendar(timeZoneId, new Date(min + (long) (random.nextDouble() * (max - min))));
+            }
+        }
+    }
+
+    /**
+     * 2000-2030 每隔 7 小时 13 分钟取一个时刻, 覆盖每一次夏令时切换前后.
+     */
+    @Test
+    public void testDaylightSavingTransitions(){
+        for (String timeZoneId : TIME_ZONE_IDS){
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZoneId));
+            for (long millis = 946684800000L; millis < 1893456000000L; millis += 26000000L){
+                assertSameAsCalendar(timeZoneId, new Date(millis));
+            }
+        }
+    }
+
+    /**
+     * 非 JDK 内置时区以及非公历的 locale, 使用原来的方式.
+     */
+    @Test
+    public void testFallback(){
+        TimeZone.setDefault(new SimpleTimeZone(3600000, "Custom"));
+        assertSameAsCalendar("Custom", new Date(1500000000000L));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Bangkok"));
+        Locale.setDefault(new Locale("th", "TH"));
+        assertSameAsCalendar("Asia/Bangkok th_TH", new Date(1500000000000L));
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertSameAsCalendar(String message,Date date){
+        String text = message + " " + date.getTime();
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        assertEquals(text, calendar.get(YEAR), DateUtil.getYear(date));
+        assertEquals(text, calendar.get(MONTH) + 1, DateUtil.getMonth(date));
+        assertEquals(text, calendar.get(DAY_OF_MONTH), DateUtil.getDayOfMonth(date));
+        assertEquals(text, calendar.get(DAY_OF_YEAR), DateUtil.getDayOfYear(date));
+        assertEquals(text, calendar.get(DAY_OF_WEEK), DateUtil.getDayOfWeek(date));
+        assertEquals(text, calendar.get(HOUR_OF_DAY), DateUtil.getHourOfDay(date));
+        assertEquals(text, calendar.get(MINUTE), DateUtil.getMinute(date));
+        assertEquals(text, calendar.get(SECOND), DateUtil.getSecond(date));
+
+        assertEquals(text, dayBegin(date).getTime(), DateUtil.getFirstDateOfThisDay(date));
+        assertEquals(text, dayEnd(date).getTime(), DateUtil.getLastDateOfThisDay(date));
+
+        Calendar firstDateOfThisMonth = dayBegin(date);
+        firstDateOfThisMonth.set(DAY_OF_MONTH, 1);
+        assertEquals(text, firstDateOfThisMonth.getTime(), DateUtil.getFirstDateOfThisMonth(date));
+
+        Calendar lastDateOfThisMonth = dayEnd(date);
+        lastDateOfThisMonth.set(DAY_OF_MONTH, lastDateOfThisMonth.getActualMaximum(DAY_OF_MONTH));
+        assertEquals(text, lastDateOfThisMonth.getTime(), DateUtil.getLastDateOfThisMonth(date));
+
+        Calendar firstDateOfThisYear = dayBegin(date);
+        firstDateOfThisYear.set(MONTH, JANUARY);
+        firstDateOfThisYear.set(DAY_OF_MONTH, 1);
+        assertEquals(text, firstDateOfThisYear.getTime(), DateUtil.getFirstDateOfThisYear(date));
+
+        Calendar lastDateOfThisYear = dayEnd(date);
+        lastDateOfThisYear.set(MONTH, DECEMBER);
+        lastDateOfThisYear.set(DAY_OF_MONTH, 31);
+        assertEquals(text, lastDateOfThisYear.getTime(), DateUtil.getLastDateOfThisYear(date));
+    }
+
+    private static Calendar dayBegin(Date date){
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.set(HOUR_OF_DAY, 0);
+        calendar.set(MINUTE, 0);
+        calendar.set(SECOND, 0);
+        calendar.set(MILLISECOND, 0);
+        return calendar;
+    }
+
+    private static Calendar dayEnd(Date date){
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.set(HOUR_OF_DAY, 23);
+        calendar.set(MINUTE, 59);
+        calendar.set(SECOND, 59);
+        calendar.set(MILLISECOND, 999);
+        return calendar;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date.dateutiltest;
+
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+import static com.feilong.core.date.DateUtil.toDate;
+import static org.junit.Assert.assertEquals;
+
+import java.text.ParseException;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.Test;
+
+import com.feilong.core.date.DateParserRegistry;
+
+/**
+ * 多个模式的时候,结果需要和 {@link DateUtils#parseDate(String, String...)} 完全一致(包括重复调用走缓存的时候).
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ToDateMultiplePatternsTest{
+
+    private static final String[] DATE_PATTERNS = {
+                                                    COMMON_DATE,
+                                                    COMMON_DATE_AND_TIME_WITHOUT_SECOND,
+                                                    COMMON_DATE_AND_TIME,
+                                                    COMMON_DATE_AND_TIME_WITH_MILLISECOND,
+                                                    "yyyyMMdd",
+                                                    "dd MMM yyyy" };
+
+    @Test
+    public void testToDateSameAsDateUtils() throws ParseException{
+        String[] dateStrings = {
+                                 "2016-06-30",
+                                 "2016-6-3",
+                                 "2016-02-33",
+                                 "2016-06-30 15:36",
+                                 "2016-06-30 15:36:59",
+                                 "2016-06-30 15:36:59.123",
+                                 "2016-06-30 25:61:61",
+                                 "20160630" };
+
+        //第二轮走形状缓存
+        for (int i = 0; i < 2; ++i){
+            for (String dateString : dateStrings){
+                assertEquals(dateString, DateUtils.parseDate(dateString, DATE_PATTERNS), toDate(dateString, DATE_PATTERNS));
+            }
+        }
+    }
+
+    /**
+     * 形状相同,但是第一个模式就可以解析(宽松模式),不能被缓存的后面的模式抢先.
+     */
+    @Test
+    public void testToDateSameShape() throws ParseException{
+        String[] datePatterns = { "yyyy-MM-dd HH:mm", "yyyy-MM-dd HH:mm:ss" };
+        String[] dateStrings = { "2016-06-30 15:36:59", "2016-06-30 15:36:00", "2016-06-30 00:00:00" };
+        for (String dateString : dateStrings){
+            assertEquals(dateString, DateUtils.parseDate(dateString, datePatterns), toDate(dateString, datePatterns));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToDateNoPatternMatch(){
+        toDate("2016/06/30", DATE_PATTERNS);
+    }
+
+    @Test
+    public void testPatternHitCount(){
+        String datePattern = "yyyy/MM/dd HH";
+        DateParserRegistry.resetPatternHitCount();
+
+        toDate("2016/06/30 15", "yyyy-MM-dd", datePattern);
+        toDate("2016/06/30 16", "yyyy-MM-dd", datePattern);
+        toDate("2016/07/01 17", datePattern);
+
+        assertEquals(Long.valueOf(3), DateParserRegistry.getPatternHitCountMap().get(datePattern));
+
+        DateParserRegistry.resetPatternHitCount();
+        assertEquals(Long.valueOf(0), DateParserRegistry.getPatternHitCountMap().get(datePattern));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date.dateutiltest;
+
+import static com.feilong.core.DatePattern.CHINESE_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.COMMON_TIME;
+import static com.feilong.core.DatePattern.INDONESIA_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.MONTH_AND_DAY_WITH_WEEK;
+import static com.feilong.core.DatePattern.TIMESTAMP;
+import static com.feilong.core.DatePattern.TIMESTAMP_WITH_MILLISECOND;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import com.feilong.core.date.DateUtil;
+
+/**
+ * 预编译的格式化器,结果需要和 {@link DateFormatUtils#format(Date, String)} 完全一致.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ToStringPrecompiledPatternTest{
+
+    private static final String[] DATE_PATTERNS = {
+                                                    COMMON_DATE,
+                                                    COMMON_DATE_AND_TIME_WITHOUT_SECOND,
+                                                    COMMON_DATE_AND_TIME,
+                                                    COMMON_DATE_AND_TIME_WITH_MILLISECOND,
+                                                    COMMON_TIME,
+                                                    TIMESTAMP,
+                                                    TIMESTAMP_WITH_MILLISECOND,
+                                                    INDONESIA_DATE_AND_TIME,
+                                                    CHINESE_DATE_AND_TIME,
+                                                    MONTH_AND_DAY_WITH_WEEK,
+                                                    "yy-MM-dd",
+                                                    "yyyy-MM-dd'T'HH:mm:ss" };
+
+    private final TimeZone        defaultTimeZone = TimeZone.getDefault();
+
+    private final Locale          defaultLocale   = Locale.getDefault();
+
+    @After
+    public void after(){
+        TimeZone.setDefault(defaultTimeZone);
+        Locale.setDefault(defaultLocale);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testToStringRandom(){
+        assertSameAsDateFormatUtils("Asia/Shanghai");
+        assertSameAsDateFormatUtils("America/New_York");
+        assertSameAsDateFormatUtils("Asia/Kolkata");
+        assertSameAsDateFormatUtils("UTC");
+    }
+
+    /**
+     * 同一秒内连续调用,走秒级缓存.
+     */
+    @Test
+    public void testToStringSameSecond(){
+        long start = 1500000000000L;
+        for (long millis = start; millis < start + 3000; millis += 7){
+            Date date = new Date(millis);
+            assertEquals(DateFormatUtils.format(date, TIMESTAMP_WITH_MILLISECOND), DateUtil.toString(date, TIMESTAMP_WITH_MILLISECOND));
+            assertEquals(DateFormatUtils.format(date, COMMON_DATE_AND_TIME), DateUtil.toString(date, COMMON_DATE_AND_TIME));
+        }
+    }
+
+    /**
+     * 夏令时切换前后.
+     */
+    @Test
+    public void testToStringDaylightSaving(){
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        //2017-03-12 02:00 EST -> 03:00 EDT
+        long start = 1489301000000L;
+        for (long millis = start; millis < start + 7200000L; millis += 59999){
+            Date date = new Date(millis);
+            assertEquals(DateFormatUtils.format(date, COMMON_DATE_AND_TIME), DateUtil.toString(date, COMMON_DATE_AND_TIME));
+        }
+    }
+
+    /**
+     * 超出范围以及非公历的 locale, 使用原来的方式.
+     */
+    @Test
+    public void testToStringFallback(){
+        Date date = new Date(-62135769600000L);
+        assertEquals(DateFormatUtils.format(date, COMMON_DATE_AND_TIME), DateUtil.toString(date, COMMON_DATE_AND_TIME));
+
+        Locale.setDefault(new Locale("th", "TH"));
+        Date now = new Date();
+        assertEquals(DateFormatUtils.format(now, COMMON_DATE_AND_TIME), DateUtil.toString(now, COMMON_DATE_AND_TIME));
+    }
+
+    @Test
+    public void testNowTimestamp(){
+        assertEquals(TIMESTAMP.length(), DateUtil.nowTimestamp().length());
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertSameAsDateFormatUtils(String timeZoneId){
+        TimeZone.setDefault(TimeZone.getTimeZone(timeZoneId));
+
+        Random random = new Random(20181018L);
+        //1899-12-01 到 10000-02-01
+        long min = -2211667200000L;
+        long max = 253405065600000L;
+        for (int i = 0; i < 20000; ++i){
+            Date date = new Date(min + (long) (random.nextDouble() * (max - min)));
+            for (String datePattern : DATE_PATTERNS){
+                assertEquals(
+                                timeZoneId + " " + date.getTime(),
+                                DateFormatUtils.format(date, datePattern),
+                                DateUtil.toString(date, datePattern));
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+import static com.feilong.core.date.DateUtil.now;
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.DefaultPartitionThreadExecutor;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionPerHandler;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+import com.feilong.core.lang.thread.PartitionThreadExecutor;
+import com.feilong.core.lang.threadutiltest.entity.CalculatePartitionPerHandler;
+import com.feilong.core.lang.threadutiltest.entity.CalculatePartitionRunnableBuilder;
+import com.feilong.core.lang.threadutiltest.entity.EmptyPartitionPerHandler;
+
+/**
+ * The Class ExecutorServicePartitionThreadExecutorTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ExecutorServicePartitionThreadExecutorTest extends AbstractExcuteTest{
+
+    /** The Constant log. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorServicePartitionThreadExecutorTest.class);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testExecute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(toList(2, 5, 6, 7), 2, paramsMap, new CalculatePartitionRunnableBuilder(), ExecutorServicePartitionThreadExecutor.INSTANCE);
+        assertEquals(20, atomicInteger.get());
+    }
+
+    @Test
+    public void testExecutePartitionPerHandler(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(buildList(0, 1000), 7, paramsMap, new CalculatePartitionPerHandler(), new ExecutorServicePartitionThreadExecutor(3));
+        assertEquals(499500, atomicInteger.get());
+    }
+
+    @Test
+    public void testExecuteConfig(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(
+                        buildList(0, 1000),
+                        new PartitionThreadConfig(4, 30),
+                        paramsMap,
+                        new CalculatePartitionPerHandler(),
+                        ExecutorServicePartitionThreadExecutor.INSTANCE);
+        assertEquals(499500, atomicInteger.get());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testPartitionThreadEntity(){
+        final List<PartitionThreadEntity> partitionThreadEntityList = new CopyOnWriteArrayList<>();
+        final List<String> threadNameList = new CopyOnWriteArrayList<>();
+
+        ThreadUtil.execute(buildList(0, 10), 3, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                partitionThreadEntityList.add(partitionThreadEntity);
+                threadNameList.add(Thread.currentThread().getName());
+            }
+        }, ExecutorServicePartitionThreadExecutor.INSTANCE);
+
+        assertEquals(4, partitionThreadEntityList.size());
+
+        for (PartitionThreadEntity partitionThreadEntity : partitionThreadEntityList){
+            int batchNumber = partitionThreadEntity.getBatchNumber();
+
+            assertEquals("Thread-DefaultPartitionRunnableBuilder-" + batchNumber, partitionThreadEntity.getName());
+            assertEquals(10, partitionThreadEntity.getTotalListCount());
+            assertEquals(3, partitionThreadEntity.getEachSize());
+            assertEquals(batchNumber == 3 ? 1 : 3, partitionThreadEntity.getCurrentListSize());
+            assertEquals(true, threadNameList.contains(partitionThreadEntity.getName()));
+        }
+    }
+
+    @Test
+    public void testExecuteWithException(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        ThreadUtil.execute(buildList(0, 10), 2, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                if (partitionThreadEntity.getBatchNumber() == 0){
+                    throw new IllegalStateException("mock exception");
+                }
+                atomicInteger.addAndGet(perBatchList.size());
+            }
+        }, ExecutorServicePartitionThreadExecutor.INSTANCE);
+
+        assertEquals(8, atomicInteger.get());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 和 {@link DefaultPartitionThreadExecutor} 比较高频小批量调用的耗时.
+     */
+    @Test
+    public void testCompareWithDefaultPartitionThreadExecutor(){
+        int loop = 200;
+        List<Integer> list = buildList(0, 100);
+
+        long defaultUseTime = useTime(DefaultPartitionThreadExecutor.INSTANCE, list, loop);
+        long executorServiceUseTime = useTime(ExecutorServicePartitionThreadExecutor.INSTANCE, list, loop);
+
+        LOGGER.info(
+                        "loop:[{}],list size:[{}],DefaultPartitionThreadExecutor:[{}]ms,ExecutorServicePartitionThreadExecutor:[{}]ms",
+                        loop,
+                        list.size(),
+                        defaultUseTime,
+                        executorServiceUseTime);
+    }
+
+    private static long useTime(PartitionThreadExecutor partitionThreadExecutor,List<Integer> list,int loop){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        Date beginDate = now();
+        for (int i = 0; i < loop; ++i){
+            ThreadUtil.execute(list, 5, paramsMap, CalculatePartitionPerHandler.INSTANCE, partitionThreadExecutor);
+        }
+        long useTime = now().getTime() - beginDate.getTime();
+
+        LOGGER.debug("[{}] use time:[{}]", partitionThreadExecutor.getClass().getSimpleName(), formatDuration(beginDate));
+        assertEquals(4950 * loop, atomicInteger.get());
+        return useTime;
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testExecuteNullList(){
+        ThreadUtil.execute(null, 100, null, EmptyPartitionPerHandler.INSTANCE, ExecutorServicePartitionThreadExecutor.INSTANCE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecuteEmptyList(){
+        ThreadUtil.execute(
+                        Collections.<Integer> emptyList(),
+                        100,
+                        null,
+                        EmptyPartitionPerHandler.INSTANCE,
+                        ExecutorServicePartitionThreadExecutor.INSTANCE);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testExecuteNullPartitionThreadExecutor(){
+        ThreadUtil.execute(toList(2), 100, null, EmptyPartitionPerHandler.INSTANCE, null);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecutorServicePartitionThreadExecutorInvalidParallelism(){
+        new ExecutorServicePartitionThreadExecutor(0);
+    }
+}
@@ -37,7 +37,17 @@ import org.junit.runners.Suite.SuiteClasses;
                 ExecuteCountTest.class,
 
                 PartitionEachSizeBuilderParameterizedTest.class,
-                PartitionEachSizeBuilderTest.class
+                PartitionEachSizeBuilderTest.class,
+
+                ExecutorServicePartitionThreadExecutorTest.class,
+                VirtualThreadPartitionThreadExecutorTest.class,
+                ForkJoinPartitionThreadExecutorTest.class,
+                StreamingPartitionThreadExecutorTest.class,
+
+                SubmitTest.class,
+                PartitionFailurePolicyTest.class,
+                PartitionMetricsListenerTest.class,
+                PartitionThrottleTest.class
         //
 })
 public class FeiLongThreadUtilSuiteTests{
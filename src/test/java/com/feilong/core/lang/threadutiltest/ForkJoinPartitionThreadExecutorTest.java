@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateUtil.now;
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.DefaultPartitionThreadExecutor;
+import com.feilong.core.lang.thread.ForkJoinPartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionPerHandler;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+import com.feilong.core.lang.thread.PartitionThreadExecutor;
+import com.feilong.core.lang.threadutiltest.entity.CalculatePartitionPerHandler;
+
+/**
+ * The Class ForkJoinPartitionThreadExecutorTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ForkJoinPartitionThreadExecutorTest extends AbstractExcuteTest{
+
+    /** The Constant log. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ForkJoinPartitionThreadExecutorTest.class);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testExecute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(toList(2, 5, 6, 7), 2, paramsMap, new CalculatePartitionPerHandler(), ForkJoinPartitionThreadExecutor.INSTANCE);
+        assertEquals(20, atomicInteger.get());
+    }
+
+    @Test
+    public void testExecuteLargeList(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(
+                        buildList(0, 10000),
+                        PartitionThreadConfig.INSTANCE,
+                        paramsMap,
+                        new CalculatePartitionPerHandler(),
+                        ForkJoinPartitionThreadExecutor.INSTANCE);
+        assertEquals(49995000, atomicInteger.get());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 每块 eachSize 个元素, batchNumber * eachSize + i 依然是元素在 list 中的索引.
+     */
+    @Test
+    public void testPartitionThreadEntity(){
+        final Map<Integer, Integer> indexAndValueMap = new ConcurrentHashMap<>();
+
+        PartitionThreadExecutor partitionThreadExecutor = new ForkJoinPartitionThreadExecutor(new PartitionThreadConfig(3));
+        ThreadUtil.execute(buildList(100, 110), 5, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                assertEquals(5, partitionThreadEntity.getEachSize());
+                assertEquals(10, partitionThreadEntity.getTotalListCount());
+                assertEquals(perBatchList.size(), partitionThreadEntity.getCurrentListSize());
+                assertEquals(partitionThreadEntity.getName(), Thread.currentThread().getName());
+
+                for (int i = 0; i < perBatchList.size(); ++i){
+                    indexAndValueMap.put(partitionThreadEntity.getBatchNumber() * partitionThreadEntity.getEachSize() + i, perBatchList.get(i));
+                }
+            }
+        }, partitionThreadExecutor);
+
+        assertEquals(10, indexAndValueMap.size());
+        for (int i = 0; i < 10; ++i){
+            assertEquals((Integer) (100 + i), indexAndValueMap.get(i));
+        }
+    }
+
+    /**
+     * eachSize 比 minPerThreadHandlerCount 小, 每块依然是 eachSize 个元素, minPerThreadHandlerCount 只决定是否继续拆分.
+     */
+    @Test
+    public void testEachSizeLessThanMinPerThreadHandlerCount(){
+        final AtomicInteger chunkCount = new AtomicInteger(0);
+        final AtomicInteger itemCount = new AtomicInteger(0);
+
+        PartitionThreadExecutor partitionThreadExecutor = new ForkJoinPartitionThreadExecutor(new PartitionThreadConfig(4));
+        ThreadUtil.execute(buildList(0, 10), 2, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                assertEquals(2, partitionThreadEntity.getEachSize());
+                assertEquals(2, perBatchList.size());
+
+                chunkCount.incrementAndGet();
+                itemCount.addAndGet(perBatchList.size());
+            }
+        }, partitionThreadExecutor);
+
+        assertEquals(5, chunkCount.get());
+        assertEquals(10, itemCount.get());
+    }
+
+    /**
+     * eachSize 比 minPerThreadHandlerCount 大, 每块也是 eachSize 个元素.
+     */
+    @Test
+    public void testEachSizeGreaterThanMinPerThreadHandlerCount(){
+        final AtomicInteger chunkCount = new AtomicInteger(0);
+        final AtomicInteger itemCount = new AtomicInteger(0);
+
+        PartitionThreadExecutor partitionThreadExecutor = new ForkJoinPartitionThreadExecutor(new PartitionThreadConfig(1));
+        ThreadUtil.execute(buildList(0, 10), 4, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                assertEquals(4, partitionThreadEntity.getEachSize());
+                assertEquals(partitionThreadEntity.getBatchNumber() == 2 ? 2 : 4, perBatchList.size());
+
+                chunkCount.incrementAndGet();
+                itemCount.addAndGet(perBatchList.size());
+            }
+        }, partitionThreadExecutor);
+
+        assertEquals(3, chunkCount.get());
+        assertEquals(10, itemCount.get());
+    }
+
+    @Test
+    public void testExecuteWithException(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        PartitionThreadExecutor partitionThreadExecutor = new ForkJoinPartitionThreadExecutor(new PartitionThreadConfig(1));
+        ThreadUtil.execute(buildList(0, 10), 1, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                if (partitionThreadEntity.getBatchNumber() == 0){
+                    throw new IllegalStateException("mock exception");
+                }
+                atomicInteger.addAndGet(perBatchList.size());
+            }
+        }, partitionThreadExecutor);
+
+        assertEquals(9, atomicInteger.get());
+    }
+
+    /**
+     * {@link Error} 不会被吞掉, 其他块执行完成之后抛给调用方.
+     */
+    @Test
+    public void testExecuteWithError(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        PartitionThreadExecutor partitionThreadExecutor = new ForkJoinPartitionThreadExecutor(new PartitionThreadConfig(1));
+        try{
+            ThreadUtil.execute(buildList(0, 10), 1, null, new PartitionPerHandler<Integer>(){
+
+                @Override
+                public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                    if (partitionThreadEntity.getBatchNumber() == 0){
+                        throw new NoClassDefFoundError("mock error");
+                    }
+                    atomicInteger.addAndGet(perBatchList.size());
+                }
+            }, partitionThreadExecutor);
+            fail();
+        }catch (NoClassDefFoundError e){
+            assertEquals("mock error", e.getMessage());
+        }
+        assertEquals(9, atomicInteger.get());
+    }
+
+    /**
+     * 构造执行器之后修改配置的限流, 立即生效.
+     */
+    @Test
+    public void testPartitionThrottleChangedAfterConstruct(){
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(1);
+        ForkJoinPartitionThreadExecutor partitionThreadExecutor = new ForkJoinPartitionThreadExecutor(
+                        partitionThreadConfig,
+                        new ForkJoinPool(4));
+        assertNull(partitionThreadExecutor.getPartitionThrottle());
+
+        partitionThreadConfig.setMaxConcurrentPartitions(1);
+        assertSame(partitionThreadConfig.getPartitionThrottle(), partitionThreadExecutor.getPartitionThrottle());
+
+        final AtomicInteger concurrency = new AtomicInteger(0);
+        final AtomicInteger maxConcurrency = new AtomicInteger(0);
+        ThreadUtil.execute(buildList(0, 10), 1, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                int current = concurrency.incrementAndGet();
+                synchronized (maxConcurrency){
+                    maxConcurrency.set(Math.max(maxConcurrency.get(), current));
+                }
+                ThreadUtil.sleep(10);
+                concurrency.decrementAndGet();
+            }
+        }, partitionThreadExecutor);
+
+        assertEquals(1, maxConcurrency.get());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 倾斜数据, 第一个元素耗时特别长.
+     */
+    @Test
+    public void testCompareSkewWithDefaultPartitionThreadExecutor(){
+        List<Integer> list = buildList(0, 80);
+        PartitionPerHandler<Integer> skewPartitionPerHandler = new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                for (Integer value : perBatchList){
+                    ThreadUtil.sleep(value < 5 ? 40 : 5);
+                }
+            }
+        };
+
+        PartitionThreadExecutor forkJoinPartitionThreadExecutor = new ForkJoinPartitionThreadExecutor(
+                        new PartitionThreadConfig(1),
+                        new ForkJoinPool(4));
+
+        long defaultUseTime = useTime(DefaultPartitionThreadExecutor.INSTANCE, list, skewPartitionPerHandler);
+        long forkJoinUseTime = useTime(forkJoinPartitionThreadExecutor, list, skewPartitionPerHandler);
+
+        LOGGER.info("skew list, DefaultPartitionThreadExecutor(4 threads):[{}]ms,ForkJoinPartitionThreadExecutor:[{}]ms", defaultUseTime, forkJoinUseTime);
+    }
+
+    private static long useTime(PartitionThreadExecutor partitionThreadExecutor,List<Integer> list,PartitionPerHandler<Integer> partitionPerHandler){
+        Date beginDate = now();
+        ThreadUtil.execute(list, list.size() / 4, null, partitionPerHandler, partitionThreadExecutor);
+        return now().getTime() - beginDate.getTime();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 有限流的时候, 在调用线程中逐块等待限流并提交, 同时执行的块不超过 maxConcurrentPartitions.
+     */
+    @Test
+    public void testExecuteThrottled(){
+        final AtomicInteger concurrency = new AtomicInteger(0);
+        final AtomicInteger maxConcurrency = new AtomicInteger(0);
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(1);
+        partitionThreadConfig.setMaxConcurrentPartitions(2);
+
+        ThreadUtil.execute(buildList(0, 20), 1, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                int current = concurrency.incrementAndGet();
+                synchronized (maxConcurrency){
+                    maxConcurrency.set(Math.max(maxConcurrency.get(), current));
+                }
+                ThreadUtil.sleep(10);
+                atomicInteger.addAndGet(perBatchList.size());
+                concurrency.decrementAndGet();
+            }
+        }, new ForkJoinPartitionThreadExecutor(partitionThreadConfig, new ForkJoinPool(4)));
+
+        assertEquals(20, atomicInteger.get());
+        assertThat(maxConcurrency.get(), lessThanOrEqualTo(2));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testForkJoinPartitionThreadExecutorNullConfig(){
+        new ForkJoinPartitionThreadExecutor(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testForkJoinPartitionThreadExecutorNullForkJoinPool(){
+        new ForkJoinPartitionThreadExecutor(PartitionThreadConfig.INSTANCE, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecuteInvalidMinPerThreadHandlerCount(){
+        ThreadUtil.execute(toList(2), 1, null, new CalculatePartitionPerHandler(), new ForkJoinPartitionThreadExecutor(new PartitionThreadConfig(0)));
+    }
+}
@@ -53,6 +53,13 @@ public class PartitionEachSizeBuilderParameterizedTest
                                               { 100, new PartitionThreadConfig(2, 30), 50 },
                                               { 100, new PartitionThreadConfig(3, 30), 34 },
                                               { 100, new PartitionThreadConfig(4, 30), 25 },
+
+                                              //---------------------------------------------------------------
+                                              { 100, new PartitionThreadConfig(10, 30), 30 },
+                                              { 1000, new PartitionThreadConfig(100, 20), 20 },
+
+                                              { 5000, PartitionThreadConfig.IO_INSTANCE, 1 },
+                                              { 20000, PartitionThreadConfig.IO_INSTANCE, 2 },
                 //
         };
         return toList(objects);
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionExecuteException;
+import com.feilong.core.lang.thread.PartitionFailurePolicy;
+import com.feilong.core.lang.thread.PartitionPerHandler;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+import com.feilong.core.lang.thread.PartitionThreadExecutor;
+
+/**
+ * The Class PartitionFailurePolicyTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class PartitionFailurePolicyTest extends AbstractExcuteTest{
+
+    @Test
+    public void testLogAndContinue(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        ThreadUtil.execute(buildList(0, 10), 1, null, new FailPartitionPerHandler(atomicInteger, 2, 5), build(PartitionFailurePolicy.LOG_AND_CONTINUE));
+        assertEquals(8, atomicInteger.get());
+    }
+
+    @Test
+    public void testCollectAll(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+        try{
+            ThreadUtil.execute(buildList(0, 10), 1, null, new FailPartitionPerHandler(atomicInteger, 5, 2), build(PartitionFailurePolicy.COLLECT_ALL));
+            fail();
+        }catch (PartitionExecuteException e){
+            assertThat(e.getBatchNumberAndThrowableMap().keySet(), contains(2, 5));
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+        }
+        assertEquals(8, atomicInteger.get());
+    }
+
+    @Test
+    public void testFailFast(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        //单线程的线程池, 分区顺序执行
+        PartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(
+                        new ExecutorServicePartitionThreadExecutor(1).getExecutorService(),
+                        PartitionFailurePolicy.FAIL_FAST);
+        try{
+            ThreadUtil.execute(buildList(0, 100), 1, null, new FailPartitionPerHandler(atomicInteger, 3), partitionThreadExecutor);
+            fail();
+        }catch (PartitionExecuteException e){
+            assertThat(e.getBatchNumberAndThrowableMap().keySet(), contains(3));
+        }
+
+        //第3个分区失败之后, 其他分区被取消
+        assertThat(atomicInteger.get(), lessThan(10));
+    }
+
+    @Test
+    public void testRetry(){
+        final ConcurrentMap<Integer, AtomicInteger> batchNumberAndCountMap = new ConcurrentHashMap<>();
+
+        ThreadUtil.execute(buildList(0, 10), 1, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                int batchNumber = partitionThreadEntity.getBatchNumber();
+                batchNumberAndCountMap.putIfAbsent(batchNumber, new AtomicInteger(0));
+
+                //偶数分区前2次失败
+                if (batchNumberAndCountMap.get(batchNumber).incrementAndGet() <= 2 && batchNumber % 2 == 0){
+                    throw new IllegalStateException("mock exception");
+                }
+            }
+        }, build(PartitionFailurePolicy.retry(2, 1)));
+
+        assertEquals(3, batchNumberAndCountMap.get(0).get());
+        assertEquals(1, batchNumberAndCountMap.get(1).get());
+    }
+
+    @Test
+    public void testRetryExhausted(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+        try{
+            ThreadUtil.execute(buildList(0, 10), 1, null, new FailPartitionPerHandler(atomicInteger, 4), build(PartitionFailurePolicy.retry(3, 0)));
+            fail();
+        }catch (PartitionExecuteException e){
+            assertThat(e.getBatchNumberAndThrowableMap().keySet(), contains(4));
+        }
+        assertEquals(9, atomicInteger.get());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRetryInvalidMaxRetries(){
+        PartitionFailurePolicy.retry(-1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRetryInvalidBackoff(){
+        PartitionFailurePolicy.retry(1, -1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullPartitionFailurePolicy(){
+        new ExecutorServicePartitionThreadExecutor(ExecutorServicePartitionThreadExecutor.INSTANCE.getExecutorService(), null);
+    }
+
+    //---------------------------------------------------------------
+
+    private static PartitionThreadExecutor build(PartitionFailurePolicy partitionFailurePolicy){
+        return new ExecutorServicePartitionThreadExecutor(
+                        ExecutorServicePartitionThreadExecutor.INSTANCE.getExecutorService(),
+                        partitionFailurePolicy);
+    }
+
+    /**
+     * 指定的分区抛出异常, 其他分区累加处理的数量.
+     */
+    private static class FailPartitionPerHandler implements PartitionPerHandler<Integer>{
+
+        private final AtomicInteger atomicInteger;
+
+        private final List<Integer> failBatchNumbers;
+
+        private FailPartitionPerHandler(AtomicInteger atomicInteger, Integer...failBatchNumbers){
+            this.atomicInteger = atomicInteger;
+            this.failBatchNumbers = toList(failBatchNumbers);
+        }
+
+        @Override
+        public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+            if (failBatchNumbers.contains(partitionThreadEntity.getBatchNumber())){
+                throw new IllegalStateException("mock exception");
+            }
+            atomicInteger.addAndGet(perBatchList.size());
+        }
+    }
+}
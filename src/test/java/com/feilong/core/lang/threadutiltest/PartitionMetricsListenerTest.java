@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.AbstractPartitionThreadExecutor;
+import com.feilong.core.lang.thread.DefaultPartitionRunnableBuilder;
+import com.feilong.core.lang.thread.DefaultPartitionThreadExecutor;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionMetrics;
+import com.feilong.core.lang.thread.PartitionMetricsListener;
+import com.feilong.core.lang.thread.PartitionPerHandler;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+import com.feilong.core.lang.thread.StreamingPartitionThreadExecutor;
+
+/**
+ * The Class PartitionMetricsListenerTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class PartitionMetricsListenerTest extends AbstractExcuteTest{
+
+    /** The Constant log. */
+    private static final Logger            LOGGER = LoggerFactory.getLogger(PartitionMetricsListenerTest.class);
+
+    private static final String            NAME   = "DefaultPartitionRunnableBuilder";
+
+    private PartitionMetricsListener       partitionMetricsListener;
+
+    private AbstractPartitionThreadExecutor partitionThreadExecutor;
+
+    //---------------------------------------------------------------
+
+    @Before
+    public void before(){
+        partitionMetricsListener = new PartitionMetricsListener();
+        partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(4);
+        partitionThreadExecutor.setPartitionListener(partitionMetricsListener);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testMetrics(){
+        ThreadUtil.execute(buildList(0, 100), 10, null, new SkewPartitionPerHandler(7), partitionThreadExecutor);
+
+        PartitionMetrics partitionMetrics = partitionMetricsListener.getPartitionMetrics(NAME);
+        LOGGER.debug("{}", partitionMetrics);
+
+        assertEquals(10, partitionMetrics.getSubmitCount());
+        assertEquals(10, partitionMetrics.getCompleteCount());
+        assertEquals(0, partitionMetrics.getFailureCount());
+        assertEquals(0, partitionMetrics.getRunningCount());
+        assertEquals(100, partitionMetrics.getItemCount());
+        assertThat(partitionMetrics.getItemsPerSecond(), greaterThan(0d));
+
+        //第7个分区倾斜
+        assertEquals(7, partitionMetrics.getSlowestBatchNumber());
+        assertThat(partitionMetrics.getMaxRunMilliseconds(), greaterThanOrEqualTo(50d));
+        assertThat(partitionMetrics.getP50RunMilliseconds(), lessThan(50d));
+        assertThat(partitionMetrics.getRunMillisecondsAtPercentile(1), greaterThanOrEqualTo(50d));
+        assertThat(partitionMetrics.getP99RunMilliseconds(), greaterThanOrEqualTo(partitionMetrics.getP50RunMilliseconds()));
+    }
+
+    @Test
+    public void testMetricsWithException(){
+        ThreadUtil.execute(buildList(0, 10), 2, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                if (partitionThreadEntity.getBatchNumber() == 1){
+                    throw new IllegalStateException("mock exception");
+                }
+            }
+        }, partitionThreadExecutor);
+
+        PartitionMetrics partitionMetrics = partitionMetricsListener.getPartitionMetrics(NAME);
+        assertEquals(5, partitionMetrics.getCompleteCount());
+        assertEquals(1, partitionMetrics.getFailureCount());
+        assertEquals(8, partitionMetrics.getItemCount());
+    }
+
+    /**
+     * 监听器不改变线程名字.
+     */
+    @Test
+    public void testThreadName(){
+        DefaultPartitionThreadExecutor defaultPartitionThreadExecutor = new DefaultPartitionThreadExecutor();
+        defaultPartitionThreadExecutor.setPartitionListener(partitionMetricsListener);
+
+        ThreadUtil.execute(buildList(0, 10), 5, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                assertEquals("Thread-" + NAME + "-" + partitionThreadEntity.getBatchNumber(), Thread.currentThread().getName());
+            }
+        }, defaultPartitionThreadExecutor);
+
+        assertEquals(2, partitionMetricsListener.getPartitionMetrics(NAME).getCompleteCount());
+    }
+
+    @Test
+    public void testStreaming(){
+        StreamingPartitionThreadExecutor streamingPartitionThreadExecutor = new StreamingPartitionThreadExecutor(
+                        ExecutorServicePartitionThreadExecutor.INSTANCE.getExecutorService(),
+                        2);
+        streamingPartitionThreadExecutor.setPartitionListener(partitionMetricsListener);
+
+        streamingPartitionThreadExecutor.execute(buildList(0, 25), 10, null, new DefaultPartitionRunnableBuilder<>(new SkewPartitionPerHandler(-1)));
+
+        PartitionMetrics partitionMetrics = partitionMetricsListener.getPartitionMetrics(NAME);
+        assertEquals(3, partitionMetrics.getSubmitCount());
+        assertEquals(25, partitionMetrics.getItemCount());
+    }
+
+    @Test
+    public void testClear(){
+        ThreadUtil.execute(buildList(0, 10), 5, null, new SkewPartitionPerHandler(-1), partitionThreadExecutor);
+        assertEquals(1, partitionMetricsListener.getPartitionMetricsMap().size());
+
+        partitionMetricsListener.clear();
+        assertNull(partitionMetricsListener.getPartitionMetrics(NAME));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile(){
+        ThreadUtil.execute(buildList(0, 10), 5, null, new SkewPartitionPerHandler(-1), partitionThreadExecutor);
+        partitionMetricsListener.getPartitionMetrics(NAME).getRunMillisecondsAtPercentile(0);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 指定的分区耗时特别长.
+     */
+    private static class SkewPartitionPerHandler implements PartitionPerHandler<Integer>{
+
+        private final int skewBatchNumber;
+
+        private SkewPartitionPerHandler(int skewBatchNumber){
+            this.skewBatchNumber = skewBatchNumber;
+        }
+
+        @Override
+        public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+            ThreadUtil.sleep(partitionThreadEntity.getBatchNumber() == skewBatchNumber ? 60 : 1);
+        }
+    }
+}
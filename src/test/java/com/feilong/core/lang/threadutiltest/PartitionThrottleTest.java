@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.date.DateUtil.now;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionExecuteException;
+import com.feilong.core.lang.thread.PartitionFailurePolicy;
+import com.feilong.core.lang.thread.PartitionListener;
+import com.feilong.core.lang.thread.PartitionPerHandler;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+import com.feilong.core.lang.thread.PartitionThrottle;
+
+/**
+ * The Class PartitionThrottleTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class PartitionThrottleTest extends AbstractExcuteTest{
+
+    @Test
+    public void testMaxConcurrentPartitions(){
+        ConcurrencyPartitionPerHandler concurrencyPartitionPerHandler = new ConcurrencyPartitionPerHandler();
+
+        ExecutorServicePartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(8);
+        partitionThreadExecutor.setPartitionThrottle(new PartitionThrottle(2, PartitionThrottle.UNLIMITED));
+
+        ThreadUtil.execute(buildList(0, 20), 1, null, concurrencyPartitionPerHandler, partitionThreadExecutor);
+
+        assertEquals(20, concurrencyPartitionPerHandler.handledCount.get());
+        assertThat(concurrencyPartitionPerHandler.maxConcurrency.get(), lessThanOrEqualTo(2));
+    }
+
+    /**
+     * {@link PartitionThreadConfig} 中配置的并发上限, 默认执行器每个分区一个线程, 也只有 3 个同时执行.
+     */
+    @Test
+    public void testPartitionThreadConfig(){
+        ConcurrencyPartitionPerHandler concurrencyPartitionPerHandler = new ConcurrencyPartitionPerHandler();
+
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(1);
+        partitionThreadConfig.setMaxConcurrentPartitions(3);
+
+        ThreadUtil.execute(buildList(0, 20), partitionThreadConfig, null, concurrencyPartitionPerHandler);
+
+        assertEquals(20, concurrencyPartitionPerHandler.handledCount.get());
+        assertThat(concurrencyPartitionPerHandler.maxConcurrency.get(), lessThanOrEqualTo(3));
+    }
+
+    /**
+     * 桶的容量是 500, 剩下的 500 个元素需要再等 1 秒.
+     */
+    @Test
+    public void testPermitsPerSecond(){
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(50);
+        partitionThreadConfig.setPermitsPerSecond(500);
+
+        ConcurrencyPartitionPerHandler concurrencyPartitionPerHandler = new ConcurrencyPartitionPerHandler();
+
+        Date beginDate = now();
+        ThreadUtil.execute(
+                        buildList(0, 1000),
+                        partitionThreadConfig,
+                        null,
+                        concurrencyPartitionPerHandler,
+                        ExecutorServicePartitionThreadExecutor.INSTANCE);
+        long useTime = now().getTime() - beginDate.getTime();
+
+        assertEquals(1000, concurrencyPartitionPerHandler.handledCount.get());
+        assertThat(useTime, greaterThanOrEqualTo(900L));
+    }
+
+    /**
+     * 同一个配置的多次调用共享令牌桶, 第一次调用用完了 500 个令牌, 第二次调用需要等 1 秒.
+     */
+    @Test
+    public void testPermitsPerSecondSharedByConfig(){
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(50);
+        partitionThreadConfig.setPermitsPerSecond(500);
+
+        ConcurrencyPartitionPerHandler concurrencyPartitionPerHandler = new ConcurrencyPartitionPerHandler();
+
+        Date beginDate = now();
+        ThreadUtil.execute(buildList(0, 500), partitionThreadConfig, null, concurrencyPartitionPerHandler);
+        ThreadUtil.execute(buildList(0, 500), partitionThreadConfig, null, concurrencyPartitionPerHandler);
+        long useTime = now().getTime() - beginDate.getTime();
+
+        assertEquals(1000, concurrencyPartitionPerHandler.handledCount.get());
+        assertThat(useTime, greaterThanOrEqualTo(900L));
+    }
+
+    /**
+     * 执行器已经使用了这个配置的限流, 不会再限流一次.
+     */
+    @Test
+    public void testExecutorWithSameThrottle(){
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(50);
+        partitionThreadConfig.setPermitsPerSecond(500);
+
+        ExecutorServicePartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(4);
+        partitionThreadExecutor.setPartitionThrottle(partitionThreadConfig.getPartitionThrottle());
+
+        ConcurrencyPartitionPerHandler concurrencyPartitionPerHandler = new ConcurrencyPartitionPerHandler();
+
+        Date beginDate = now();
+        ThreadUtil.execute(buildList(0, 500), partitionThreadConfig, null, concurrencyPartitionPerHandler, partitionThreadExecutor);
+        long useTime = now().getTime() - beginDate.getTime();
+
+        assertEquals(500, concurrencyPartitionPerHandler.handledCount.get());
+        assertThat(useTime, lessThan(900L));
+    }
+
+    /**
+     * 限流的等待发生在调用线程中, 不占用共享线程池的线程, 同一个线程池上不限流的调用不受影响.
+     */
+    @Test
+    public void testUnthrottledCallerNotDelayed() throws InterruptedException{
+        //桶里的 10 个令牌用完之后, 每 100 毫秒才能提交一个分区
+        final ExecutorServicePartitionThreadExecutor throttledPartitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(
+                        ExecutorServicePartitionThreadExecutor.INSTANCE.getExecutorService());
+        throttledPartitionThreadExecutor.setPartitionThrottle(new PartitionThrottle(PartitionThrottle.UNLIMITED, 10));
+
+        final List<Integer> list = buildList(0, 10 + ExecutorServicePartitionThreadExecutor.DEFAULT_PARALLELISM * 4);
+        Thread throttledThread = new Thread(new Runnable(){
+
+            @Override
+            public void run(){
+                ThreadUtil.execute(list, 1, null, new ConcurrencyPartitionPerHandler(), throttledPartitionThreadExecutor);
+            }
+        });
+        throttledThread.start();
+        ThreadUtil.sleep(200);
+
+        //---------------------------------------------------------------
+        Date beginDate = now();
+        ThreadUtil.execute(buildList(0, 2), 1, null, new ConcurrencyPartitionPerHandler(), ExecutorServicePartitionThreadExecutor.INSTANCE);
+        long useTime = now().getTime() - beginDate.getTime();
+
+        throttledThread.join();
+        assertThat(useTime, lessThan(100L));
+    }
+
+    /**
+     * {@link PartitionThreadConfig} 的限流在 listener 外层, 等待的时间计入排队耗时, 不计入执行耗时.
+     */
+    @Test
+    public void testThrottleWaitCountedAsQueueWait(){
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig(100, 1);
+        partitionThreadConfig.setMaxConcurrentPartitions(1);
+
+        ExecutorServicePartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(4);
+        MaxNanosPartitionListener maxNanosPartitionListener = new MaxNanosPartitionListener();
+        partitionThreadExecutor.setPartitionListener(maxNanosPartitionListener);
+
+        ThreadUtil.execute(buildList(0, 3), partitionThreadConfig, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                ThreadUtil.sleep(100);
+            }
+        }, partitionThreadExecutor);
+
+        //每个分区都要等前一个分区执行完成才能拿到名额
+        assertThat(maxNanosPartitionListener.maxRunNanos.get(), lessThan(TimeUnit.MILLISECONDS.toNanos(150)));
+        assertThat(maxNanosPartitionListener.maxQueueWaitNanos.get(), greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(90)));
+    }
+
+    /**
+     * fail fast 没有执行的分区也要释放名额, 否则之后的调用会一直等待.
+     */
+    @Test(timeout = 10000)
+    public void testFailFastReleasePermits(){
+        PartitionThrottle partitionThrottle = new PartitionThrottle(2, PartitionThrottle.UNLIMITED);
+        ExecutorServicePartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(
+                        ExecutorServicePartitionThreadExecutor.INSTANCE.getExecutorService(),
+                        PartitionFailurePolicy.FAIL_FAST);
+        partitionThreadExecutor.setPartitionThrottle(partitionThrottle);
+
+        for (int i = 0; i < 5; ++i){
+            try{
+                ThreadUtil.execute(buildList(0, 20), 1, null, new PartitionPerHandler<Integer>(){
+
+                    @Override
+                    public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                        ThreadUtil.sleep(10);
+                        throw new IllegalStateException("mock exception");
+                    }
+                }, partitionThreadExecutor);
+                fail();
+            }catch (PartitionExecuteException e){
+                assertThat(e.getBatchNumberAndThrowableMap().size(), lessThanOrEqualTo(2));
+            }
+        }
+
+        ConcurrencyPartitionPerHandler concurrencyPartitionPerHandler = new ConcurrencyPartitionPerHandler();
+        ThreadUtil.execute(buildList(0, 20), 1, null, concurrencyPartitionPerHandler, partitionThreadExecutor);
+        assertEquals(20, concurrencyPartitionPerHandler.handledCount.get());
+        assertThat(concurrencyPartitionPerHandler.maxConcurrency.get(), lessThanOrEqualTo(2));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGetPartitionThrottle(){
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig();
+        assertNull(partitionThreadConfig.getPartitionThrottle());
+
+        partitionThreadConfig.setMaxConcurrentPartitions(3);
+        PartitionThrottle partitionThrottle = partitionThreadConfig.getPartitionThrottle();
+        assertSame(partitionThrottle, partitionThreadConfig.getPartitionThrottle());
+
+        partitionThreadConfig.setPermitsPerSecond(100);
+        PartitionThrottle newPartitionThrottle = partitionThreadConfig.getPartitionThrottle();
+        assertNotSame(partitionThrottle, newPartitionThrottle);
+        assertEquals(3, newPartitionThrottle.getMaxConcurrentPartitions());
+        assertEquals(100, newPartitionThrottle.getPermitsPerSecond(), 0);
+    }
+
+    @Test
+    public void testBuildUnlimited(){
+        assertNull(PartitionThrottle.build(new PartitionThreadConfig()));
+    }
+
+    @Test
+    public void testBuild(){
+        PartitionThreadConfig partitionThreadConfig = new PartitionThreadConfig();
+        partitionThreadConfig.setPermitsPerSecond(100);
+
+        PartitionThrottle partitionThrottle = PartitionThrottle.build(partitionThreadConfig);
+        assertEquals(PartitionThrottle.UNLIMITED, partitionThrottle.getMaxConcurrentPartitions());
+        assertEquals(100, partitionThrottle.getPermitsPerSecond(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxConcurrentPartitions(){
+        new PartitionThrottle(-1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPermitsPerSecond(){
+        new PartitionThrottle(0, -1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testBuildNullPartitionThreadConfig(){
+        PartitionThrottle.build(null);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 记录最大的排队耗时以及执行耗时.
+     */
+    private static class MaxNanosPartitionListener implements PartitionListener{
+
+        private final AtomicLong maxQueueWaitNanos = new AtomicLong(0);
+
+        private final AtomicLong maxRunNanos       = new AtomicLong(0);
+
+        @Override
+        public void onSubmit(String name,PartitionThreadEntity partitionThreadEntity){
+        }
+
+        @Override
+        public void onStart(String name,PartitionThreadEntity partitionThreadEntity,long queueWaitNanos){
+            synchronized (maxQueueWaitNanos){
+                maxQueueWaitNanos.set(Math.max(maxQueueWaitNanos.get(), queueWaitNanos));
+            }
+        }
+
+        @Override
+        public void onComplete(String name,PartitionThreadEntity partitionThreadEntity,long runNanos,Throwable throwable){
+            synchronized (maxRunNanos){
+                maxRunNanos.set(Math.max(maxRunNanos.get(), runNanos));
+            }
+        }
+    }
+
+    /**
+     * 记录同时执行的最大分区数量.
+     */
+    private static class ConcurrencyPartitionPerHandler implements PartitionPerHandler<Integer>{
+
+        private final AtomicInteger concurrency    = new AtomicInteger(0);
+
+        private final AtomicInteger maxConcurrency = new AtomicInteger(0);
+
+        private final AtomicInteger handledCount   = new AtomicInteger(0);
+
+        @Override
+        public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+            int current = concurrency.incrementAndGet();
+            synchronized (maxConcurrency){
+                maxConcurrency.set(Math.max(maxConcurrency.get(), current));
+            }
+
+            ThreadUtil.sleep(10);
+            handledCount.addAndGet(perBatchList.size());
+            concurrency.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.DefaultPartitionRunnableBuilder;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionExecuteException;
+import com.feilong.core.lang.thread.PartitionFailurePolicy;
+import com.feilong.core.lang.thread.PartitionPerHandler;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+import com.feilong.core.lang.thread.StreamingPartitionThreadExecutor;
+import com.feilong.core.lang.threadutiltest.entity.CalculatePartitionPerHandler;
+
+/**
+ * The Class StreamingPartitionThreadExecutorTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class StreamingPartitionThreadExecutorTest extends AbstractExcuteTest{
+
+    private static final ExecutorService EXECUTOR_SERVICE = ExecutorServicePartitionThreadExecutor.INSTANCE.getExecutorService();
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testExecute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        StreamingPartitionThreadExecutor.INSTANCE.execute(
+                        new RangeIterator(0, 10000),
+                        100,
+                        paramsMap,
+                        new DefaultPartitionRunnableBuilder<Integer>(new CalculatePartitionPerHandler()));
+        assertEquals(49995000, atomicInteger.get());
+    }
+
+    @Test
+    public void testExecuteIterable(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        StreamingPartitionThreadExecutor.INSTANCE.execute(
+                        toList(2, 5, 6, 7),
+                        3,
+                        paramsMap,
+                        new DefaultPartitionRunnableBuilder<Integer>(new CalculatePartitionPerHandler()));
+        assertEquals(20, atomicInteger.get());
+    }
+
+    @Test
+    public void testExecuteList(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(toList(2, 5, 6, 7), 2, paramsMap, new CalculatePartitionPerHandler(), StreamingPartitionThreadExecutor.INSTANCE);
+        assertEquals(20, atomicInteger.get());
+    }
+
+    @Test
+    public void testExecuteEmpty(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+        StreamingPartitionThreadExecutor.INSTANCE.execute(
+                        Collections.<Integer> emptyIterator(),
+                        3,
+                        null,
+                        new DefaultPartitionRunnableBuilder<Integer>(new CountPartitionPerHandler(atomicInteger)));
+        assertEquals(0, atomicInteger.get());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testPartitionThreadEntity(){
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+        StreamingPartitionThreadExecutor streamingPartitionThreadExecutor = new StreamingPartitionThreadExecutor(EXECUTOR_SERVICE, 1);
+        streamingPartitionThreadExecutor.execute(new RangeIterator(0, 10), 4, null, new DefaultPartitionRunnableBuilder<Integer>(
+                        new PartitionPerHandler<Integer>(){
+
+                            @Override
+                            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                                assertEquals(StreamingPartitionThreadExecutor.UNKNOWN_TOTAL_COUNT, partitionThreadEntity.getTotalListCount());
+                                assertEquals(4, partitionThreadEntity.getEachSize());
+                                assertEquals(perBatchList.get(0).intValue(), partitionThreadEntity.getBatchNumber() * 4);
+                                assertEquals(partitionThreadEntity.getName(), Thread.currentThread().getName());
+                                batchSizes.add(partitionThreadEntity.getCurrentListSize());
+                            }
+                        }));
+
+        //maxInFlightBatches 是1, 分区顺序执行
+        assertThat(batchSizes, contains(4, 4, 2));
+    }
+
+    /**
+     * 读取的速度远远大于处理的速度, 读取线程领先处理线程的元素数量不会超过上限.
+     */
+    @Test
+    public void testBackpressure(){
+        final int eachSize = 10;
+        final int maxInFlightBatches = 3;
+
+        final AtomicInteger handledCount = new AtomicInteger(0);
+        final AtomicInteger maxAhead = new AtomicInteger(0);
+
+        final RangeIterator rangeIterator = new RangeIterator(0, 1000){
+
+            @Override
+            public Integer next(){
+                Integer next = super.next();
+
+                int ahead = next - handledCount.get();
+                if (ahead > maxAhead.get()){
+                    maxAhead.set(ahead);
+                }
+                return next;
+            }
+        };
+
+        StreamingPartitionThreadExecutor streamingPartitionThreadExecutor = new StreamingPartitionThreadExecutor(
+                        EXECUTOR_SERVICE,
+                        maxInFlightBatches);
+        streamingPartitionThreadExecutor.execute(rangeIterator, eachSize, null, new DefaultPartitionRunnableBuilder<Integer>(
+                        new PartitionPerHandler<Integer>(){
+
+                            @Override
+                            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                                ThreadUtil.sleep(1);
+                                handledCount.addAndGet(perBatchList.size());
+                            }
+                        }));
+
+        assertEquals(1000, handledCount.get());
+        //在排队或者执行的分区 + 正在读取的分区
+        assertThat(maxAhead.get(), lessThanOrEqualTo((maxInFlightBatches + 1) * eachSize));
+    }
+
+    @Test
+    public void testFailFast(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+        RangeIterator rangeIterator = new RangeIterator(0, 100000);
+
+        StreamingPartitionThreadExecutor streamingPartitionThreadExecutor = new StreamingPartitionThreadExecutor(
+                        EXECUTOR_SERVICE,
+                        1,
+                        PartitionFailurePolicy.FAIL_FAST);
+        try{
+            streamingPartitionThreadExecutor.execute(rangeIterator, 10, null, new DefaultPartitionRunnableBuilder<Integer>(
+                            new PartitionPerHandler<Integer>(){
+
+                                @Override
+                                public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                                    if (partitionThreadEntity.getBatchNumber() == 2){
+                                        throw new IllegalStateException("mock exception");
+                                    }
+                                    atomicInteger.addAndGet(perBatchList.size());
+                                }
+                            }));
+            fail();
+        }catch (PartitionExecuteException e){
+            assertThat(e.getBatchNumberAndThrowableMap().keySet(), contains(2));
+        }
+
+        //不再读取后面的数据
+        assertEquals(true, rangeIterator.hasNext());
+        assertThat(atomicInteger.get(), lessThan(100));
+    }
+
+    @Test
+    public void testCollectAllError(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        StreamingPartitionThreadExecutor streamingPartitionThreadExecutor = new StreamingPartitionThreadExecutor(
+                        EXECUTOR_SERVICE,
+                        2,
+                        PartitionFailurePolicy.COLLECT_ALL);
+        try{
+            streamingPartitionThreadExecutor.execute(new RangeIterator(0, 100), 10, null, new DefaultPartitionRunnableBuilder<Integer>(
+                            new PartitionPerHandler<Integer>(){
+
+                                @Override
+                                public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                                    if (partitionThreadEntity.getBatchNumber() == 3){
+                                        throw new NoClassDefFoundError("mock error");
+                                    }
+                                    atomicInteger.addAndGet(perBatchList.size());
+                                }
+                            }));
+            fail();
+        }catch (PartitionExecuteException e){
+            assertThat(e.getBatchNumberAndThrowableMap().keySet(), contains(3));
+            assertThat(e.getCause(), instanceOf(NoClassDefFoundError.class));
+        }
+        assertEquals(90, atomicInteger.get());
+    }
+
+    @Test
+    public void testFailFastError(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+        RangeIterator rangeIterator = new RangeIterator(0, 100000);
+
+        StreamingPartitionThreadExecutor streamingPartitionThreadExecutor = new StreamingPartitionThreadExecutor(
+                        EXECUTOR_SERVICE,
+                        1,
+                        PartitionFailurePolicy.FAIL_FAST);
+        try{
+            streamingPartitionThreadExecutor.execute(rangeIterator, 10, null, new DefaultPartitionRunnableBuilder<Integer>(
+                            new PartitionPerHandler<Integer>(){
+
+                                @Override
+                                public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                                    if (partitionThreadEntity.getBatchNumber() == 2){
+                                        throw new NoClassDefFoundError("mock error");
+                                    }
+                                    atomicInteger.addAndGet(perBatchList.size());
+                                }
+                            }));
+            fail();
+        }catch (PartitionExecuteException e){
+            assertThat(e.getBatchNumberAndThrowableMap().keySet(), contains(2));
+        }
+
+        //不再读取后面的数据
+        assertEquals(true, rangeIterator.hasNext());
+        assertThat(atomicInteger.get(), lessThan(100));
+    }
+
+    /**
+     * iterator 中途抛出异常, 等已经提交的分区执行完成之后再抛出.
+     */
+    @Test
+    public void testIteratorThrowException(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+        Iterator<Integer> iterator = new RangeIterator(0, 100){
+
+            @Override
+            public Integer next(){
+                Integer next = super.next();
+                if (next == 30){
+                    throw new IllegalStateException("mock exception");
+                }
+                return next;
+            }
+        };
+
+        StreamingPartitionThreadExecutor streamingPartitionThreadExecutor = new StreamingPartitionThreadExecutor(EXECUTOR_SERVICE, 4);
+        try{
+            streamingPartitionThreadExecutor.execute(iterator, 10, null, new DefaultPartitionRunnableBuilder<Integer>(
+                            new PartitionPerHandler<Integer>(){
+
+                                @Override
+                                public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                                    ThreadUtil.sleep(100);
+                                    atomicInteger.addAndGet(perBatchList.size());
+                                }
+                            }));
+            fail();
+        }catch (IllegalStateException e){
+            assertEquals("mock exception", e.getMessage());
+        }
+        assertEquals(30, atomicInteger.get());
+    }
+
+    /**
+     * 调用线程被中断, 依然等已经提交的分区执行完成, 并且保留中断状态.
+     */
+    @Test
+    public void testInterruptedWaitSubmittedPartitions(){
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+        final Thread callerThread = Thread.currentThread();
+
+        StreamingPartitionThreadExecutor streamingPartitionThreadExecutor = new StreamingPartitionThreadExecutor(EXECUTOR_SERVICE, 2);
+        try{
+            streamingPartitionThreadExecutor.execute(new RangeIterator(0, 100), 10, null, new DefaultPartitionRunnableBuilder<Integer>(
+                            new PartitionPerHandler<Integer>(){
+
+                                @Override
+                                public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                                    if (partitionThreadEntity.getBatchNumber() == 0){
+                                        callerThread.interrupt();
+                                    }
+                                    ThreadUtil.sleep(100);
+                                    atomicInteger.addAndGet(perBatchList.size());
+                                }
+                            }));
+
+            //中断的时候已经提交的分区都执行完成了
+            int handledCount = atomicInteger.get();
+            ThreadUtil.sleep(300);
+            assertEquals(handledCount, atomicInteger.get());
+            assertThat(handledCount, lessThan(100));
+            assertEquals(true, Thread.currentThread().isInterrupted());
+        }finally{
+            //清除中断状态, 不影响其他测试
+            Thread.interrupted();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testExecuteNullIterator(){
+        StreamingPartitionThreadExecutor.INSTANCE.execute(
+                        (Iterator<Integer>) null,
+                        3,
+                        null,
+                        new DefaultPartitionRunnableBuilder<Integer>(new CalculatePartitionPerHandler()));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testExecuteNullIterable(){
+        StreamingPartitionThreadExecutor.INSTANCE.execute(
+                        (Iterable<Integer>) null,
+                        3,
+                        null,
+                        new DefaultPartitionRunnableBuilder<Integer>(new CalculatePartitionPerHandler()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecuteInvalidEachSize(){
+        StreamingPartitionThreadExecutor.INSTANCE.execute(
+                        new RangeIterator(0, 10),
+                        0,
+                        null,
+                        new DefaultPartitionRunnableBuilder<Integer>(new CalculatePartitionPerHandler()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxInFlightBatches(){
+        new StreamingPartitionThreadExecutor(EXECUTOR_SERVICE, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullExecutorService(){
+        new StreamingPartitionThreadExecutor(null, 1);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 不需要把所有数据加载到内存的 iterator.
+     */
+    private static class RangeIterator implements Iterator<Integer>{
+
+        private int       current;
+
+        private final int end;
+
+        private RangeIterator(int start, int end){
+            this.current = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext(){
+            return current < end;
+        }
+
+        @Override
+        public Integer next(){
+            return current++;
+        }
+
+        @Override
+        public void remove(){
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class CountPartitionPerHandler implements PartitionPerHandler<Integer>{
+
+        private final AtomicInteger atomicInteger;
+
+        private CountPartitionPerHandler(AtomicInteger atomicInteger){
+            this.atomicInteger = atomicInteger;
+        }
+
+        @Override
+        public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+            atomicInteger.addAndGet(perBatchList.size());
+        }
+    }
+}
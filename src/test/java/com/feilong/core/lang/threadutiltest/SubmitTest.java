@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.ExecutorServicePartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionFuture;
+import com.feilong.core.lang.thread.PartitionMetrics;
+import com.feilong.core.lang.thread.PartitionMetricsListener;
+import com.feilong.core.lang.thread.PartitionResultHandler;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+import com.feilong.core.lang.thread.PartitionThrottle;
+
+/**
+ * The Class SubmitTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class SubmitTest extends AbstractExcuteTest{
+
+    /** 返回每个分区的和. */
+    private static final PartitionResultHandler<Integer, Integer> SUM_PARTITION_RESULT_HANDLER = new PartitionResultHandler<Integer, Integer>(){
+
+        @Override
+        public Integer handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+            int sum = 0;
+            for (Integer value : perBatchList){
+                sum += value;
+            }
+            return sum;
+        }
+    };
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSubmit() throws InterruptedException,ExecutionException{
+        PartitionFuture<Integer> partitionFuture = ThreadUtil.submit(toList(2, 5, 6, 7, 1), 2, null, SUM_PARTITION_RESULT_HANDLER);
+
+        assertThat(partitionFuture.get(), contains(7, 13, 1));
+        assertEquals(3, partitionFuture.getPartitionFutures().size());
+        assertEquals(true, partitionFuture.isDone());
+    }
+
+    @Test
+    public void testSubmitNotBlockCaller() throws Exception{
+        final CountDownLatch countDownLatch = new CountDownLatch(1);
+
+        PartitionFuture<Integer> partitionFuture = ThreadUtil.submit(buildList(0, 10), 5, null, new PartitionResultHandler<Integer, Integer>(){
+
+            @Override
+            public Integer handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                try{
+                    countDownLatch.await();
+                }catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                }
+                return perBatchList.size();
+            }
+        });
+
+        //分区还在等待,调用线程已经返回
+        assertEquals(false, partitionFuture.isDone());
+
+        countDownLatch.countDown();
+        assertThat(partitionFuture.get(1, TimeUnit.MINUTES), contains(5, 5));
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testSubmitTimeout() throws Exception{
+        final CountDownLatch countDownLatch = new CountDownLatch(1);
+
+        PartitionFuture<Integer> partitionFuture = ThreadUtil.submit(buildList(0, 10), 5, null, new PartitionResultHandler<Integer, Integer>(){
+
+            @Override
+            public Integer handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                try{
+                    countDownLatch.await();
+                }catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                }
+                return perBatchList.size();
+            }
+        });
+
+        try{
+            partitionFuture.get(10, TimeUnit.MILLISECONDS);
+        }finally{
+            partitionFuture.cancel(true);
+            assertEquals(true, partitionFuture.isCancelled());
+        }
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testSubmitWithException() throws InterruptedException,ExecutionException{
+        PartitionFuture<Integer> partitionFuture = ThreadUtil.submit(buildList(0, 10), 2, null, new PartitionResultHandler<Integer, Integer>(){
+
+            @Override
+            public Integer handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                if (partitionThreadEntity.getBatchNumber() == 3){
+                    throw new IllegalStateException("mock exception");
+                }
+                return perBatchList.size();
+            }
+        });
+        partitionFuture.get();
+    }
+
+    /**
+     * 执行器设置的 listener 以及 throttle 对 submit 同样生效.
+     */
+    @Test
+    public void testSubmitWithListenerAndThrottle() throws InterruptedException,ExecutionException{
+        PartitionMetricsListener partitionMetricsListener = new PartitionMetricsListener();
+
+        ExecutorServicePartitionThreadExecutor partitionThreadExecutor = new ExecutorServicePartitionThreadExecutor(4);
+        partitionThreadExecutor.setPartitionListener(partitionMetricsListener);
+        partitionThreadExecutor.setPartitionThrottle(new PartitionThrottle(1, PartitionThrottle.UNLIMITED));
+
+        final AtomicInteger concurrency = new AtomicInteger(0);
+        final AtomicInteger maxConcurrency = new AtomicInteger(0);
+        PartitionFuture<Integer> partitionFuture = partitionThreadExecutor
+                        .submit(buildList(0, 10), 2, null, new PartitionResultHandler<Integer, Integer>(){
+
+                            @Override
+                            public Integer handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                                int current = concurrency.incrementAndGet();
+                                synchronized (maxConcurrency){
+                                    maxConcurrency.set(Math.max(maxConcurrency.get(), current));
+                                }
+                                ThreadUtil.sleep(10);
+                                concurrency.decrementAndGet();
+                                return perBatchList.size();
+                            }
+                        });
+
+        assertThat(partitionFuture.get(), contains(2, 2, 2, 2, 2));
+        assertEquals(1, maxConcurrency.get());
+
+        PartitionMetrics partitionMetrics = partitionMetricsListener.getPartitionMetricsMap().values().iterator().next();
+        assertEquals(5, partitionMetrics.getSubmitCount());
+        assertEquals(5, partitionMetrics.getCompleteCount());
+        assertEquals(10, partitionMetrics.getItemCount());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testSubmitNullList(){
+        ThreadUtil.submit(null, 100, null, SUM_PARTITION_RESULT_HANDLER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubmitEmptyList(){
+        ThreadUtil.submit(Collections.<Integer> emptyList(), 100, null, SUM_PARTITION_RESULT_HANDLER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubmitInvalidEachSize(){
+        ThreadUtil.submit(toList(2), 0, null, SUM_PARTITION_RESULT_HANDLER);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSubmitNullPartitionResultHandler(){
+        ThreadUtil.submit(toList(2), 100, null, (PartitionResultHandler<Integer, Integer>) null);
+    }
+}
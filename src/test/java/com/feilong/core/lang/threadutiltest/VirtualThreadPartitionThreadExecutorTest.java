@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.ThreadUtil;
+import com.feilong.core.lang.thread.DefaultPartitionThreadExecutor;
+import com.feilong.core.lang.thread.PartitionPerHandler;
+import com.feilong.core.lang.thread.PartitionThreadConfig;
+import com.feilong.core.lang.thread.PartitionThreadEntity;
+import com.feilong.core.lang.thread.VirtualThreadPartitionThreadExecutor;
+import com.feilong.core.lang.threadutiltest.entity.CalculatePartitionPerHandler;
+
+/**
+ * The Class VirtualThreadPartitionThreadExecutorTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class VirtualThreadPartitionThreadExecutorTest extends AbstractExcuteTest{
+
+    @Test
+    public void testExecute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(toList(2, 5, 6, 7), 2, paramsMap, new CalculatePartitionPerHandler(), VirtualThreadPartitionThreadExecutor.INSTANCE);
+        assertEquals(20, atomicInteger.get());
+    }
+
+    @Test
+    public void testExecuteIoInstance(){
+        final List<PartitionThreadEntity> partitionThreadEntityList = new CopyOnWriteArrayList<>();
+
+        ThreadUtil.execute(buildList(0, 500), PartitionThreadConfig.IO_INSTANCE, null, new PartitionPerHandler<Integer>(){
+
+            @Override
+            public void handle(List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                partitionThreadEntityList.add(partitionThreadEntity);
+            }
+        }, VirtualThreadPartitionThreadExecutor.INSTANCE);
+
+        //每个元素一个分区
+        assertEquals(500, partitionThreadEntityList.size());
+    }
+
+    @Test
+    public void testExecuteFallback(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        VirtualThreadPartitionThreadExecutor partitionThreadExecutor = new VirtualThreadPartitionThreadExecutor(
+                        new DefaultPartitionThreadExecutor());
+        ThreadUtil.execute(buildList(0, 100), 10, paramsMap, new CalculatePartitionPerHandler(), partitionThreadExecutor);
+        assertEquals(4950, atomicInteger.get());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testVirtualThreadPartitionThreadExecutorNullFallback(){
+        new VirtualThreadPartitionThreadExecutor(null);
+    }
+}
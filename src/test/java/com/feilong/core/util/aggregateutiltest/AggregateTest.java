@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.collections4.Predicate;
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateSpec;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.aggregateutiltest.entity.OrderLine;
+
+/**
+ * The Class AggregateTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class AggregateTest{
+
+    private final List<OrderLine> list = toList(//
+                    new OrderLine(1L, 2, toBigDecimal("10.5")),
+                    new OrderLine(1L, null, toBigDecimal(20)),
+                    new OrderLine(2L, 3, null));
+
+    @Test
+    public void testAggregate(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder()//
+                        .sum("quantity")
+                        .avg("price", 2)
+                        .count()
+                        .min("price")
+                        .max("quantity")
+                        .build();
+
+        Map<String, BigDecimal> map = AggregateUtil.aggregate(list, aggregateSpec);
+
+        assertThat(map.keySet(), contains("sum(quantity)", "avg(price)", "count", "min(price)", "max(quantity)"));
+        assertEquals(toBigDecimal(5), map.get("sum(quantity)"));
+        assertEquals(toBigDecimal("10.17"), map.get("avg(price)"));
+        assertEquals(toBigDecimal(3), map.get("count"));
+        assertEquals(toBigDecimal("10.5"), map.get("min(price)"));
+        assertEquals(toBigDecimal(3), map.get("max(quantity)"));
+    }
+
+    /**
+     * 和 sum 以及 avg 结果一致.
+     */
+    @Test
+    public void testAggregateSameAsSumAndAvg(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder().sum("price").avg("quantity", 2).build();
+        Map<String, BigDecimal> map = AggregateUtil.aggregate(list, aggregateSpec);
+
+        assertEquals(AggregateUtil.sum(list, "price"), map.get("sum(price)"));
+        assertEquals(AggregateUtil.avg(list, "quantity", 2), map.get("avg(quantity)"));
+    }
+
+    /**
+     * 列名和默认 Locale 无关, tr_TR 下 "MIN".toLowerCase() 是 "mın".
+     */
+    @Test
+    public void testAggregateLabelIgnoreLocale(){
+        Locale defaultLocale = Locale.getDefault();
+        try{
+            Locale.setDefault(new Locale("tr", "TR"));
+            Map<String, BigDecimal> map = AggregateUtil.aggregate(list, AggregateSpec.<OrderLine> builder().min("price").build());
+            assertThat(map.keySet(), contains("min(price)"));
+        }finally{
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testAggregateAllNull(){
+        List<OrderLine> orderLineList = toList(new OrderLine(1L, null, null));
+        Map<String, BigDecimal> map = AggregateUtil.aggregate(orderLineList, AggregateSpec.<OrderLine> builder().sum("price").min("price").build());
+
+        assertEquals(BigDecimal.ZERO, map.get("sum(price)"));
+        assertNull(map.get("min(price)"));
+    }
+
+    @Test
+    public void testAggregateWhere(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder()//
+                        .count()
+                        .where(new Predicate<OrderLine>(){
+
+                            @Override
+                            public boolean evaluate(OrderLine orderLine){
+                                return orderLine.getStoreId() == 1L;
+                            }
+                        })
+                        .build();
+        assertEquals(toBigDecimal(2), AggregateUtil.aggregate(list, aggregateSpec).get("count"));
+    }
+
+    @Test
+    public void testAggregateNoneMatch(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder()//
+                        .count()
+                        .where(new Predicate<OrderLine>(){
+
+                            @Override
+                            public boolean evaluate(OrderLine orderLine){
+                                return false;
+                            }
+                        })
+                        .build();
+        assertEquals(emptyMap(), AggregateUtil.aggregate(list, aggregateSpec));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testAggregateNullIterable(){
+        assertEquals(emptyMap(), AggregateUtil.aggregate(null, AggregateSpec.<OrderLine> builder().count().build()));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAggregateNullSpec(){
+        AggregateUtil.aggregate(list, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregateSpecEmpty(){
+        AggregateSpec.<OrderLine> builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregateSpecDuplicateColumn(){
+        AggregateSpec.<OrderLine> builder().sum("price").sum("price");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregateSpecBlankPropertyName(){
+        AggregateSpec.<OrderLine> builder().sum(" ");
+    }
+}
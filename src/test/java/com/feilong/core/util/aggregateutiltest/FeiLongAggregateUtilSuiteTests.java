@@ -44,6 +44,12 @@ import org.junit.runners.Suite.SuiteClasses;
                 SumArrayTest.class,
                 SumPredicateTest.class,
                 SumTest.class,
+
+                AggregateTest.class,
+                GroupAggregateTest.class,
+                TimeBucketAggregateTest.class,
+                SumIntegralTest.class,
+                ParallelGroupSumAndCountTest.class,
         //
 })
 public class FeiLongAggregateUtilSuiteTests{
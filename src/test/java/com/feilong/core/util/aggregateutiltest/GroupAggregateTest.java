@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateSpec;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.aggregateutiltest.entity.OrderLine;
+
+/**
+ * The Class GroupAggregateTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class GroupAggregateTest{
+
+    private final List<OrderLine> list = toList(//
+                    new OrderLine(2L, 3, toBigDecimal(5)),
+                    new OrderLine(1L, 2, toBigDecimal(10)),
+                    new OrderLine(1L, null, toBigDecimal(20)),
+                    new OrderLine(null, 1, toBigDecimal(1)));
+
+    @Test
+    public void testGroupAggregate(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder().sum("quantity").count().max("price").build();
+        Map<Long, Map<String, BigDecimal>> map = AggregateUtil.groupAggregate(list, "storeId", aggregateSpec);
+
+        //顺序是第一次出现的顺序, null 也是一个分组
+        assertThat(map.keySet(), contains(2L, 1L, null));
+
+        Map<String, BigDecimal> store1 = map.get(1L);
+        assertEquals(toBigDecimal(2), store1.get("sum(quantity)"));
+        assertEquals(toBigDecimal(2), store1.get("count"));
+        assertEquals(toBigDecimal(20), store1.get("max(price)"));
+
+        assertEquals(toBigDecimal(1), map.get(null).get("count"));
+    }
+
+    /**
+     * 和 groupSum 以及 groupCount 结果一致.
+     */
+    @Test
+    public void testGroupAggregateSameAsGroupSum(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder().sum("price").count().build();
+        Map<Long, Map<String, BigDecimal>> map = AggregateUtil.groupAggregate(list, "storeId", aggregateSpec);
+
+        Map<Long, BigDecimal> groupSum = AggregateUtil.groupSum(list, "storeId", "price");
+        Map<Long, Integer> groupCount = AggregateUtil.groupCount(list, "storeId");
+        for (Map.Entry<Long, Map<String, BigDecimal>> entry : map.entrySet()){
+            assertEquals(groupSum.get(entry.getKey()), entry.getValue().get("sum(price)"));
+            assertEquals(groupCount.get(entry.getKey()).intValue(), entry.getValue().get("count").intValue());
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupAggregateNullIterable(){
+        assertEquals(emptyMap(), AggregateUtil.groupAggregate(null, "storeId", AggregateSpec.<OrderLine> builder().count().build()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupAggregateBlankKeyPropertyName(){
+        AggregateUtil.groupAggregate(list, " ", AggregateSpec.<OrderLine> builder().count().build());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupAggregateNullSpec(){
+        AggregateUtil.groupAggregate(list, "storeId", null);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.collections4.Predicate;
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.aggregateutiltest.entity.OrderLine;
+
+/**
+ * 并行 groupSum/groupCount 的结果(包括 key 的顺序)需要和串行完全一致.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ParallelGroupSumAndCountTest{
+
+    private static final Predicate<OrderLine> PREDICATE = new Predicate<OrderLine>(){
+
+        @Override
+        public boolean evaluate(OrderLine orderLine){
+            return null != orderLine.getQuantity() && orderLine.getQuantity() > 10;
+        }
+    };
+
+    private final List<OrderLine>             list      = buildList(200000);
+
+    @Test
+    public void testParallelGroupSum(){
+        assertSameOrderEquals(AggregateUtil.groupSum(list, "storeId", "quantity"), AggregateUtil.parallelGroupSum(list, "storeId", "quantity"));
+        assertSameOrderEquals(AggregateUtil.groupSum(list, "storeId", "price"), AggregateUtil.parallelGroupSum(list, "storeId", "price"));
+        assertSameOrderEquals(
+                        AggregateUtil.groupSum(list, "storeId", "price", PREDICATE),
+                        AggregateUtil.parallelGroupSum(list, "storeId", "price", PREDICATE));
+    }
+
+    @Test
+    public void testParallelGroupCount(){
+        assertSameOrderEquals(AggregateUtil.groupCount(list, "storeId"), AggregateUtil.parallelGroupCount(list, "storeId"));
+        assertSameOrderEquals(
+                        AggregateUtil.groupCount(list, "storeId", PREDICATE),
+                        AggregateUtil.parallelGroupCount(list, "storeId", PREDICATE));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testParallelGroupNullIterable(){
+        assertEquals(emptyMap(), AggregateUtil.parallelGroupSum(null, "storeId", "price"));
+        assertEquals(emptyMap(), AggregateUtil.parallelGroupCount(null, "storeId"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelGroupSumBlankSumPropertyName(){
+        AggregateUtil.parallelGroupSum(list, "storeId", " ");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testParallelGroupCountNullPropertyName(){
+        AggregateUtil.parallelGroupCount(list, null);
+    }
+
+    //---------------------------------------------------------------
+
+    private static <K, V> void assertSameOrderEquals(Map<K, V> expected,Map<K, V> actual){
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+    }
+
+    private static List<OrderLine> buildList(int size){
+        Random random = new Random(20181018L);
+        List<OrderLine> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            int r = random.nextInt(500);
+            list.add(
+                            new OrderLine(
+                                            0 == r ? null : (long) r,
+                                            1 == r ? null : random.nextInt(100),
+                                            toBigDecimal(random.nextInt(100000)).movePointLeft(2)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateUtil;
+
+/**
+ * 整数使用 long 累加, 结果(包括 scale)需要和全部使用 BigDecimal 累加完全一致.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class SumIntegralTest{
+
+    @Test
+    public void testSumLongOverflow(){
+        List<NumberHolder> list = toList(//
+                        new NumberHolder(Long.MAX_VALUE),
+                        new NumberHolder(Long.MAX_VALUE),
+                        new NumberHolder(1),
+                        new NumberHolder(Long.MIN_VALUE),
+                        new NumberHolder(Long.MIN_VALUE),
+                        new NumberHolder(Long.MIN_VALUE));
+
+        assertEquals(expectedSum(list), AggregateUtil.sum(list, "value"));
+        assertEquals(new BigDecimal("-9223372036854775809"), AggregateUtil.sum(list, "value"));
+    }
+
+    @Test
+    public void testSumMixed(){
+        List<NumberHolder> list = toList(//
+                        new NumberHolder(1),
+                        new NumberHolder(toBigDecimal("2.50")),
+                        new NumberHolder((short) 3),
+                        new NumberHolder(null),
+                        new NumberHolder(0.1d),
+                        new NumberHolder((byte) 4));
+
+        BigDecimal sum = AggregateUtil.sum(list, "value");
+        assertEquals(expectedSum(list), sum);
+        assertEquals(new BigDecimal("10.60"), sum);
+    }
+
+    @Test
+    public void testSumRandom(){
+        Random random = new Random(20181018L);
+        List<NumberHolder> list = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i){
+            list.add(new NumberHolder(0 == i % 3 ? random.nextInt() : random.nextLong()));
+        }
+        assertEquals(expectedSum(list), AggregateUtil.sum(list, "value"));
+    }
+
+    /**
+     * 重复的属性名称和原来一样累加多次.
+     */
+    @Test
+    public void testSumDuplicatePropertyNames(){
+        List<NumberHolder> list = toList(new NumberHolder(1), new NumberHolder(2));
+        Map<String, BigDecimal> map = AggregateUtil.sum(list, "value", "value");
+        assertEquals(1, map.size());
+        assertEquals(toBigDecimal(6), map.get("value"));
+    }
+
+    @Test
+    public void testGroupSumLongOverflow(){
+        List<NumberHolder> list = toList(//
+                        new NumberHolder("a", Long.MAX_VALUE),
+                        new NumberHolder("b", 5),
+                        new NumberHolder("a", Long.MAX_VALUE),
+                        new NumberHolder("b", null));
+
+        Map<String, BigDecimal> map = AggregateUtil.groupSum(list, "key", "value");
+        assertEquals(new BigDecimal("18446744073709551614"), map.get("a"));
+        assertEquals(toBigDecimal(5), map.get("b"));
+    }
+
+    //---------------------------------------------------------------
+
+    private static BigDecimal expectedSum(List<NumberHolder> list){
+        BigDecimal sum = BigDecimal.ZERO;
+        for (NumberHolder numberHolder : list){
+            if (null != numberHolder.getValue()){
+                sum = sum.add(toBigDecimal(numberHolder.getValue()));
+            }
+        }
+        return sum;
+    }
+
+    //---------------------------------------------------------------
+
+    public static class NumberHolder{
+
+        private final String key;
+
+        private final Number value;
+
+        public NumberHolder(Number value){
+            this(null, value);
+        }
+
+        public NumberHolder(String key, Number value){
+            this.key = key;
+            this.value = value;
+        }
+
+        public String getKey(){
+            return key;
+        }
+
+        public Number getValue(){
+            return value;
+        }
+    }
+}
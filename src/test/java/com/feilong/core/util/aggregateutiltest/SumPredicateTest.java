@@ -18,10 +18,12 @@ package com.feilong.core.util.aggregateutiltest;
 import static java.util.Collections.emptyMap;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -107,4 +109,21 @@ public class SumPredicateTest{
 
         assertEquals(true, isNullOrEmpty(map));
     }
+
+    /**
+     * 没有符合 predicate 的元素,返回可以修改的 LinkedHashMap.
+     */
+    @Test
+    public void testSumNoMatchPredicateReturnLinkedHashMap(){
+        User zhangfei = new User(100L);
+        zhangfei.setName("张飞");
+
+        Map<String, BigDecimal> map = AggregateUtil.sum(toList(zhangfei), toArray("id", "age"), BeanPredicateUtil.equalPredicate("name", "关羽"));
+
+        assertThat(map, instanceOf(LinkedHashMap.class));
+        assertEquals(true, map.isEmpty());
+
+        map.put("id", BigDecimal.ONE);
+        assertEquals(BigDecimal.ONE, map.get("id"));
+    }
 }
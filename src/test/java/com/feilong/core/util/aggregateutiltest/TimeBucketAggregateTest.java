@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateUtil.toDate;
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.apache.commons.collections4.Predicate;
+import org.junit.After;
+import org.junit.Test;
+
+import com.feilong.core.date.DateUtil;
+import com.feilong.core.date.TimeBucketUnit;
+import com.feilong.core.util.AggregateSpec;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.aggregateutiltest.entity.OrderLine;
+
+/**
+ * The Class TimeBucketAggregateTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class TimeBucketAggregateTest{
+
+    private final TimeZone        defaultTimeZone = TimeZone.getDefault();
+
+    private final Locale          defaultLocale   = Locale.getDefault();
+
+    private final List<OrderLine> list            = toList(//
+                    new OrderLine(1L, 3, toBigDecimal(5), toDate("2018-10-03 09:00:00", COMMON_DATE_AND_TIME)),
+                    new OrderLine(1L, 2, toBigDecimal(10), toDate("2018-10-01 10:00:00", COMMON_DATE_AND_TIME)),
+                    new OrderLine(2L, null, toBigDecimal(20), toDate("2018-10-01 23:59:59", COMMON_DATE_AND_TIME)),
+                    new OrderLine(2L, 1, toBigDecimal(1), null));
+
+    @After
+    public void after(){
+        TimeZone.setDefault(defaultTimeZone);
+        Locale.setDefault(defaultLocale);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testTimeBucketAggregate(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder().sum("price").avg("price", 2).count().max("price").build();
+        Map<Date, Map<String, BigDecimal>> map = AggregateUtil.timeBucketAggregate(list, "createTime", TimeBucketUnit.DAY, aggregateSpec);
+
+        //按照时间排序, 补全 10-02, createTime 是null 的不统计
+        assertThat(
+                        map.keySet(),
+                        contains(
+                                        toDate("2018-10-01 00:00:00", COMMON_DATE_AND_TIME),
+                                        toDate("2018-10-02 00:00:00", COMMON_DATE_AND_TIME),
+                                        toDate("2018-10-03 00:00:00", COMMON_DATE_AND_TIME)));
+
+        Map<String, BigDecimal> day1 = map.get(toDate("2018-10-01 00:00:00", COMMON_DATE_AND_TIME));
+        assertEquals(toBigDecimal(30), day1.get("sum(price)"));
+        assertEquals(toBigDecimal("15.00"), day1.get("avg(price)"));
+        assertEquals(toBigDecimal(2), day1.get("count"));
+        assertEquals(toBigDecimal(20), day1.get("max(price)"));
+
+        Map<String, BigDecimal> day2 = map.get(toDate("2018-10-02 00:00:00", COMMON_DATE_AND_TIME));
+        assertEquals(toBigDecimal(0), day2.get("sum(price)"));
+        assertNull(day2.get("avg(price)"));
+        assertEquals(toBigDecimal(0), day2.get("count"));
+        assertNull(day2.get("max(price)"));
+    }
+
+    @Test
+    public void testTimeBucketAggregateMonth(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder().sum("quantity").count().build();
+        Map<Date, Map<String, BigDecimal>> map = AggregateUtil.timeBucketAggregate(list, "createTime", TimeBucketUnit.MONTH, aggregateSpec);
+
+        assertThat(map.keySet(), contains(toDate("2018-10-01 00:00:00", COMMON_DATE_AND_TIME)));
+        assertEquals(toBigDecimal(5), map.get(toDate("2018-10-01 00:00:00", COMMON_DATE_AND_TIME)).get("sum(quantity)"));
+        assertEquals(toBigDecimal(3), map.get(toDate("2018-10-01 00:00:00", COMMON_DATE_AND_TIME)).get("count"));
+    }
+
+    /**
+     * 和 groupAggregate(按照 DateUtil 计算的开始时间分组) 结果一致;DateUtil 的星期依赖 Locale,所以使用周日为第一天的 Locale.
+     */
+    @Test
+    public void testTimeBucketAggregateSameAsGroupAggregate(){
+        Locale.setDefault(Locale.US);
+        for (String timeZoneId : new String[] { "Asia/Shanghai", "America/Sao_Paulo" }){
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZoneId));
+
+            Random random = new Random(20181018L);
+            List<OrderLine> orderLineList = new ArrayList<>();
+            for (int i = 0; i < 3000; ++i){
+                Date createTime = new Date(1500000000000L + (long) (random.nextDouble() * 100000000000L));
+                orderLineList.add(new OrderLine((long) random.nextInt(3), random.nextInt(10), toBigDecimal(random.nextInt(100)), createTime));
+            }
+
+            AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder().sum("price").count().min("quantity").build();
+            assertSameAsGroupAggregate(orderLineList, TimeBucketUnit.DAY, "firstDateOfThisDay", aggregateSpec);
+            assertSameAsGroupAggregate(orderLineList, TimeBucketUnit.WEEK, "firstDateOfThisWeek", aggregateSpec);
+            assertSameAsGroupAggregate(orderLineList, TimeBucketUnit.MONTH, "firstDateOfThisMonth", aggregateSpec);
+            assertSameAsGroupAggregate(orderLineList, TimeBucketUnit.YEAR, "firstDateOfThisYear", aggregateSpec);
+        }
+    }
+
+    private static void assertSameAsGroupAggregate(
+                    List<OrderLine> orderLineList,
+                    TimeBucketUnit timeBucketUnit,
+                    String bucketPropertyName,
+                    AggregateSpec<OrderLine> aggregateSpec){
+        List<BucketOrderLine> bucketOrderLineList = new ArrayList<>();
+        for (OrderLine orderLine : orderLineList){
+            bucketOrderLineList.add(new BucketOrderLine(orderLine));
+        }
+        AggregateSpec<BucketOrderLine> bucketAggregateSpec = AggregateSpec.<BucketOrderLine> builder()
+                        .sum("orderLine.price")
+                        .count()
+                        .min("orderLine.quantity")
+                        .build();
+        Map<Date, Map<String, BigDecimal>> groupAggregate = AggregateUtil
+                        .groupAggregate(bucketOrderLineList, bucketPropertyName, bucketAggregateSpec);
+        Map<Date, Map<String, BigDecimal>> map = AggregateUtil
+                        .timeBucketAggregate(orderLineList, "createTime", timeBucketUnit, aggregateSpec);
+
+        Date previous = null;
+        for (Map.Entry<Date, Map<String, BigDecimal>> entry : map.entrySet()){
+            assertTrue(null == previous || previous.before(entry.getKey()));
+            previous = entry.getKey();
+
+            Map<String, BigDecimal> expected = groupAggregate.get(entry.getKey());
+            if (null == expected){
+                assertEquals(toBigDecimal(0), entry.getValue().get("count"));
+                continue;
+            }
+            assertEquals(expected.get("sum(orderLine.price)"), entry.getValue().get("sum(price)"));
+            assertEquals(expected.get("count"), entry.getValue().get("count"));
+            assertEquals(expected.get("min(orderLine.quantity)"), entry.getValue().get("min(quantity)"));
+        }
+        assertTrue(map.keySet().containsAll(groupAggregate.keySet()));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testTimeBucketAggregateHourDaylightSaving(){
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+
+        List<OrderLine> orderLineList = toList(
+                        new OrderLine(1L, 1, toBigDecimal(1), toDate("2018-03-11 00:30:00", COMMON_DATE_AND_TIME)),
+                        new OrderLine(1L, 1, toBigDecimal(1), toDate("2018-03-11 05:30:00", COMMON_DATE_AND_TIME)));
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder().count().build();
+        Map<Date, Map<String, BigDecimal>> map = AggregateUtil.timeBucketAggregate(orderLineList, "createTime", TimeBucketUnit.HOUR, aggregateSpec);
+
+        //02:00 不存在
+        assertThat(
+                        map.keySet(),
+                        contains(
+                                        toDate("2018-03-11 00:00:00", COMMON_DATE_AND_TIME),
+                                        toDate("2018-03-11 01:00:00", COMMON_DATE_AND_TIME),
+                                        toDate("2018-03-11 03:00:00", COMMON_DATE_AND_TIME),
+                                        toDate("2018-03-11 04:00:00", COMMON_DATE_AND_TIME),
+                                        toDate("2018-03-11 05:00:00", COMMON_DATE_AND_TIME)));
+    }
+
+    @Test
+    public void testTimeBucketAggregatePredicate(){
+        AggregateSpec<OrderLine> aggregateSpec = AggregateSpec.<OrderLine> builder().count().where(new Predicate<OrderLine>(){
+
+            @Override
+            public boolean evaluate(OrderLine orderLine){
+                return 2L == orderLine.getStoreId();
+            }
+        }).build();
+        Map<Date, Map<String, BigDecimal>> map = AggregateUtil.timeBucketAggregate(list, "createTime", TimeBucketUnit.YEAR, aggregateSpec);
+        assertEquals(toBigDecimal(1), map.get(toDate("2018-01-01 00:00:00", COMMON_DATE_AND_TIME)).get("count"));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testTimeBucketAggregateNullIterable(){
+        assertEquals(
+                        emptyMap(),
+                        AggregateUtil.timeBucketAggregate(null, "createTime", TimeBucketUnit.DAY, AggregateSpec.<OrderLine> builder().count().build()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeBucketAggregateBlankDatePropertyName(){
+        AggregateUtil.timeBucketAggregate(list, " ", TimeBucketUnit.DAY, AggregateSpec.<OrderLine> builder().count().build());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testTimeBucketAggregateNullTimeBucketUnit(){
+        AggregateUtil.timeBucketAggregate(list, "createTime", null, AggregateSpec.<OrderLine> builder().count().build());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 DateUtil 计算开始时间的订单行.
+     */
+    public static class BucketOrderLine{
+
+        private final OrderLine orderLine;
+
+        public BucketOrderLine(OrderLine orderLine){
+            this.orderLine = orderLine;
+        }
+
+        public OrderLine getOrderLine(){
+            return orderLine;
+        }
+
+        public Date getFirstDateOfThisDay(){
+            return DateUtil.getFirstDateOfThisDay(orderLine.getCreateTime());
+        }
+
+        public Date getFirstDateOfThisWeek(){
+            return DateUtil.getFirstDateOfThisWeek(orderLine.getCreateTime());
+        }
+
+        public Date getFirstDateOfThisMonth(){
+            return DateUtil.getFirstDateOfThisMonth(orderLine.getCreateTime());
+        }
+
+        public Date getFirstDateOfThisYear(){
+            return DateUtil.getFirstDateOfThisYear(orderLine.getCreateTime());
+        }
+    }
+}
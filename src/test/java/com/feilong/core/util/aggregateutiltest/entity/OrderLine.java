@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * 统计测试使用的订单行.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class OrderLine{
+
+    private Long       storeId;
+
+    private Integer    quantity;
+
+    private BigDecimal price;
+
+    private Date       createTime;
+
+    public OrderLine(){
+    }
+
+    public OrderLine(Long storeId, Integer quantity, BigDecimal price){
+        this.storeId = storeId;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public OrderLine(Long storeId, Integer quantity, BigDecimal price, Date createTime){
+        this.storeId = storeId;
+        this.quantity = quantity;
+        this.price = price;
+        this.createTime = createTime;
+    }
+
+    public Long getStoreId(){
+        return storeId;
+    }
+
+    public void setStoreId(Long storeId){
+        this.storeId = storeId;
+    }
+
+    public Integer getQuantity(){
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity){
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice(){
+        return price;
+    }
+
+    public void setPrice(BigDecimal price){
+        this.price = price;
+    }
+
+    public Date getCreateTime(){
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime){
+        this.createTime = createTime;
+    }
+}
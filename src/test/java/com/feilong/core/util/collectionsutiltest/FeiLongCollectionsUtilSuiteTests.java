@@ -53,6 +53,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 GroupWithPropertyNameAndPredicateTest.class,
                 GroupWithTransformerTest.class,
                 GroupWithTransformerAndPredicateTest.class,
+                ParallelGroupTest.class,
                 GroupOneTest.class,
 
                 SelectPredicateTest.class,
@@ -62,10 +63,12 @@ import org.junit.runners.Suite.SuiteClasses;
                 SelectRejectedArrayTest.class,
                 SelectRejectedCollectionTest.class,
                 SelectRejectedPredicateTest.class,
+                PropertyIndexTest.class,
 
                 RemoveDuplicateTest.class,
                 RemoveDuplicateOnePropertyNameTest.class,
                 RemoveDuplicatePropertyNamesTest.class,
+                RemoveDuplicatePropertyNamesLargeTest.class,
                 RemoveElementTest.class,
                 RemoveAllNullTest.class,
                 RemoveAllCollectionTest.class,
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.collectionsutiltest;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.collections4.Predicate;
+import org.junit.Test;
+
+import com.feilong.core.util.CollectionsUtil;
+
+/**
+ * 并行分组的结果(key 顺序以及每组元素的顺序)需要和串行分组完全一致.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ParallelGroupTest{
+
+    private static final Predicate<Item> EVEN_PREDICATE = new Predicate<Item>(){
+
+        @Override
+        public boolean evaluate(Item item){
+            return 0 == item.getIndex() % 2;
+        }
+    };
+
+    @Test
+    public void testParallelGroup(){
+        List<Item> list = buildList(100000);
+
+        Map<String, List<Item>> expected = CollectionsUtil.group(list, "name");
+        Map<String, List<Item>> actual = CollectionsUtil.parallelGroup(list, "name");
+
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * 不是 RandomAccess 的 Iterable, 以及 predicate.
+     */
+    @Test
+    public void testParallelGroupPredicate(){
+        LinkedHashSet<Item> set = new LinkedHashSet<>(buildList(50000));
+
+        Map<String, List<Item>> expected = CollectionsUtil.group(set, "name", EVEN_PREDICATE);
+        Map<String, List<Item>> actual = CollectionsUtil.parallelGroup(set, "name", EVEN_PREDICATE);
+
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testParallelGroupSmall(){
+        List<Item> list = buildList(10);
+        assertEquals(CollectionsUtil.group(list, "name"), CollectionsUtil.parallelGroup(list, "name"));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testParallelGroupNullIterable(){
+        assertEquals(emptyMap(), CollectionsUtil.parallelGroup(null, "name"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testParallelGroupNullPropertyName(){
+        CollectionsUtil.parallelGroup(buildList(10), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelGroupBlankPropertyName(){
+        CollectionsUtil.parallelGroup(buildList(10), " ");
+    }
+
+    //---------------------------------------------------------------
+
+    private static List<Item> buildList(int size){
+        Random random = new Random(20181018L);
+        List<Item> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            int r = random.nextInt(1000);
+            list.add(new Item(i, 0 == r ? null : "name" + r));
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    public static class Item{
+
+        private final int    index;
+
+        private final String name;
+
+        public Item(int index, String name){
+            this.index = index;
+            this.name = name;
+        }
+
+        public int getIndex(){
+            return index;
+        }
+
+        public String getName(){
+            return name;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.collectionsutiltest;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.core.util.PropertyIndex;
+
+/**
+ * {@link PropertyIndex} 的查询结果需要和 {@link CollectionsUtil} 对应方法完全一致.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class PropertyIndexTest{
+
+    private final List<Item> list = toList(
+                    new Item(1L, "red", 1),
+                    new Item(2L, "blue", 2),
+                    new Item(1L, "blue", 3),
+                    new Item(3L, null, 4),
+                    new Item(2L, "red", 5),
+                    new Item(1L, "red", 6));
+
+    @Test
+    public void testFindAndIndexOf(){
+        PropertyIndex<Item> index = PropertyIndex.of(list, "storeId");
+
+        assertEquals(6, index.size());
+        for (Long storeId : toList(1L, 2L, 3L, 4L, null)){
+            assertSame(CollectionsUtil.find(list, "storeId", storeId), index.find(storeId));
+            assertEquals(CollectionsUtil.indexOf(list, "storeId", storeId), index.indexOf(storeId));
+        }
+    }
+
+    @Test
+    public void testFindNullPropertyValue(){
+        PropertyIndex<Item> index = PropertyIndex.of(list, "color");
+        assertSame(list.get(3), index.find(null));
+        assertEquals(3, index.indexOf(null));
+    }
+
+    @Test
+    public void testSelect(){
+        PropertyIndex<Item> index = PropertyIndex.of(list, "storeId");
+
+        assertEquals(CollectionsUtil.select(list, "storeId", 1L), index.select(1L));
+        assertEquals(CollectionsUtil.select(list, "storeId", 2L, 1L, 2L), index.select(2L, 1L, 2L));
+        assertEquals(CollectionsUtil.select(list, "storeId", toList(3L, 1L)), index.select(toList(3L, 1L)));
+        assertEquals(emptyList(), index.select(4L));
+        assertEquals(emptyList(), index.select());
+        assertEquals(emptyList(), index.select((Object[]) null));
+    }
+
+    @Test
+    public void testSelectRejected(){
+        PropertyIndex<Item> index = PropertyIndex.of(list, "storeId");
+
+        assertEquals(CollectionsUtil.selectRejected(list, "storeId", 1L), index.selectRejected(1L));
+        assertEquals(CollectionsUtil.selectRejected(list, "storeId", 2L, 3L), index.selectRejected(2L, 3L));
+        assertEquals(CollectionsUtil.selectRejected(list, "storeId", toList(4L)), index.selectRejected(toList(4L)));
+        assertEquals(list, index.selectRejected());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testMultiplePropertyNames(){
+        PropertyIndex<Item> index = PropertyIndex.of(list, "storeId", "color");
+
+        assertSame(list.get(0), index.find(new Object[] { 1L, "red" }));
+        assertEquals(2, index.indexOf(new Object[] { 1L, "blue" }));
+        assertSame(list.get(3), index.find(new Object[] { 3L, null }));
+        assertNull(index.find(new Object[] { 3L, "red" }));
+
+        assertEquals(toList(list.get(0), list.get(1), list.get(5)), index.select(new Object[] { 1L, "red" }, new Object[] { 2L, "blue" }));
+        assertEquals(
+                        toList(list.get(2), list.get(3), list.get(4)),
+                        index.selectRejected(new Object[] { 1L, "red" }, new Object[] { 2L, "blue" }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiplePropertyNamesNotArray(){
+        PropertyIndex.of(list, "storeId", "color").find(1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiplePropertyNamesWrongLength(){
+        PropertyIndex.of(list, "storeId", "color").find(new Object[] { 1L });
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testUnique(){
+        PropertyIndex<Item> index = PropertyIndex.unique(list, "sequence");
+        assertSame(list.get(4), index.find(5));
+        //结果是元素原来的顺序,不是查询值的顺序
+        assertEquals(toList(list.get(0), list.get(5)), index.select(6, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUniqueDuplicate(){
+        PropertyIndex.unique(list, "storeId");
+    }
+
+    @Test
+    public void testNullIterable(){
+        PropertyIndex<Item> index = PropertyIndex.of(null, "storeId");
+        assertEquals(0, index.size());
+        assertNull(index.find(1L));
+        assertEquals(-1, index.indexOf(1L));
+        assertEquals(emptyList(), index.selectRejected(1L));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullPropertyNames(){
+        PropertyIndex.of(list, (String[]) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyPropertyNames(){
+        PropertyIndex.of(list);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlankPropertyName(){
+        PropertyIndex.of(list, "storeId", " ");
+    }
+
+    //---------------------------------------------------------------
+
+    @SafeVarargs
+    private static <T> List<T> toList(T...elements){
+        return new ArrayList<>(Arrays.asList(elements));
+    }
+
+    //---------------------------------------------------------------
+
+    public static class Item{
+
+        private final Long    storeId;
+
+        private final String  color;
+
+        private final Integer sequence;
+
+        public Item(Long storeId, String color, Integer sequence){
+            this.storeId = storeId;
+            this.color = color;
+            this.sequence = sequence;
+        }
+
+        public Long getStoreId(){
+            return storeId;
+        }
+
+        public String getColor(){
+            return color;
+        }
+
+        public Integer getSequence(){
+            return sequence;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.collectionsutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.CollectionsUtil;
+
+/**
+ * 多属性去重, 包含 null 属性值以及大集合.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class RemoveDuplicatePropertyNamesLargeTest{
+
+    @Test
+    public void testRemoveDuplicateNullValue(){
+        OrderLine line1 = new OrderLine(1L, null);
+        OrderLine line2 = new OrderLine(1L, "a");
+        OrderLine line3 = new OrderLine(1L, null);
+        OrderLine line4 = new OrderLine(null, null);
+
+        assertThat(CollectionsUtil.removeDuplicate(toList(line1, line2, line3, line4), "orderId", "sku"), contains(line1, line2, line4));
+    }
+
+    /**
+     * 结果和逐个比较(第一个出现的保留)一致.
+     */
+    @Test
+    public void testRemoveDuplicateLarge(){
+        Random random = new Random(20181018L);
+        List<OrderLine> list = new ArrayList<>();
+        for (int i = 0; i < 200000; ++i){
+            list.add(new OrderLine((long) random.nextInt(300), "sku" + random.nextInt(100)));
+        }
+
+        List<OrderLine> removeDuplicate = CollectionsUtil.removeDuplicate(list, "orderId", "sku");
+
+        List<OrderLine> expected = new ArrayList<>();
+        boolean[][] exist = new boolean[300][100];
+        for (OrderLine orderLine : list){
+            int sku = Integer.parseInt(orderLine.getSku().substring(3));
+            if (!exist[orderLine.getOrderId().intValue()][sku]){
+                exist[orderLine.getOrderId().intValue()][sku] = true;
+                expected.add(orderLine);
+            }
+        }
+
+        assertEquals(expected.size(), removeDuplicate.size());
+        for (int i = 0; i < expected.size(); ++i){
+            assertSame(expected.get(i), removeDuplicate.get(i));
+        }
+        assertEquals(200000, list.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testRemoveDuplicateNullElement(){
+        CollectionsUtil.removeDuplicate(toList(new OrderLine(1L, "a"), null), "orderId", "sku");
+    }
+
+    //---------------------------------------------------------------
+
+    public static class OrderLine{
+
+        private final Long   orderId;
+
+        private final String sku;
+
+        public OrderLine(Long orderId, String sku){
+            this.orderId = orderId;
+            this.sku = sku;
+        }
+
+        public Long getOrderId(){
+            return orderId;
+        }
+
+        public String getSku(){
+            return sku;
+        }
+
+        @Override
+        public String toString(){
+            return Objects.toString(orderId) + ":" + sku;
+        }
+    }
+}
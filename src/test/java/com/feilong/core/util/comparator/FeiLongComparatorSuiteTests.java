@@ -21,6 +21,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import com.feilong.core.util.comparator.beancomparatorutiltest.FeiLongBeanComparatorUtilSuiteTests;
 import com.feilong.core.util.comparator.propertycomparator.FeiLongPropertyComparatorSuiteTests;
+import com.feilong.core.util.comparator.propertykeysortertest.FeiLongPropertyKeySorterSuiteTests;
 import com.feilong.core.util.comparator.regexgroupnumbercomparator.RegexGroupNumberComparatorTest;
 import com.feilong.core.util.comparator.sorthelpertest.FeiLongSortHelperSuiteTests;
 
@@ -37,6 +38,7 @@ import com.feilong.core.util.comparator.sorthelpertest.FeiLongSortHelperSuiteTes
                 ComparatorUtilTest.class,
 
                 FeiLongPropertyComparatorSuiteTests.class,
+                FeiLongPropertyKeySorterSuiteTests.class,
 
                 RegexGroupNumberComparatorTest.class,
         //
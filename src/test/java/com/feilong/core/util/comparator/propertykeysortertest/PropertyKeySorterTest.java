@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.comparator.propertykeysortertest;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.collections4.ComparatorUtils;
+import org.junit.Test;
+
+import com.feilong.core.bean.ConvertUtil;
+import com.feilong.core.util.comparator.BeanComparatorUtil;
+import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.core.util.comparator.PropertyKeySorter;
+
+/**
+ * The Class PropertyKeySorterTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class PropertyKeySorterTest{
+
+    @Test
+    public void testSort(){
+        Item id12_age18 = new Item(12, "18");
+        Item id1_age8 = new Item(1, "8");
+        Item id2_age30 = new Item(2, "30");
+        Item id2_age2 = new Item(2, "2");
+        Item id2_age36 = new Item(2, "36");
+        List<Item> list = ConvertUtil.toList(id12_age18, id2_age36, id2_age2, id2_age30, id1_age8);
+
+        PropertyKeySorter.sort(list, "id desc", "age");
+        assertThat(list, contains(id12_age18, id2_age2, id2_age30, id2_age36, id1_age8));
+    }
+
+    /**
+     * 和每次比较都反射取值的比较器排序结果一致.
+     */
+    @Test
+    public void testSameAsComparator(){
+        assertSameAsComparator(BeanComparatorUtil.<Item> chainedComparator("id"), "id");
+        assertSameAsComparator(BeanComparatorUtil.<Item> chainedComparator("id desc"), "id desc");
+        assertSameAsComparator(BeanComparatorUtil.<Item> chainedComparator("id", "age desc"), "id", "age desc");
+        assertSameAsComparator(BeanComparatorUtil.<Item> chainedComparator("age desc", "id"), "age desc", "id");
+    }
+
+    @Test
+    public void testSameAsPropertyComparatorWithConvert(){
+        for (int i = 0; i < 20; ++i){
+            List<Item> list = buildList(500, true);
+            List<Item> expected = new ArrayList<>(list);
+
+            PropertyComparator<Item> propertyComparator = new PropertyComparator<>("age", Integer.class);
+            Collections.sort(expected, propertyComparator);
+            PropertyKeySorter.sort(list, propertyComparator);
+            assertEquals(expected, list);
+
+            Collections.sort(expected, ComparatorUtils.reversedComparator(propertyComparator));
+            PropertyKeySorter.sort(list, propertyComparator, false);
+            assertEquals(expected, list);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSortNullList(){
+        assertEquals(emptyList(), PropertyKeySorter.sort(null, "id"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSortNullPropertyNameAndOrders(){
+        PropertyKeySorter.sort(new ArrayList<Item>(), (String[]) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortEmptyPropertyNameAndOrders(){
+        PropertyKeySorter.sort(new ArrayList<Item>());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortBlankPropertyNameAndOrder(){
+        PropertyKeySorter.sort(new ArrayList<Item>(), "id", " ");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSortNullPropertyComparator(){
+        PropertyKeySorter.sort(new ArrayList<Item>(), (PropertyComparator<Item>) null);
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertSameAsComparator(Comparator<Item> comparator,String...propertyNameAndOrders){
+        for (int i = 0; i < 20; ++i){
+            //多个属性的时候原来的比较器不支持 null 元素
+            List<Item> list = buildList(500, 1 == propertyNameAndOrders.length);
+            List<Item> expected = new ArrayList<>(list);
+
+            Collections.sort(expected, comparator);
+            PropertyKeySorter.sort(list, propertyNameAndOrders);
+            assertEquals(expected, list);
+        }
+    }
+
+    private static List<Item> buildList(int size,boolean withNullElement){
+        Random random = new Random();
+        List<Item> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            if (withNullElement && 0 == random.nextInt(50)){
+                list.add(null);
+                continue;
+            }
+            Integer id = 0 == random.nextInt(20) ? null : random.nextInt(30);
+            String age = 0 == random.nextInt(20) ? null : "" + random.nextInt(100);
+            list.add(new Item(id, age));
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    public static class Item{
+
+        private final Integer id;
+
+        private final String  age;
+
+        public Item(Integer id, String age){
+            this.id = id;
+            this.age = age;
+        }
+
+        public Integer getId(){
+            return id;
+        }
+
+        public String getAge(){
+            return age;
+        }
+    }
+}
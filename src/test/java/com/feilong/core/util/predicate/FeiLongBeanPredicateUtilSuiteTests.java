@@ -21,6 +21,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import com.feilong.core.util.predicate.beanpredicateutil.ComparatorPredicateComparatorTest;
 import com.feilong.core.util.predicate.beanpredicateutil.ComparatorPredicateTest;
+import com.feilong.core.util.predicate.beanpredicateutil.ContainsPredicateLargeTest;
 import com.feilong.core.util.predicate.beanpredicateutil.ContainsPredicateListTest;
 import com.feilong.core.util.predicate.beanpredicateutil.ContainsPredicateTest;
 import com.feilong.core.util.predicate.beanpredicateutil.EqualBeanPredicateTest;
@@ -47,7 +48,8 @@ import com.feilong.core.util.predicate.beanpredicateutil.EqualPredicateTest;
                 ComparatorPredicateComparatorTest.class,
                 ComparatorPredicateTest.class,
                 ContainsPredicateListTest.class,
-                ContainsPredicateTest.class
+                ContainsPredicateTest.class,
+                ContainsPredicateLargeTest.class
         //
 })
 public class FeiLongBeanPredicateUtilSuiteTests{
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.predicate.beanpredicateutil;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.Test;
+
+import com.feilong.core.util.predicate.BeanPredicateUtil;
+
+/**
+ * 值比较多的时候 containsPredicate 使用 hash 结构,结果需要和线性查找完全一致.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ContainsPredicateLargeTest{
+
+    @Test
+    public void testContainsPredicateLongArray(){
+        Long[] ids = buildIds(5000);
+        Predicate<Item> predicate = BeanPredicateUtil.containsPredicate("id", ids);
+
+        for (long i = -10; i < 20000; ++i){
+            Item item = new Item(i);
+            assertEquals(ArrayUtils.contains(ids, item.getId()), predicate.evaluate(item));
+        }
+        assertEquals(false, predicate.evaluate(new Item(null)));
+    }
+
+    @Test
+    public void testContainsPredicateLongList(){
+        List<Long> idList = toList(buildIds(5000));
+        Predicate<Item> predicate = BeanPredicateUtil.containsPredicate("id", idList);
+
+        for (long i = -10; i < 20000; ++i){
+            Item item = new Item(i);
+            assertEquals(idList.contains(item.getId()), predicate.evaluate(item));
+        }
+    }
+
+    /**
+     * Long.equals(Integer) 是 false,不能因为数值相同就匹配.
+     */
+    @Test
+    public void testContainsPredicateIntegerValuesLongProperty(){
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 100; ++i){
+            list.add(i);
+        }
+        Predicate<Item> predicate = BeanPredicateUtil.containsPredicate("id", list);
+        assertEquals(false, predicate.evaluate(new Item(1L)));
+    }
+
+    @Test
+    public void testContainsPredicateMixedValues(){
+        List<Object> list = new ArrayList<>();
+        for (long i = 0; i < 100; ++i){
+            list.add(i);
+        }
+        list.add(null);
+        list.add("7");
+        list.add(new BigDecimal("8"));
+
+        Predicate<Item> predicate = BeanPredicateUtil.<Item, Object> containsPredicate("id", list);
+        assertEquals(true, predicate.evaluate(new Item(0L)));
+        assertEquals(true, predicate.evaluate(new Item(99L)));
+        assertEquals(true, predicate.evaluate(new Item(null)));
+        assertEquals(false, predicate.evaluate(new Item(100L)));
+    }
+
+    /**
+     * Set 直接使用它自己的 contains, 保持 comparator 语义.
+     */
+    @Test
+    public void testContainsPredicateTreeSet(){
+        TreeSet<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < 100; ++i){
+            set.add("name" + i);
+        }
+        Predicate<Named> predicate = BeanPredicateUtil.containsPredicate("name", set);
+        assertEquals(true, predicate.evaluate(new Named("NAME1")));
+        assertEquals(false, predicate.evaluate(new Named("NAME100")));
+    }
+
+    //---------------------------------------------------------------
+
+    private static Long[] buildIds(int size){
+        Long[] ids = new Long[size];
+        for (int i = 0; i < size; ++i){
+            //包含 0 和负数
+            ids[i] = (long) i * 3 - 6;
+        }
+        return ids;
+    }
+
+    private static List<Long> toList(Long[] ids){
+        List<Long> list = new ArrayList<>(ids.length);
+        for (Long id : ids){
+            list.add(id);
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    public static class Item{
+
+        private final Long id;
+
+        public Item(Long id){
+            this.id = id;
+        }
+
+        public Long getId(){
+            return id;
+        }
+    }
+
+    public static class Named{
+
+        private final String name;
+
+        public Named(String name){
+            this.name = name;
+        }
+
+        public String getName(){
+            return name;
+        }
+    }
+}
@@ -44,6 +44,9 @@ import org.junit.runners.Suite.SuiteClasses;
                 SortMapByValueAscTest.class,
                 SortMapByValueDescTest.class,
                 SortMapComparatorTest.class,
+
+                ParallelSortArrayTest.class,
+                ParallelSortListTest.class,
         //
 })
 public class FeiLongSortUtilSuiteTests{
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.util.SortUtil.parallelSortArray;
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_STRING_ARRAY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.apache.commons.collections4.ComparatorUtils;
+import org.junit.Test;
+
+/**
+ * The Class ParallelSortArrayTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ParallelSortArrayTest{
+
+    /** 只比较 value, 用 index 检查稳定性. */
+    private static final Comparator<long[]> VALUE_COMPARATOR = new Comparator<long[]>(){
+
+        @Override
+        public int compare(long[] o1,long[] o2){
+            return Long.compare(o1[0], o2[0]);
+        }
+    };
+
+    @Test
+    public void testParallelSortArraySmall(){
+        assertArrayEquals(toArray("almn", "cba", "fba"), parallelSortArray(toArray("fba", "almn", "cba"), ComparatorUtils.<String> naturalComparator()));
+    }
+
+    /**
+     * 大数组, 大量重复值, 结果和 Arrays.sort 完全一致(稳定).
+     */
+    @Test
+    public void testParallelSortArrayLarge(){
+        Random random = new Random(20181018L);
+        for (int size : new int[] { 8191, 8192, 50000, 200001 }){
+            long[][] arrays = new long[size][];
+            for (int i = 0; i < size; ++i){
+                arrays[i] = new long[] { random.nextInt(100), i };
+            }
+            long[][] expected = arrays.clone();
+            Arrays.sort(expected, VALUE_COMPARATOR);
+
+            long[][] actual = arrays.clone();
+            parallelSortArray(actual, VALUE_COMPARATOR);
+            for (int i = 0; i < size; ++i){
+                assertSame(expected[i], actual[i]);
+            }
+        }
+    }
+
+    /**
+     * 比较器抛出的异常直接抛出.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testParallelSortArrayException(){
+        Long[] arrays = new Long[100000];
+        for (int i = 0; i < arrays.length; ++i){
+            arrays[i] = 99999L == i ? null : (long) i % 7;
+        }
+        parallelSortArray(arrays, new Comparator<Long>(){
+
+            @Override
+            public int compare(Long o1,Long o2){
+                if (null == o1 || null == o2){
+                    throw new IllegalStateException("mock exception");
+                }
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    @Test
+    public void testParallelSortArrayNullArray(){
+        String[] arrays = null;
+        assertEquals(EMPTY_STRING_ARRAY, parallelSortArray(arrays, ComparatorUtils.<String> naturalComparator()));
+    }
+
+    @Test
+    public void testParallelSortArrayNullComparators(){
+        assertArrayEquals(toArray(3, 1, 2), parallelSortArray(toArray(3, 1, 2), (Comparator<Integer>[]) null));
+    }
+
+    /**
+     * 和 Arrays.sort 一样, null comparator 使用自然顺序.
+     */
+    @Test
+    public void testParallelSortArrayNullComparator(){
+        Integer[] arrays = new Integer[20000];
+        for (int i = 0; i < arrays.length; ++i){
+            arrays[i] = arrays.length - i;
+        }
+        parallelSortArray(arrays, (Comparator<Integer>) null);
+        for (int i = 0; i < arrays.length; ++i){
+            assertEquals(Integer.valueOf(i + 1), arrays[i]);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.SortUtil.parallelSortList;
+import static com.feilong.core.util.SortUtil.sortList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.comparator.PropertyComparator;
+
+/**
+ * The Class ParallelSortListTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 2.1.0
+ */
+public class ParallelSortListTest{
+
+    @Test
+    public void testParallelSortListSmall(){
+        Member zhangfei = new Member("张飞", 23);
+        Member guanyu = new Member("关羽", 30);
+        Member liubei = new Member("刘备", 25);
+
+        List<Member> list = toList(zhangfei, guanyu, liubei);
+        assertThat(parallelSortList(list, new PropertyComparator<Member>("age")), contains(zhangfei, liubei, guanyu));
+    }
+
+    /**
+     * 大集合, 包含 null 元素和 null 属性值, 多个比较器, 结果和 sortList 完全一致.
+     */
+    @Test
+    public void testParallelSortListLarge(){
+        Random random = new Random(20181018L);
+        List<Member> list = new ArrayList<>();
+        for (int i = 0; i < 30000; ++i){
+            int r = random.nextInt(50);
+            list.add(0 == r ? null : new Member(1 == r ? null : "name" + random.nextInt(20), random.nextInt(60)));
+        }
+
+        List<Member> expected = new ArrayList<>(list);
+        sortList(expected, new PropertyComparator<Member>("name"), new PropertyComparator<Member>("age"));
+
+        //LinkedList 也需要支持
+        List<Member> actual = new LinkedList<>(list);
+        parallelSortList(actual, new PropertyComparator<Member>("name"), new PropertyComparator<Member>("age"));
+
+        assertEquals(expected.size(), actual.size());
+        int i = 0;
+        for (Member member : actual){
+            assertSame(expected.get(i++), member);
+        }
+    }
+
+    @Test
+    public void testParallelSortListNullList(){
+        assertEquals(emptyList(), parallelSortList((List<Member>) null, new PropertyComparator<Member>("age")));
+    }
+
+    @Test
+    public void testParallelSortListEmptyList(){
+        assertEquals(emptyList(), parallelSortList(new ArrayList<Member>(), new PropertyComparator<Member>("age")));
+    }
+
+    @Test
+    public void testParallelSortListNullComparators(){
+        List<Member> list = toList(new Member("张飞", 23), new Member("关羽", 30), new Member("刘备", 25));
+        assertEquals(list, parallelSortList(list, (Comparator<Member>[]) null));
+    }
+
+    //---------------------------------------------------------------
+
+    public static class Member{
+
+        private final String  name;
+
+        private final Integer age;
+
+        public Member(String name, Integer age){
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        public Integer getAge(){
+            return age;
+        }
+    }
+}